@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2009 Emweb bv, Herent, Belgium.
+ *
+ * See the LICENSE file for terms of use.
+ */
+package eu.webtoolkit.jwt;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The progress of a task broadcast to all sessions.
+ * <p>
+ * For every session the task was posted to, it is counted as either delivered
+ * (the task ran), skipped (the session ended before the task could run), or
+ * failed (the task threw an exception).
+ * <p>
+ * A task is run when the session's lock becomes available. The broadcast
+ * therefore only completes once every session that was busy has finished the
+ * work it was doing.
+ *
+ * @see WtServlet#broadcast(Runnable)
+ */
+public class BroadcastResult {
+	private final int sessions;
+	private final AtomicInteger delivered = new AtomicInteger();
+	private final AtomicInteger skipped = new AtomicInteger();
+	private final AtomicInteger failed = new AtomicInteger();
+	private final CountDownLatch done;
+
+	BroadcastResult(int sessions) {
+		this.sessions = sessions;
+		this.done = new CountDownLatch(sessions);
+	}
+
+	/**
+	 * Returns the number of sessions the task was posted to.
+	 */
+	public int getSessionCount() {
+		return sessions;
+	}
+
+	/**
+	 * Returns the number of sessions in which the task has run.
+	 */
+	public int getDelivered() {
+		return delivered.get();
+	}
+
+	/**
+	 * Returns the number of sessions that ended before the task could run.
+	 */
+	public int getSkipped() {
+		return skipped.get();
+	}
+
+	/**
+	 * Returns the number of sessions in which the task threw an exception.
+	 */
+	public int getFailed() {
+		return failed.get();
+	}
+
+	/**
+	 * Returns whether the task has been handled for all sessions.
+	 */
+	public boolean isDone() {
+		return done.getCount() == 0;
+	}
+
+	/**
+	 * Waits until the task has been handled for all sessions.
+	 *
+	 * @throws InterruptedException
+	 */
+	public void await() throws InterruptedException {
+		done.await();
+	}
+
+	/**
+	 * Waits until the task has been handled for all sessions, or until the
+	 * timeout expires.
+	 *
+	 * @return whether the broadcast completed within the timeout
+	 * @throws InterruptedException
+	 */
+	public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+		return done.await(timeout, unit);
+	}
+
+	void delivered() {
+		delivered.incrementAndGet();
+		done.countDown();
+	}
+
+	void skipped() {
+		skipped.incrementAndGet();
+		done.countDown();
+	}
+
+	void failed() {
+		failed.incrementAndGet();
+		done.countDown();
+	}
+
+	@Override
+	public String toString() {
+		return "delivered: " + getDelivered() + ", skipped: " + getSkipped() + ", failed: " + getFailed()
+				+ " (of " + sessions + ")";
+	}
+}
@@ -7,11 +7,14 @@ package eu.webtoolkit.jwt;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.net.Inet4Address;
@@ -27,6 +30,8 @@ import org.w3c.dom.Document;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
+import eu.webtoolkit.jwt.servlet.ContentEncoding;
+
 /**
  * JWt application configuration class.
  * <p>
@@ -175,6 +180,7 @@ public class Configuration {
 	private int indicatorTimeout = 500;
 	private int doubleClickTimeout = 200;
 	private int bootstrapTimeout = 10;
+	private int bootStyleTimeout = 5000;
 	private int serverPushTimeout = 50;
 	private String uaCompatible = "";
 	private List<MetaHeader> metaHeaders = new ArrayList<MetaHeader>();
@@ -188,9 +194,22 @@ public class Configuration {
 	private List<Network> trustedProxies = Collections.emptyList();
 	private boolean webSocketsEnabled = false;
 	private long asyncContextTimeout = 90000;
+	private List<ContentEncoding> responseEncodings = Collections.emptyList();
+	private int compressionThreshold = 1024;
+	private Collection<String> compressibleMimeTypes = new HashSet<String>(Arrays.asList(
+			"text/html", "text/css", "text/plain", "text/xml", "text/javascript",
+			"application/javascript", "application/json", "application/xml",
+			"application/xhtml+xml", "image/svg+xml"));
 
 	private Collection<String> allowedOrigins_ = Collections.<String>emptySet();
 
+	private File uploadSpoolDirectory = null;
+	private long maxSpoolSize = 0;
+	private long maxSessionSpoolSize = 0;
+	private final AtomicLong uploadedBytes = new AtomicLong();
+	private final AtomicLong uploadedFiles = new AtomicLong();
+	private final AtomicLong uploadTime = new AtomicLong();
+
 	/**
 	 * Creates a default configuration.
 	 */
@@ -285,6 +304,11 @@ public class Configuration {
 						} else if (node.getAttributes().getNamedItem("type").getTextContent().trim().equals("bot")) {
 							parseUserAgents(errorMessage, node, botList);
 						}
+					} else if (node.getNodeName().equalsIgnoreCase("response-compression")) {
+						if (parseBoolean(errorMessage, node))
+							setResponseEncodings(Arrays.asList(ContentEncoding.GZIP, ContentEncoding.DEFLATE));
+						else
+							setResponseEncodings(Collections.<ContentEncoding>emptyList());
 					} else if (node.getNodeName().equalsIgnoreCase("allowed-origins")) {
 						String origins = node.getTextContent().trim();
 						for (String origin : origins.split(",")) {
@@ -824,6 +848,32 @@ public class Configuration {
 		return bootstrapTimeout;
 	}
 
+	/**
+	 * Sets the boot style timeout.
+	 * <p>
+	 * While a session boots, the browser requests the application's style sheet
+	 * in parallel with the application's script. This is the maximum time that
+	 * the style sheet request waits for the application to be created, and that
+	 * the script response waits for the style sheet to be served.
+	 * <p>
+	 * The default value is 5000 milliseconds.
+	 * 
+	 * @param timeout the timeout in milliseconds.
+	 */
+	public void setBootStyleTimeout(int timeout) {
+		this.bootStyleTimeout = timeout;
+	}
+
+	/**
+	 * Returns the boot style timeout.
+	 * 
+	 * @return the timeout in milliseconds.
+	 * @see #setBootStyleTimeout(int)
+	 */
+	public int getBootStyleTimeout() {
+		return bootStyleTimeout;
+	}
+
 	/**
 	 * Returns the error reporting mode.
 	 */
@@ -1104,4 +1154,197 @@ public class Configuration {
 	public void setAsyncContextTimeout(long asyncContextTimeout) {
 		this.asyncContextTimeout = asyncContextTimeout;
 	}
+
+	/**
+	 * Sets the content codings used to compress responses.
+	 * <p>
+	 * Response compression is negotiated with the browser using the
+	 * Accept-Encoding header: the first of the given encodings that is accepted
+	 * is used. It applies to JavaScript updates, the main page and script, and
+	 * resources, provided the body is at least {@link #getCompressionThreshold()}
+	 * bytes and its mime type is compressible (see
+	 * {@link #setCompressibleMimeTypes(Collection)}).
+	 * <p>
+	 * The default is an empty list (no compression). Use for example
+	 * <code>Arrays.asList(ContentEncoding.GZIP, ContentEncoding.DEFLATE)</code>
+	 * to enable compression.
+	 *
+	 * @see #getResponseEncodings()
+	 */
+	public void setResponseEncodings(List<ContentEncoding> encodings) {
+		this.responseEncodings = encodings;
+	}
+
+	/**
+	 * Returns the content codings used to compress responses.
+	 *
+	 * @see #setResponseEncodings(List)
+	 */
+	public List<ContentEncoding> getResponseEncodings() {
+		return responseEncodings;
+	}
+
+	/**
+	 * Sets the minimum size of a response body for it to be compressed.
+	 * <p>
+	 * Smaller responses are sent uncompressed. The default is 1024 bytes.
+	 *
+	 * @see #setResponseEncodings(List)
+	 */
+	public void setCompressionThreshold(int bytes) {
+		this.compressionThreshold = bytes;
+	}
+
+	/**
+	 * Returns the minimum size of a response body for it to be compressed.
+	 *
+	 * @see #setCompressionThreshold(int)
+	 */
+	public int getCompressionThreshold() {
+		return compressionThreshold;
+	}
+
+	/**
+	 * Sets the mime types of responses that may be compressed.
+	 * <p>
+	 * The default contains the common text formats (HTML, CSS, JavaScript, JSON,
+	 * XML, SVG). Already compressed formats, such as images, should not be
+	 * listed.
+	 *
+	 * @see #setResponseEncodings(List)
+	 */
+	public void setCompressibleMimeTypes(Collection<String> mimeTypes) {
+		this.compressibleMimeTypes = mimeTypes;
+	}
+
+	/**
+	 * Returns the mime types of responses that may be compressed.
+	 *
+	 * @see #setCompressibleMimeTypes(Collection)
+	 */
+	public Collection<String> getCompressibleMimeTypes() {
+		return compressibleMimeTypes;
+	}
+
+	/**
+	 * Returns whether a response with the given content type may be compressed.
+	 * <p>
+	 * Parameters, such as the charset, are ignored.
+	 *
+	 * @see #setCompressibleMimeTypes(Collection)
+	 */
+	public boolean isCompressible(String contentType) {
+		if (contentType == null)
+			return false;
+
+		int semicolon = contentType.indexOf(';');
+		if (semicolon != -1)
+			contentType = contentType.substring(0, semicolon);
+
+		return compressibleMimeTypes.contains(contentType.trim().toLowerCase(Locale.ROOT));
+	}
+
+	/**
+	 * Sets the directory in which uploaded files are spooled.
+	 * <p>
+	 * Every uploaded file is written once, while the request is parsed, to a
+	 * spool file in this directory. Choosing a directory on the same file system
+	 * as the final location of uploads allows to move a file that is
+	 * {@link eu.webtoolkit.jwt.servlet.UploadedFile#stealSpoolFile()
+	 * stolen} without copying it.
+	 * <p>
+	 * The default is <code>null</code>, which uses the system's temporary
+	 * directory.
+	 */
+	public void setUploadSpoolDirectory(File directory) {
+		this.uploadSpoolDirectory = directory;
+	}
+
+	/**
+	 * Returns the directory in which uploaded files are spooled.
+	 *
+	 * @see #setUploadSpoolDirectory(File)
+	 */
+	public File getUploadSpoolDirectory() {
+		return uploadSpoolDirectory;
+	}
+
+	/**
+	 * Sets the maximum size of all spool files, in bytes.
+	 * <p>
+	 * An upload that would exceed this size is rejected. The default is 0, which
+	 * does not limit the size.
+	 *
+	 * @see eu.webtoolkit.jwt.servlet.SpoolFiles#getTotalSize()
+	 */
+	public void setMaxSpoolSize(long bytes) {
+		this.maxSpoolSize = bytes;
+	}
+
+	/**
+	 * Returns the maximum size of all spool files.
+	 *
+	 * @see #setMaxSpoolSize(long)
+	 */
+	public long getMaxSpoolSize() {
+		return maxSpoolSize;
+	}
+
+	/**
+	 * Sets the maximum size of the spool files of a session, in bytes.
+	 * <p>
+	 * Uploaded files that would exceed this size are deleted and discarded from
+	 * the request. The default is 0, which does not limit the size.
+	 */
+	public void setMaxSessionSpoolSize(long bytes) {
+		this.maxSessionSpoolSize = bytes;
+	}
+
+	/**
+	 * Returns the maximum size of the spool files of a session.
+	 *
+	 * @see #setMaxSessionSpoolSize(long)
+	 */
+	public long getMaxSessionSpoolSize() {
+		return maxSessionSpoolSize;
+	}
+
+	/**
+	 * Returns the total number of bytes of uploaded files.
+	 */
+	public long getUploadedBytes() {
+		return uploadedBytes.get();
+	}
+
+	/**
+	 * Returns the number of uploaded files.
+	 */
+	public long getUploadedFileCount() {
+		return uploadedFiles.get();
+	}
+
+	/**
+	 * Returns the average upload throughput, in bytes per second.
+	 * <p>
+	 * This is the total size of uploaded files, divided by the time spent
+	 * receiving and spooling them.
+	 */
+	public double getUploadThroughput() {
+		long time = uploadTime.get();
+		return time == 0 ? 0 : uploadedBytes.get() * 1E9 / time;
+	}
+
+	/**
+	 * Records an uploaded file.
+	 * <p>
+	 * This is used internally by JWt to keep the upload metrics.
+	 *
+	 * @param bytes the size of the file
+	 * @param nanos the time it took to receive and spool the file
+	 */
+	public void recordUpload(long bytes, long nanos) {
+		uploadedBytes.addAndGet(bytes);
+		uploadedFiles.incrementAndGet();
+		uploadTime.addAndGet(nanos);
+	}
 }
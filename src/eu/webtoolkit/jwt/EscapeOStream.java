@@ -6,7 +6,6 @@
 package eu.webtoolkit.jwt;
 
 import java.io.IOException;
-import java.util.ArrayList;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,29 +22,24 @@ public class EscapeOStream {
 	}
 
 	public EscapeOStream(Appendable sink) {
+		this(sink, Rules.NONE);
+	}
+
+	private EscapeOStream(Appendable sink, Rules rules) {
 		sink_ = sink;
-		mixed_ = null;
-		special_ = "";
-		ruleSets_ = new ArrayList<RuleSet>();
+		rules_ = rules;
 	}
 
-	@SuppressWarnings("unchecked")
 	public EscapeOStream push() {
-		EscapeOStream result = new EscapeOStream(sink_);
-
-		result.ruleSets_ = (ArrayList<RuleSet>) ruleSets_.clone();
-
-		return result;
+		return new EscapeOStream(sink_, rules_);
 	}
 
 	public void pushEscape(RuleSet rules) {
-		ruleSets_.add(rules);
-		mixRules();
+		rules_ = rules_.push(rules);
 	}
 
 	public void popEscape() {
-		ruleSets_.remove(ruleSets_.size() - 1);
-		mixRules();
+		rules_ = rules_.parent;
 	}
 
 
@@ -55,16 +49,11 @@ public class EscapeOStream {
 
 	public EscapeOStream append(char c) {
 		try {
-			if (special_ == "")
+			String[] table = rules_.table;
+			if (c < 128 && table != null && table[c] != null)
+				sink_.append(table[c]);
+			else
 				sink_.append(c);
-			else {
-				int i = special_.indexOf(c);
-
-				if (i != -1)
-					sink_.append(mixed_.get(i).s);
-				else
-					sink_.append(c);
-			}
 		} catch (IOException e) {
 			logger.info("append({})", c, e);
 		}
@@ -79,11 +68,11 @@ public class EscapeOStream {
 
 	public EscapeOStream append(String s, EscapeOStream rules) {
 		try {
-			if (rules.special_ == null) {
+			String[] table = rules.rules_.table;
+			if (table == null)
 				sink_.append(s);
-				return this;
-			} else
-				put(s, rules);
+			else
+				put(s, table);
 		} catch (IOException e) {
 			logger.info("append({})", s, e);
 		}
@@ -113,86 +102,99 @@ public class EscapeOStream {
 
 
 	public boolean isEmpty() {
-		return sink_.toString().length() == 0;
+		if (sink_ instanceof CharSequence)
+			return ((CharSequence) sink_).length() == 0;
+		else
+			return sink_.toString().length() == 0;
 	}
 
 	public void flush() {
 	}
 
 	private Appendable sink_ = null;
-
-	private static class Entry {
-		public Entry(char c_, String s_) {
-			c = c_;
-			s = s_;
+	private Rules rules_;
+
+	/*
+	 * A stack of rule sets, mixed into a lookup table with the escaped form of
+	 * every ASCII character (or null when it is not escaped). None of the rule
+	 * sets escapes characters outside ASCII.
+	 *
+	 * The stacks form a tree which is shared by all streams, so that each
+	 * combination of rule sets is mixed only once, and pushing or popping a
+	 * rule set only follows a reference.
+	 */
+	private static final class Rules {
+		static final Rules NONE = new Rules(null, null);
+
+		final Rules parent;
+		final String[] table;
+
+		/*
+		 * Children are created lazily without locking: since all fields of a
+		 * Rules are final, a racing thread sees either null, and mixes an
+		 * identical table itself, or a fully initialized child.
+		 */
+		private final Rules[] children = new Rules[RuleSet.values().length];
+
+		private Rules(Rules parent, String[] table) {
+			this.parent = parent;
+			this.table = table;
 		}
 
-		public Entry clone() {
-			return new Entry(c, s);
+		Rules push(RuleSet rules) {
+			Rules result = children[rules.ordinal()];
+			if (result == null) {
+				result = new Rules(this, mix(standardTables_[rules.ordinal()], table));
+				children[rules.ordinal()] = result;
+			}
+			return result;
 		}
 
-		public char c;
-		public String s = "";
-	}
-
-	private ArrayList<Entry> mixed_;
-	private String special_;
-
-	private void mixRules() {
-		int ruleSetsSize = ruleSets_.size();
-
-		if (ruleSetsSize == 0) {
-			mixed_ = null;
-			special_ = "";
-		} else if (ruleSetsSize == 1) {
-			mixed_ = standardSets_.get(ruleSets_.get(0).ordinal());
-			special_ = standardSetsSpecial_.get(ruleSets_.get(0).ordinal());
-		} else {
-			mixed_ = new ArrayList<Entry>();
-			for (int i = ruleSetsSize - 1; i >= 0; --i) {
-				ArrayList<Entry> toMix = standardSets_.get(ruleSets_.get(i).ordinal());
-
-				for (int j = 0; j < mixed_.size(); ++j)
-					for (int k = 0; k < toMix.size(); ++k)
-						mixed_.get(j).s = mixed_.get(j).s.replace(toMix.get(k).c + "", toMix.get(k).s);
-
-				for (int j = 0; j < toMix.size(); ++j) {
-					mixed_.add((Entry) toMix.get(j).clone());
-					special_ += toMix.get(j).c;
+		/*
+		 * Characters are escaped by the inner rule set first, and the result
+		 * is then escaped by the outer rule sets.
+		 */
+		private static String[] mix(String[] inner, String[] outer) {
+			if (outer == null)
+				return inner;
+
+			String[] result = new String[128];
+			for (char c = 0; c < 128; ++c) {
+				String s = inner[c] != null ? inner[c] : String.valueOf(c);
+				StringBuilder escaped = new StringBuilder();
+				for (int i = 0; i < s.length(); ++i) {
+					char d = s.charAt(i);
+					if (d < 128 && outer[d] != null)
+						escaped.append(outer[d]);
+					else
+						escaped.append(d);
 				}
+				if (escaped.length() != 1 || escaped.charAt(0) != c)
+					result[c] = escaped.toString();
 			}
+
+			return result;
 		}
 	}
 
-	private void put(String s, EscapeOStream rules) {
-		try {
-			char [] sA = s.toCharArray();
-			char [] specialA = rules.special_.toCharArray();
-
-			for (int pos = 0; pos != -1;) {
-				int lastPos = pos;
-				pos = StringUtils.strpbrk(sA, pos, specialA);
-				if (pos != -1) {
-					char f = sA[pos];
-
-					sink_.append(s.substring(lastPos, pos));
-
-					for (int i = 0; i < rules.mixed_.size(); ++i) {
-						if (rules.mixed_.get(i).c == f) {
-							sink_.append(rules.mixed_.get(i).s);
-							break;
-						}
-					}
-
-					pos = pos + 1;
+	private void put(String s, String[] table) throws IOException {
+		int length = s.length();
+		int lastPos = 0;
 
-				} else {
-					sink_.append(s.substring(lastPos));
-				}
+		for (int pos = 0; pos < length; ++pos) {
+			char c = s.charAt(pos);
+			if (c < 128 && table[c] != null) {
+				if (pos > lastPos)
+					sink_.append(s, lastPos, pos);
+				sink_.append(table[c]);
+				lastPos = pos + 1;
 			}
-		} catch (IOException e) {
-			logger.info("put({})", s, e);
 		}
+
+		if (lastPos == 0)
+			sink_.append(s);
+		else if (lastPos < length)
+			sink_.append(s, lastPos, length);
 	}
 	
 	public void clear() {
@@ -203,50 +205,39 @@ public class EscapeOStream {
 		return sink_.toString();
 	}
 
-	private ArrayList<RuleSet> ruleSets_ = new ArrayList<RuleSet>();
+	private static final String[][] standardTables_ = new String[RuleSet.values().length][];
+
+	private static void addStandardEscape(RuleSet rules, char c, String s) {
+		String[] table = standardTables_[rules.ordinal()];
+		if (table == null)
+			table = standardTables_[rules.ordinal()] = new String[128];
+		table[c] = s;
+	}
 
-	private static ArrayList<String> standardSetsSpecial_ = new ArrayList<String>();
-	private static ArrayList<Entry> htmlAttributeEntries_ = new ArrayList<Entry>();
-	private static ArrayList<Entry> jsStringLiteralSQuoteEntries_ = new ArrayList<Entry>();
-	private static ArrayList<Entry> jsStringLiteralDQuoteEntries_ = new ArrayList<Entry>();
-	private static ArrayList<ArrayList<Entry>> standardSets_ = new ArrayList<ArrayList<Entry>>();
-	private static ArrayList<Entry> plainTextEntries_ = new ArrayList<Entry>();
-	private static ArrayList<Entry> plainTextEntriesNewLines_ = new ArrayList<Entry>(); 
-	
 	static {
-		standardSetsSpecial_.add("&\"<");
-		standardSetsSpecial_.add("\\\n\r\t'");
-		standardSetsSpecial_.add("\\\n\r\t\"");
-		standardSetsSpecial_.add("&><");
-		standardSetsSpecial_.add("&><\n");
-
-		htmlAttributeEntries_.add(new Entry('&', "&amp;"));
-		htmlAttributeEntries_.add(new Entry('\"', "&#34;"));
-		htmlAttributeEntries_.add(new Entry('<', "&lt;"));
-		
-		plainTextEntries_.add(new Entry('&', "&amp;"));
-		plainTextEntries_.add(new Entry('>', "&gt;"));
-		plainTextEntries_.add(new Entry('<', "&lt;"));
-		
-		plainTextEntriesNewLines_.addAll(plainTextEntries_);
-		plainTextEntriesNewLines_.add(new Entry('\n', "<br />"));
-
-		jsStringLiteralSQuoteEntries_.add(new Entry('\\', "\\\\"));
-		jsStringLiteralSQuoteEntries_.add(new Entry('\n', "\\n"));
-		jsStringLiteralSQuoteEntries_.add(new Entry('\r', "\\r"));
-		jsStringLiteralSQuoteEntries_.add(new Entry('\t', "\\t"));
-		jsStringLiteralSQuoteEntries_.add(new Entry('\'', "\\'"));
-
-		jsStringLiteralDQuoteEntries_.add(new Entry('\\', "\\\\"));
-		jsStringLiteralDQuoteEntries_.add(new Entry('\n', "\\n"));
-		jsStringLiteralDQuoteEntries_.add(new Entry('\r', "\\r"));
-		jsStringLiteralDQuoteEntries_.add(new Entry('\t', "\\t"));
-		jsStringLiteralDQuoteEntries_.add(new Entry('"', "\\\""));
-
-		standardSets_.add(htmlAttributeEntries_);
-		standardSets_.add(jsStringLiteralSQuoteEntries_);
-		standardSets_.add(jsStringLiteralDQuoteEntries_);
-		standardSets_.add(plainTextEntries_);
-		standardSets_.add(plainTextEntriesNewLines_);
+		addStandardEscape(RuleSet.HtmlAttribute, '&', "&amp;");
+		addStandardEscape(RuleSet.HtmlAttribute, '\"', "&#34;");
+		addStandardEscape(RuleSet.HtmlAttribute, '<', "&lt;");
+
+		addStandardEscape(RuleSet.Plain, '&', "&amp;");
+		addStandardEscape(RuleSet.Plain, '>', "&gt;");
+		addStandardEscape(RuleSet.Plain, '<', "&lt;");
+
+		addStandardEscape(RuleSet.PlainTextNewLines, '&', "&amp;");
+		addStandardEscape(RuleSet.PlainTextNewLines, '>', "&gt;");
+		addStandardEscape(RuleSet.PlainTextNewLines, '<', "&lt;");
+		addStandardEscape(RuleSet.PlainTextNewLines, '\n', "<br />");
+
+		addStandardEscape(RuleSet.JsStringLiteralSQuote, '\\', "\\\\");
+		addStandardEscape(RuleSet.JsStringLiteralSQuote, '\n', "\\n");
+		addStandardEscape(RuleSet.JsStringLiteralSQuote, '\r', "\\r");
+		addStandardEscape(RuleSet.JsStringLiteralSQuote, '\t', "\\t");
+		addStandardEscape(RuleSet.JsStringLiteralSQuote, '\'', "\\'");
+
+		addStandardEscape(RuleSet.JsStringLiteralDQuote, '\\', "\\\\");
+		addStandardEscape(RuleSet.JsStringLiteralDQuote, '\n', "\\n");
+		addStandardEscape(RuleSet.JsStringLiteralDQuote, '\r', "\\r");
+		addStandardEscape(RuleSet.JsStringLiteralDQuote, '\t', "\\t");
+		addStandardEscape(RuleSet.JsStringLiteralDQuote, '"', "\\\"");
 	}
 }
@@ -6,12 +6,187 @@
 package eu.webtoolkit.jwt;
 
 import java.io.IOException;
-import java.io.Writer;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 class FileServe {
+	/*
+	 * A skeleton template, compiled into a flat list of segments: literal
+	 * text, variable slots and conditional markers.
+	 *
+	 * Templates are immutable and may be shared between sessions. The
+	 * skeletons are parsed only once, see compile(), and specialize() folds
+	 * in the variables and conditions that do not change between sessions.
+	 */
+	static final class Template {
+		static final byte LITERAL = 0;
+		static final byte VAR = 1;
+		static final byte IF = 2;
+		static final byte IFNOT = 3;
+		static final byte ENDIF = 4;
+
+		private static final Map<String, Template> compiled_ = new ConcurrentHashMap<String, Template>();
+
+		private final byte[] kinds_;
+		private final String[] texts_;
+
+		private Template(List<Byte> kinds, List<String> texts) {
+			this.kinds_ = new byte[kinds.size()];
+			for (int i = 0; i < kinds_.length; ++i)
+				this.kinds_[i] = kinds.get(i);
+			this.texts_ = texts.toArray(new String[texts.size()]);
+		}
+
+		/*
+		 * Returns the compiled form of a template, parsing it only the first
+		 * time it is seen.
+		 */
+		static Template compile(String contents) {
+			Template result = compiled_.get(contents);
+			if (result == null) {
+				result = parse(contents);
+				compiled_.put(contents, result);
+			}
+			return result;
+		}
+
+		private static Template parse(String template) {
+			List<Byte> kinds = new ArrayList<Byte>();
+			List<String> texts = new ArrayList<String>();
+
+			int start = 0;
+			for (;;) {
+				int open = template.indexOf("_$_", start);
+				if (open == -1)
+					break;
+				int close = template.indexOf("_$_", open + 3);
+				if (close == -1) {
+					addLiteral(kinds, texts, template.substring(start, open));
+					start = template.length();
+					break;
+				}
+
+				addLiteral(kinds, texts, template.substring(start, open));
+
+				String var = template.substring(open + 3, close);
+				start = close + 3;
+
+				if (var.length() > 0 && var.charAt(0) == '$') {
+					int _pos = var.indexOf('_');
+					String fname = _pos == -1 ? var.substring(1) : var.substring(1, _pos);
+
+					start += 2; // skip ()
+
+					if (fname.equals("endif")) {
+						kinds.add(ENDIF);
+						texts.add(null);
+					} else {
+						kinds.add(fname.equals("ifnot") ? IFNOT : IF);
+						texts.add(var.substring(_pos + 1));
+					}
+				} else {
+					kinds.add(VAR);
+					texts.add(var);
+				}
+			}
+
+			addLiteral(kinds, texts, template.substring(Math.min(start, template.length())));
+
+			return new Template(kinds, texts);
+		}
+
+		/*
+		 * Returns a template in which the given variables have been
+		 * substituted and the given conditions have been resolved. Variables
+		 * and conditions which are not given are kept, to be set on the
+		 * FileServe which streams the result.
+		 */
+		Template specialize(Map<String, String> vars, Map<String, Boolean> conditions) {
+			List<Byte> kinds = new ArrayList<Byte>();
+			List<String> texts = new ArrayList<String>();
+
+			/*
+			 * For every open condition: whether its markers are kept in the
+			 * result (the condition is not resolved here).
+			 */
+			List<Boolean> kept = new ArrayList<Boolean>();
+			int noMatchConditions = 0;
+
+			for (int i = 0; i < kinds_.length; ++i) {
+				byte kind = kinds_[i];
+				String text = texts_[i];
+
+				switch (kind) {
+				case LITERAL:
+					if (noMatchConditions == 0)
+						addLiteral(kinds, texts, text);
+					break;
+				case VAR:
+					if (noMatchConditions == 0) {
+						String v = vars.get(text);
+						if (v != null)
+							addLiteral(kinds, texts, v);
+						else {
+							kinds.add(VAR);
+							texts.add(text);
+						}
+					}
+					break;
+				case IF:
+				case IFNOT:
+					if (noMatchConditions > 0) {
+						++noMatchConditions;
+						kept.add(false);
+					} else {
+						Boolean c = conditions.get(text);
+						if (c == null) {
+							kinds.add(kind);
+							texts.add(text);
+							kept.add(true);
+						} else {
+							if (c != (kind == IF))
+								++noMatchConditions;
+							kept.add(false);
+						}
+					}
+					break;
+				case ENDIF:
+					if (noMatchConditions > 0)
+						--noMatchConditions;
+					if (!kept.isEmpty() && kept.remove(kept.size() - 1)) {
+						kinds.add(ENDIF);
+						texts.add(null);
+					}
+					break;
+				}
+			}
+
+			return new Template(kinds, texts);
+		}
+
+		private static void addLiteral(List<Byte> kinds, List<String> texts, String text) {
+			if (text.length() == 0)
+				return;
+
+			int last = kinds.size() - 1;
+			if (last >= 0 && kinds.get(last) == LITERAL)
+				texts.set(last, texts.get(last) + text);
+			else {
+				kinds.add(LITERAL);
+				texts.add(text);
+			}
+		}
+	}
+
 	public FileServe(String contents) {
-		this.template_ = contents;
+		this(Template.compile(contents));
+	}
+
+	FileServe(Template template) {
+		this.template_ = template;
 		this.currentPos_ = 0;
 		this.vars_ = new HashMap<String, String>();
 		this.conditions_ = new HashMap<String, Boolean>();
@@ -42,78 +217,52 @@ class FileServe {
 	}
 
 	public void streamUntil(StringBuilder out, String until) throws IOException {
-		String currentVar = "";
-		boolean readingVar = false;
-		int start = currentPos_;
 		int noMatchConditions = 0;
 
-		for (; currentPos_ < template_.length(); ++currentPos_) {
-			if (readingVar) {
-				if (template_.startsWith("_$_", currentPos_)) {
-					if (currentVar.charAt(0) == '$') {
-						int _pos = currentVar.indexOf('_');
-						String fname = _pos == -1 ? currentVar.substring(1) : currentVar.substring(1, _pos);
-
-						currentPos_ += 2; // skip ()
-						
-						if (fname.equals("endif")) {
-							if (noMatchConditions > 0)
-								--noMatchConditions;
-						} else {
-							String farg = currentVar.substring(_pos + 1);
+		for (; currentPos_ < template_.kinds_.length; ++currentPos_) {
+			String text = template_.texts_[currentPos_];
 
-							Boolean i = conditions_.get(farg);
+			switch (template_.kinds_[currentPos_]) {
+			case Template.LITERAL:
+				if (noMatchConditions == 0)
+					out.append(text);
+				break;
+			case Template.VAR:
+				if (text.equals(until)) {
+					++this.currentPos_;
+					return;
+				}
 
-							if (i == null)
-								throw new WtException("Internal error: could not find condition: " + farg);
+				String v = vars_.get(text);
+				if (v == null)
+					throw new WtException("Internal error: could not find variable: " + text);
 
-							boolean c = i;
-							if (fname.equals("if"))
-								;
-							else if (fname.equals("ifnot"))
-								c = !c;
+				if (noMatchConditions == 0)
+					out.append(v);
+				break;
+			case Template.IF:
+			case Template.IFNOT:
+				Boolean i = conditions_.get(text);
 
-							if (!c || noMatchConditions > 0)
-								++noMatchConditions;
-						}
-					} else {
-						if (currentVar.equals(until)) {
-							this.currentPos_ += 3;
-							return;
-						}
+				if (i == null)
+					throw new WtException("Internal error: could not find condition: " + text);
 
-						String v = vars_.get(currentVar);
-						if (v == null) {
-							throw new WtException("Internal error: could not find variable: " + currentVar);
-						}
+				boolean c = i;
+				if (template_.kinds_[currentPos_] == Template.IFNOT)
+					c = !c;
 
-						if (noMatchConditions == 0)
-							out.append(v);					
-					}
-
-					readingVar = false;
-					start = this.currentPos_ + 3;
-					this.currentPos_ += 2;
-				} else {
-					currentVar += template_.charAt(currentPos_);
-				}
-			} else {
-				if (template_.startsWith("_$_", currentPos_)) {
-					if (noMatchConditions == 0 && (currentPos_ - start > 0)) {
-						out.append(this.template_.substring(start, this.currentPos_));
-					}
-					this.currentPos_ += 2;
-					readingVar = true;
-					currentVar = "";
-				}
+				if (!c || noMatchConditions > 0)
+					++noMatchConditions;
+				break;
+			case Template.ENDIF:
+				if (noMatchConditions > 0)
+					--noMatchConditions;
+				break;
 			}
 		}
-		if (noMatchConditions == 0 && (currentPos_ - start > 0)) {
-			out.append(this.template_.substring(start, this.currentPos_));
-		}
 	}
 
-	private final String template_;
+	private final Template template_;
 	private int currentPos_;
 	private HashMap<String, String> vars_;
 	private HashMap<String, Boolean> conditions_;
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2009 Emweb bv, Herent, Belgium.
+ *
+ * See the LICENSE file for terms of use.
+ */
+package eu.webtoolkit.jwt;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+/**
+ * A process-wide cache of decoded images.
+ * <p>
+ * Images are keyed by their path and modification time, so that an image
+ * which is drawn many times (e.g. a logo on every page of a report) is decoded
+ * only once, while a changed file is read again.
+ * <p>
+ * The cache is bounded by the size of the decoded pixels: the least recently
+ * used images are evicted first. The cached images are shared, and must not be
+ * modified.
+ */
+final class ImageCache {
+	private static long maxSize = 64L * 1024 * 1024;
+	private static long size = 0;
+	private static final Map<String, BufferedImage> images = new LinkedHashMap<String, BufferedImage>(16, 0.75f, true);
+
+	private ImageCache() {
+	}
+
+	/**
+	 * Returns the decoded image file.
+	 */
+	static BufferedImage read(File file) throws IOException {
+		long lastModified = file.lastModified();
+		if (lastModified == 0)
+			return ImageIO.read(file);
+
+		String key = file.getPath() + ':' + lastModified + ':' + file.length();
+		synchronized (images) {
+			BufferedImage image = images.get(key);
+			if (image != null)
+				return image;
+		}
+
+		BufferedImage image = ImageIO.read(file);
+		if (image == null)
+			return null;
+
+		long imageSize = sizeOf(image);
+		if (imageSize <= maxSize) {
+			synchronized (images) {
+				BufferedImage cached = images.get(key);
+				if (cached != null)
+					return cached;
+				images.put(key, image);
+				size += imageSize;
+				evict();
+			}
+		}
+		return image;
+	}
+
+	/**
+	 * Sets the maximum size of the cache, in bytes.
+	 * <p>
+	 * The default is 64 MB.
+	 */
+	static void setMaxSize(long bytes) {
+		synchronized (images) {
+			maxSize = bytes;
+			evict();
+		}
+	}
+
+	static void clear() {
+		synchronized (images) {
+			images.clear();
+			size = 0;
+		}
+	}
+
+	static long getSize() {
+		synchronized (images) {
+			return size;
+		}
+	}
+
+	private static void evict() {
+		for (Iterator<BufferedImage> i = images.values().iterator(); size > maxSize && i.hasNext();) {
+			size -= sizeOf(i.next());
+			i.remove();
+		}
+	}
+
+	private static long sizeOf(BufferedImage image) {
+		int bits = image.getColorModel().getPixelSize();
+		return (long) image.getWidth() * image.getHeight() * Math.max(1, (bits + 7) / 8);
+	}
+}
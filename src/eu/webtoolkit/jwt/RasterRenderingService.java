@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2009 Emweb bv, Herent, Belgium.
+ *
+ * See the LICENSE file for terms of use.
+ */
+package eu.webtoolkit.jwt;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.imageio.ImageIO;
+
+/**
+ * The service that backs server-side raster rendering.
+ * <p>
+ * A {@link WRasterPaintDevice} paints on an image that is taken from a pool of
+ * recycled images, and encodes the result as PNG on a bounded pool of worker
+ * threads. The encoding thus happens outside of the session lock: a request
+ * for the image waits for the encoding to finish, without holding the lock.
+ * <p>
+ * Images are pooled by size class (both dimensions rounded up to a multiple of
+ * {@value #SIZE_CLASS} pixels), and the pool holds at most
+ * {@link #setMaxPoolSize(long) maxPoolSize} bytes of images. When all encoder
+ * threads are busy and the queue is full, an image is encoded in the calling
+ * thread.
+ * <p>
+ * This class also provides metrics on the encoding of images.
+ */
+public final class RasterRenderingService {
+	static final int SIZE_CLASS = 64;
+
+	private static final int QUEUE_SIZE = 256;
+
+	private static final Map<Long, List<BufferedImage>> pool = new HashMap<Long, List<BufferedImage>>();
+	private static long poolSize = 0;
+	private static long maxPoolSize = 64L * 1024 * 1024;
+
+	private static final AtomicLong encodeCount = new AtomicLong();
+	private static final AtomicLong encodeTime = new AtomicLong();
+	private static final AtomicLong maxEncodeTime = new AtomicLong();
+
+	private static final ThreadPoolExecutor encoder = createEncoder();
+
+	private RasterRenderingService() {
+	}
+
+	/**
+	 * Returns the number of images waiting to be encoded.
+	 */
+	public static int getQueueDepth() {
+		return encoder.getQueue().size();
+	}
+
+	/**
+	 * Returns the number of images that have been encoded.
+	 */
+	public static long getEncodedImageCount() {
+		return encodeCount.get();
+	}
+
+	/**
+	 * Returns the average time to encode an image, in milliseconds.
+	 */
+	public static double getAverageEncodeTime() {
+		long count = encodeCount.get();
+		return count == 0 ? 0 : encodeTime.get() / 1E6 / count;
+	}
+
+	/**
+	 * Returns the longest time to encode an image, in milliseconds.
+	 */
+	public static double getMaxEncodeTime() {
+		return maxEncodeTime.get() / 1E6;
+	}
+
+	/**
+	 * Sets the maximum size of the image pool, in bytes.
+	 * <p>
+	 * The default is 64 MB. A size of 0 disables pooling.
+	 */
+	public static void setMaxPoolSize(long bytes) {
+		synchronized (pool) {
+			maxPoolSize = bytes;
+			if (poolSize > maxPoolSize) {
+				pool.clear();
+				poolSize = 0;
+			}
+		}
+	}
+
+	/**
+	 * Returns the size of the images in the pool, in bytes.
+	 */
+	public static long getPoolSize() {
+		synchronized (pool) {
+			return poolSize;
+		}
+	}
+
+	/**
+	 * Returns an image of at least the given size.
+	 * <p>
+	 * The image is taken from the pool if possible, and is not cleared.
+	 */
+	static BufferedImage acquire(int width, int height) {
+		int classWidth = sizeClass(width);
+		int classHeight = sizeClass(height);
+		synchronized (pool) {
+			List<BufferedImage> images = pool.get(key(classWidth, classHeight));
+			if (images != null && !images.isEmpty()) {
+				BufferedImage result = images.remove(images.size() - 1);
+				poolSize -= sizeOf(result);
+				return result;
+			}
+		}
+		return new BufferedImage(classWidth, classHeight, BufferedImage.TYPE_INT_ARGB);
+	}
+
+	/**
+	 * Returns an image, obtained with {@link #acquire(int, int)}, to the pool.
+	 */
+	static void release(BufferedImage image) {
+		long size = sizeOf(image);
+		synchronized (pool) {
+			if (poolSize + size > maxPoolSize)
+				return;
+			Long key = key(image.getWidth(), image.getHeight());
+			List<BufferedImage> images = pool.get(key);
+			if (images == null) {
+				images = new ArrayList<BufferedImage>();
+				pool.put(key, images);
+			}
+			images.add(image);
+			poolSize += size;
+		}
+	}
+
+	/**
+	 * Encodes an image as PNG.
+	 * <p>
+	 * The region (0, 0, <i>width</i>, <i>height</i>) of the image is encoded,
+	 * after which the image is released to the pool.
+	 */
+	static Future<byte[]> encode(final BufferedImage image, final int width, final int height) {
+		return encoder.submit(new Callable<byte[]>() {
+			public byte[] call() throws IOException {
+				long start = System.nanoTime();
+				try {
+					ByteArrayOutputStream out = new ByteArrayOutputStream();
+					ImageIO.write(image.getSubimage(0, 0, width, height), "png", out);
+					return out.toByteArray();
+				} finally {
+					release(image);
+					long time = System.nanoTime() - start;
+					encodeCount.incrementAndGet();
+					encodeTime.addAndGet(time);
+					maxEncodeTime.accumulateAndGet(time, Math::max);
+				}
+			}
+		});
+	}
+
+	static int sizeClass(int size) {
+		return Math.max(SIZE_CLASS, (size + SIZE_CLASS - 1) / SIZE_CLASS * SIZE_CLASS);
+	}
+
+	private static Long key(int width, int height) {
+		return ((long) width << 32) | height;
+	}
+
+	private static long sizeOf(BufferedImage image) {
+		return 4L * image.getWidth() * image.getHeight();
+	}
+
+	private static ThreadPoolExecutor createEncoder() {
+		final AtomicInteger threadId = new AtomicInteger();
+		int threads = Runtime.getRuntime().availableProcessors();
+		ThreadPoolExecutor result = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<Runnable>(QUEUE_SIZE), new ThreadFactory() {
+					public Thread newThread(Runnable r) {
+						Thread t = new Thread(r, "jwt-png-encoder-" + threadId.incrementAndGet());
+						t.setDaemon(true);
+						return t;
+					}
+				}, new ThreadPoolExecutor.CallerRunsPolicy());
+		result.allowCoreThreadTimeOut(true);
+		return result;
+	}
+}
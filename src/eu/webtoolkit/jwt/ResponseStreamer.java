@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2009 Emweb bv, Herent, Belgium.
+ *
+ * See the LICENSE file for terms of use.
+ */
+package eu.webtoolkit.jwt;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import eu.webtoolkit.jwt.servlet.WebRequest;
+import eu.webtoolkit.jwt.servlet.WebResponse;
+
+/*
+ * Writes the data of a WResource.DataProducer to a response.
+ *
+ * When the request can be handled asynchronously, the data is written with
+ * non-blocking I/O: a chunk is pulled from the producer only when the
+ * container is ready to accept more output, so that no thread waits for a
+ * slow client. Otherwise, the data is written in the calling thread.
+ */
+class ResponseStreamer implements WriteListener {
+	private static final Logger logger = LoggerFactory.getLogger(ResponseStreamer.class);
+
+	private static final int COPY_SIZE = 64 * 1024;
+
+	private final WResource.DataProducer producer;
+	private final AsyncContext asyncContext;
+	private final ServletOutputStream out;
+	private final AtomicBoolean closed = new AtomicBoolean();
+	private ByteBuffer buffer;
+	private byte[] copy;
+
+	private ResponseStreamer(WResource.DataProducer producer, AsyncContext asyncContext, ServletOutputStream out) {
+		this.producer = producer;
+		this.asyncContext = asyncContext;
+		this.out = out;
+	}
+
+	static void stream(WebRequest request, WebResponse response, WResource.DataProducer producer) throws IOException {
+		if (!request.isAsyncStarted() && request.isAsyncSupported())
+			request.startAsync();
+
+		if (!request.isAsyncStarted()) {
+			try {
+				ResponseStreamer streamer = new ResponseStreamer(producer, null, null);
+				OutputStream out = response.getOutputStream();
+				for (ByteBuffer b = producer.next(); b != null; b = producer.next()) {
+					while (b.hasRemaining())
+						streamer.write(b, out);
+				}
+			} finally {
+				producer.close();
+			}
+			return;
+		}
+
+		response.out().flush();
+		response.detach();
+
+		AsyncContext asyncContext = request.getAsyncContext();
+		asyncContext.setTimeout(0);
+		ServletOutputStream out = response.getResponse().getOutputStream();
+		out.setWriteListener(new ResponseStreamer(producer, asyncContext, out));
+	}
+
+	public void onWritePossible() throws IOException {
+		try {
+			while (out.isReady()) {
+				if (buffer == null || !buffer.hasRemaining()) {
+					buffer = producer.next();
+					if (buffer == null) {
+						complete();
+						return;
+					}
+				} else
+					write(buffer, out);
+			}
+		} catch (IOException | RuntimeException e) {
+			onError(e);
+		}
+	}
+
+	public void onError(Throwable t) {
+		logger.info("Error streaming resource", t);
+		complete();
+	}
+
+	/*
+	 * Writes (part of) a buffer. In non-blocking mode, a single write is always
+	 * accepted, but the next one may only be done when the stream is ready.
+	 */
+	private void write(ByteBuffer b, OutputStream o) throws IOException {
+		if (b.hasArray()) {
+			o.write(b.array(), b.arrayOffset() + b.position(), b.remaining());
+			b.position(b.limit());
+		} else {
+			if (copy == null)
+				copy = new byte[COPY_SIZE];
+			int n = Math.min(copy.length, b.remaining());
+			b.get(copy, 0, n);
+			o.write(copy, 0, n);
+		}
+	}
+
+	private void complete() {
+		if (!closed.compareAndSet(false, true))
+			return;
+
+		try {
+			producer.close();
+		} finally {
+			try {
+				asyncContext.complete();
+			} catch (IllegalStateException e) {
+				logger.info("Could not complete streamed response", e);
+			}
+		}
+	}
+}
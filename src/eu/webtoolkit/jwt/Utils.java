@@ -386,6 +386,18 @@ public class Utils {
 		return Integer.parseInt(s, 16);
 	}
 
+	/**
+	 * Encodes bytes as a lower-case hexadecimal string.
+	 */
+	public static String hexEncode(byte[] bytes) {
+		StringBuilder result = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes) {
+			result.append(Character.forDigit((b >> 4) & 0xF, 16));
+			result.append(Character.forDigit(b & 0xF, 16));
+		}
+		return result.toString();
+	}
+
   /**
    * Converts the long value to a byte array containing the hexstring.
    * <p>
@@ -2893,21 +2893,27 @@ public class WApplication extends WObject {
   void addExposedSignal(AbstractEventSignal signal) {
     String s = signal.encodeCmd();
     this.exposedSignals_.put(s, signal);
-    logger.debug(new StringWriter().append("addExposedSignal: ").append(s).toString());
+    if (logger.isDebugEnabled()) {
+      logger.debug(new StringWriter().append("addExposedSignal: ").append(s).toString());
+    }
   }
 
   void removeExposedSignal(AbstractEventSignal signal) {
     String s = signal.encodeCmd();
     if (this.exposedSignals_.remove(s) != null) {
       this.justRemovedSignals_.add(s);
-      logger.debug(new StringWriter().append("removeExposedSignal: ").append(s).toString());
+      if (logger.isDebugEnabled()) {
+        logger.debug(new StringWriter().append("removeExposedSignal: ").append(s).toString());
+      }
     } else {
-      logger.debug(
-          new StringWriter()
-              .append("removeExposedSignal of non-exposed ")
-              .append(s)
-              .append("??")
-              .toString());
+      if (logger.isDebugEnabled()) {
+        logger.debug(
+            new StringWriter()
+                .append("removeExposedSignal of non-exposed ")
+                .append(s)
+                .append("??")
+                .toString());
+      }
     }
   }
 
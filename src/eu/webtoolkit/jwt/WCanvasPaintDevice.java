@@ -888,57 +888,58 @@ public class WCanvasPaintDevice extends WObject implements WPaintDevice {
   private void drawPlainPath(final StringWriter out, final WPainterPath path) {
     char[] buf = new char[30];
     out.append("ctx.beginPath();");
-    final List<WPainterPath.Segment> segments = path.getSegments();
-    if (segments.size() > 0 && segments.get(0).getType() != SegmentType.MoveTo) {
+    int count = path.getSegmentCount();
+    if (count > 0 && path.getSegmentType(0) != SegmentType.MoveTo) {
       out.append("ctx.moveTo(0,0);");
     }
-    for (int i = 0; i < segments.size(); ++i) {
-      final WPainterPath.Segment s = segments.get(i);
-      switch (s.getType()) {
+    for (int i = 0; i < count; ++i) {
+      final double x = path.getSegmentX(i);
+      final double y = path.getSegmentY(i);
+      switch (path.getSegmentType(i)) {
         case MoveTo:
           out.append("ctx.moveTo(")
-              .append(MathUtils.roundJs(s.getX() + this.pathTranslation_.getX(), 3));
+              .append(MathUtils.roundJs(x + this.pathTranslation_.getX(), 3));
           out.append(',')
-              .append(MathUtils.roundJs(s.getY() + this.pathTranslation_.getY(), 3))
+              .append(MathUtils.roundJs(y + this.pathTranslation_.getY(), 3))
               .append(");");
           break;
         case LineTo:
           out.append("ctx.lineTo(")
-              .append(MathUtils.roundJs(s.getX() + this.pathTranslation_.getX(), 3));
+              .append(MathUtils.roundJs(x + this.pathTranslation_.getX(), 3));
           out.append(',')
-              .append(MathUtils.roundJs(s.getY() + this.pathTranslation_.getY(), 3))
+              .append(MathUtils.roundJs(y + this.pathTranslation_.getY(), 3))
               .append(");");
           break;
         case CubicC1:
           out.append("ctx.bezierCurveTo(")
-              .append(MathUtils.roundJs(s.getX() + this.pathTranslation_.getX(), 3));
-          out.append(',').append(MathUtils.roundJs(s.getY() + this.pathTranslation_.getY(), 3));
+              .append(MathUtils.roundJs(x + this.pathTranslation_.getX(), 3));
+          out.append(',').append(MathUtils.roundJs(y + this.pathTranslation_.getY(), 3));
           break;
         case CubicC2:
           out.append(',')
-              .append(MathUtils.roundJs(s.getX() + this.pathTranslation_.getX(), 3))
+              .append(MathUtils.roundJs(x + this.pathTranslation_.getX(), 3))
               .append(',');
-          out.append(MathUtils.roundJs(s.getY() + this.pathTranslation_.getY(), 3));
+          out.append(MathUtils.roundJs(y + this.pathTranslation_.getY(), 3));
           break;
         case CubicEnd:
           out.append(',')
-              .append(MathUtils.roundJs(s.getX() + this.pathTranslation_.getX(), 3))
+              .append(MathUtils.roundJs(x + this.pathTranslation_.getX(), 3))
               .append(',');
-          out.append(MathUtils.roundJs(s.getY() + this.pathTranslation_.getY(), 3)).append(");");
+          out.append(MathUtils.roundJs(y + this.pathTranslation_.getY(), 3)).append(");");
           break;
         case ArcC:
           out.append("ctx.arc(")
-              .append(MathUtils.roundJs(s.getX() + this.pathTranslation_.getX(), 3))
+              .append(MathUtils.roundJs(x + this.pathTranslation_.getX(), 3))
               .append(',');
-          out.append(MathUtils.roundJs(s.getY() + this.pathTranslation_.getY(), 3));
+          out.append(MathUtils.roundJs(y + this.pathTranslation_.getY(), 3));
           break;
         case ArcR:
-          out.append(',').append(MathUtils.roundJs(Math.max(0.0, s.getX()), 3));
+          out.append(',').append(MathUtils.roundJs(Math.max(0.0, x), 3));
           break;
         case ArcAngleSweep:
           {
-            final double startAngle = s.getX();
-            final double spanAngle = s.getY();
+            final double startAngle = x;
+            final double spanAngle = y;
             final double rStartAngle = WTransform.degreesToRadians(adjustPositive360(-startAngle));
             double rEndAngle;
             if (spanAngle >= 360.0 || spanAngle <= -360.0) {
@@ -956,8 +957,8 @@ public class WCanvasPaintDevice extends WObject implements WPaintDevice {
           break;
         case QuadC:
           {
-            final double cpx = s.getX();
-            final double cpy = s.getY();
+            final double cpx = x;
+            final double cpy = y;
             out.append("ctx.quadraticCurveTo(")
                 .append(MathUtils.roundJs(cpx + this.pathTranslation_.getX(), 3))
                 .append(',');
@@ -966,9 +967,9 @@ public class WCanvasPaintDevice extends WObject implements WPaintDevice {
           }
         case QuadEnd:
           out.append(',')
-              .append(MathUtils.roundJs(s.getX() + this.pathTranslation_.getX(), 3))
+              .append(MathUtils.roundJs(x + this.pathTranslation_.getX(), 3))
               .append(',');
-          out.append(MathUtils.roundJs(s.getY() + this.pathTranslation_.getY(), 3)).append(");");
+          out.append(MathUtils.roundJs(y + this.pathTranslation_.getY(), 3)).append(");");
       }
     }
   }
@@ -23,6 +23,8 @@ import org.slf4j.LoggerFactory;
 class WClientGLWidget extends WAbstractGLImplementation {
   private static Logger logger = LoggerFactory.getLogger(WClientGLWidget.class);
 
+  private static final int BINARY_BUFFER_THRESHOLD = 4096;
+
   public WClientGLWidget(WGLWidget glInterface) {
     super(glInterface);
     this.js_ = new StringWriter();
@@ -39,7 +41,7 @@ class WClientGLWidget extends WAbstractGLImplementation {
     this.canvas_ = 0;
     this.currentlyBoundBuffer_ = new WGLWidget.Buffer();
     this.currentlyBoundTexture_ = new WGLWidget.Texture();
-    this.binaryResources_ = new ArrayList<WResource>();
+    this.bufferResource_ = null;
     this.preloadImages_ = new ArrayList<WClientGLWidget.PreloadImage>();
     this.preloadArrayBuffers_ = new ArrayList<WClientGLWidget.PreloadArrayBuffer>();
   }
@@ -368,17 +370,8 @@ class WClientGLWidget extends WAbstractGLImplementation {
       final java.nio.ByteBuffer v,
       WGLWidget.GLenum usage,
       boolean binary) {
-    if (binary) {
-      WMemoryResource res = new WMemoryResource("application/octet");
-      WMemoryResource resPtr = res;
-      res.setData(v.array());
-      this.binaryResources_.add(res);
-      this.preloadArrayBuffers_.add(
-          new WClientGLWidget.PreloadArrayBuffer(
-              this.currentlyBoundBuffer_.getJsRef(), resPtr.getUrl()));
-      this.js_.append("ctx.bufferData(").append("ctx." + target.toString()).append(",");
-      this.js_.append(this.currentlyBoundBuffer_.getJsRef()).append(".data, ");
-      this.js_.append("ctx." + usage.toString()).append(");");
+    if (binary || v.capacity() >= BINARY_BUFFER_THRESHOLD) {
+      this.bufferDataBinary(target, toBytes(v), usage);
     } else {
       this.bufferDatafv(target, ((java.nio.ByteBuffer) v.rewind()).asFloatBuffer(), usage);
     }
@@ -408,12 +401,10 @@ class WClientGLWidget extends WAbstractGLImplementation {
   public void bufferSubDatafv(
       WGLWidget.GLenum target, int offset, final java.nio.ByteBuffer buffer, boolean binary) {
     if (binary) {
-      WMemoryResource res = new WMemoryResource("application/octet");
-      res.setData(buffer.array());
       this.preloadArrayBuffers_.add(
           new WClientGLWidget.PreloadArrayBuffer(
-              this.currentlyBoundBuffer_.getJsRef(), res.getUrl()));
-      this.binaryResources_.add(res);
+              this.currentlyBoundBuffer_.getJsRef(),
+              this.getBufferResource().addBuffer(buffer.array())));
       this.js_.append("ctx.bufferSubData(").append("ctx." + target.toString()).append(",");
       this.js_.append(String.valueOf(offset)).append(",");
       this.js_.append(this.currentlyBoundBuffer_.getJsRef()).append(".data);");
@@ -449,9 +440,13 @@ class WClientGLWidget extends WAbstractGLImplementation {
       final java.nio.IntBuffer buffer,
       WGLWidget.GLenum usage,
       WGLWidget.GLenum type) {
-    this.js_.append("ctx.bufferData(").append("ctx." + target.toString()).append(",");
-    renderiv(this.js_, buffer, type);
-    this.js_.append(",").append("ctx." + usage.toString()).append(");");
+    if (buffer.capacity() * typeSize(type) >= BINARY_BUFFER_THRESHOLD) {
+      this.bufferDataBinary(target, toBytes(buffer, type), usage);
+    } else {
+      this.js_.append("ctx.bufferData(").append("ctx." + target.toString()).append(",");
+      renderiv(this.js_, buffer, type);
+      this.js_.append(",").append("ctx." + usage.toString()).append(");");
+    }
     do {
       if (this.debugging_) {
         this.js_
@@ -485,7 +480,25 @@ class WClientGLWidget extends WAbstractGLImplementation {
   }
 
   public void clearBinaryResources() {
-    this.binaryResources_.clear();
+    if (this.bufferResource_ != null) {
+      this.bufferResource_.clear();
+    }
+  }
+
+  private void bufferDataBinary(WGLWidget.GLenum target, byte[] data, WGLWidget.GLenum usage) {
+    this.preloadArrayBuffers_.add(
+        new WClientGLWidget.PreloadArrayBuffer(
+            this.currentlyBoundBuffer_.getJsRef(), this.getBufferResource().addBuffer(data)));
+    this.js_.append("ctx.bufferData(").append("ctx." + target.toString()).append(",");
+    this.js_.append(this.currentlyBoundBuffer_.getJsRef()).append(".data, ");
+    this.js_.append("ctx." + usage.toString()).append(");");
+  }
+
+  private WGLBufferResource getBufferResource() {
+    if (this.bufferResource_ == null) {
+      this.bufferResource_ = new WGLBufferResource();
+    }
+    return this.bufferResource_;
   }
 
   public void clear(EnumSet<WGLWidget.GLenum> mask) {
@@ -2683,7 +2696,7 @@ class WClientGLWidget extends WAbstractGLImplementation {
   private int canvas_;
   private WGLWidget.Buffer currentlyBoundBuffer_;
   private WGLWidget.Texture currentlyBoundTexture_;
-  private List<WResource> binaryResources_;
+  private WGLBufferResource bufferResource_;
 
   static class PreloadImage {
     private static Logger logger = LoggerFactory.getLogger(PreloadImage.class);
@@ -3311,6 +3324,52 @@ class WClientGLWidget extends WAbstractGLImplementation {
     return "BAD_GL_ENUM";
   }
   // private WResource (WRasterPaintDevice  rpd) ;
+  private static int typeSize(WGLWidget.GLenum type) {
+    switch (type) {
+      case BYTE:
+      case UNSIGNED_BYTE:
+        return 1;
+      case SHORT:
+      case UNSIGNED_SHORT:
+        return 2;
+      default:
+        return 4;
+    }
+  }
+
+  static byte[] toBytes(final java.nio.ByteBuffer v) {
+    if (v.hasArray()
+        && v.order() == java.nio.ByteOrder.LITTLE_ENDIAN
+        && v.arrayOffset() == 0
+        && v.array().length == v.capacity()) {
+      return v.array();
+    }
+    java.nio.FloatBuffer floats = v.duplicate().order(v.order()).clear().asFloatBuffer();
+    java.nio.ByteBuffer result =
+        java.nio.ByteBuffer.allocate(floats.capacity() * 4).order(java.nio.ByteOrder.LITTLE_ENDIAN);
+    result.asFloatBuffer().put(floats);
+    return result.array();
+  }
+
+  private static byte[] toBytes(final java.nio.IntBuffer a, WGLWidget.GLenum type) {
+    java.nio.ByteBuffer result =
+        java.nio.ByteBuffer.allocate(a.capacity() * typeSize(type))
+            .order(java.nio.ByteOrder.LITTLE_ENDIAN);
+    for (int i = 0; i < a.capacity(); i++) {
+      switch (typeSize(type)) {
+        case 1:
+          result.put((byte) a.get(i));
+          break;
+        case 2:
+          result.putShort((short) a.get(i));
+          break;
+        default:
+          result.putInt(a.get(i));
+      }
+    }
+    return result.array();
+  }
+
   private static void renderiv(final Writer os, final java.nio.IntBuffer a, WGLWidget.GLenum type) {
     try {
       switch (type) {
@@ -0,0 +1,434 @@
+/*
+ * Copyright (C) 2009 Emweb bv, Herent, Belgium.
+ *
+ * See the LICENSE file for terms of use.
+ */
+package eu.webtoolkit.jwt;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import eu.webtoolkit.jwt.utils.CollectionUtils;
+
+/**
+ * A read-only table model for large datasets, stored column by column.
+ * <p>
+ * Unlike {@link WStandardItemModel}, which stores an item for every cell, this
+ * model reads its data from typed column arrays: numbers are kept in a
+ * <code>double[]</code> or <code>long[]</code>, and strings are
+ * dictionary-encoded, so that each cell costs only a few bytes.
+ * <p>
+ * The data is held in a {@link Dataset}, which is immutable and may be shared
+ * by the models of many sessions. Each model only stores its own sort order
+ * and filter, as a permutation and a set of rows.
+ * <p>
+ * For {@link ItemDataRole#Display}, a cell returns its value as a
+ * {@link Double}, {@link Long} or {@link String}. The column names are
+ * returned as horizontal header data.
+ *
+ * @see Dataset
+ */
+public class WColumnarTableModel extends WAbstractTableModel {
+	/**
+	 * A column of a {@link Dataset}.
+	 * <p>
+	 * A column does not copy the array it is created from: the array must not
+	 * be modified afterwards.
+	 */
+	public static abstract class Column {
+		private final String name;
+
+		private Column(String name) {
+			this.name = name;
+		}
+
+		/**
+		 * Creates a column of floating point numbers.
+		 */
+		public static Column ofDoubles(String name, double[] values) {
+			return new DoubleColumn(name, values);
+		}
+
+		/**
+		 * Creates a column of integer numbers.
+		 */
+		public static Column ofLongs(String name, long[] values) {
+			return new LongColumn(name, values);
+		}
+
+		/**
+		 * Creates a column of strings.
+		 * <p>
+		 * The strings are dictionary-encoded: every distinct value is stored
+		 * only once.
+		 */
+		public static Column ofStrings(String name, String[] values) {
+			return new StringColumn(name, values);
+		}
+
+		/**
+		 * Returns the column name.
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Returns the number of rows.
+		 */
+		public abstract int getRowCount();
+
+		/**
+		 * Returns the value in a row.
+		 */
+		public abstract Object getValue(int row);
+
+		/**
+		 * Returns the rows whose value matches a predicate.
+		 * <p>
+		 * The result may be used as a filter, see
+		 * {@link WColumnarTableModel#setFilter(BitSet)}.
+		 */
+		public BitSet select(Predicate<Object> predicate) {
+			BitSet result = new BitSet(getRowCount());
+			for (int i = 0; i < getRowCount(); ++i)
+				if (predicate.test(getValue(i)))
+					result.set(i);
+			return result;
+		}
+
+		abstract int compare(int row1, int row2);
+	}
+
+	private static final class DoubleColumn extends Column {
+		private final double[] values;
+
+		DoubleColumn(String name, double[] values) {
+			super(name);
+			this.values = values;
+		}
+
+		@Override
+		public int getRowCount() {
+			return values.length;
+		}
+
+		@Override
+		public Object getValue(int row) {
+			return values[row];
+		}
+
+		@Override
+		int compare(int row1, int row2) {
+			return Double.compare(values[row1], values[row2]);
+		}
+	}
+
+	private static final class LongColumn extends Column {
+		private final long[] values;
+
+		LongColumn(String name, long[] values) {
+			super(name);
+			this.values = values;
+		}
+
+		@Override
+		public int getRowCount() {
+			return values.length;
+		}
+
+		@Override
+		public Object getValue(int row) {
+			return values[row];
+		}
+
+		@Override
+		int compare(int row1, int row2) {
+			return Long.compare(values[row1], values[row2]);
+		}
+	}
+
+	private static final class StringColumn extends Column {
+		private final String[] dictionary;
+		private final int[] codes;
+
+		/*
+		 * The position of every dictionary entry in sort order (null first),
+		 * so that rows can be compared by their codes.
+		 */
+		private final int[] ranks;
+
+		StringColumn(String name, String[] values) {
+			super(name);
+
+			Map<String, Integer> codeMap = new HashMap<String, Integer>();
+			List<String> dictionary = new ArrayList<String>();
+			this.codes = new int[values.length];
+			for (int i = 0; i < values.length; ++i) {
+				Integer code = codeMap.get(values[i]);
+				if (code == null) {
+					code = dictionary.size();
+					codeMap.put(values[i], code);
+					dictionary.add(values[i]);
+				}
+				this.codes[i] = code;
+			}
+			this.dictionary = dictionary.toArray(new String[dictionary.size()]);
+
+			Integer[] order = new Integer[this.dictionary.length];
+			for (int i = 0; i < order.length; ++i)
+				order[i] = i;
+			Arrays.sort(order, (a, b) -> {
+				String s1 = this.dictionary[a], s2 = this.dictionary[b];
+				if (s1 == null || s2 == null)
+					return s1 == null ? (s2 == null ? 0 : -1) : 1;
+				return s1.compareTo(s2);
+			});
+			this.ranks = new int[order.length];
+			for (int i = 0; i < order.length; ++i)
+				this.ranks[order[i]] = i;
+		}
+
+		@Override
+		public int getRowCount() {
+			return codes.length;
+		}
+
+		@Override
+		public Object getValue(int row) {
+			return dictionary[codes[row]];
+		}
+
+		@Override
+		public BitSet select(Predicate<Object> predicate) {
+			boolean[] matches = new boolean[dictionary.length];
+			for (int i = 0; i < dictionary.length; ++i)
+				matches[i] = predicate.test(dictionary[i]);
+
+			BitSet result = new BitSet(codes.length);
+			for (int i = 0; i < codes.length; ++i)
+				if (matches[codes[i]])
+					result.set(i);
+			return result;
+		}
+
+		@Override
+		int compare(int row1, int row2) {
+			return Integer.compare(ranks[codes[row1]], ranks[codes[row2]]);
+		}
+	}
+
+	/**
+	 * An immutable set of columns, which may be shared between models.
+	 */
+	public static final class Dataset {
+		private final List<Column> columns;
+		private final int rowCount;
+
+		/**
+		 * Creates a dataset.
+		 *
+		 * @param columns the columns, which must all have the same number of rows
+		 */
+		public Dataset(List<Column> columns) {
+			this.columns = Collections.unmodifiableList(new ArrayList<Column>(columns));
+			this.rowCount = columns.isEmpty() ? 0 : columns.get(0).getRowCount();
+
+			for (Column c : columns)
+				if (c.getRowCount() != rowCount)
+					throw new IllegalArgumentException("Column '" + c.getName() + "' has " + c.getRowCount()
+							+ " rows, expected " + rowCount);
+		}
+
+		/**
+		 * Creates a dataset.
+		 *
+		 * @see #Dataset(List)
+		 */
+		public Dataset(Column... columns) {
+			this(Arrays.asList(columns));
+		}
+
+		/**
+		 * Returns the columns.
+		 */
+		public List<Column> getColumns() {
+			return columns;
+		}
+
+		/**
+		 * Returns the number of rows.
+		 */
+		public int getRowCount() {
+			return rowCount;
+		}
+	}
+
+	private final Dataset data_;
+	private int[] order_;
+	private BitSet filter_;
+
+	/*
+	 * The dataset row for every model row, or null when they are the same
+	 * (not sorted or filtered), and its inverse, computed when needed.
+	 */
+	private int[] rows_;
+	private int[] inverseRows_;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param data the dataset
+	 */
+	public WColumnarTableModel(Dataset data) {
+		this.data_ = data;
+	}
+
+	/**
+	 * Returns the dataset.
+	 */
+	public Dataset getDataset() {
+		return data_;
+	}
+
+	@Override
+	public int getColumnCount(WModelIndex parent) {
+		if (parent == null)
+			return data_.getColumns().size();
+		else
+			return 0;
+	}
+
+	@Override
+	public int getRowCount(WModelIndex parent) {
+		if (parent != null)
+			return 0;
+		else if (rows_ != null)
+			return rows_.length;
+		else
+			return data_.getRowCount();
+	}
+
+	@Override
+	public Object getData(WModelIndex index, ItemDataRole role) {
+		if (role == ItemDataRole.Display)
+			return data_.getColumns().get(index.getColumn()).getValue(getDatasetRow(index.getRow()));
+		else
+			return null;
+	}
+
+	@Override
+	public Object getHeaderData(int section, Orientation orientation, ItemDataRole role) {
+		if (orientation == Orientation.Horizontal && role == ItemDataRole.Display)
+			return data_.getColumns().get(section).getName();
+		else
+			return super.getHeaderData(section, orientation, role);
+	}
+
+	/**
+	 * Returns the dataset row that corresponds to a model row.
+	 */
+	public int getDatasetRow(int row) {
+		return rows_ != null ? rows_[row] : row;
+	}
+
+	/**
+	 * Sorts the model according to a particular column.
+	 * <p>
+	 * The sort is stable, and only the permutation is stored in this model: the
+	 * dataset is not changed.
+	 */
+	@Override
+	public void sort(int column, SortOrder order) {
+		layoutAboutToBeChanged().trigger();
+
+		final Column c = data_.getColumns().get(column);
+		int[] rows = new int[data_.getRowCount()];
+		for (int i = 0; i < rows.length; ++i)
+			rows[i] = order_ != null ? order_[i] : i;
+
+		if (order == SortOrder.Ascending)
+			CollectionUtils.sort(rows, rows.length, c::compare);
+		else
+			CollectionUtils.sort(rows, rows.length, (r1, r2) -> c.compare(r2, r1));
+
+		order_ = rows;
+		updateRows();
+
+		layoutChanged().trigger();
+	}
+
+	/**
+	 * Sets a filter.
+	 * <p>
+	 * Only the dataset rows in <i>rows</i> are shown, or all rows when
+	 * <i>rows</i> is <code>null</code>.
+	 *
+	 * @see Column#select(Predicate)
+	 */
+	public void setFilter(BitSet rows) {
+		filter_ = rows == null ? null : (BitSet) rows.clone();
+		updateRows();
+		reset();
+	}
+
+	/**
+	 * Returns the filter.
+	 *
+	 * @see #setFilter(BitSet)
+	 */
+	public BitSet getFilter() {
+		return filter_ == null ? null : (BitSet) filter_.clone();
+	}
+
+	@Override
+	public Object toRawIndex(WModelIndex index) {
+		return ((long) getDatasetRow(index.getRow()) << 32) | index.getColumn();
+	}
+
+	@Override
+	public WModelIndex fromRawIndex(Object rawIndex) {
+		long raw = (Long) rawIndex;
+		int datasetRow = (int) (raw >>> 32);
+		int column = (int) raw;
+
+		int row = datasetRow;
+		if (rows_ != null) {
+			if (inverseRows_ == null) {
+				inverseRows_ = new int[data_.getRowCount()];
+				Arrays.fill(inverseRows_, -1);
+				for (int i = 0; i < rows_.length; ++i)
+					inverseRows_[rows_[i]] = i;
+			}
+			row = inverseRows_[datasetRow];
+		}
+
+		if (row == -1)
+			return null;
+		else
+			return getIndex(row, column);
+	}
+
+	private void updateRows() {
+		inverseRows_ = null;
+
+		if (filter_ == null)
+			rows_ = order_;
+		else {
+			int[] rows = new int[filter_.cardinality()];
+			int j = 0;
+			for (int i = 0; i < data_.getRowCount(); ++i) {
+				int row = order_ != null ? order_[i] : i;
+				if (filter_.get(row))
+					rows[j++] = row;
+			}
+			rows_ = j == rows.length ? rows : Arrays.copyOf(rows, j);
+		}
+	}
+}
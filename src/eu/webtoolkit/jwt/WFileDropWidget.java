@@ -11,6 +11,10 @@ import eu.webtoolkit.jwt.chart.*;
 import eu.webtoolkit.jwt.servlet.*;
 import eu.webtoolkit.jwt.utils.*;
 import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.security.*;
 import java.lang.ref.*;
 import java.time.*;
 import java.util.*;
@@ -168,6 +172,9 @@ public class WFileDropWidget extends WContainerWidget {
       this.isFiltered_ = false;
       this.nbReceivedChunks_ = 0;
       this.chunkSize_ = chunkSize;
+      this.resumableChunkSize_ = 0;
+      this.receivedChunks_ = null;
+      this.resumeKey_ = null;
     }
 
     int getUploadId() {
@@ -199,8 +206,155 @@ public class WFileDropWidget extends WContainerWidget {
       return this.cancelled_;
     }
 
+    /**
+     * Writes a chunk of a resumable upload.
+     *
+     * <p>The chunk is written at its offset in the spool file, which is preallocated when the first
+     * chunk arrives. If a checksum is given, it is the hex-encoded SHA-256 digest of the chunk. A
+     * chunk that was already received is ignored.
+     *
+     * <p>The spool file of the chunk is deleted afterwards, whether or not the chunk was accepted.
+     * Returns whether the chunk was accepted.
+     */
+    boolean handleIncomingChunk(final UploadedFile file, int chunk, final String checksum) {
+      try {
+        return this.writeChunk(file, chunk, checksum);
+      } finally {
+        SpoolFiles.delete(file);
+      }
+    }
+
+    private boolean writeChunk(final UploadedFile file, int chunk, final String checksum) {
+      final long chunkSize = this.resumableChunkSize_;
+      if (chunkSize <= 0 || chunk < 0 || chunk >= this.getChunkCount()) {
+        return false;
+      }
+      final BitSet received = this.getReceivedChunks();
+      if (received.get(chunk)) {
+        return true;
+      }
+      final long offset = chunk * chunkSize;
+      final long expected = Math.min(chunkSize, this.size_ - offset);
+      try {
+        if (!this.uploadStarted_) {
+          java.io.File spool =
+              java.io.File.createTempFile(
+                  "jwt", "jwt", new java.io.File(file.getSpoolFileName()).getParentFile());
+          RandomAccessFile raf = new RandomAccessFile(spool, "rw");
+          try {
+            raf.setLength(this.size_);
+          } finally {
+            raf.close();
+          }
+          UploadedFile uploadedFile =
+              new UploadedFile(spool.getAbsolutePath(), this.clientFileName_, this.type_);
+          WApplication app = WApplication.getInstance();
+          if (app != null && !app.getSession().getSpoolFiles().adopt(uploadedFile)) {
+            logger.warn(
+                new StringWriter()
+                    .append("upload of ")
+                    .append(this.clientFileName_)
+                    .append(" discarded: session spool quota exceeded")
+                    .toString());
+            return false;
+          }
+          this.uploadedFile_ = uploadedFile;
+          this.uploadStarted_ = true;
+        }
+        MessageDigest digest = checksum != null ? MessageDigest.getInstance("SHA-256") : null;
+        FileChannel in = FileChannel.open(Paths.get(file.getSpoolFileName()));
+        FileChannel out =
+            FileChannel.open(
+                Paths.get(this.uploadedFile_.getSpoolFileName()), StandardOpenOption.WRITE);
+        try {
+          if (in.size() != expected) {
+            return false;
+          }
+          ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+          long position = offset;
+          while (in.read(buffer) != -1) {
+            buffer.flip();
+            if (digest != null) {
+              digest.update(buffer.duplicate());
+            }
+            while (buffer.hasRemaining()) {
+              position += out.write(buffer, position);
+            }
+            buffer.clear();
+          }
+        } finally {
+          in.close();
+          out.close();
+        }
+        if (digest != null && !Utils.hexEncode(digest.digest()).equalsIgnoreCase(checksum)) {
+          logger.info(
+              new StringWriter()
+                  .append("checksum mismatch for chunk ")
+                  .append(String.valueOf(chunk))
+                  .append(" of ")
+                  .append(this.clientFileName_)
+                  .toString());
+          return false;
+        }
+      } catch (IOException | java.security.NoSuchAlgorithmException e) {
+        logger.info("Error writing chunk {} of {}", chunk, this.clientFileName_, e);
+        return false;
+      }
+      received.set(chunk);
+      this.nbReceivedChunks_ = received.cardinality();
+      if (this.nbReceivedChunks_ == this.getChunkCount()) {
+        this.uploadFinished_ = true;
+      }
+      return true;
+    }
+
+    /**
+     * Returns the chunks of a resumable upload that were received.
+     *
+     * <p>This is reported to the client before it starts sending, so that a resumed upload only
+     * sends the missing chunks.
+     */
+    BitSet getReceivedChunks() {
+      if (this.receivedChunks_ == null) {
+        this.receivedChunks_ = new BitSet(this.getChunkCount());
+      }
+      return this.receivedChunks_;
+    }
+
+    void setResumableChunkSize(long chunkSize) {
+      this.resumableChunkSize_ = chunkSize;
+    }
+
+    /**
+     * Takes over the chunks that were received for an earlier, unfinished upload of the same file.
+     */
+    void resumeFrom(final WFileDropWidget.File previous) {
+      if (previous.uploadFinished_
+          || !previous.uploadStarted_
+          || previous.size_ != this.size_
+          || previous.resumableChunkSize_ != this.resumableChunkSize_) {
+        return;
+      }
+      this.uploadedFile_ = previous.uploadedFile_;
+      this.uploadStarted_ = true;
+      this.receivedChunks_ = previous.receivedChunks_;
+      this.nbReceivedChunks_ = previous.nbReceivedChunks_;
+      previous.uploadedFile_ = new UploadedFile();
+      previous.uploadStarted_ = false;
+      previous.receivedChunks_ = null;
+      previous.nbReceivedChunks_ = 0;
+    }
+
+    private int getChunkCount() {
+      return (int)
+          Math.max(1, (this.size_ + this.resumableChunkSize_ - 1) / this.resumableChunkSize_);
+    }
+
     public void emitDataReceived(long current, long total, boolean filterSupported) {
-      if (!this.filterEnabled_ || !filterSupported || this.chunkSize_ == 0) {
+      if (this.receivedChunks_ != null) {
+        long progress = this.receivedChunks_.cardinality() * this.resumableChunkSize_ + current;
+        this.dataReceived_.trigger(Math.min(progress, this.size_), this.size_);
+      } else if (!this.filterEnabled_ || !filterSupported || this.chunkSize_ == 0) {
         this.dataReceived_.trigger(current, total);
       } else {
         long currentChunkSize = this.chunkSize_;
@@ -234,6 +388,9 @@ public class WFileDropWidget extends WContainerWidget {
     private boolean isFiltered_;
     private int nbReceivedChunks_;
     private long chunkSize_;
+    private long resumableChunkSize_;
+    private BitSet receivedChunks_;
+    private String resumeKey_;
   }
   /**
    * A nested class of {@link WFileDropWidget} representing a {@link Directory}.
@@ -275,6 +432,9 @@ public class WFileDropWidget extends WContainerWidget {
     this.jsFilterFn_ = "";
     this.jsFilterImports_ = new ArrayList<String>();
     this.chunkSize_ = 0;
+    this.resumableChunkSize_ = 0;
+    this.parallelChunks_ = 1;
+    this.resumableUploads_ = new HashMap<String, WFileDropWidget.File>();
     this.filterSupported_ = true;
     this.hoverStyleClass_ = "Wt-dropzone-hover";
     this.acceptDrops_ = true;
@@ -390,6 +550,9 @@ public class WFileDropWidget extends WContainerWidget {
         if (this.uploads_.get(i) == file) {
           this.uploads_.remove(0 + i);
           this.currentFileIdx_--;
+          if (file.resumeKey_ != null) {
+            this.resumableUploads_.remove(file.resumeKey_, file);
+          }
           return true;
         }
       }
@@ -543,6 +706,44 @@ public class WFileDropWidget extends WContainerWidget {
   public final void setJavaScriptFilter(final String filterFn, long chunksize) {
     setJavaScriptFilter(filterFn, chunksize, new ArrayList<String>());
   }
+  /**
+   * Enables resumable uploads.
+   *
+   * <p>A file is then uploaded in chunks of <code>chunkSize</code> bytes, with up to <code>
+   * parallelChunks</code> chunks in flight at once. Before sending, the browser asks which chunks
+   * already arrived, and only sends the missing ones. A chunk that fails is retried a few times,
+   * after which the browser asks again which chunks arrived and continues from there.
+   *
+   * <p>The received chunks are kept per file path, size and modification time, so that dropping
+   * the same file again after an interrupted upload only sends the chunks that are still missing.
+   *
+   * <p>The server writes every chunk at its offset in a preallocated spool file. When the browser
+   * can compute it (in a secure context), a chunk carries a SHA-256 checksum, which the server
+   * verifies.
+   *
+   * <p>Files that are processed by a {@link WFileDropWidget#setJavaScriptFilter(String filterFn,
+   * long chunksize, List imports) JavaScript filter} are not sent in resumable mode. A <code>
+   * chunkSize</code> of 0 disables resumable uploads, which is the default.
+   */
+  public void setResumableUpload(long chunkSize, int parallelChunks) {
+    if (chunkSize == this.resumableChunkSize_ && parallelChunks == this.parallelChunks_) {
+      return;
+    }
+    this.resumableChunkSize_ = chunkSize;
+    this.parallelChunks_ = Math.max(1, parallelChunks);
+    this.updateFlags_.set(BIT_RESUMABLE_CHANGED);
+    this.repaint();
+  }
+  /**
+   * Returns the chunk size of resumable uploads.
+   *
+   * <p>
+   *
+   * @see WFileDropWidget#setResumableUpload(long chunkSize, int parallelChunks)
+   */
+  public long getResumableChunkSize() {
+    return this.resumableChunkSize_;
+  }
   /**
    * Allow users to drop directories.
    *
@@ -784,6 +985,15 @@ public class WFileDropWidget extends WContainerWidget {
         this.doJavaScript(
             this.getJsRef() + ".setChunkSize(" + String.valueOf(this.chunkSize_) + ");");
       }
+      if (this.updateFlags_.get(BIT_RESUMABLE_CHANGED) || all) {
+        this.doJavaScript(
+            this.getJsRef()
+                + ".setResumable("
+                + String.valueOf(this.resumableChunkSize_)
+                + ","
+                + String.valueOf(this.parallelChunks_)
+                + ");");
+      }
       if (this.updateFlags_.get(BIT_ONCLICKFILEPICKER_CHANGED) || all) {
         String type =
             this.onClickFilePicker_ == FilePickerType.FileSelection
@@ -1051,6 +1261,7 @@ public class WFileDropWidget extends WContainerWidget {
   private WFileDropWidget.File addDropObject(final com.google.gson.JsonObject object) {
     int id = -1;
     long size = 0;
+    long lastModified = 0;
     String name = "";
     String type = "";
     String path = "";
@@ -1075,14 +1286,18 @@ public class WFileDropWidget extends WContainerWidget {
               if (it.getKey().equals("size")) {
                 size = it.getValue().getAsLong();
               } else {
-                if (it.getKey().equals("contents")) {
-                  isDirectory = true;
-                  for (final com.google.gson.JsonElement contentsItem :
-                      it.getValue().getAsJsonArray()) {
-                    contents.add(contentsItem);
-                  }
+                if (it.getKey().equals("lastModified")) {
+                  lastModified = it.getValue().getAsLong();
                 } else {
-                  throw new RuntimeException();
+                  if (it.getKey().equals("contents")) {
+                    isDirectory = true;
+                    for (final com.google.gson.JsonElement contentsItem :
+                        it.getValue().getAsJsonArray()) {
+                      contents.add(contentsItem);
+                    }
+                  } else {
+                    throw new RuntimeException();
+                  }
                 }
               }
             }
@@ -1100,13 +1315,38 @@ public class WFileDropWidget extends WContainerWidget {
       retVal = dir;
       this.directories_.add(dir);
     } else {
-      WFileDropWidget.File file = new File(id, name, path, type, size, this.chunkSize_);
-      retVal = file;
-      this.uploads_.add(file);
+      retVal = this.createFile(id, name, path, type, size, lastModified);
     }
     return retVal;
   }
 
+  WFileDropWidget.File createFile(
+      int id,
+      final String name,
+      final String path,
+      final String type,
+      long size,
+      long lastModified) {
+    WFileDropWidget.File file = new File(id, name, path, type, size, this.chunkSize_);
+    file.setResumableChunkSize(this.resumableChunkSize_);
+    if (this.resumableChunkSize_ > 0 && lastModified > 0) {
+      file.resumeKey_ =
+          new StringWriter()
+              .append(path)
+              .append(':')
+              .append(String.valueOf(size))
+              .append(':')
+              .append(String.valueOf(lastModified))
+              .toString();
+      WFileDropWidget.File previous = this.resumableUploads_.put(file.resumeKey_, file);
+      if (previous != null) {
+        file.resumeFrom(previous);
+      }
+    }
+    this.uploads_.add(file);
+    return file;
+  }
+
   private boolean incomingIdCheck(int id) {
     if (this.currentFileIdx_ >= this.uploads_.size()) {
       return false;
@@ -1126,6 +1366,9 @@ public class WFileDropWidget extends WContainerWidget {
   private String jsFilterFn_;
   private List<String> jsFilterImports_;
   private long chunkSize_;
+  private long resumableChunkSize_;
+  private int parallelChunks_;
+  private Map<String, WFileDropWidget.File> resumableUploads_;
   private boolean filterSupported_;
   private String hoverStyleClass_;
   private boolean acceptDrops_;
@@ -1154,6 +1397,7 @@ public class WFileDropWidget extends WContainerWidget {
   private static final int BIT_DRAGOPTIONS_CHANGED = 3;
   private static final int BIT_JSFILTER_CHANGED = 4;
   private static final int BIT_ONCLICKFILEPICKER_CHANGED = 5;
+  private static final int BIT_RESUMABLE_CHANGED = 6;
   private BitSet updateFlags_;
   private boolean updatesEnabled_;
 
@@ -1162,7 +1406,7 @@ public class WFileDropWidget extends WContainerWidget {
         JavaScriptScope.WtClassScope,
         JavaScriptObjectType.JavaScriptConstructor,
         "WFileDropWidget",
-        "(function(e,t,n){t.wtLObj=this;const i=this,o=e.WT;let s=\"Wt-dropzone-hover\";const r=\"Wt-dropzone-indication\",l=\"Wt-dropzone-dragstyle\",d=[];let a=!1,c=!0,u=!1,f=!1,p=!1,h=!1,m=null,y=0,g=0;const v=document.createElement(\"input\");v.type=\"file\";v.setAttribute(\"multiple\",\"multiple\");v.style.display=\"none\";t.hiddenInput=v;t.appendChild(v);const w=document.createElement(\"input\");w.type=\"file\";w.setAttribute(\"multiple\",\"multiple\");w.style.display=\"none\";window.document.body.appendChild(w);t.serverFileInput=w;const k=document.createElement(\"input\");k.type=\"file\";k.setAttribute(\"multiple\",\"multiple\");k.setAttribute(\"webkitdirectory\",\"webkitdirectory\");k.style.display=\"none\";window.document.body.appendChild(k);t.serverDirInput=k;const b=document.createElement(\"div\");b.classList.add(\"Wt-dropcover\");document.body.appendChild(b);this.validFileCheck=function(e,t,n){const i=new FileReader;i.onload=function(){t(!0,n,e)};i.onerror=function(){t(!1,n,e)};i.readAsText(e.file.slice(0,32))};t.setAcceptDrops=function(e){c=e};t.setAcceptDirectories=function(e,t){u=e;f=t};t.setDropIndication=function(e){p=e};t.setDropForward=function(e){h=e};t.ondragenter=function(e){if(c){if(function(e){const t=e.dataTransfer?.items??null,n=null!==t&&Array.prototype.some.call(t,(e=>\"file\"===e.kind)),i=e.dataTransfer?.types??null,o=null!==i&&i.includes(\"Files\");return n||o}(e)){0===g&&i.setPageHoverStyle();g=2;i.setWidgetHoverStyle(!0)}e.stopPropagation()}};t.ondragleave=function(e){const t=e.clientX,n=e.clientY;let o=document.elementFromPoint(t,n);0===t&&0===n&&(o=null);if(o!==b)i.resetDragDrop();else{i.setWidgetHoverStyle(!1);g=1}};t.ondragover=function(e){e.preventDefault()};const F=function(e){if((p||h)&&\"none\"!==o.css(t,\"display\")&&c){g=1;i.setPageHoverStyle()}};document.body.addEventListener(\"dragenter\",F);b.ondragover=function(e){e.preventDefault();e.stopPropagation()};b.ondragleave=function(e){c&&1===g&&i.resetDragDrop()};b.ondrop=function(e){e.preventDefault();h?t.ondrop(e):i.resetDragDrop()};t.ondrop=function(e){e.preventDefault();if(c){i.resetDragDrop();0!==e.dataTransfer.files.length&&i.addDataTransferItems(Array.from(e.dataTransfer.items))}};this.addDataTransferItems=async function(n){const i=[],o=n.map((e=>e.webkitGetAsEntry()));for(const e of o){const t=D(e);if(e.isFile){const n=await C(e);t.type=n.type;t.size=n.size;const i=L(n);t.id=i.id}else if(e.isDirectory){if(!u){console.warn(\"directory drop not enabled, ignoring entry\",e);continue}t.contents=[];await S(e,t,f)}i.push(t)}if(0!==i.length){console.log(\"All newKeys: \",i);e.emit(t,\"dropsignal\",JSON.stringify(i))}};this.addFiles=function(n){const i=[];for(const e of n){const t=L(e),n={};n.id=t.id;n.filename=t.file.name;n.path=t.file.name;n.type=t.file.type;n.size=t.file.size;i.push(n)}e.emit(t,\"dropsignal\",JSON.stringify(i))};async function S(e,t,n){const i=await function(e){return new Promise((t=>{e.createReader().readEntries((function(e){t(e)}))}))}(e);for(let e=0;e<i.length;e++){const o=i[e],s=D(o);if(o.isFile){const e=await C(o);s.type=e.type;s.size=e.size;const t=L(e);s.id=t.id}else if(o.isDirectory){s.contents=[];n&&await S(o,s,n)}t.contents.push(s)}}function D(e){const t={};t.path=e.fullPath;t.filename=e.name;return t}function C(e){return new Promise((t=>{e.file((function(e){t(e)}))}))}function L(e){const t=new Object;t.id=Math.floor(Math.random()*Math.pow(2,31));t.file=e;d.push(t);return t}t.addEventListener(\"click\",(function(){if(c){v.value=\"\";v.click()}}));t.markForSending=function(e){for(const t of e){const e=t.id;for(const t of d)if(t.id===e){t.ready=!0;break}}a||d.length>0&&d[0].ready&&i.requestSend()};this.requestSend=function(){if(d[0].skip)i.uploadFinished(null);else{a=!0;e.emit(t,\"requestsend\",d[0].id)}};t.send=function(o,s){const r=d[0];if(r.file.size>n){e.emit(t,\"filetoolarge\",r.file.size);i.uploadFinished(null)}else if(\"boolean\"==typeof t.wtUseCustomSend){if(\"function\"!=typeof t.wtCustomSend)console.log(\"Warning: wtUseCustomSend is set, but wtCustomSend is not properly defined as a function. Falling back to the default upload mechanism\");else if(t.wtUseCustomSend){i.validFileCheck(r,t.wtCustomSend,o);return}}else{const e=null!==m&&s?i.workerSend:i.actualSend;i.validFileCheck(r,e,o)}};this.actualSend=function(e,t,n){if(!e){i.uploadFinished(null);return}const o=new XMLHttpRequest;o.addEventListener(\"load\",i.uploadFinished);o.addEventListener(\"error\",i.uploadFinished);o.addEventListener(\"abort\",i.uploadFinished);o.addEventListener(\"timeout\",i.uploadFinished);o.open(\"POST\",t);d[0].request=o;const s=new FormData;s.append(\"file-id\",d[0].id);s.append(\"data\",d[0].file);o.send(s)};this.workerSend=function(e,t,n){if(e){m.upload=d[0];m.postMessage({cmd:\"send\",url:t,upload:d[0],chunksize:y})}else i.uploadFinished(null)};this.uploadFinished=function(n){(null!=n&&\"load\"===n.type&&200===n.currentTarget.status||!0===n)&&e.emit(t,\"uploadfinished\",d[0].id);d.splice(0,1);if(d[0]&&d[0].ready)i.requestSend();else{a=!1;e.emit(t,\"donesending\")}};t.cancelUpload=function(e){if(d[0]&&d[0].id===e){d[0].skip=!0;d[0].request?d[0].request.abort():m&&m.upload===d[0]&&m.postMessage({cmd:\"cancel\",upload:d[0]})}else for(let t=1;t<d.length;t++)d[t].id===e&&(d[t].skip=!0)};const W=function(){c&&null!==this.files&&0!==this.files.length&&i.addFiles(this.files)};v.onchange=W;w.onchange=W;k.onchange=function(){if(!c)return;if(null===this.files||0===this.files.length)return;const n=[];for(let e=0;e<this.files.length;e++)E(n,this.files[e]);e.emit(t,\"dropsignal\",JSON.stringify(n))};function E(e,t){const n=t.webkitRelativePath,i=n.split(\"/\");if(!f&&i.length>2)return;let o=null,s=\"\";for(let t=0;t<i.length-1;t++){const n=i[t];s+=\"/\"+n;const r=e.find((e=>e.path===s));if(r)o=r;else{const t={};t.path=s;t.filename=n;t.contents=[];null===o?e.push(t):o.contents.push(t);o=t}e=o.contents}const r={},l=L(t);r.id=l.id;r.path=\"/\"+n;r.filename=t.name;r.type=t.type;r.size=t.size;o.contents.push(r)}this.setPageHoverStyle=function(){if(p||h){b.classList.add(l);t.classList.add(l);p&&t.classList.add(r)}};this.setWidgetHoverStyle=function(e){t.classList.toggle(s,e)};this.resetDragDrop=function(){t.classList.remove(r);t.classList.remove(l);b.classList.remove(l);i.setWidgetHoverStyle(!1);g=0};t.configureHoverClass=function(e){s=e};t.setFilters=function(e){v.setAttribute(\"accept\",e);w.setAttribute(\"accept\",e)};t.setUploadWorker=function(n){if(n&&window.Worker){m=new Worker(n);m.onmessage=function(n){if(n.data.workerfeatures){if(\"valid\"!==n.data.workerfeatures){t.setUploadWorker(null);e.emit(t,\"filternotsupported\")}}else i.uploadFinished(n.data)};m.postMessage({cmd:\"check\"})}else m=null};t.setChunkSize=function(e){y=e};t.destructor=function(){document.body.removeEventListener(\"dragenter\",F);document.body.removeChild(b)};t.setOnClickFilePicker=function(e){if(\"directory-selection\"===e)t.hiddenInput.setAttribute(\"webkitdirectory\",\"webkitdirectory\");else{\"file-selection\"!==e&&console.error(\"unknown filepicker type; using 'file-selection'\",e);t.hiddenInput.removeAttribute(\"webkitdirectory\")}}})");
+        "(function(e,t,n){t.wtLObj=this;const i=this,o=e.WT;let s=\"Wt-dropzone-hover\";const r=\"Wt-dropzone-indication\",l=\"Wt-dropzone-dragstyle\",d=[];let a=!1,c=!0,u=!1,f=!1,p=!1,h=!1,m=null,y=0,g=0,U=0,P=1;const v=document.createElement(\"input\");v.type=\"file\";v.setAttribute(\"multiple\",\"multiple\");v.style.display=\"none\";t.hiddenInput=v;t.appendChild(v);const w=document.createElement(\"input\");w.type=\"file\";w.setAttribute(\"multiple\",\"multiple\");w.style.display=\"none\";window.document.body.appendChild(w);t.serverFileInput=w;const k=document.createElement(\"input\");k.type=\"file\";k.setAttribute(\"multiple\",\"multiple\");k.setAttribute(\"webkitdirectory\",\"webkitdirectory\");k.style.display=\"none\";window.document.body.appendChild(k);t.serverDirInput=k;const b=document.createElement(\"div\");b.classList.add(\"Wt-dropcover\");document.body.appendChild(b);this.validFileCheck=function(e,t,n){const i=new FileReader;i.onload=function(){t(!0,n,e)};i.onerror=function(){t(!1,n,e)};i.readAsText(e.file.slice(0,32))};t.setAcceptDrops=function(e){c=e};t.setAcceptDirectories=function(e,t){u=e;f=t};t.setDropIndication=function(e){p=e};t.setDropForward=function(e){h=e};t.ondragenter=function(e){if(c){if(function(e){const t=e.dataTransfer?.items??null,n=null!==t&&Array.prototype.some.call(t,(e=>\"file\"===e.kind)),i=e.dataTransfer?.types??null,o=null!==i&&i.includes(\"Files\");return n||o}(e)){0===g&&i.setPageHoverStyle();g=2;i.setWidgetHoverStyle(!0)}e.stopPropagation()}};t.ondragleave=function(e){const t=e.clientX,n=e.clientY;let o=document.elementFromPoint(t,n);0===t&&0===n&&(o=null);if(o!==b)i.resetDragDrop();else{i.setWidgetHoverStyle(!1);g=1}};t.ondragover=function(e){e.preventDefault()};const F=function(e){if((p||h)&&\"none\"!==o.css(t,\"display\")&&c){g=1;i.setPageHoverStyle()}};document.body.addEventListener(\"dragenter\",F);b.ondragover=function(e){e.preventDefault();e.stopPropagation()};b.ondragleave=function(e){c&&1===g&&i.resetDragDrop()};b.ondrop=function(e){e.preventDefault();h?t.ondrop(e):i.resetDragDrop()};t.ondrop=function(e){e.preventDefault();if(c){i.resetDragDrop();0!==e.dataTransfer.files.length&&i.addDataTransferItems(Array.from(e.dataTransfer.items))}};this.addDataTransferItems=async function(n){const i=[],o=n.map((e=>e.webkitGetAsEntry()));for(const e of o){const t=D(e);if(e.isFile){const n=await C(e);t.type=n.type;t.size=n.size;t.lastModified=n.lastModified;const i=L(n);t.id=i.id}else if(e.isDirectory){if(!u){console.warn(\"directory drop not enabled, ignoring entry\",e);continue}t.contents=[];await S(e,t,f)}i.push(t)}if(0!==i.length){console.log(\"All newKeys: \",i);e.emit(t,\"dropsignal\",JSON.stringify(i))}};this.addFiles=function(n){const i=[];for(const e of n){const t=L(e),n={};n.id=t.id;n.filename=t.file.name;n.path=t.file.name;n.type=t.file.type;n.size=t.file.size;n.lastModified=t.file.lastModified;i.push(n)}e.emit(t,\"dropsignal\",JSON.stringify(i))};async function S(e,t,n){const i=await function(e){return new Promise((t=>{e.createReader().readEntries((function(e){t(e)}))}))}(e);for(let e=0;e<i.length;e++){const o=i[e],s=D(o);if(o.isFile){const e=await C(o);s.type=e.type;s.size=e.size;s.lastModified=e.lastModified;const t=L(e);s.id=t.id}else if(o.isDirectory){s.contents=[];n&&await S(o,s,n)}t.contents.push(s)}}function D(e){const t={};t.path=e.fullPath;t.filename=e.name;return t}function C(e){return new Promise((t=>{e.file((function(e){t(e)}))}))}function L(e){const t=new Object;t.id=Math.floor(Math.random()*Math.pow(2,31));t.file=e;d.push(t);return t}t.addEventListener(\"click\",(function(){if(c){v.value=\"\";v.click()}}));t.markForSending=function(e){for(const t of e){const e=t.id;for(const t of d)if(t.id===e){t.ready=!0;break}}a||d.length>0&&d[0].ready&&i.requestSend()};this.requestSend=function(){if(d[0].skip)i.uploadFinished(null);else{a=!0;e.emit(t,\"requestsend\",d[0].id)}};t.send=function(o,s){const r=d[0];if(r.file.size>n){e.emit(t,\"filetoolarge\",r.file.size);i.uploadFinished(null)}else if(\"boolean\"==typeof t.wtUseCustomSend){if(\"function\"!=typeof t.wtCustomSend)console.log(\"Warning: wtUseCustomSend is set, but wtCustomSend is not properly defined as a function. Falling back to the default upload mechanism\");else if(t.wtUseCustomSend){i.validFileCheck(r,t.wtCustomSend,o);return}}else{const e=null!==m&&s?i.workerSend:U>0?i.resumableSend:i.actualSend;i.validFileCheck(r,e,o)}};this.actualSend=function(e,t,n){if(!e){i.uploadFinished(null);return}const o=new XMLHttpRequest;o.addEventListener(\"load\",i.uploadFinished);o.addEventListener(\"error\",i.uploadFinished);o.addEventListener(\"abort\",i.uploadFinished);o.addEventListener(\"timeout\",i.uploadFinished);o.open(\"POST\",t);d[0].request=o;const s=new FormData;s.append(\"file-id\",d[0].id);s.append(\"data\",d[0].file);o.send(s)};this.resumableSend=function(e,n,o){if(!e){i.uploadFinished(null);return}const s=o.file.size,r=Math.max(1,Math.ceil(s/U)),l=[];let u=[],a=0,c=!1,x=!1,g=0;o.request={abort:function(){for(const e of l.slice())e.abort()}};const f=function(){if(o.skip||x){0===a&&i.uploadFinished(null);return}if(c){0===a&&R();return}if(0===u.length){0===a&&i.uploadFinished(!0);return}for(;a<P&&u.length>0;){a++;p(u.shift(),0)}},R=function(){c=!1;u=[];g++<10?setTimeout(Q,1e3*g):i.uploadFinished(null)},p=async function(e,t){if(o.skip){a--;f();return}const r=o.file.slice(e*U,Math.min(s,(e+1)*U)),d=new FormData;d.append(\"file-id\",o.id);d.append(\"chunk\",e);if(self.crypto&&crypto.subtle){const e=await crypto.subtle.digest(\"SHA-256\",await r.arrayBuffer());d.append(\"checksum\",Array.from(new Uint8Array(e),(e=>e.toString(16).padStart(2,\"0\"))).join(\"\"))}d.append(\"data\",r);const h=new XMLHttpRequest;l.push(h);h.addEventListener(\"loadend\",(function(){l.splice(l.indexOf(h),1);if(200===h.status||o.skip){200===h.status&&(g=0);a--;f()}else if(404===h.status){a--;x=!0;f()}else if(t<5)setTimeout((function(){p(e,t+1)}),1e3*(t+1));else{a--;c=!0;f()}}));h.open(\"POST\",n);h.send(d)},Q=function(){if(o.skip){i.uploadFinished(null);return}const h=new XMLHttpRequest;l.push(h);h.addEventListener(\"loadend\",(function(){l.splice(l.indexOf(h),1);if(o.skip||404===h.status){i.uploadFinished(null);return}if(200!==h.status){R();return}let e=[];try{e=JSON.parse(h.responseText)}catch(e){}u=[];for(let t=0;t<r;t++)e.includes(t)||u.push(t);f()}));h.open(\"POST\",n);const d=new FormData;d.append(\"file-id\",o.id);d.append(\"resume\",\"true\");h.send(d)};Q()};this.workerSend=function(e,t,n){if(e){m.upload=d[0];m.postMessage({cmd:\"send\",url:t,upload:d[0],chunksize:y})}else i.uploadFinished(null)};this.uploadFinished=function(n){(null!=n&&\"load\"===n.type&&200===n.currentTarget.status||!0===n)&&e.emit(t,\"uploadfinished\",d[0].id);d.splice(0,1);if(d[0]&&d[0].ready)i.requestSend();else{a=!1;e.emit(t,\"donesending\")}};t.cancelUpload=function(e){if(d[0]&&d[0].id===e){d[0].skip=!0;d[0].request?d[0].request.abort():m&&m.upload===d[0]&&m.postMessage({cmd:\"cancel\",upload:d[0]})}else for(let t=1;t<d.length;t++)d[t].id===e&&(d[t].skip=!0)};const W=function(){c&&null!==this.files&&0!==this.files.length&&i.addFiles(this.files)};v.onchange=W;w.onchange=W;k.onchange=function(){if(!c)return;if(null===this.files||0===this.files.length)return;const n=[];for(let e=0;e<this.files.length;e++)E(n,this.files[e]);e.emit(t,\"dropsignal\",JSON.stringify(n))};function E(e,t){const n=t.webkitRelativePath,i=n.split(\"/\");if(!f&&i.length>2)return;let o=null,s=\"\";for(let t=0;t<i.length-1;t++){const n=i[t];s+=\"/\"+n;const r=e.find((e=>e.path===s));if(r)o=r;else{const t={};t.path=s;t.filename=n;t.contents=[];null===o?e.push(t):o.contents.push(t);o=t}e=o.contents}const r={},l=L(t);r.id=l.id;r.path=\"/\"+n;r.filename=t.name;r.type=t.type;r.size=t.size;r.lastModified=t.lastModified;o.contents.push(r)}this.setPageHoverStyle=function(){if(p||h){b.classList.add(l);t.classList.add(l);p&&t.classList.add(r)}};this.setWidgetHoverStyle=function(e){t.classList.toggle(s,e)};this.resetDragDrop=function(){t.classList.remove(r);t.classList.remove(l);b.classList.remove(l);i.setWidgetHoverStyle(!1);g=0};t.configureHoverClass=function(e){s=e};t.setFilters=function(e){v.setAttribute(\"accept\",e);w.setAttribute(\"accept\",e)};t.setUploadWorker=function(n){if(n&&window.Worker){m=new Worker(n);m.onmessage=function(n){if(n.data.workerfeatures){if(\"valid\"!==n.data.workerfeatures){t.setUploadWorker(null);e.emit(t,\"filternotsupported\")}}else i.uploadFinished(n.data)};m.postMessage({cmd:\"check\"})}else m=null};t.setChunkSize=function(e){y=e};t.setResumable=function(e,t){U=e;P=t};t.destructor=function(){document.body.removeEventListener(\"dragenter\",F);document.body.removeChild(b)};t.setOnClickFilePicker=function(e){if(\"directory-selection\"===e)t.hiddenInput.setAttribute(\"webkitdirectory\",\"webkitdirectory\");else{\"file-selection\"!==e&&console.error(\"unknown filepicker type; using 'file-selection'\",e);t.hiddenInput.removeAttribute(\"webkitdirectory\")}}})");
   }
 
   static List<WFileDropWidget.File> flattenUploadsVector(WFileDropWidget.Directory dir) {
@@ -1207,12 +1451,21 @@ public class WFileDropWidget extends WContainerWidget {
         response.setStatus(404);
         return;
       }
+      if (request.getParameter("resume") != null) {
+        this.handleResume(response);
+        return;
+      }
       List<UploadedFile> files = new ArrayList<UploadedFile>();
       CollectionUtils.findInMultimap(request.getUploadedFiles(), "data", files);
       if (files.isEmpty()) {
         response.setStatus(404);
         return;
       }
+      String chunk = request.getParameter("chunk");
+      if (chunk != null) {
+        this.handleChunk(files.get(0), chunk, request.getParameter("checksum"), response);
+        return;
+      }
       String filtFlag = request.getParameter("filtered");
       this.currentFile_.setIsFiltered(filtFlag != null && filtFlag.equals("true"));
       String lastFlag = request.getParameter("last");
@@ -1224,6 +1477,52 @@ public class WFileDropWidget extends WContainerWidget {
       response.setContentType("text/plain");
     }
 
+    private void handleResume(final WebResponse response) {
+      BitSet received = this.currentFile_.getReceivedChunks();
+      StringBuilder ss = new StringBuilder();
+      ss.append("[");
+      for (int i = received.nextSetBit(0); i >= 0; i = received.nextSetBit(i + 1)) {
+        if (ss.length() > 1) {
+          ss.append(",");
+        }
+        ss.append(i);
+      }
+      ss.append("]");
+      response.setContentType("application/json");
+      try {
+        response.out().append(ss.toString());
+      } catch (IOException e) {
+        logger.info("Error writing resume response", e);
+      }
+    }
+
+    private void handleChunk(
+        final UploadedFile file,
+        final String chunk,
+        final String checksum,
+        final WebResponse response) {
+      boolean wasFinished = this.currentFile_.isUploadFinished();
+      int index;
+      try {
+        index = Integer.parseInt(chunk);
+      } catch (NumberFormatException e) {
+        SpoolFiles.delete(file);
+        response.setStatus(400);
+        return;
+      }
+      if (!this.currentFile_.handleIncomingChunk(file, index, checksum)) {
+        response.setStatus(400);
+        return;
+      }
+      if (!wasFinished && this.currentFile_.isUploadFinished()) {
+        if (this.currentFile_.resumeKey_ != null) {
+          this.parent_.resumableUploads_.remove(this.currentFile_.resumeKey_, this.currentFile_);
+        }
+        this.parent_.proceedToNextFile();
+      }
+      response.setContentType("text/plain");
+    }
+
     private WFileDropWidget parent_;
     private WFileDropWidget.File currentFile_;
   }
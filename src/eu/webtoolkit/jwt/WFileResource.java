@@ -6,8 +6,6 @@
 package eu.webtoolkit.jwt;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 
 import org.slf4j.Logger;
@@ -15,7 +13,6 @@ import org.slf4j.LoggerFactory;
 
 import eu.webtoolkit.jwt.servlet.WebRequest;
 import eu.webtoolkit.jwt.servlet.WebResponse;
-import eu.webtoolkit.jwt.utils.StreamUtils;
 
 /**
  * A resource which streams data from a local file.
@@ -23,6 +20,10 @@ import eu.webtoolkit.jwt.utils.StreamUtils;
  * To update the resource, either use setFileName() to point it to a
  * new file, or trigger the {@link #dataChanged()} signal when only the
  * file contents has changed, but not the filename.
+ * <p>
+ * The file is served with support for conditional and range requests, which
+ * allows e.g. media players to seek (see
+ * {@link WResource#serveFile(WebRequest, WebResponse, File)}).
  */
 public class WFileResource extends WResource {
 	private static final Logger logger = LoggerFactory.getLogger(WFileResource.class);
@@ -93,19 +94,9 @@ public class WFileResource extends WResource {
 		response.setContentType(mimeType_);
 
 		try {
-			File f = new File(fileName_);
-			FileInputStream fis = new FileInputStream(f);
-			try {
-				StreamUtils.copy(fis, response.getOutputStream());
-				response.getOutputStream().flush();
-			} catch (IOException e) {
-				logger.info("IOException, {}", fileName_, e);
-			} finally {
-				StreamUtils.closeQuietly(fis);
-			}
-		} catch (FileNotFoundException e) {
-			System.err.println("Could not find file: " + fileName_);
-			response.setStatus(404);
+			serveFile(request, response, new File(fileName_));
+		} catch (IOException e) {
+			logger.info("IOException, {}", fileName_, e);
 		}
 	}
 }
@@ -704,12 +704,14 @@ public class WFileUpload extends WWebWidget {
 
   protected void setFormData(final WObject.FormData formData) {
     this.setFiles(formData.files);
-    logger.debug(
-        new StringWriter()
-            .append("setFormData() : ")
-            .append(String.valueOf(formData.files.size()))
-            .append(" file(s)")
-            .toString());
+    if (logger.isDebugEnabled()) {
+      logger.debug(
+          new StringWriter()
+              .append("setFormData() : ")
+              .append(String.valueOf(formData.files.size()))
+              .append(" file(s)")
+              .toString());
+    }
     if (!formData.files.isEmpty()) {
       this.uploaded().trigger();
     }
@@ -44,8 +44,10 @@ final class WFileUploadResource extends WResource {
     if (triggerUpdate || 0 != 0) {
       UserAgent agent = WApplication.getInstance().getEnvironment().getAgent();
       if (triggerUpdate) {
-        logger.debug(
-            new StringWriter().append("Resource handleRequest(): signaling uploaded").toString());
+        if (logger.isDebugEnabled()) {
+          logger.debug(
+              new StringWriter().append("Resource handleRequest(): signaling uploaded").toString());
+        }
         if (agent == UserAgent.IE6 || agent == UserAgent.IE7) {
           o.append("window.parent.")
               .append(WApplication.getInstance().getJavaScriptClass())
@@ -64,10 +66,12 @@ final class WFileUploadResource extends WResource {
         }
       } else {
         if (0 != 0) {
-          logger.debug(
-              new StringWriter()
-                  .append("Resource handleRequest(): signaling file-too-large")
-                  .toString());
+          if (logger.isDebugEnabled()) {
+            logger.debug(
+                new StringWriter()
+                    .append("Resource handleRequest(): signaling file-too-large")
+                    .toString());
+          }
           String s = String.valueOf(0);
           if (agent == UserAgent.IE6 || agent == UserAgent.IE7) {
             o.append(this.fileUpload_.fileTooLarge().createCall(s));
@@ -82,7 +86,9 @@ final class WFileUploadResource extends WResource {
         }
       }
     } else {
-      logger.debug(new StringWriter().append("Resource handleRequest(): no signal").toString());
+      if (logger.isDebugEnabled()) {
+        logger.debug(new StringWriter().append("Resource handleRequest(): no signal").toString());
+      }
     }
     o.append("}\n</script></head><body onload=\"load();\"></body></html>");
     if (!(0 != 0) && !files.isEmpty()) {
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2009 Emweb bv, Herent, Belgium.
+ *
+ * See the LICENSE file for terms of use.
+ */
+package eu.webtoolkit.jwt;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import eu.webtoolkit.jwt.servlet.WebRequest;
+import eu.webtoolkit.jwt.servlet.WebResponse;
+
+/**
+ * A resource that serves the binary buffers of a {@link WClientGLWidget}.
+ * <p>
+ * Every buffer is addressed by a hash of its contents. Uploading the same data
+ * again results in the same URL, which the browser serves from its cache, and
+ * the data of identical buffers is stored only once, even when used by
+ * different sessions.
+ */
+class WGLBufferResource extends WResource {
+	private static final Map<String, WeakReference<byte[]>> sharedBuffers = new ConcurrentHashMap<String, WeakReference<byte[]>>();
+	private static int purgeSize = 64;
+
+	private final Map<String, byte[]> buffers_ = new ConcurrentHashMap<String, byte[]>();
+
+	/**
+	 * Adds a buffer, and returns the URL at which it is served.
+	 */
+	public String addBuffer(byte[] data) {
+		String hash = hash(data);
+		buffers_.put(hash, share(hash, data));
+		return getUrl() + "&buffer=" + hash;
+	}
+
+	/**
+	 * Removes all buffers.
+	 */
+	public void clear() {
+		buffers_.clear();
+	}
+
+	@Override
+	protected void handleRequest(WebRequest request, WebResponse response) throws IOException {
+		String hash = request.getParameter("buffer");
+		byte[] data = hash != null ? buffers_.get(hash) : null;
+		if (data == null) {
+			response.setStatus(404);
+			return;
+		}
+
+		response.setContentType("application/octet-stream");
+		response.setHeader("Cache-Control", "private, max-age=31536000, immutable");
+		response.setContentLength(data.length);
+		response.getOutputStream().write(data);
+	}
+
+	private static byte[] share(String hash, byte[] data) {
+		WeakReference<byte[]> ref = sharedBuffers.get(hash);
+		byte[] shared = ref != null ? ref.get() : null;
+		if (shared != null && Arrays.equals(shared, data))
+			return shared;
+
+		sharedBuffers.put(hash, new WeakReference<byte[]>(data));
+		purge();
+		return data;
+	}
+
+	private static void purge() {
+		synchronized (sharedBuffers) {
+			if (sharedBuffers.size() < purgeSize)
+				return;
+			sharedBuffers.values().removeIf(ref -> ref.get() == null);
+			purgeSize = Math.max(64, 2 * sharedBuffers.size());
+		}
+	}
+
+	private static String hash(byte[] data) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest(data));
+		} catch (NoSuchAlgorithmException e) {
+			throw new WException("WGLBufferResource: " + e.getMessage());
+		}
+	}
+}
@@ -122,9 +122,13 @@ import org.slf4j.LoggerFactory;
  *
  * <p>In {@link WGLWidget#bufferDatafv(WGLWidget.GLenum target, java.nio.ByteBuffer buffer,
  * WGLWidget.GLenum usage, boolean binary) bufferDatafv()}, there is an additional boolean argument
- * where you can indicate that you want the data to be transferred to the client in binary form. A
- * {@link WMemoryResource} is created for each of these buffers. If you know all previous resources
- * are not required in the client anymore, you can free memory with the method {@link
+ * where you can indicate that you want the data to be transferred to the client in binary form.
+ * Buffers of more than 4 kB, including integer buffers passed to {@link
+ * WGLWidget#bufferDataiv(WGLWidget.GLenum target, java.nio.IntBuffer buffer, WGLWidget.GLenum
+ * usage, WGLWidget.GLenum type) bufferDataiv()}, are always transferred in binary form. The buffers
+ * are served by a resource at a URL that is derived from their contents, so that a buffer that is
+ * uploaded again is served from the browser cache. If you know all previous buffers are not
+ * required in the client anymore, you can free memory with the method {@link
  * WGLWidget#clearBinaryResources() clearBinaryResources()} (the memory is also managed, so this is
  * not neccesary). If you want to manage these resources entirely by yourself, the following method
  * can be used.
@@ -1447,7 +1451,8 @@ public class WGLWidget extends WInteractWidget {
   /**
    * remove all binary buffer resources
    *
-   * <p>Removes all WMemoryResources that were allocated when calling bufferDatafv with binary=true.
+   * <p>Removes all buffers that were transferred in binary form, for example by calling bufferDatafv
+   * with binary=true.
    * This is not required, since the resources are also managed, but if you are sure they will not
    * be used anymore in the client, this can help free some memory.
    */
@@ -94,7 +94,35 @@ public class WJavaScriptHandle<T extends WJavaScriptExposableObject> {
 		binding.context_.dirty.set(id_, true);
 	}
 
-    /** 
+	/**
+	 * Append a path to the value of this handle.
+	 * <p>
+	 *
+	 * This adds the given path to the value, like {@link WPainterPath#addPath}, for a handle to a
+	 * {@link WPainterPath}. Unlike {@link #setValue}, only the added segments are synced to the
+	 * client side, so that a path can grow without sending it again.
+	 *
+	 * @throws WException This is not a handle to a painter path, or trying to append a JavaScript
+	 *     bound path
+	 */
+	public void appendPath(WPainterPath path) {
+		if (!(value_ instanceof WPainterPath)) {
+			throw new WException("Can only append a path to a WJavaScriptHandle of a WPainterPath!");
+		}
+		if (path.isJavaScriptBound()) {
+			throw new WException("Can not append a JavaScript bound path to a WJavaScriptHandle!");
+		}
+		WPainterPath value = (WPainterPath) value_;
+		int start = value.getSegmentCount();
+		// Unbind while modifying, and rescue the binding
+		WJavaScriptExposableObject.JSInfo binding = value.clientBinding_;
+		value.clientBinding_ = null;
+		value.addPath(path);
+		value.clientBinding_ = binding;
+		binding.context_.append(id_, value.getJsSegments(start));
+	}
+
+    /**
 	 * Get the value for this handle.
 	 * <p>
 	 *
@@ -46,8 +46,27 @@ class WJavaScriptObjectStorage {
 				js.append(getJsRef()).append(".setJsValue(").append(i).append(",");
 				js.append(jsValues.get(i).getJsValue()).append(");");
 				dirty.set(i, false);
+			} else if (appended.containsKey(i)) {
+				js.append(getJsRef()).append(".jsValues[").append(i).append("].push(");
+				js.append(appended.get(i)).append(");");
 			}
 		}
+		appended.clear();
+	}
+
+	/*
+	 * Sends only the given segments of a path, unless the whole path is sent anyway.
+	 */
+	void append(int index, String segments) {
+		if (dirty.get(index) || segments.length() == 0) {
+			return;
+		}
+		StringBuilder s = appended.get(index);
+		if (s == null) {
+			appended.put(index, new StringBuilder(segments));
+		} else {
+			s.append(',').append(segments);
+		}
 	}
 
 	public int size() {
@@ -85,5 +104,6 @@ class WJavaScriptObjectStorage {
 
 	final List<WJavaScriptExposableObject> jsValues = new ArrayList<WJavaScriptExposableObject>();
 	final BitSet dirty = new BitSet();
+	private final Map<Integer, StringBuilder> appended = new HashMap<Integer, StringBuilder>();
 	private final WWidget widget;
 }
@@ -112,6 +112,7 @@ public abstract class WPaintedWidget extends WInteractWidget {
     this.preferredMethod_ = RenderMethod.HtmlCanvas;
     this.painter_ = null;
     this.needRepaint_ = false;
+    this.paintUpdate_ = false;
     this.sizeChanged_ = false;
     this.areaImageAdded_ = false;
     this.repaintFlags_ = EnumSet.noneOf(PaintFlag.class);
@@ -171,11 +172,19 @@ public abstract class WPaintedWidget extends WInteractWidget {
    *
    * <p>Repainting is not immediate, but happens after when the event loop is exited.
    *
-   * <p>Unless a {@link PaintFlag#Update} paint flag is set, the widget is first cleared.
+   * <p>Unless a {@link PaintFlag#Update} paint flag is set, the widget is first cleared. A pending
+   * repaint that clears the widget is not turned into an update by a later call with {@link
+   * PaintFlag#Update}.
    */
   public void update(EnumSet<PaintFlag> flags) {
+    boolean paintUpdate =
+        flags.contains(PaintFlag.Update)
+            && (!this.needRepaint_ || this.repaintFlags_.contains(PaintFlag.Update));
     this.needRepaint_ = true;
     this.repaintFlags_.addAll(flags);
+    if (!paintUpdate) {
+      this.repaintFlags_.remove(PaintFlag.Update);
+    }
     this.repaint();
   }
   /**
@@ -399,6 +408,16 @@ public abstract class WPaintedWidget extends WInteractWidget {
    * paintDevice.
    */
   protected abstract void paintEvent(WPaintDevice paintDevice);
+  /**
+   * Returns whether the current paint event paints on top of the previous contents.
+   *
+   * <p>This is the case when the widget is repainted after {@link #update(EnumSet flags)
+   * update()} with the {@link PaintFlag#Update} flag, and the previous contents are still shown.
+   * Otherwise, the widget has been cleared and must be painted completely.
+   */
+  protected boolean isPaintUpdate() {
+    return this.paintUpdate_;
+  }
   /**
    * Creates a paint device.
    *
@@ -480,9 +499,8 @@ public abstract class WPaintedWidget extends WInteractWidget {
     result.add(e);
     boolean createdNew = this.createPainter();
     if (this.needRepaint_) {
-      WPaintDevice device =
-          this.painter_.getPaintDevice(
-              this.repaintFlags_.contains(PaintFlag.Update) && !createdNew);
+      this.paintUpdate_ = this.repaintFlags_.contains(PaintFlag.Update) && !createdNew;
+      WPaintDevice device = this.painter_.getPaintDevice(this.paintUpdate_);
       if (this.renderWidth_ != 0 && this.renderHeight_ != 0) {
         this.paintEvent(device);
         if (device.getPainter() != null) {
@@ -498,6 +516,7 @@ public abstract class WPaintedWidget extends WInteractWidget {
         this.painter_.updateContents(result, device);
       }
       this.needRepaint_ = false;
+      this.paintUpdate_ = false;
       this.repaintFlags_ = EnumSet.noneOf(PaintFlag.class);
     }
   }
@@ -574,6 +593,7 @@ public abstract class WPaintedWidget extends WInteractWidget {
   private RenderMethod preferredMethod_;
   private WWidgetPainter painter_;
   private boolean needRepaint_;
+  private boolean paintUpdate_;
   boolean sizeChanged_;
   private boolean areaImageAdded_;
   EnumSet<PaintFlag> repaintFlags_;
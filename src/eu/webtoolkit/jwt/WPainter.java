@@ -608,20 +608,22 @@ public class WPainter {
     if (cDevice != null) {
       cDevice.drawStencilAlongPath(stencil, path, softClipping);
     } else {
-      for (int i = 0; i < path.getSegments().size(); ++i) {
-        final WPainterPath.Segment seg = path.getSegments().get(i);
+      for (int i = 0; i < path.getSegmentCount(); ++i) {
+        final double x = path.getSegmentX(i);
+        final double y = path.getSegmentY(i);
+        final SegmentType type = path.getSegmentType(i);
         if (softClipping
             && !this.getClipPath().isEmpty()
             && !this.getClipPathTransform()
                 .map(this.getClipPath())
-                .isPointInPath(this.getWorldTransform().map(new WPointF(seg.getX(), seg.getY())))) {
+                .isPointInPath(this.getWorldTransform().map(new WPointF(x, y)))) {
           continue;
         }
-        if (seg.getType() == SegmentType.LineTo
-            || seg.getType() == SegmentType.MoveTo
-            || seg.getType() == SegmentType.CubicEnd
-            || seg.getType() == SegmentType.QuadEnd) {
-          WPointF p = new WPointF(seg.getX(), seg.getY());
+        if (type == SegmentType.LineTo
+            || type == SegmentType.MoveTo
+            || type == SegmentType.CubicEnd
+            || type == SegmentType.QuadEnd) {
+          WPointF p = new WPointF(x, y);
           this.drawPath(new WTransform().translate(p).map(stencil));
         }
       }
@@ -924,20 +926,21 @@ public class WPainter {
           rect, alignmentFlags, text, transform, path, angle, lineHeight, softClipping);
     } else {
       WPainterPath tpath = transform.map(path);
-      for (int i = 0; i < path.getSegments().size(); ++i) {
+      for (int i = 0; i < path.getSegmentCount(); ++i) {
         if (i >= text.size()) {
           break;
         }
-        final WPainterPath.Segment seg = path.getSegments().get(i);
-        final WPainterPath.Segment tseg = tpath.getSegments().get(i);
+        final SegmentType type = path.getSegmentType(i);
+        final double tx = tpath.getSegmentX(i);
+        final double ty = tpath.getSegmentY(i);
         List<WString> splitText = splitLabel(text.get(i));
-        if (seg.getType() == SegmentType.MoveTo
-            || seg.getType() == SegmentType.LineTo
-            || seg.getType() == SegmentType.QuadEnd
-            || seg.getType() == SegmentType.CubicEnd) {
+        if (type == SegmentType.MoveTo
+            || type == SegmentType.LineTo
+            || type == SegmentType.QuadEnd
+            || type == SegmentType.CubicEnd) {
           this.save();
           this.setClipping(false);
-          this.translate(tseg.getX(), tseg.getY());
+          this.translate(tx, ty);
           this.rotate(-angle);
           for (int j = 0; j < splitText.size(); ++j) {
             double yOffset =
@@ -946,7 +949,7 @@ public class WPainter {
                     splitText.size(),
                     lineHeight,
                     EnumUtils.mask(alignmentFlags, AlignmentFlag.AlignVerticalMask));
-            WPointF p = new WPointF(tseg.getX(), tseg.getY());
+            WPointF p = new WPointF(tx, ty);
             this.drawText(
                 new WRectF(
                     rect.getLeft(), rect.getTop() + yOffset, rect.getWidth(), rect.getHeight()),
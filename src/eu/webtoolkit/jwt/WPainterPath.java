@@ -105,7 +105,9 @@ public class WPainterPath extends WJavaScriptExposableObject {
     super();
     this.isRect_ = false;
     this.openSubPathsEnabled_ = false;
-    this.segments_ = new ArrayList<WPainterPath.Segment>();
+    this.coords_ = new double[2 * INITIAL_CAPACITY];
+    this.types_ = new byte[INITIAL_CAPACITY];
+    this.size_ = 0;
   }
   /**
    * Construct a new path, and set the initial position.
@@ -116,7 +118,9 @@ public class WPainterPath extends WJavaScriptExposableObject {
     super();
     this.isRect_ = false;
     this.openSubPathsEnabled_ = false;
-    this.segments_ = new ArrayList<WPainterPath.Segment>();
+    this.coords_ = new double[2 * INITIAL_CAPACITY];
+    this.types_ = new byte[INITIAL_CAPACITY];
+    this.size_ = 0;
     this.moveTo(startPoint);
   }
   /** Copy constructor. */
@@ -124,15 +128,17 @@ public class WPainterPath extends WJavaScriptExposableObject {
     super(path);
     this.isRect_ = path.isRect_;
     this.openSubPathsEnabled_ = path.openSubPathsEnabled_;
-    this.segments_ = new ArrayList<WPainterPath.Segment>();
-    Utils.copyList(path.segments_, this.segments_);
+    this.coords_ = Arrays.copyOf(path.coords_, Math.max(2 * path.size_, 2 * INITIAL_CAPACITY));
+    this.types_ = Arrays.copyOf(path.types_, Math.max(path.size_, INITIAL_CAPACITY));
+    this.size_ = path.size_;
   }
   /** Assignment method. */
   public WPainterPath assign(final WPainterPath path) {
     if (path.isJavaScriptBound()) {
       this.assignBinding(path);
     }
-    Utils.copyList(path.segments_, this.segments_);
+    this.size_ = 0;
+    this.addSegments(path);
     this.isRect_ = path.isRect_;
     return this;
   }
@@ -147,7 +153,7 @@ public class WPainterPath extends WJavaScriptExposableObject {
    * which well be the start point of the next draw operation.
    */
   public WPointF getCurrentPosition() {
-    return this.getPositionAtSegment(this.segments_.size());
+    return this.getPositionAtSegment(this.size_);
   }
   /**
    * Returns whether the path is empty.
@@ -156,8 +162,8 @@ public class WPainterPath extends WJavaScriptExposableObject {
    * operations are not considered drawing operations.
    */
   public boolean isEmpty() {
-    for (int i = 0; i < this.segments_.size(); ++i) {
-      if (this.segments_.get(i).getType() != SegmentType.MoveTo) {
+    for (int i = 0; i < this.size_; ++i) {
+      if (this.types_[i] != MOVE_TO) {
         return false;
       }
     }
@@ -169,11 +175,13 @@ public class WPainterPath extends WJavaScriptExposableObject {
    * <p>Returns <code>true</code> if the paths are exactly the same.
    */
   public boolean equals(final WPainterPath path) {
-    if (this.segments_.size() != path.segments_.size()) {
+    if (this.size_ != path.size_) {
       return false;
     }
-    for (int i = 0; i < this.segments_.size(); ++i) {
-      if (!this.segments_.get(i).equals(path.segments_.get(i))) {
+    for (int i = 0; i < this.size_; ++i) {
+      if (this.types_[i] != path.types_[i]
+          || this.coords_[2 * i] != path.coords_[2 * i]
+          || this.coords_[2 * i + 1] != path.coords_[2 * i + 1]) {
         return false;
       }
     }
@@ -227,16 +235,14 @@ public class WPainterPath extends WJavaScriptExposableObject {
    */
   public void moveTo(double x, double y) {
     this.checkModifiable();
-    if (!this.openSubPathsEnabled_
-        && !this.segments_.isEmpty()
-        && this.segments_.get(this.segments_.size() - 1).getType() != SegmentType.MoveTo) {
+    if (!this.openSubPathsEnabled_ && this.size_ != 0 && this.types_[this.size_ - 1] != MOVE_TO) {
       WPointF startP = this.getSubPathStart();
       WPointF currentP = this.getCurrentPosition();
       if (!startP.equals(currentP)) {
         this.lineTo(startP.getX(), startP.getY());
       }
     }
-    this.segments_.add(new WPainterPath.Segment(x, y, SegmentType.MoveTo));
+    this.add(x, y, MOVE_TO);
   }
   /**
    * Draws a straight line.
@@ -267,7 +273,7 @@ public class WPainterPath extends WJavaScriptExposableObject {
    */
   public void lineTo(double x, double y) {
     this.checkModifiable();
-    this.segments_.add(new WPainterPath.Segment(x, y, SegmentType.LineTo));
+    this.add(x, y, LINE_TO);
   }
   /**
    * Draws a cubic bezier curve.
@@ -300,9 +306,9 @@ public class WPainterPath extends WJavaScriptExposableObject {
   public void cubicTo(
       double c1x, double c1y, double c2x, double c2y, double endPointx, double endPointy) {
     this.checkModifiable();
-    this.segments_.add(new WPainterPath.Segment(c1x, c1y, SegmentType.CubicC1));
-    this.segments_.add(new WPainterPath.Segment(c2x, c2y, SegmentType.CubicC2));
-    this.segments_.add(new WPainterPath.Segment(endPointx, endPointy, SegmentType.CubicEnd));
+    this.add(c1x, c1y, (byte) SegmentType.CubicC1.ordinal());
+    this.add(c2x, c2y, (byte) SegmentType.CubicC2.ordinal());
+    this.add(endPointx, endPointy, (byte) SegmentType.CubicEnd.ordinal());
   }
   /**
    * Draws an arc.
@@ -388,8 +394,8 @@ public class WPainterPath extends WJavaScriptExposableObject {
    */
   public void quadTo(double cx, double cy, double endPointX, double endPointY) {
     this.checkModifiable();
-    this.segments_.add(new WPainterPath.Segment(cx, cy, SegmentType.QuadC));
-    this.segments_.add(new WPainterPath.Segment(endPointX, endPointY, SegmentType.QuadEnd));
+    this.add(cx, cy, (byte) SegmentType.QuadC.ordinal());
+    this.add(endPointX, endPointY, (byte) SegmentType.QuadEnd.ordinal());
   }
   /**
    * Draws an ellipse.
@@ -496,6 +502,49 @@ public class WPainterPath extends WJavaScriptExposableObject {
       }
     }
   }
+  /**
+   * Adds a polyline.
+   *
+   * <p>Adds the points (<code>xs[i]</code>, <code>ys[i]</code>) for <code>offset</code> &lt;= i
+   * &lt; <code>offset + count</code>. As with {@link WPainterPath#addPolygon(List points)
+   * addPolygon()}, a new sub path is started if the first point is different from the current
+   * position, and a line is drawn to every other point.
+   *
+   * <p>This is equivalent to, but more efficient than, calling {@link WPainterPath#lineTo(double
+   * x, double y) lineTo()} for every point.
+   *
+   * <p>
+   *
+   * @exception {@link WException} if the path {@link WJavaScriptExposableObject#isJavaScriptBound()
+   *     is JavaScript bound}
+   */
+  public void addPolyline(double[] xs, double[] ys, int offset, int count) {
+    this.checkModifiable();
+    if (count > 0) {
+      int i = offset;
+      WPointF current = this.getCurrentPosition();
+      if (current.getX() != xs[i] || current.getY() != ys[i]) {
+        this.moveTo(xs[i], ys[i]);
+        ++i;
+      }
+      this.reserve(this.size_ + offset + count - i);
+      for (; i < offset + count; ++i) {
+        this.coords_[2 * this.size_] = xs[i];
+        this.coords_[2 * this.size_ + 1] = ys[i];
+        this.types_[this.size_] = LINE_TO;
+        ++this.size_;
+      }
+    }
+  }
+  /**
+   * Adds a polyline.
+   *
+   * <p>Calls {@link #addPolyline(double[] xs, double[] ys, int offset, int count) addPolyline(xs,
+   * ys, 0, xs.length)}
+   */
+  public final void addPolyline(double[] xs, double[] ys) {
+    addPolyline(xs, ys, 0, xs.length);
+  }
   /**
    * Adds a path.
    *
@@ -515,7 +564,7 @@ public class WPainterPath extends WJavaScriptExposableObject {
     if (!this.getCurrentPosition().equals(path.getBeginPosition())) {
       this.moveTo(path.getBeginPosition());
     }
-    this.segments_.addAll(path.segments_);
+    this.addSegments(path);
   }
   /**
    * Adds a path, connecting.
@@ -581,28 +630,78 @@ public class WPainterPath extends WJavaScriptExposableObject {
     // private WPainterPath map(final WPainterPath path) ;
   }
 
+  /**
+   * Returns the segments.
+   *
+   * <p>The segments are stored in a packed form. The result is a read-only view, which creates a
+   * segment for every element that is accessed. To read a large path, use {@link
+   * WPainterPath#getSegmentCount() getSegmentCount()}, {@link WPainterPath#getSegmentX(int index)
+   * getSegmentX()}, {@link WPainterPath#getSegmentY(int index) getSegmentY()} and {@link
+   * WPainterPath#getSegmentType(int index) getSegmentType()} instead.
+   *
+   * <p><i><b>Note: </b>Earlier versions returned the internal list of segments. The list can no
+   * longer be modified: its mutating methods throw an {@link UnsupportedOperationException}. Use
+   * the methods of this class, such as {@link WPainterPath#lineTo(double x, double y) lineTo()},
+   * to change the path.</i>
+   */
   public List<WPainterPath.Segment> getSegments() {
-    return this.segments_;
+    return new WPainterPath.SegmentList();
+  }
+  /** Returns the number of segments. */
+  public int getSegmentCount() {
+    return this.size_;
+  }
+  /**
+   * Returns the x parameter of a segment.
+   *
+   * <p>
+   *
+   * @see WPainterPath.Segment#getX()
+   */
+  public double getSegmentX(int index) {
+    this.checkIndex(index);
+    return this.coords_[2 * index];
+  }
+  /**
+   * Returns the y parameter of a segment.
+   *
+   * <p>
+   *
+   * @see WPainterPath.Segment#getY()
+   */
+  public double getSegmentY(int index) {
+    this.checkIndex(index);
+    return this.coords_[2 * index + 1];
+  }
+  /**
+   * Returns the type of a segment.
+   *
+   * <p>
+   *
+   * @see WPainterPath.Segment#getType()
+   */
+  public SegmentType getSegmentType(int index) {
+    this.checkIndex(index);
+    return SEGMENT_TYPES[this.types_[index]];
   }
 
   WPointF getPositionAtSegment(int index) {
     if (index > 0) {
-      final WPainterPath.Segment s = this.segments_.get(index - 1);
-      switch (s.getType()) {
+      switch (this.getSegmentType(index - 1)) {
         case MoveTo:
         case LineTo:
         case CubicEnd:
         case QuadEnd:
-          return new WPointF(s.getX(), s.getY());
+          return new WPointF(this.getSegmentX(index - 1), this.getSegmentY(index - 1));
         case ArcAngleSweep:
           {
-            int i = this.segments_.size() - 3;
-            double cx = this.segments_.get(i).getX();
-            double cy = this.segments_.get(i).getY();
-            double rx = this.segments_.get(i + 1).getX();
-            double ry = this.segments_.get(i + 1).getY();
-            double theta1 = this.segments_.get(i + 2).getX();
-            double deltaTheta = this.segments_.get(i + 2).getY();
+            int i = this.size_ - 3;
+            double cx = this.getSegmentX(i);
+            double cy = this.getSegmentY(i);
+            double rx = this.getSegmentX(i + 1);
+            double ry = this.getSegmentY(i + 1);
+            double theta1 = this.getSegmentX(i + 2);
+            double deltaTheta = this.getSegmentY(i + 2);
             return getArcPosition(cx, cy, rx, ry, theta1 + deltaTheta);
           }
         default:
@@ -614,18 +713,18 @@ public class WPainterPath extends WJavaScriptExposableObject {
 
   boolean asRect(final WRectF result) {
     if (this.isRect_) {
-      if (this.segments_.size() == 4) {
+      if (this.size_ == 4) {
         result.setX(0);
         result.setY(0);
-        result.setWidth(this.segments_.get(0).getX());
-        result.setHeight(this.segments_.get(1).getY());
+        result.setWidth(this.getSegmentX(0));
+        result.setHeight(this.getSegmentY(1));
         return true;
       } else {
-        if (this.segments_.size() == 5 && this.segments_.get(0).getType() == SegmentType.MoveTo) {
-          result.setX(this.segments_.get(0).getX());
-          result.setY(this.segments_.get(0).getY());
-          result.setWidth(this.segments_.get(1).getX() - this.segments_.get(0).getX());
-          result.setHeight(this.segments_.get(2).getY() - this.segments_.get(0).getY());
+        if (this.size_ == 5 && this.types_[0] == MOVE_TO) {
+          result.setX(this.getSegmentX(0));
+          result.setY(this.getSegmentY(0));
+          result.setWidth(this.getSegmentX(1) - this.getSegmentX(0));
+          result.setHeight(this.getSegmentY(2) - this.getSegmentY(0));
           return true;
         } else {
           return false;
@@ -654,9 +753,10 @@ public class WPainterPath extends WJavaScriptExposableObject {
       double maxY;
       minX = minY = Double.MAX_VALUE;
       maxX = maxY = Double.MIN_VALUE;
-      for (int i = 0; i < this.segments_.size(); ++i) {
-        final WPainterPath.Segment s = this.segments_.get(i);
-        switch (s.getType()) {
+      for (int i = 0; i < this.size_; ++i) {
+        double x = this.coords_[2 * i];
+        double y = this.coords_[2 * i + 1];
+        switch (SEGMENT_TYPES[this.types_[i]]) {
           case MoveTo:
           case LineTo:
           case CubicC1:
@@ -666,12 +766,12 @@ public class WPainterPath extends WJavaScriptExposableObject {
           case QuadEnd:
             {
               if (identity) {
-                minX = Math.min(s.getX(), minX);
-                minY = Math.min(s.getY(), minY);
-                maxX = Math.max(s.getX(), maxX);
-                maxY = Math.max(s.getY(), maxY);
+                minX = Math.min(x, minX);
+                minY = Math.min(y, minY);
+                maxX = Math.max(x, maxX);
+                maxY = Math.max(y, maxY);
               } else {
-                WPointF p = transform.map(new WPointF(s.getX(), s.getY()));
+                WPointF p = transform.map(new WPointF(x, y));
                 minX = Math.min(p.getX(), minX);
                 minY = Math.min(p.getY(), minY);
                 maxX = Math.max(p.getX(), maxX);
@@ -681,17 +781,18 @@ public class WPainterPath extends WJavaScriptExposableObject {
             }
           case ArcC:
             {
-              final WPainterPath.Segment s2 = this.segments_.get(i + 1);
+              double x2 = this.getSegmentX(i + 1);
+              double y2 = this.getSegmentY(i + 1);
               if (identity) {
-                WPointF tl = new WPointF(s.getX() - s2.getX(), s.getY() - s2.getY());
+                WPointF tl = new WPointF(x - x2, y - y2);
                 minX = Math.min(tl.getX(), minX);
                 minY = Math.min(tl.getY(), minY);
-                WPointF br = new WPointF(s.getX() + s2.getX(), s.getY() + s2.getY());
+                WPointF br = new WPointF(x + x2, y + y2);
                 maxX = Math.max(br.getX(), maxX);
                 maxY = Math.max(br.getY(), maxY);
               } else {
-                WPointF p1 = transform.map(new WPointF(s.getX(), s.getY()));
-                WPointF p2 = transform.map(new WPointF(s2.getX(), s2.getY()));
+                WPointF p1 = transform.map(new WPointF(x, y));
+                WPointF p2 = transform.map(new WPointF(x2, y2));
                 WPointF tl = new WPointF(p1.getX() - p2.getX(), p1.getY() - p2.getY());
                 minX = Math.min(tl.getX(), minX);
                 minY = Math.min(tl.getY(), minY);
@@ -733,11 +834,11 @@ public class WPainterPath extends WJavaScriptExposableObject {
     if (this.isJavaScriptBound()) {
       result.assignBinding(this, "Wt4_11_1.gfxUtils.path_crisp(" + this.getJsRef() + ')');
     }
-    for (int i = 0; i < this.segments_.size(); ++i) {
-      final WPainterPath.Segment segment = this.segments_.get(i);
-      double hx = Math.floor(segment.getX()) + 0.5;
-      double hy = Math.floor(segment.getY()) + 0.5;
-      result.segments_.add(new WPainterPath.Segment(hx, hy, segment.getType()));
+    result.reserve(this.size_);
+    for (int i = 0; i < this.size_; ++i) {
+      double hx = Math.floor(this.coords_[2 * i]) + 0.5;
+      double hy = Math.floor(this.coords_[2 * i + 1]) + 0.5;
+      result.add(hx, hy, this.types_[i]);
     }
     return result;
   }
@@ -782,38 +883,38 @@ public class WPainterPath extends WJavaScriptExposableObject {
     double ay = 0.0;
     double px = p.getX();
     double py = p.getY();
-    for (int i = 0; i < this.segments_.size(); ++i) {
+    for (int i = 0; i < this.size_; ++i) {
       double bx = ax;
       double by = ay;
-      if (this.segments_.get(i).getType() == SegmentType.ArcC) {
+      if (this.getSegmentType(i) == SegmentType.ArcC) {
         WPointF arcPos =
             getArcPosition(
-                this.segments_.get(i).getX(),
-                this.segments_.get(i).getY(),
-                this.segments_.get(i + 1).getX(),
-                this.segments_.get(i + 1).getY(),
-                this.segments_.get(i + 2).getX());
+                this.getSegmentX(i),
+                this.getSegmentY(i),
+                this.getSegmentX(i + 1),
+                this.getSegmentY(i + 1),
+                this.getSegmentX(i + 2));
         bx = arcPos.getX();
         by = arcPos.getY();
       } else {
-        if (this.segments_.get(i).getType() == SegmentType.ArcAngleSweep) {
+        if (this.getSegmentType(i) == SegmentType.ArcAngleSweep) {
           WPointF arcPos =
               getArcPosition(
-                  this.segments_.get(i - 2).getX(),
-                  this.segments_.get(i - 2).getY(),
-                  this.segments_.get(i - 1).getX(),
-                  this.segments_.get(i - 1).getY(),
-                  this.segments_.get(i).getX() + this.segments_.get(i).getY());
+                  this.getSegmentX(i - 2),
+                  this.getSegmentY(i - 2),
+                  this.getSegmentX(i - 1),
+                  this.getSegmentY(i - 1),
+                  this.getSegmentX(i) + this.getSegmentY(i));
           bx = arcPos.getX();
           by = arcPos.getY();
         } else {
-          if (this.segments_.get(i).getType() != SegmentType.ArcR) {
-            bx = this.segments_.get(i).getX();
-            by = this.segments_.get(i).getY();
+          if (this.getSegmentType(i) != SegmentType.ArcR) {
+            bx = this.getSegmentX(i);
+            by = this.getSegmentY(i);
           }
         }
       }
-      if (this.segments_.get(i).getType() != SegmentType.MoveTo) {
+      if (this.getSegmentType(i) != SegmentType.MoveTo) {
         if (ay > py != by > py && px < (bx - ax) * (py - ay) / (by - ay) + ax) {
           res = !res;
         }
@@ -825,20 +926,20 @@ public class WPainterPath extends WJavaScriptExposableObject {
   }
 
   public String getJsValue() {
-    char[] buf = new char[30];
+    return "[" + this.getJsSegments(0) + "]";
+  }
+
+  String getJsSegments(int start) {
     StringBuilder ss = new StringBuilder();
-    ss.append('[');
-    for (int i = 0; i < this.segments_.size(); ++i) {
-      final WPainterPath.Segment s = this.segments_.get(i);
-      if (i != 0) {
+    for (int i = start; i < this.size_; ++i) {
+      if (i != start) {
         ss.append(',');
       }
       ss.append('[');
-      ss.append(MathUtils.roundJs(s.getX(), 3)).append(',');
-      ss.append(MathUtils.roundJs(s.getY(), 3)).append(',');
-      ss.append((int) s.getType().getValue()).append(']');
+      ss.append(MathUtils.roundJs(this.coords_[2 * i], 3)).append(',');
+      ss.append(MathUtils.roundJs(this.coords_[2 * i + 1], 3)).append(',');
+      ss.append((int) this.types_[i]).append(']');
     }
-    ss.append(']');
     return ss.toString();
   }
 
@@ -846,12 +947,65 @@ public class WPainterPath extends WJavaScriptExposableObject {
 
   private boolean isRect_;
   private boolean openSubPathsEnabled_;
-  List<WPainterPath.Segment> segments_;
+  private double[] coords_;
+  private byte[] types_;
+  private int size_;
+  private static final int INITIAL_CAPACITY = 8;
+  private static final SegmentType[] SEGMENT_TYPES = SegmentType.values();
+  private static final byte MOVE_TO = (byte) SegmentType.MoveTo.ordinal();
+  private static final byte LINE_TO = (byte) SegmentType.LineTo.ordinal();
+
+  class SegmentList extends AbstractList<WPainterPath.Segment> implements RandomAccess {
+    public WPainterPath.Segment get(int index) {
+      return new WPainterPath.Segment(
+          WPainterPath.this.getSegmentX(index),
+          WPainterPath.this.getSegmentY(index),
+          WPainterPath.this.getSegmentType(index));
+    }
+
+    public int size() {
+      return WPainterPath.this.size_;
+    }
+  }
+
+  void add(double x, double y, SegmentType type) {
+    this.add(x, y, (byte) type.ordinal());
+  }
+
+  private void add(double x, double y, byte type) {
+    this.reserve(this.size_ + 1);
+    this.coords_[2 * this.size_] = x;
+    this.coords_[2 * this.size_ + 1] = y;
+    this.types_[this.size_] = type;
+    ++this.size_;
+  }
+
+  private void addSegments(final WPainterPath path) {
+    int size = path.size_;
+    this.reserve(this.size_ + size);
+    System.arraycopy(path.coords_, 0, this.coords_, 2 * this.size_, 2 * size);
+    System.arraycopy(path.types_, 0, this.types_, this.size_, size);
+    this.size_ += size;
+  }
+
+  private void reserve(int capacity) {
+    if (capacity > this.types_.length) {
+      int newCapacity = Math.max(capacity, 2 * this.types_.length);
+      this.coords_ = Arrays.copyOf(this.coords_, 2 * newCapacity);
+      this.types_ = Arrays.copyOf(this.types_, newCapacity);
+    }
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= this.size_) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size_);
+    }
+  }
 
   private WPointF getSubPathStart() {
-    for (int i = this.segments_.size() - 1; i >= 0; --i) {
-      if (this.segments_.get(i).getType() == SegmentType.MoveTo) {
-        return new WPointF(this.segments_.get(i).getX(), this.segments_.get(i).getY());
+    for (int i = this.size_ - 1; i >= 0; --i) {
+      if (this.types_[i] == MOVE_TO) {
+        return new WPointF(this.coords_[2 * i], this.coords_[2 * i + 1]);
       }
     }
     return new WPointF(0, 0);
@@ -859,10 +1013,8 @@ public class WPainterPath extends WJavaScriptExposableObject {
 
   private WPointF getBeginPosition() {
     WPointF result = new WPointF(0, 0);
-    for (int i = 0;
-        i < this.segments_.size() && this.segments_.get(i).getType() == SegmentType.MoveTo;
-        ++i) {
-      result = new WPointF(this.segments_.get(i).getX(), this.segments_.get(i).getY());
+    for (int i = 0; i < this.size_ && this.types_[i] == MOVE_TO; ++i) {
+      result = new WPointF(this.coords_[2 * i], this.coords_[2 * i + 1]);
     }
     return result;
   }
@@ -875,10 +1027,9 @@ public class WPainterPath extends WJavaScriptExposableObject {
   void arcTo(
       double x, double y, double width, double height, double startAngle, double sweepLength) {
     this.checkModifiable();
-    this.segments_.add(new WPainterPath.Segment(x + width / 2, y + height / 2, SegmentType.ArcC));
-    this.segments_.add(new WPainterPath.Segment(width / 2, height / 2, SegmentType.ArcR));
-    this.segments_.add(
-        new WPainterPath.Segment(startAngle, sweepLength, SegmentType.ArcAngleSweep));
+    this.add(x + width / 2, y + height / 2, SegmentType.ArcC);
+    this.add(width / 2, height / 2, SegmentType.ArcR);
+    this.add(startAngle, sweepLength, SegmentType.ArcAngleSweep);
   }
   // private WPainterPath map(final WPainterPath path) ;
   static double degreesToRadians(double r) {
@@ -10,7 +10,10 @@ import java.io.OutputStream;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -208,6 +211,51 @@ public class WPdfImage extends WResource implements WPaintDevice {
 	public void drawImage(WRectF rect, String imgUrl, int imgWidth, int imgHeight, WRectF sourceRect) {
 		processChangeFlags();
 		
+		Image image = getEmbeddedImage(imgUrl);
+		
+		if (image != null) {
+			WPointF p = currentTransform.map(new WPointF(rect.getX(), rect.getY()));
+	        image.setPosition(p.getX(), p.getY());
+	        
+			TRSSDecomposition d = new TRSSDecomposition();
+			currentTransform.decomposeTranslateRotateScaleSkew(d);
+	        // an embedded image may be drawn several times, and scaleBy() is relative to the last draw
+	        float xScale  = (float) (rect.getWidth() * d.sx / image.getWidth());
+	        float yScale  = (float) (rect.getHeight() * d.sy / image.getHeight());
+	        image.scaleBy(xScale, yScale);
+	        try {
+				image.drawOn(this.page);
+			} catch (Exception e) {
+				logger.info("Exception while drawing image", e);
+			}
+		}
+	}
+
+	/*
+	 * Every image is embedded only once in a PDF, and reused when it is drawn again,
+	 * also by other pages of the same PDF.
+	 */
+	private Image getEmbeddedImage(String imgUrl) {
+		Map<String, Image> images;
+		synchronized (embeddedImages) {
+			images = embeddedImages.get(this.pdf);
+			if (images == null) {
+				images = new HashMap<String, Image>();
+				embeddedImages.put(this.pdf, images);
+			}
+		}
+
+		synchronized (images) {
+			Image result = images.get(imgUrl);
+			if (result == null && !images.containsKey(imgUrl)) {
+				result = createImage(imgUrl);
+				images.put(imgUrl, result);
+			}
+			return result;
+		}
+	}
+
+	private Image createImage(String imgUrl) {
 		Image image = null;
 		
 		if (DataUri.isDataUri(imgUrl)) {
@@ -240,25 +288,8 @@ public class WPdfImage extends WResource implements WPaintDevice {
 				logger.info("Error creating image from {}", imgUrl, e);
 			}
 		}
-		
-		if (image != null) {
-			WPointF p = currentTransform.map(new WPointF(rect.getX(), rect.getY()));
-	        image.setPosition(p.getX(), p.getY());
-	        
-	        double w = image.getWidth();
-	        double h = image.getHeight();
-	        
-			TRSSDecomposition d = new TRSSDecomposition();
-			currentTransform.decomposeTranslateRotateScaleSkew(d);
-	        float xScale  = (float) ((rect.getWidth() / w) * d.sx);
-	        float yScale  = (float) ((rect.getHeight() / h) * d.sy);
-	        image.scaleBy(xScale, yScale);
-	        try {
-				image.drawOn(this.page);
-			} catch (Exception e) {
-				logger.info("Exception while drawing image", e);
-			}
-		}
+
+		return image;
 	}
 
 	@Override
@@ -308,29 +339,27 @@ public class WPdfImage extends WResource implements WPaintDevice {
 	}
 	
 	private void drawPlainPath(WPainterPath path) {
-		List<WPainterPath.Segment> segments = path.getSegments();
+		int segmentCount = path.getSegmentCount();
 
-		if (segments.size() > 0
-				&& segments.get(0).getType() != SegmentType.MoveTo)
+		if (segmentCount > 0
+				&& path.getSegmentType(0) != SegmentType.MoveTo)
 			_moveTo(0, 0);
 
-		for (int i = 0; i < segments.size(); ++i) {
-			WPainterPath.Segment s = segments.get(i);
-
-			switch (s.getType()) {
+		for (int i = 0; i < segmentCount; ++i) {
+			switch (path.getSegmentType(i)) {
 			case MoveTo:
-				_moveTo(s.getX(), s.getY());
+				_moveTo(path.getSegmentX(i), path.getSegmentY(i));
 				break;
 			case LineTo:
-				_lineTo(s.getX(), s.getY());
+				_lineTo(path.getSegmentX(i), path.getSegmentY(i));
 				break;
 			case CubicC1: {
-				final double x1 = s.getX();
-				final double y1 = s.getY();
-				final double x2 = segments.get(i + 1).getX();
-				final double y2 = segments.get(i + 1).getY();
-				final double x3 = segments.get(i + 2).getX();
-				final double y3 = segments.get(i + 2).getY();
+				final double x1 = path.getSegmentX(i);
+				final double y1 = path.getSegmentY(i);
+				final double x2 = path.getSegmentX(i + 1);
+				final double y2 = path.getSegmentY(i + 1);
+				final double x3 = path.getSegmentX(i + 2);
+				final double y3 = path.getSegmentY(i + 2);
 
 				WPointF current = path.getPositionAtSegment(i);
 				_cubicBezierCurveTo(x1, y1, x2, y2, x3, y3);
@@ -342,11 +371,11 @@ public class WPdfImage extends WResource implements WPaintDevice {
 			case CubicEnd:
 				assert (false);
 			case ArcC: {
-				final double x = s.getX();
-				final double y = s.getY();
-				final double radius = segments.get(i + 1).getX();
-				double ang1 = segments.get(i + 2).getX();
-				double ang2 = ang1 + segments.get(i + 2).getY();
+				final double x = path.getSegmentX(i);
+				final double y = path.getSegmentY(i);
+				final double radius = path.getSegmentX(i + 1);
+				double ang1 = path.getSegmentX(i + 2);
+				double ang2 = ang1 + path.getSegmentY(i + 2);
 
 				_drawArc(x, y, radius, ang1 + 90, ang2 + 90);
 
@@ -362,10 +391,10 @@ public class WPdfImage extends WResource implements WPaintDevice {
 				 * it using a cubic bezier curve.
 				 */
 				WPointF current = path.getPositionAtSegment(i);
-				final double cpx = s.getX();
-				final double cpy = s.getY();
-				final double x = segments.get(i + 1).getX();
-				final double y = segments.get(i + 1).getY();
+				final double cpx = path.getSegmentX(i);
+				final double cpy = path.getSegmentY(i);
+				final double x = path.getSegmentX(i + 1);
+				final double y = path.getSegmentY(i + 1);
 
 				final double cp1x = current.getX() + 2.0 / 3.0 * (cpx - current.getX());
 				final double cp1y = current.getY() + 2.0 / 3.0 * (cpy - current.getY());
@@ -783,4 +812,6 @@ public class WPdfImage extends WResource implements WPaintDevice {
     private ByteArrayOutputStream bos;
     
     private FontSupport trueTypeFonts;
+
+    private static final Map<PDF, Map<String, Image>> embeddedImages = new WeakHashMap<PDF, Map<String, Image>>();
 }
@@ -1,5 +1,6 @@
 package eu.webtoolkit.jwt;
 
+import java.awt.AlphaComposite;
 import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Font;
@@ -17,20 +18,18 @@ import java.awt.geom.GeneralPath;
 import java.awt.geom.Line2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.text.AttributedCharacterIterator;
 import java.text.AttributedString;
 import java.util.EnumSet;
-import java.util.Iterator;
-
-import javax.imageio.ImageIO;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import eu.webtoolkit.jwt.WPainterPath.Segment;
 import eu.webtoolkit.jwt.servlet.WebRequest;
 import eu.webtoolkit.jwt.servlet.WebResponse;
 import eu.webtoolkit.jwt.utils.EnumUtils;
@@ -49,11 +48,12 @@ public class WRasterPaintDevice extends WResource implements WPaintDevice {
 	private WPainter painter;
 	private EnumSet<PainterChangeFlag> changeFlags;
 
+	private BufferedImage buffer;
 	private BufferedImage image;
 	private Graphics2D g2;
 	private Paint penPaint, brushPaint;
 
-	private volatile ByteArrayOutputStream output;
+	private volatile Future<byte[]> output;
 
 	public WRasterPaintDevice(String format, WLength width, WLength height) {
 		this.width = width;
@@ -64,28 +64,65 @@ public class WRasterPaintDevice extends WResource implements WPaintDevice {
 		    throw new RuntimeException("Unsupported format: " + format);
 		this.changeFlags = EnumSet.noneOf(PainterChangeFlag.class);
 		
-		if (width.toPixels() > 0 && height.toPixels() > 0)
-			this.image = new BufferedImage((int)width.toPixels(), (int)height.toPixels(), BufferedImage.TYPE_INT_ARGB);
+		if (width.toPixels() > 0 && height.toPixels() > 0) {
+			this.buffer = RasterRenderingService.acquire((int)width.toPixels(), (int)height.toPixels());
+			this.image = buffer.getSubimage(0, 0, (int)width.toPixels(), (int)height.toPixels());
+			Graphics2D g = image.createGraphics();
+			g.setComposite(AlphaComposite.Clear);
+			g.fillRect(0, 0, image.getWidth(), image.getHeight());
+			g.dispose();
+		}
+
+		// the image is encoded outside of the session lock, see done()
+		setTakesUpdateLock(false);
 	}
 
 	protected void handleRequest(WebRequest request, WebResponse response) throws IOException {
 		response.setContentType("image/png");
-		ByteArrayOutputStream out = output;
-		if (out != null)
-			out.writeTo(response.getOutputStream());
+		Future<byte[]> out = output;
+		if (out != null) {
+			try {
+				response.getOutputStream().write(out.get());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException();
+			} catch (ExecutionException e) {
+				logger.error("Unexpected exception when writing png to byte buffer", e.getCause());
+			}
+		}
 	}
 
+	/**
+	 * Finishes painting, and encodes the image.
+	 * <p>
+	 * A copy of the image is encoded as PNG by the {@link RasterRenderingService},
+	 * so that painting may continue on this device while the image is encoded.
+	 */
 	@Override
 	public void done() {
 		if (image == null)
 			return;
 
-		ByteArrayOutputStream out = new ByteArrayOutputStream();
-		try {
-		  ImageIO.write(image, "png", out);
-		  output = out;
-		} catch (IOException e) {
-			logger.error("Unexpected IOException when writing png to byte buffer", e);
+		BufferedImage snapshot = RasterRenderingService.acquire(image.getWidth(), image.getHeight());
+		image.copyData(snapshot.getRaster().createWritableChild(0, 0, image.getWidth(), image.getHeight(), 0, 0, null));
+		output = RasterRenderingService.encode(snapshot, image.getWidth(), image.getHeight());
+	}
+
+	/**
+	 * Returns the image buffer to the pool of the {@link RasterRenderingService}.
+	 * <p>
+	 * The device can no longer be painted on, but the last encoded image is
+	 * still served.
+	 */
+	void recycle() {
+		if (g2 != null) {
+			g2.dispose();
+			g2 = null;
+		}
+		if (buffer != null) {
+			RasterRenderingService.release(buffer);
+			buffer = null;
+			image = null;
 		}
 	}
 
@@ -99,7 +136,11 @@ public class WRasterPaintDevice extends WResource implements WPaintDevice {
 	public void drawImage(WRectF rect, String imageUri, int imgWidth, int imgHeight, WRectF sourceRect) {
 		processChangeFlags();
 		try {
-			BufferedImage image = ImageIO.read(new File(imageUri));
+			BufferedImage image = ImageCache.read(new File(imageUri));
+			if (image == null) {
+				logger.error("Could not decode image: " + imageUri);
+				return;
+			}
 			BufferedImage subImg = image.getSubimage((int)sourceRect.getLeft(), (int)sourceRect.getTop(), (int)sourceRect.getWidth(), (int)sourceRect.getHeight());
 			float xScale = (float)(rect.getWidth() / sourceRect.getWidth());
 			float yScale = (float)(rect.getHeight() / sourceRect.getHeight());
@@ -133,42 +174,36 @@ public class WRasterPaintDevice extends WResource implements WPaintDevice {
 	public static Shape createShape(WPainterPath path) {
 		GeneralPath p = new GeneralPath();
 
-		for (Iterator<Segment> i = path.getSegments().iterator(); i.hasNext();) {
-			Segment s = i.next();
-			switch (s.getType()) {
+		int count = path.getSegmentCount();
+		for (int i = 0; i < count; ++i) {
+			double x = path.getSegmentX(i);
+			double y = path.getSegmentY(i);
+			switch (path.getSegmentType(i)) {
 			case MoveTo:
-				p.moveTo((float)s.getX(), (float)s.getY());
+				p.moveTo((float)x, (float)y);
 				break;
 			case LineTo:
-				p.lineTo((float)s.getX(), (float)s.getY());
+				p.lineTo((float)x, (float)y);
 				break;
 			case QuadC:
-				double x1 = s.getX();
-				double y1 = s.getY();
-				s = i.next();
-				p.quadTo((float)x1, (float)y1, (float)s.getX(), (float)s.getY());
+				++i;
+				p.quadTo((float)x, (float)y, (float)path.getSegmentX(i), (float)path.getSegmentY(i));
 				break;
 			case CubicC1:
-				x1 = s.getX();
-				y1 = s.getY();
-				s = i.next();
-				double x2 = s.getX();
-				double y2 = s.getY();
-				s = i.next();
-				p.curveTo((float)x1, (float)y1, (float)x2, (float)y2, (float)s.getX(), (float)s.getY());
+				double x2 = path.getSegmentX(i + 1);
+				double y2 = path.getSegmentY(i + 1);
+				i += 2;
+				p.curveTo((float)x, (float)y, (float)x2, (float)y2, (float)path.getSegmentX(i), (float)path.getSegmentY(i));
 				break;
 			case ArcC:
-				double cx = s.getX();
-				double cy = s.getY();
-				s = i.next();
-				double rx = s.getX();
-				double ry = s.getY();
-				s = i.next();
-				Arc2D arc = new Arc2D.Double((float)(cx - rx), (float)(cy - ry), (float)(rx * 2), (float)(ry * 2), (float)s.getX(), (float)s.getY(), Arc2D.OPEN);
+				double rx = path.getSegmentX(i + 1);
+				double ry = path.getSegmentY(i + 1);
+				i += 2;
+				Arc2D arc = new Arc2D.Double((float)(x - rx), (float)(y - ry), (float)(rx * 2), (float)(ry * 2), (float)path.getSegmentX(i), (float)path.getSegmentY(i), Arc2D.OPEN);
 				p.append(arc, true);
 				break;
 			default:
-				throw new RuntimeException("Unexpected segment type: " + s.getType());
+				throw new RuntimeException("Unexpected segment type: " + path.getSegmentType(i));
 			}
 		}
 		return p;
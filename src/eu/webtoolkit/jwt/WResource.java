@@ -5,16 +5,27 @@
  */
 package eu.webtoolkit.jwt;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import eu.webtoolkit.jwt.WebSession.Handler;
 import eu.webtoolkit.jwt.servlet.UploadedFile;
 import eu.webtoolkit.jwt.servlet.WebRequest;
 import eu.webtoolkit.jwt.servlet.WebResponse;
+import eu.webtoolkit.jwt.utils.MathUtils;
 
 /**
  * An object which can be rendered in the HTTP protocol.
@@ -51,6 +62,8 @@ import eu.webtoolkit.jwt.servlet.WebResponse;
  * @see WImage
  */
 public abstract class WResource extends WObject {
+	private static final Logger logger = LoggerFactory.getLogger(WResource.class);
+
 	/**
 	 * Values for the disposition type in the Content-Disposition header
 	 */
@@ -69,6 +82,29 @@ public abstract class WResource extends WObject {
 		Inline
 	};
 	
+	/**
+	 * A source of data for a streamed response.
+	 * <p>
+	 * The data is pulled in chunks by {@link WResource#streamResponse(WebRequest, WebResponse, DataProducer)}
+	 * when the response can accept more output.
+	 */
+	public interface DataProducer {
+		/**
+		 * Returns the next chunk of data.
+		 * <p>
+		 * The remaining bytes of the buffer are written. Returns <code>null</code>
+		 * when there is no more data.
+		 */
+		public ByteBuffer next() throws IOException;
+
+		/**
+		 * Releases the resources of the producer.
+		 * <p>
+		 * This is called once, when the response is done or has failed.
+		 */
+		public void close();
+	}
+
 	private Signal dataChanged_ = new Signal(this);
 
 	private String suggestedFileName_;
@@ -486,4 +522,263 @@ public abstract class WResource extends WObject {
 	}
 
 	private Signal1<Long> dataExceeded_ = new Signal1<Long>();
+
+	/**
+	 * Streams a response from a producer.
+	 * <p>
+	 * When the request can be handled asynchronously, the response is written
+	 * with non-blocking I/O (using a {@link javax.servlet.WriteListener}): a
+	 * chunk is pulled from the producer whenever the connection can accept more
+	 * data, and no thread is held while waiting for a slow client. This method
+	 * then returns immediately, and the producer is called later from a
+	 * container thread, without the update lock: it must not access widget
+	 * state. The asynchronous request does not time out while it is streaming.
+	 * <p>
+	 * Otherwise, the data is written before this method returns.
+	 * <p>
+	 * The status and headers of the response should be set before calling this
+	 * method, and nothing else should be written to the response.
+	 * 
+	 * @param request the request
+	 * @param response the response
+	 * @param producer the source of the data
+	 * @throws IOException
+	 */
+	protected void streamResponse(WebRequest request, WebResponse response, DataProducer producer)
+			throws IOException {
+		ResponseStreamer.stream(request, response, producer);
+	}
+
+	/*
+	 * A request with more ranges than this is answered with the whole file.
+	 */
+	private static final int MAX_RANGES = 16;
+
+	/**
+	 * Serves a file.
+	 * <p>
+	 * This is a utility method for resources that stream a file, which
+	 * implements the caching and partial content features of HTTP:
+	 * <ul>
+	 * <li>the response has a strong <code>ETag</code>, computed from the size
+	 * and modification time of the file, and a <code>Last-Modified</code>
+	 * header;</li>
+	 * <li>a conditional request (<code>If-None-Match</code> or
+	 * <code>If-Modified-Since</code>) for an unchanged file is answered with
+	 * <code>304 Not Modified</code>;</li>
+	 * <li>a <code>Range</code> request is answered with the requested byte range,
+	 * or with a <code>multipart/byteranges</code> body for several ranges,
+	 * honoring <code>If-Range</code>.</li>
+	 * </ul>
+	 * <p>
+	 * The file is copied with {@link FileChannel#transferTo(long, long, WritableByteChannel)}.
+	 * When the servlet container supports it (Tomcat's sendfile), a single
+	 * range is handed to the container to be sent without copying.
+	 * <p>
+	 * The content type of the response should be set before calling this
+	 * method. If the file cannot be read, the response status is 404.
+	 * 
+	 * @param request the request
+	 * @param response the response
+	 * @param file the file
+	 * @throws IOException
+	 */
+	protected void serveFile(WebRequest request, WebResponse response, File file) throws IOException {
+		if (!file.isFile() || !file.canRead()) {
+			logger.info("Could not find file: {}", file);
+			response.setStatus(404);
+			return;
+		}
+
+		final long length = file.length();
+		final long lastModified = file.lastModified();
+		final String eTag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+		response.setHeader("ETag", eTag);
+		response.setDateHeader("Last-Modified", lastModified);
+		response.setHeader("Accept-Ranges", "bytes");
+
+		if (isNotModified(request, eTag, lastModified)) {
+			response.setStatus(304);
+			return;
+		}
+
+		List<long[]> ranges = null;
+		String range = request.getHeader("Range");
+		if (range != null && isRangeCurrent(request, eTag, lastModified))
+			ranges = parseRanges(range, length);
+
+		boolean head = "HEAD".equals(request.getMethod());
+
+		if (ranges != null && ranges.isEmpty()) {
+			response.setStatus(416);
+			response.setHeader("Content-Range", "bytes */" + length);
+			return;
+		}
+
+		if (ranges == null || ranges.size() == 1) {
+			long start = 0, end = length - 1;
+			if (ranges != null) {
+				start = ranges.get(0)[0];
+				end = ranges.get(0)[1];
+				response.setStatus(206);
+				response.setHeader("Content-Range", "bytes " + start + "-" + end + "/" + length);
+			}
+			response.setContentLengthLong(end - start + 1);
+			if (head || end < start)
+				return;
+
+			if (Boolean.TRUE.equals(request.getAttribute("org.apache.tomcat.sendfile.support"))) {
+				request.setAttribute("org.apache.tomcat.sendfile.filename", file.getAbsolutePath());
+				request.setAttribute("org.apache.tomcat.sendfile.start", start);
+				request.setAttribute("org.apache.tomcat.sendfile.end", end + 1);
+				return;
+			}
+
+			FileChannel channel = FileChannel.open(file.toPath());
+			try {
+				transfer(channel, start, end - start + 1, response.getOutputStream());
+			} finally {
+				channel.close();
+			}
+		} else {
+			String boundary = MathUtils.randomId();
+			String contentType = response.getContentType();
+			List<byte[]> partHeaders = new ArrayList<byte[]>();
+			long contentLength = 0;
+			for (long[] r : ranges) {
+				StringBuilder partHeader = new StringBuilder();
+				partHeader.append("\r\n--").append(boundary).append("\r\n");
+				if (contentType != null)
+					partHeader.append("Content-Type: ").append(contentType).append("\r\n");
+				partHeader.append("Content-Range: bytes ").append(r[0]).append('-').append(r[1])
+						.append('/').append(length).append("\r\n\r\n");
+				byte[] bytes = partHeader.toString().getBytes(StandardCharsets.ISO_8859_1);
+				partHeaders.add(bytes);
+				contentLength += bytes.length + r[1] - r[0] + 1;
+			}
+			byte[] trailer = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.ISO_8859_1);
+			contentLength += trailer.length;
+
+			response.setStatus(206);
+			response.setContentType("multipart/byteranges; boundary=" + boundary);
+			response.setContentLengthLong(contentLength);
+			if (head)
+				return;
+
+			OutputStream out = response.getOutputStream();
+			FileChannel channel = FileChannel.open(file.toPath());
+			try {
+				for (int i = 0; i < ranges.size(); ++i) {
+					long[] r = ranges.get(i);
+					out.write(partHeaders.get(i));
+					transfer(channel, r[0], r[1] - r[0] + 1, out);
+				}
+				out.write(trailer);
+			} finally {
+				channel.close();
+			}
+		}
+	}
+
+	private static boolean isNotModified(WebRequest request, String eTag, long lastModified) {
+		String ifNoneMatch = request.getHeader("If-None-Match");
+		if (ifNoneMatch != null) {
+			for (String tag : ifNoneMatch.split(",")) {
+				tag = tag.trim();
+				if (tag.startsWith("W/"))
+					tag = tag.substring(2);
+				if (tag.equals("*") || tag.equals(eTag))
+					return true;
+			}
+			return false;
+		}
+
+		if (request.getHeader("If-Modified-Since") != null) {
+			try {
+				long since = request.getDateHeader("If-Modified-Since");
+				return since >= 0 && lastModified / 1000 <= since / 1000;
+			} catch (IllegalArgumentException e) {
+				return false;
+			}
+		}
+
+		return false;
+	}
+
+	private static boolean isRangeCurrent(WebRequest request, String eTag, long lastModified) {
+		String ifRange = request.getHeader("If-Range");
+		if (ifRange == null)
+			return true;
+
+		ifRange = ifRange.trim();
+		if (ifRange.startsWith("\"") || ifRange.startsWith("W/"))
+			return ifRange.equals(eTag);
+
+		try {
+			return lastModified / 1000 == request.getDateHeader("If-Range") / 1000;
+		} catch (IllegalArgumentException e) {
+			return false;
+		}
+	}
+
+	/*
+	 * Parses a Range header into inclusive byte ranges of a file of the given
+	 * length. Returns null if the header is to be ignored (invalid or too many
+	 * ranges), and an empty list if no range is satisfiable.
+	 */
+	static List<long[]> parseRanges(String header, long length) {
+		header = header.trim();
+		if (!header.startsWith("bytes="))
+			return null;
+
+		String[] specs = header.substring(6).split(",");
+		if (specs.length > MAX_RANGES)
+			return null;
+
+		List<long[]> result = new ArrayList<long[]>();
+		try {
+			for (String spec : specs) {
+				spec = spec.trim();
+				int dash = spec.indexOf('-');
+				if (dash == -1)
+					return null;
+				String first = spec.substring(0, dash).trim();
+				String last = spec.substring(dash + 1).trim();
+				long start, end;
+				if (first.isEmpty()) {
+					long suffix = Long.parseLong(last);
+					if (suffix < 0)
+						return null;
+					if (suffix == 0 || length == 0)
+						continue;
+					start = Math.max(0, length - suffix);
+					end = length - 1;
+				} else {
+					start = Long.parseLong(first);
+					end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+					if (start < 0 || end < start)
+						return null;
+					if (start >= length)
+						continue;
+					end = Math.min(end, length - 1);
+				}
+				result.add(new long[] { start, end });
+			}
+		} catch (NumberFormatException e) {
+			return null;
+		}
+		return result;
+	}
+
+	private static void transfer(FileChannel channel, long position, long count, OutputStream out) throws IOException {
+		WritableByteChannel target = Channels.newChannel(out);
+		while (count > 0) {
+			long n = channel.transferTo(position, count, target);
+			if (n <= 0)
+				throw new IOException("File truncated while it was being sent");
+			position += n;
+			count -= n;
+		}
+	}
 }
@@ -91,6 +91,8 @@ public class WSortFilterProxyModel extends WAbstractProxyModel {
     this.modelConnections_ = new ArrayList<AbstractSignal.Connection>();
     this.mappedIndexes_ = new TreeMap<WModelIndex, WAbstractProxyModel.BaseItem>();
     this.mappedRootItem_ = null;
+    this.parallelSortThreshold_ = 50000;
+    this.defaultCompare_ = !overridesCompare.get(this.getClass());
   }
 
   public WModelIndex mapFromSource(final WModelIndex sourceIndex) {
@@ -390,6 +392,28 @@ public class WSortFilterProxyModel extends WAbstractProxyModel {
   public boolean isDynamicSortFilter() {
     return this.dynamic_;
   }
+  /**
+   * Sets the number of rows from which the proxy sorts in parallel.
+   *
+   * <p>When sorting at least this number of rows, the sort keys are compared on multiple threads.
+   * This is only done when {@link WSortFilterProxyModel#compare(WModelIndex lhs, WModelIndex rhs)
+   * compare()} is not specialized, and all sort keys are of the same type.
+   *
+   * <p>The default value is 50000. Use {@link Integer#MAX_VALUE} to never sort in parallel.
+   */
+  public void setParallelSortThreshold(int rows) {
+    this.parallelSortThreshold_ = rows;
+  }
+  /**
+   * Returns the number of rows from which the proxy sorts in parallel.
+   *
+   * <p>
+   *
+   * @see WSortFilterProxyModel#setParallelSortThreshold(int rows)
+   */
+  public int getParallelSortThreshold() {
+    return this.parallelSortThreshold_;
+  }
   /**
    * Invalidates the current filter.
    *
@@ -478,8 +502,8 @@ public class WSortFilterProxyModel extends WAbstractProxyModel {
     }
     WSortFilterProxyModel.Item item = this.itemFromIndex(parent);
     this.beginInsertRows(parent, row, row);
-    item.proxyRowMap_.add(sourceRow);
-    item.sourceRowMap_.add(0 + sourceRow, row);
+    item.proxyRowMap_.insert(item.proxyRowMap_.size(), sourceRow);
+    item.sourceRowMap_.insert(sourceRow, row);
     this.endInsertRows();
     return true;
   }
@@ -541,16 +565,73 @@ public class WSortFilterProxyModel extends WAbstractProxyModel {
   static class Item extends WAbstractProxyModel.BaseItem {
     private static Logger logger = LoggerFactory.getLogger(Item.class);
 
-    public List<Integer> sourceRowMap_;
-    public List<Integer> proxyRowMap_;
+    public WSortFilterProxyModel.RowMap sourceRowMap_;
+    public WSortFilterProxyModel.RowMap proxyRowMap_;
 
     public Item(final WModelIndex sourceIndex) {
       super(sourceIndex);
-      this.sourceRowMap_ = new ArrayList<Integer>();
-      this.proxyRowMap_ = new ArrayList<Integer>();
+      this.sourceRowMap_ = new WSortFilterProxyModel.RowMap();
+      this.proxyRowMap_ = new WSortFilterProxyModel.RowMap();
     }
   }
 
+  static class RowMap {
+    private static Logger logger = LoggerFactory.getLogger(RowMap.class);
+
+    public RowMap() {
+      this.rows_ = new int[0];
+      this.size_ = 0;
+    }
+
+    public int size() {
+      return this.size_;
+    }
+
+    public int get(int index) {
+      if (index >= this.size_) {
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size_);
+      }
+      return this.rows_[index];
+    }
+
+    public void set(int index, int row) {
+      if (index >= this.size_) {
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size_);
+      }
+      this.rows_[index] = row;
+    }
+
+    public void insert(int index, int row) {
+      this.insert(index, row, 1);
+    }
+
+    public void insert(int index, int row, int count) {
+      if (this.size_ + count > this.rows_.length) {
+        this.rows_ = Arrays.copyOf(this.rows_, Math.max(this.size_ + count, 2 * this.rows_.length));
+      }
+      System.arraycopy(this.rows_, index, this.rows_, index + count, this.size_ - index);
+      Arrays.fill(this.rows_, index, index + count, row);
+      this.size_ += count;
+    }
+
+    public void remove(int index) {
+      this.remove(index, 1);
+    }
+
+    public void remove(int index, int count) {
+      System.arraycopy(this.rows_, index + count, this.rows_, index, this.size_ - index - count);
+      this.size_ -= count;
+    }
+
+    public void assign(int[] rows, int size) {
+      this.rows_ = rows;
+      this.size_ = size;
+    }
+
+    private int[] rows_;
+    private int size_;
+  }
+
   static class Compare implements Comparator<Integer> {
     private static Logger logger = LoggerFactory.getLogger(Compare.class);
 
@@ -587,6 +668,8 @@ public class WSortFilterProxyModel extends WAbstractProxyModel {
   private ItemDataRole sortRole_;
   private SortOrder sortOrder_;
   private boolean dynamic_;
+  private int parallelSortThreshold_;
+  private boolean defaultCompare_;
   private boolean inserting_;
   private List<AbstractSignal.Connection> modelConnections_;
   private SortedMap<WModelIndex, WAbstractProxyModel.BaseItem> mappedIndexes_;
@@ -635,11 +718,7 @@ public class WSortFilterProxyModel extends WAbstractProxyModel {
         item.proxyRowMap_.set(i, item.proxyRowMap_.get(i) + count);
       }
     }
-    {
-      int insertPos = 0 + start;
-      for (int ii = 0; ii < (count); ++ii) item.sourceRowMap_.add(insertPos + ii, -1);
-    }
-    ;
+    item.sourceRowMap_.insert(start, -1, count);
     if (!this.dynamic_) {
       return;
     }
@@ -647,8 +726,7 @@ public class WSortFilterProxyModel extends WAbstractProxyModel {
       int newMappedRow = this.mappedInsertionPoint(row, item);
       if (newMappedRow != -1) {
         this.beginInsertRows(pparent, newMappedRow, newMappedRow);
-        item.proxyRowMap_.add(0 + newMappedRow, row);
-        this.rebuildSourceRowMap(item);
+        this.insertProxyRow(item, newMappedRow, row);
         this.endInsertRows();
       } else {
         item.sourceRowMap_.set(row, -1);
@@ -666,8 +744,7 @@ public class WSortFilterProxyModel extends WAbstractProxyModel {
       int mappedRow = item.sourceRowMap_.get(row);
       if (mappedRow != -1) {
         this.beginRemoveRows(pparent, mappedRow, mappedRow);
-        item.proxyRowMap_.remove(0 + mappedRow);
-        this.rebuildSourceRowMap(item);
+        this.removeProxyRow(item, mappedRow);
         this.endRemoveRows();
       }
     }
@@ -688,9 +765,7 @@ public class WSortFilterProxyModel extends WAbstractProxyModel {
         item.proxyRowMap_.set(i, item.proxyRowMap_.get(i) - count);
       }
     }
-    for (int ii = 0; ii < (0 + start + count) - (0 + start); ++ii)
-      item.sourceRowMap_.remove(0 + start);
-    ;
+    item.sourceRowMap_.remove(start, count);
   }
 
   private void sourceDataChanged(final WModelIndex topLeft, final WModelIndex bottomRight) {
@@ -715,23 +790,21 @@ public class WSortFilterProxyModel extends WAbstractProxyModel {
       boolean propagateDataChange = oldMappedRow != -1;
       if (refilter || resort) {
         if (oldMappedRow != -1) {
-          item.proxyRowMap_.remove(0 + oldMappedRow);
+          item.proxyRowMap_.remove(oldMappedRow);
         }
         int newMappedRow = this.mappedInsertionPoint(row, item);
         if (oldMappedRow != -1) {
-          item.proxyRowMap_.add(0 + oldMappedRow, row);
+          item.proxyRowMap_.insert(oldMappedRow, row);
         }
         if (newMappedRow != oldMappedRow) {
           if (oldMappedRow != -1) {
             this.beginRemoveRows(parent, oldMappedRow, oldMappedRow);
-            item.proxyRowMap_.remove(0 + oldMappedRow);
-            this.rebuildSourceRowMap(item);
+            this.removeProxyRow(item, oldMappedRow);
             this.endRemoveRows();
           }
           if (newMappedRow != -1) {
             this.beginInsertRows(parent, newMappedRow, newMappedRow);
-            item.proxyRowMap_.add(0 + newMappedRow, row);
-            this.rebuildSourceRowMap(item);
+            this.insertProxyRow(item, newMappedRow, row);
             this.endInsertRows();
           }
           propagateDataChange = false;
@@ -827,27 +900,77 @@ public class WSortFilterProxyModel extends WAbstractProxyModel {
 
   private void updateItem(WSortFilterProxyModel.Item item) {
     int sourceRowCount = this.getSourceModel().getRowCount(item.sourceIndex_);
-    CollectionUtils.resize(item.sourceRowMap_, sourceRowCount);
-    item.proxyRowMap_.clear();
+    int[] sourceRowMap = new int[sourceRowCount];
+    int[] proxyRowMap = new int[sourceRowCount];
+    int proxyRowCount = 0;
     for (int i = 0; i < sourceRowCount; ++i) {
       if (this.filterAcceptRow(i, item.sourceIndex_)) {
-        item.sourceRowMap_.set(i, item.proxyRowMap_.size());
-        item.proxyRowMap_.add(i);
+        sourceRowMap[i] = proxyRowCount;
+        proxyRowMap[proxyRowCount++] = i;
       } else {
-        item.sourceRowMap_.set(i, -1);
+        sourceRowMap[i] = -1;
       }
     }
     if (this.sortKeyColumn_ != -1) {
-      Collections.sort(item.proxyRowMap_, new WSortFilterProxyModel.Compare(this, item));
-      this.rebuildSourceRowMap(item);
+      this.sortRows(proxyRowMap, proxyRowCount, sourceRowCount, item);
+      for (int i = 0; i < proxyRowCount; ++i) {
+        sourceRowMap[proxyRowMap[i]] = i;
+      }
     }
+    item.sourceRowMap_.assign(sourceRowMap, sourceRowCount);
+    item.proxyRowMap_.assign(proxyRowMap, proxyRowCount);
   }
 
-  private void rebuildSourceRowMap(WSortFilterProxyModel.Item item) {
-    for (int i = 0; i < item.sourceRowMap_.size(); ++i) {
-      item.sourceRowMap_.set(i, -1);
+  private void sortRows(
+      int[] rows, int count, int sourceRowCount, final WSortFilterProxyModel.Item item) {
+    if (!this.defaultCompare_) {
+      final WSortFilterProxyModel.Compare compare = new WSortFilterProxyModel.Compare(this, item);
+      CollectionUtils.sort(rows, count, (r1, r2) -> compare.compare(r1, r2));
+      return;
     }
-    for (int i = 0; i < item.proxyRowMap_.size(); ++i) {
+    final Object[] keys = new Object[sourceRowCount];
+    Class<?> keyClass = null;
+    boolean uniformKeys = true;
+    for (int i = 0; i < count; ++i) {
+      Object key =
+          this.getSourceModel()
+              .getIndex(rows[i], this.sortKeyColumn_, item.sourceIndex_)
+              .getData(this.sortRole_);
+      if (key instanceof WString) {
+        key = key.toString();
+      }
+      if (key != null) {
+        if (keyClass == null) {
+          keyClass = key.getClass();
+        } else if (keyClass != key.getClass()) {
+          uniformKeys = false;
+        }
+      }
+      keys[rows[i]] = key;
+    }
+    final int factor = this.sortOrder_ == SortOrder.Ascending ? 1 : -1;
+    if (uniformKeys && count >= this.parallelSortThreshold_) {
+      CollectionUtils.parallelSort(
+          rows, count, (r1, r2) -> factor * ObjectUtils.compare(keys[r1], keys[r2]));
+    } else {
+      CollectionUtils.sort(
+          rows, count, (r1, r2) -> factor * ObjectUtils.compare(keys[r1], keys[r2]));
+    }
+  }
+
+  private void insertProxyRow(WSortFilterProxyModel.Item item, int proxyRow, int sourceRow) {
+    item.proxyRowMap_.insert(proxyRow, sourceRow);
+    this.updateSourceRowMap(item, proxyRow);
+  }
+
+  private void removeProxyRow(WSortFilterProxyModel.Item item, int proxyRow) {
+    item.sourceRowMap_.set(item.proxyRowMap_.get(proxyRow), -1);
+    item.proxyRowMap_.remove(proxyRow);
+    this.updateSourceRowMap(item, proxyRow);
+  }
+
+  private void updateSourceRowMap(WSortFilterProxyModel.Item item, int fromProxyRow) {
+    for (int i = fromProxyRow; i < item.proxyRowMap_.size(); ++i) {
       item.sourceRowMap_.set(item.proxyRowMap_.get(i), i);
     }
   }
@@ -857,8 +980,41 @@ public class WSortFilterProxyModel extends WAbstractProxyModel {
     if (!acceptRow) {
       return -1;
     } else {
-      return CollectionUtils.insertionPoint(
-          item.proxyRowMap_, sourceRow, new WSortFilterProxyModel.Compare(this, item));
+      WSortFilterProxyModel.Compare compare = new WSortFilterProxyModel.Compare(this, item);
+      int lo = 0;
+      int hi = item.proxyRowMap_.size();
+      while (lo < hi) {
+        int mid = (lo + hi) >>> 1;
+        int midRow = item.proxyRowMap_.get(mid);
+        int c = compare.compare(midRow, sourceRow);
+        if (c == 0) {
+          c = midRow - sourceRow;
+        }
+        if (c < 0) {
+          lo = mid + 1;
+        } else {
+          hi = mid;
+        }
+      }
+      return lo;
+    }
+  }
+
+  private static final ClassValue<Boolean> overridesCompare =
+      new ClassValue<Boolean>() {
+        protected Boolean computeValue(Class<?> c) {
+          return overridesCompare(c);
+        }
+      };
+
+  private static boolean overridesCompare(Class<?> c) {
+    for (; c != WSortFilterProxyModel.class; c = c.getSuperclass()) {
+      try {
+        c.getDeclaredMethod("compare", WModelIndex.class, WModelIndex.class);
+        return true;
+      } catch (NoSuchMethodException e) {
+      }
     }
+    return false;
   }
 }
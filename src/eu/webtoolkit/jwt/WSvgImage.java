@@ -786,21 +786,21 @@ public class WSvgImage extends WResource implements WVectorImage {
       this.pathTranslation_.setX(0);
       this.pathTranslation_.setY(0);
     }
-    final List<WPainterPath.Segment> segments = path.getSegments();
-    if (!segments.isEmpty() && segments.get(0).getType() != SegmentType.MoveTo) {
+    int count = path.getSegmentCount();
+    if (count != 0 && path.getSegmentType(0) != SegmentType.MoveTo) {
       out.append("M0,0");
     }
-    for (int i = 0; i < segments.size(); ++i) {
-      final WPainterPath.Segment s = segments.get(i);
-      if (s.getType() == SegmentType.ArcC) {
+    for (int i = 0; i < count; ++i) {
+      final SegmentType type = path.getSegmentType(i);
+      if (type == SegmentType.ArcC) {
         WPointF current = path.getPositionAtSegment(i);
-        final double cx = segments.get(i).getX();
-        final double cy = segments.get(i).getY();
-        final double rx = segments.get(i + 1).getX();
-        final double ry = segments.get(i + 1).getY();
-        final double theta1 = -WTransform.degreesToRadians(segments.get(i + 2).getX());
+        final double cx = path.getSegmentX(i);
+        final double cy = path.getSegmentY(i);
+        final double rx = path.getSegmentX(i + 1);
+        final double ry = path.getSegmentY(i + 1);
+        final double theta1 = -WTransform.degreesToRadians(path.getSegmentX(i + 2));
         final double deltaTheta =
-            -WTransform.degreesToRadians(adjust360(segments.get(i + 2).getY()));
+            -WTransform.degreesToRadians(adjust360(path.getSegmentY(i + 2)));
         i += 2;
         final double x1 = rx * Math.cos(theta1) + cx;
         final double y1 = ry * Math.sin(theta1) + cy;
@@ -825,7 +825,7 @@ public class WSvgImage extends WResource implements WVectorImage {
         out.append(' ').append(MathUtils.roundJs(x3 + this.pathTranslation_.getX(), 3));
         out.append(',').append(MathUtils.roundJs(y3 + this.pathTranslation_.getY(), 3));
       } else {
-        switch (s.getType()) {
+        switch (type) {
           case MoveTo:
             out.append('M');
             break;
@@ -848,8 +848,9 @@ public class WSvgImage extends WResource implements WVectorImage {
           default:
             assert false;
         }
-        out.append(MathUtils.roundJs(s.getX() + this.pathTranslation_.getX(), 3));
-        out.append(',').append(MathUtils.roundJs(s.getY() + this.pathTranslation_.getY(), 3));
+        out.append(MathUtils.roundJs(path.getSegmentX(i) + this.pathTranslation_.getX(), 3));
+        out.append(',')
+            .append(MathUtils.roundJs(path.getSegmentY(i) + this.pathTranslation_.getY(), 3));
       }
     }
   }
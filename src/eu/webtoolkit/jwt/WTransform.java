@@ -345,24 +345,16 @@ public class WTransform extends WJavaScriptExposableObject {
       result.assignBinding(
           o, "Wt4_11_1.gfxUtils.transform_apply(" + this.getJsRef() + ',' + path.getJsRef() + ')');
     }
-    final List<WPainterPath.Segment> sourceSegments = path.getSegments();
-    for (int i = 0; i < sourceSegments.size(); ++i) {
-      double tx;
-      double ty;
-      if (sourceSegments.get(i).getType() == SegmentType.ArcR
-          || sourceSegments.get(i).getType() == SegmentType.ArcAngleSweep) {
-        result.segments_.add(sourceSegments.get(i));
+    for (int i = 0; i < path.getSegmentCount(); ++i) {
+      double x = path.getSegmentX(i);
+      double y = path.getSegmentY(i);
+      SegmentType type = path.getSegmentType(i);
+      if (type == SegmentType.ArcR || type == SegmentType.ArcAngleSweep) {
+        result.add(x, y, type);
       } else {
-        tx =
-            this.m_[M11] * sourceSegments.get(i).getX()
-                + this.m_[M12] * sourceSegments.get(i).getY()
-                + this.m_[M13];
-        ty =
-            this.m_[M21] * sourceSegments.get(i).getX()
-                + this.m_[M22] * sourceSegments.get(i).getY()
-                + this.m_[M23];
-        ;
-        result.segments_.add(new WPainterPath.Segment(tx, ty, sourceSegments.get(i).getType()));
+        double tx = this.m_[M11] * x + this.m_[M12] * y + this.m_[M13];
+        double ty = this.m_[M21] * x + this.m_[M22] * y + this.m_[M23];
+        result.add(tx, ty, type);
       }
     }
     return result;
@@ -648,17 +640,19 @@ public class WTransform extends WJavaScriptExposableObject {
    */
   public void decomposeTranslateRotateScaleRotate(final WTransform.TRSRDecomposition result) {
     double[] mtm = new double[4];
-    logger.debug(
-        new StringWriter()
-            .append("M: \n")
-            .append(String.valueOf(this.m_[M11]))
-            .append(" ")
-            .append(String.valueOf(this.m_[M12]))
-            .append("\n   ")
-            .append(String.valueOf(this.m_[M21]))
-            .append(" ")
-            .append(String.valueOf(this.m_[M22]))
-            .toString());
+    if (logger.isDebugEnabled()) {
+      logger.debug(
+          new StringWriter()
+              .append("M: \n")
+              .append(String.valueOf(this.m_[M11]))
+              .append(" ")
+              .append(String.valueOf(this.m_[M12]))
+              .append("\n   ")
+              .append(String.valueOf(this.m_[M21]))
+              .append(" ")
+              .append(String.valueOf(this.m_[M22]))
+              .toString());
+    }
     matrixMultiply(
         this.m_[M11],
         this.m_[M21],
@@ -674,17 +668,19 @@ public class WTransform extends WJavaScriptExposableObject {
     eigenValues(mtm, e, V);
     result.sx = Math.sqrt(e[0]);
     result.sy = Math.sqrt(e[1]);
-    logger.debug(
-        new StringWriter()
-            .append("V: \n")
-            .append(String.valueOf(V[M11]))
-            .append(" ")
-            .append(String.valueOf(V[M12]))
-            .append("\n   ")
-            .append(String.valueOf(V[M21]))
-            .append(" ")
-            .append(String.valueOf(V[M22]))
-            .toString());
+    if (logger.isDebugEnabled()) {
+      logger.debug(
+          new StringWriter()
+              .append("V: \n")
+              .append(String.valueOf(V[M11]))
+              .append(" ")
+              .append(String.valueOf(V[M12]))
+              .append("\n   ")
+              .append(String.valueOf(V[M21]))
+              .append(" ")
+              .append(String.valueOf(V[M22]))
+              .toString());
+    }
     if (V[0] * V[3] - V[1] * V[2] < 0) {
       result.sx = -result.sx;
       V[0] = -V[0];
@@ -696,17 +692,19 @@ public class WTransform extends WJavaScriptExposableObject {
     U[2] /= result.sx;
     U[1] /= result.sy;
     U[3] /= result.sy;
-    logger.debug(
-        new StringWriter()
-            .append("U: \n")
-            .append(String.valueOf(U[M11]))
-            .append(" ")
-            .append(String.valueOf(U[M12]))
-            .append("\n   ")
-            .append(String.valueOf(U[M21]))
-            .append(" ")
-            .append(String.valueOf(U[M22]))
-            .toString());
+    if (logger.isDebugEnabled()) {
+      logger.debug(
+          new StringWriter()
+              .append("U: \n")
+              .append(String.valueOf(U[M11]))
+              .append(" ")
+              .append(String.valueOf(U[M12]))
+              .append("\n   ")
+              .append(String.valueOf(U[M21]))
+              .append(" ")
+              .append(String.valueOf(U[M22]))
+              .toString());
+    }
     if (U[0] * U[3] - U[1] * U[2] < 0) {
       result.sx = -result.sx;
       U[0] = -U[0];
@@ -714,17 +712,19 @@ public class WTransform extends WJavaScriptExposableObject {
     }
     result.alpha1 = Math.atan2(U[2], U[0]);
     result.alpha2 = Math.atan2(V[1], V[0]);
-    logger.debug(
-        new StringWriter()
-            .append("alpha1: ")
-            .append(String.valueOf(result.alpha1))
-            .append(", alpha2: ")
-            .append(String.valueOf(result.alpha2))
-            .append(", sx: ")
-            .append(String.valueOf(result.sx))
-            .append(", sy: ")
-            .append(String.valueOf(result.sy))
-            .toString());
+    if (logger.isDebugEnabled()) {
+      logger.debug(
+          new StringWriter()
+              .append("alpha1: ")
+              .append(String.valueOf(result.alpha1))
+              .append(", alpha2: ")
+              .append(String.valueOf(result.alpha2))
+              .append(", sx: ")
+              .append(String.valueOf(result.sx))
+              .append(", sy: ")
+              .append(String.valueOf(result.sy))
+              .toString());
+    }
     result.dx = this.m_[DX];
     result.dy = this.m_[DY];
   }
@@ -202,7 +202,7 @@ public class WVmlImage implements WVectorImage {
       this.penBrushShadowChanged_ = false;
     }
     StringBuilder tmp = new StringBuilder();
-    final List<WPainterPath.Segment> segments = path.getSegments();
+    final int segmentCount = path.getSegmentCount();
     if (thisPath == -1) {
       tmp.append("<v:shape style=\"width:")
           .append((int) (Z * this.currentRect_.getWidth()))
@@ -212,23 +212,23 @@ public class WVmlImage implements WVectorImage {
       this.activePaths_.add(new WVmlImage.ActivePath());
       thisPath = this.activePaths_.size() - 1;
     }
-    if (segments.size() > 0 && segments.get(0).getType() != SegmentType.MoveTo) {
+    if (segmentCount > 0 && path.getSegmentType(0) != SegmentType.MoveTo) {
       tmp.append("m0,0");
     }
-    for (int i = 0; i < segments.size(); ++i) {
-      final WPainterPath.Segment s = segments.get(i);
-      if (i == segments.size() - 1 && s.getType() == SegmentType.MoveTo) {
+    for (int i = 0; i < segmentCount; ++i) {
+      final SegmentType type = path.getSegmentType(i);
+      if (i == segmentCount - 1 && type == SegmentType.MoveTo) {
         break;
       }
-      double x = s.getX();
-      double y = s.getY();
-      if (s.getType() == SegmentType.ArcC) {
-        double cx = segments.get(i).getX();
-        double cy = segments.get(i).getY();
-        double rx = segments.get(i + 1).getX();
-        double ry = segments.get(i + 1).getY();
-        double theta1 = -WTransform.degreesToRadians(segments.get(i + 2).getX());
-        double deltaTheta = -WTransform.degreesToRadians(segments.get(i + 2).getY());
+      double x = path.getSegmentX(i);
+      double y = path.getSegmentY(i);
+      if (type == SegmentType.ArcC) {
+        double cx = path.getSegmentX(i);
+        double cy = path.getSegmentY(i);
+        double rx = path.getSegmentX(i + 1);
+        double ry = path.getSegmentY(i + 1);
+        double theta1 = -WTransform.degreesToRadians(path.getSegmentX(i + 2));
+        double deltaTheta = -WTransform.degreesToRadians(path.getSegmentY(i + 2));
         i += 2;
         WPointF c = transform.map(new WPointF(cx, cy));
         WPointF p1 = new WPointF(rx * Math.cos(theta1) + cx, ry * Math.sin(theta1) + cy);
@@ -262,7 +262,7 @@ public class WVmlImage implements WVectorImage {
             .append(",")
             .append(myzround(p2.getY()));
       } else {
-        switch (s.getType()) {
+        switch (type) {
           case MoveTo:
             tmp.append("m");
             break;
@@ -279,10 +279,10 @@ public class WVmlImage implements WVectorImage {
           case QuadC:
             {
               WPointF current = path.getPositionAtSegment(i);
-              final double cpx = s.getX();
-              final double cpy = s.getY();
-              final double xend = segments.get(i + 1).getX();
-              final double yend = segments.get(i + 1).getY();
+              final double cpx = path.getSegmentX(i);
+              final double cpy = path.getSegmentY(i);
+              final double xend = path.getSegmentX(i + 1);
+              final double yend = path.getSegmentY(i + 1);
               final double cp1x = current.getX() + 2.0 / 3.0 * (cpx - current.getX());
               final double cp1y = current.getY() + 2.0 / 3.0 * (cpy - current.getY());
               final double cp2x = cp1x + (xend - current.getX()) / 3.0;
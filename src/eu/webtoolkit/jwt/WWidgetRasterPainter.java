@@ -35,6 +35,9 @@ class WWidgetRasterPainter extends WWidgetPainter {
 
   public WPaintDevice getPaintDevice(boolean paintUpdate) {
     if (!(this.device_ != null) || this.widget_.sizeChanged_) {
+      if (this.device_ != null) {
+        (ObjectUtils.cast(this.device_, WRasterPaintDevice.class)).recycle();
+      }
       this.device_ = this.createPaintDevice(paintUpdate);
     }
     if (!paintUpdate) {
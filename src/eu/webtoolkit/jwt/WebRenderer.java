@@ -71,21 +71,25 @@ class WebRenderer implements SlotLearnerInterface {
 
   public void setRendered(boolean how) {
     if (this.rendered_ != how) {
-      logger.debug(
-          new StringWriter().append("setRendered: ").append(String.valueOf(how)).toString());
+      if (logger.isDebugEnabled()) {
+        logger.debug(
+            new StringWriter().append("setRendered: ").append(String.valueOf(how)).toString());
+      }
       this.rendered_ = how;
     }
   }
 
   public void needUpdate(WWidget w, boolean laterOnly) {
-    logger.debug(
-        new StringWriter()
-            .append("needUpdate: ")
-            .append(w.getId())
-            .append(" (")
-            .append("(fixme)")
-            .append(")")
-            .toString());
+    if (logger.isDebugEnabled()) {
+      logger.debug(
+          new StringWriter()
+              .append("needUpdate: ")
+              .append(w.getId())
+              .append(" (")
+              .append("(fixme)")
+              .append(")")
+              .toString());
+    }
     this.updateMap_.add(w);
     if (!laterOnly) {
       this.moreUpdates_ = true;
@@ -93,14 +97,16 @@ class WebRenderer implements SlotLearnerInterface {
   }
 
   public void doneUpdate(WWidget w) {
-    logger.debug(
-        new StringWriter()
-            .append("doneUpdate: ")
-            .append(w.getId())
-            .append(" (")
-            .append("(fixme)")
-            .append(")")
-            .toString());
+    if (logger.isDebugEnabled()) {
+      logger.debug(
+          new StringWriter()
+              .append("doneUpdate: ")
+              .append(w.getId())
+              .append(" (")
+              .append("(fixme)")
+              .append(")")
+              .toString());
+    }
     this.updateMap_.remove(w);
   }
 
@@ -123,7 +129,7 @@ class WebRenderer implements SlotLearnerInterface {
   }
 
   public void saveChanges() throws IOException {
-    this.collectedJS1_.append(this.invisibleJS_.toString());
+    this.collectedJS1_.append(this.invisibleJS_);
     this.invisibleJS_.setLength(0);
     this.collectJS(this.collectedJS1_);
   }
@@ -242,7 +248,7 @@ class WebRenderer implements SlotLearnerInterface {
       app.styleSheetsAdded_ = 0;
       this.initialStyleRendered_ = true;
       this.linkedCssCount_ = app.styleSheets_.size();
-      response.out().append(out.toString());
+      StreamUtils.write(response.out(), out);
     } else {
       if (this.linkedCssCount_ > -1) {
         WApplication app = this.session_.getApp();
@@ -254,7 +260,7 @@ class WebRenderer implements SlotLearnerInterface {
         for (int i = 0; i < count; ++i) {
           app.styleSheets_.get(i).cssText(out);
         }
-        response.out().append(out.toString());
+        StreamUtils.write(response.out(), out);
       }
     }
   }
@@ -296,15 +302,19 @@ class WebRenderer implements SlotLearnerInterface {
   }
 
   public WebRenderer.AckState ackUpdate(int updateId) {
-    logger.debug(
-        new StringWriter()
-            .append("ackUpdate: expecting ")
-            .append(String.valueOf(this.expectedAckId_))
-            .append(", received ")
-            .append(String.valueOf(updateId))
-            .toString());
+    if (logger.isDebugEnabled()) {
+      logger.debug(
+          new StringWriter()
+              .append("ackUpdate: expecting ")
+              .append(String.valueOf(this.expectedAckId_))
+              .append(", received ")
+              .append(String.valueOf(updateId))
+              .toString());
+    }
     if (updateId == this.expectedAckId_) {
-      logger.debug(new StringWriter().append("jsSynced(false) after ackUpdate okay").toString());
+      if (logger.isDebugEnabled()) {
+        logger.debug(new StringWriter().append("jsSynced(false) after ackUpdate okay").toString());
+      }
       this.setJSSynced(false);
       this.ackErrs_ = 0;
       return WebRenderer.AckState.CorrectAck;
@@ -393,12 +403,17 @@ class WebRenderer implements SlotLearnerInterface {
   }
 
   public void setJSSynced(boolean invisibleToo) {
-    logger.debug(
-        new StringWriter().append("setJSSynced: ").append(String.valueOf(invisibleToo)).toString());
+    if (logger.isDebugEnabled()) {
+      logger.debug(
+          new StringWriter()
+              .append("setJSSynced: ")
+              .append(String.valueOf(invisibleToo))
+              .toString());
+    }
     this.collectedJS1_.setLength(0);
     this.collectedJS2_.setLength(0);
     if (!invisibleToo) {
-      this.collectedJS1_.append(this.invisibleJS_.toString());
+      this.collectedJS1_.append(this.invisibleJS_);
     }
     this.invisibleJS_.setLength(0);
   }
@@ -457,28 +472,36 @@ class WebRenderer implements SlotLearnerInterface {
     StringBuilder out = new StringBuilder();
     if (!this.rendered_) {
       this.serveMainAjax(out);
+      StreamUtils.write(response.out(), out);
     } else {
       this.collectJavaScript();
       this.addResponseAckPuzzle(out);
       this.renderSetServerPush(out);
-      logger.debug(
-          new StringWriter()
-              .append("js: ")
-              .append(this.collectedJS1_.toString())
-              .append(this.collectedJS2_.toString())
-              .toString());
-      out.append(this.collectedJS1_.toString()).append(this.collectedJS2_.toString());
-      if (response.isWebSocketMessage()) {
-        this.renderCookieUpdate(out);
-        this.renderWsRequestsDone(out);
+      if (logger.isDebugEnabled()) {
         logger.debug(
             new StringWriter()
-                .append("jsSynced(false) after rendering websocket message")
+                .append("js: ")
+                .append(this.collectedJS1_)
+                .append(this.collectedJS2_)
                 .toString());
+      }
+      StreamUtils.write(response.out(), out);
+      StreamUtils.write(response.out(), this.collectedJS1_);
+      StreamUtils.write(response.out(), this.collectedJS2_);
+      if (response.isWebSocketMessage()) {
+        out.setLength(0);
+        this.renderCookieUpdate(out);
+        this.renderWsRequestsDone(out);
+        StreamUtils.write(response.out(), out);
+        if (logger.isDebugEnabled()) {
+          logger.debug(
+              new StringWriter()
+                  .append("jsSynced(false) after rendering websocket message")
+                  .toString());
+        }
         this.setJSSynced(false);
       }
     }
-    response.out().append(out.toString());
   }
 
   private void serveMainscript(final WebResponse response) throws IOException {
@@ -492,7 +515,7 @@ class WebRenderer implements SlotLearnerInterface {
       String redirect = this.session_.getRedirect();
       if (redirect.length() != 0) {
         this.streamRedirectJS(out, redirect);
-        response.out().append(out.toString());
+        StreamUtils.write(response.out(), out);
         return;
       }
     } else {
@@ -501,43 +524,47 @@ class WebRenderer implements SlotLearnerInterface {
     }
     WApplication app = this.session_.getApp();
     final boolean innerHtml = true;
-    FileServe script = new FileServe(WtServlet.Wt_js);
-    script.setCondition(
+    Map<String, String> fixedVars = new HashMap<String, String>();
+    Map<String, Boolean> fixedConditions = new HashMap<String, Boolean>();
+    fixedConditions.put(
         "CATCH_ERROR", conf.getErrorReporting() != Configuration.ErrorReporting.NoErrors);
-    script.setCondition(
+    fixedConditions.put(
         "SHOW_ERROR", conf.getErrorReporting() == Configuration.ErrorReporting.ErrorMessage);
-    script.setCondition("UGLY_INTERNAL_PATHS", this.session_.isUseUglyInternalPaths());
-    script.setCondition("DYNAMIC_JS", false);
-    script.setVar("WT_CLASS", "Wt4_11_1");
+    fixedConditions.put("UGLY_INTERNAL_PATHS", this.session_.isUseUglyInternalPaths());
+    fixedConditions.put("DYNAMIC_JS", false);
+    fixedVars.put("WT_CLASS", "Wt4_11_1");
+    fixedConditions.put("STRICTLY_SERIALIZED_EVENTS", conf.serializedEvents());
+    fixedConditions.put("WEB_SOCKETS", conf.webSockets());
+    fixedVars.put("INNER_HTML", String.valueOf(innerHtml));
+    fixedVars.put("MAX_FORMDATA_SIZE", String.valueOf(conf.getMaxFormDataSize()));
+    fixedVars.put("MAX_PENDING_EVENTS", String.valueOf(conf.getMaxPendingEvents()));
+    fixedVars.put(
+        "WS_PATH",
+        WWebWidget.jsStringLiteral(this.session_.getController().getContextPath() + "/ws"));
+    fixedVars.put(
+        "WS_ID",
+        WWebWidget.jsStringLiteral(
+            String.valueOf(this.session_.getController().getIdForWebSocket())));
+    fixedVars.put("KEEP_ALIVE", String.valueOf(conf.getKeepAlive()));
+    fixedVars.put(
+        "IDLE_TIMEOUT",
+        conf.getIdleTimeout() != -1 ? String.valueOf(conf.getIdleTimeout()) : "null");
+    fixedVars.put("INDICATOR_TIMEOUT", String.valueOf(conf.getIndicatorTimeout()));
+    fixedVars.put("SERVER_PUSH_TIMEOUT", String.valueOf(conf.getServerPushTimeout() * 1000));
+    fixedVars.put("CLOSE_CONNECTION", "false");
+    FileServe script =
+        new FileServe(
+            this.session_.getController().getMainScriptTemplate(fixedVars, fixedConditions));
     script.setVar("APP_CLASS", app.getJavaScriptClass());
-    script.setCondition("STRICTLY_SERIALIZED_EVENTS", conf.serializedEvents());
-    script.setCondition("WEB_SOCKETS", conf.webSockets());
-    script.setVar("INNER_HTML", innerHtml);
     script.setVar("ACK_UPDATE_ID", this.expectedAckId_);
     script.setVar("SESSION_URL", WWebWidget.jsStringLiteral(this.getSessionUrl()));
     script.setVar(
         "QUITTED_STR", WString.toWString(WString.tr("Wt.QuittedMessage")).getJsStringLiteral());
-    script.setVar("MAX_FORMDATA_SIZE", conf.getMaxFormDataSize());
-    script.setVar("MAX_PENDING_EVENTS", conf.getMaxPendingEvents());
     String deployPath = this.session_.getEnv().publicDeploymentPath_;
     if (deployPath.length() == 0) {
       deployPath = this.session_.getDeploymentPath();
     }
     script.setVar("DEPLOY_PATH", WWebWidget.jsStringLiteral(deployPath));
-    script.setVar(
-        "WS_PATH",
-        WWebWidget.jsStringLiteral(this.session_.getController().getContextPath() + "/ws"));
-    script.setVar(
-        "WS_ID",
-        WWebWidget.jsStringLiteral(
-            String.valueOf(this.session_.getController().getIdForWebSocket())));
-    script.setVar("KEEP_ALIVE", String.valueOf(conf.getKeepAlive()));
-    script.setVar(
-        "IDLE_TIMEOUT",
-        conf.getIdleTimeout() != -1 ? String.valueOf(conf.getIdleTimeout()) : "null");
-    script.setVar("INDICATOR_TIMEOUT", conf.getIndicatorTimeout());
-    script.setVar("SERVER_PUSH_TIMEOUT", conf.getServerPushTimeout() * 1000);
-    script.setVar("CLOSE_CONNECTION", false);
     String params = "";
     if (this.session_.getType() == EntryPointType.WidgetSet) {
       Map<String, String[]> m = this.session_.getEnv().getParameterMap();
@@ -570,7 +597,7 @@ class WebRenderer implements SlotLearnerInterface {
         if (app.enableAjax_) {
           this.collectedJS1_
               .append("var form = Wt4_11_1.getElement('Wt-form'); if (form) {")
-              .append(this.beforeLoadJS_.toString());
+              .append(this.beforeLoadJS_);
           this.beforeLoadJS_.setLength(0);
           this.collectedJS1_
               .append("var domRoot=")
@@ -604,13 +631,15 @@ class WebRenderer implements SlotLearnerInterface {
         this.currentFormObjectsList_ = "";
         this.collectJavaScript();
         this.updateLoadIndicator(this.collectedJS1_, app, true);
-        logger.debug(
-            new StringWriter()
-                .append("js: ")
-                .append(this.collectedJS1_.toString())
-                .append(this.collectedJS2_.toString())
-                .toString());
-        out.append(this.collectedJS1_.toString());
+        if (logger.isDebugEnabled()) {
+          logger.debug(
+              new StringWriter()
+                  .append("js: ")
+                  .append(this.collectedJS1_)
+                  .append(this.collectedJS2_)
+                  .toString());
+        }
+        out.append(this.collectedJS1_);
         this.addResponseAckPuzzle(out);
         out.append(app.getJavaScriptClass())
             .append("._p_.setHash(")
@@ -621,7 +650,7 @@ class WebRenderer implements SlotLearnerInterface {
         }
         out.append(app.getJavaScriptClass())
             .append("._p_.update(null, 'load', null, false);")
-            .append(this.collectedJS2_.toString())
+            .append(this.collectedJS2_)
             .append("};");
         this.session_.getApp().serverPushChanged_ = true;
         this.renderSetServerPush(out);
@@ -638,7 +667,7 @@ class WebRenderer implements SlotLearnerInterface {
             .append("._p_.load(true);});\n");
       }
     }
-    response.out().append(out.toString());
+    StreamUtils.write(response.out(), out);
   }
 
   private void serveBootstrap(final WebResponse response) throws IOException {
@@ -672,7 +701,7 @@ class WebRenderer implements SlotLearnerInterface {
     this.streamBootContent(response, boot, false);
     boot.stream(out);
     this.setRendered(false);
-    response.out().append(out.toString());
+    StreamUtils.write(response.out(), out);
   }
 
   private void serveMainpage(final WebResponse response) throws IOException {
@@ -787,7 +816,7 @@ class WebRenderer implements SlotLearnerInterface {
     page.setVar("REFRESH", String.valueOf(refresh));
     page.stream(out);
     app.internalPathIsChanged_ = false;
-    response.out().append(out.toString());
+    StreamUtils.write(response.out(), out);
   }
 
   private void serveMainAjax(final StringBuilder out) {
@@ -886,8 +915,10 @@ class WebRenderer implements SlotLearnerInterface {
     if (widgetset) {
       app.domRoot2_.rootAsJavaScript(app, s, true);
     }
-    logger.debug(new StringWriter().append("js: ").append(s.toString()).toString());
-    out.append(s.toString());
+    if (logger.isDebugEnabled()) {
+      logger.debug(new StringWriter().append("js: ").append(s.toString()).toString());
+    }
+    out.append(s);
     this.currentFormObjectsList_ = this.createFormObjectsList(app);
     out.append(app.getJavaScriptClass())
         .append("._p_.setFormObjects([")
@@ -900,7 +931,7 @@ class WebRenderer implements SlotLearnerInterface {
       this.preCollectInvisibleChanges();
       if (this.twoPhaseThreshold_ > 0
           && this.invisibleJS_.length() < (int) this.twoPhaseThreshold_) {
-        this.collectedJS1_.append(this.invisibleJS_.toString());
+        this.collectedJS1_.append(this.invisibleJS_);
         this.invisibleJS_.setLength(0);
       } else {
         if (widgetset) {
@@ -911,9 +942,11 @@ class WebRenderer implements SlotLearnerInterface {
       }
     }
     this.preLearnStateless(app, this.collectedJS1_);
-    logger.debug(
-        new StringWriter().append("js: ").append(this.collectedJS1_.toString()).toString());
-    out.append(this.collectedJS1_.toString());
+    if (logger.isDebugEnabled()) {
+      logger.debug(
+          new StringWriter().append("js: ").append(this.collectedJS1_).toString());
+    }
+    out.append(this.collectedJS1_);
     this.collectedJS1_.setLength(0);
     this.updateLoadIndicator(out, app, true);
     if (widgetset) {
@@ -948,12 +981,14 @@ class WebRenderer implements SlotLearnerInterface {
   private void collectJavaScript() throws IOException {
     WApplication app = this.session_.getApp();
     final Configuration conf = this.session_.getController().getConfiguration();
-    logger.debug(
-        new StringWriter()
-            .append("Rendering invisible: ")
-            .append(this.invisibleJS_.toString())
-            .toString());
-    this.collectedJS1_.append(this.invisibleJS_.toString());
+    if (logger.isDebugEnabled()) {
+      logger.debug(
+          new StringWriter()
+              .append("Rendering invisible: ")
+              .append(this.invisibleJS_)
+              .toString());
+    }
+    this.collectedJS1_.append(this.invisibleJS_);
     this.invisibleJS_.setLength(0);
     int librariesLoaded = this.loadScriptLibraries(this.collectedJS1_, app);
     this.loadScriptLibraries(this.collectedJS2_, app, librariesLoaded);
@@ -1014,7 +1049,7 @@ class WebRenderer implements SlotLearnerInterface {
       this.preCollectInvisibleChanges();
       if (this.twoPhaseThreshold_ > 0
           && this.invisibleJS_.length() < (int) this.twoPhaseThreshold_) {
-        this.collectedJS1_.append(this.invisibleJS_.toString());
+        this.collectedJS1_.append(this.invisibleJS_);
         this.invisibleJS_.setLength(0);
       } else {
         this.collectedJS1_
@@ -1059,18 +1094,20 @@ class WebRenderer implements SlotLearnerInterface {
           w = w.getParent();
         }
         if (w != app.domRoot_ && w != app.domRoot2_) {
-          logger.debug(
-              new StringWriter()
-                  .append("ignoring: ")
-                  .append(ww.getId())
-                  .append(" (")
-                  .append("(fixme)")
-                  .append(") ")
-                  .append(w.getId())
-                  .append(" (")
-                  .append("(fixme)")
-                  .append(")")
-                  .toString());
+          if (logger.isDebugEnabled()) {
+            logger.debug(
+                new StringWriter()
+                    .append("ignoring: ")
+                    .append(ww.getId())
+                    .append(" (")
+                    .append("(fixme)")
+                    .append(") ")
+                    .append(w.getId())
+                    .append(" (")
+                    .append("(fixme)")
+                    .append(")")
+                    .toString());
+          }
           depth = 0;
         }
         depthOrder.put(depth, ww);
@@ -1085,19 +1122,23 @@ class WebRenderer implements SlotLearnerInterface {
             w.getWebWidget().propagateRenderOk();
             continue;
           }
-          logger.debug(
-              new StringWriter()
-                  .append("updating: ")
-                  .append(w.getId())
-                  .append(" (")
-                  .append("(fixme)")
-                  .append(")")
-                  .toString());
+          if (logger.isDebugEnabled()) {
+            logger.debug(
+                new StringWriter()
+                    .append("updating: ")
+                    .append(w.getId())
+                    .append(" (")
+                    .append("(fixme)")
+                    .append(")")
+                    .toString());
+          }
           if (!this.learning_ && this.visibleOnly_) {
             if (w.isRendered()) {
               w.getSDomChanges(changes, app);
             } else {
-              logger.debug(new StringWriter().append("Ignoring: ").append(w.getId()).toString());
+              if (logger.isDebugEnabled()) {
+                logger.debug(new StringWriter().append("Ignoring: ").append(w.getId()).toString());
+              }
             }
           } else {
             w.getSDomChanges(changes, app);
@@ -1131,7 +1172,7 @@ class WebRenderer implements SlotLearnerInterface {
         this.preCollectInvisibleChanges();
         if (this.twoPhaseThreshold_ > 0
             && this.invisibleJS_.length() < (int) this.twoPhaseThreshold_) {
-          this.collectedJS1_.append(this.invisibleJS_.toString());
+          this.collectedJS1_.append(this.invisibleJS_);
           this.invisibleJS_.setLength(0);
         }
       }
@@ -1303,7 +1344,7 @@ class WebRenderer implements SlotLearnerInterface {
         }
       }
     }
-    out.append(this.statelessJS_.toString());
+    out.append(this.statelessJS_);
     this.statelessJS_.setLength(0);
   }
 
@@ -1464,7 +1505,7 @@ class WebRenderer implements SlotLearnerInterface {
       bootJs.setVar("INTERNAL_PATH", this.safeJsStringLiteral(internalPath));
       bootJs.stream(out);
     }
-    response.out().append(out.toString());
+    StreamUtils.write(response.out(), out);
   }
 
   private void addResponseAckPuzzle(final StringBuilder out) {
@@ -1496,11 +1537,13 @@ class WebRenderer implements SlotLearnerInterface {
       }
     }
     ++this.expectedAckId_;
-    logger.debug(
-        new StringWriter()
-            .append("addResponseAckPuzzle: incremented expectedAckId to ")
-            .append(String.valueOf(this.expectedAckId_))
-            .toString());
+    if (logger.isDebugEnabled()) {
+      logger.debug(
+          new StringWriter()
+              .append("addResponseAckPuzzle: incremented expectedAckId to ")
+              .append(String.valueOf(this.expectedAckId_))
+              .toString());
+    }
     out.append(this.session_.getApp().getJavaScriptClass())
         .append("._p_.response(")
         .append(this.expectedAckId_);
@@ -1757,7 +1800,9 @@ class WebRenderer implements SlotLearnerInterface {
     StringBuilder js = new StringBuilder();
     this.collectJS(js);
     String result = js.toString();
-    logger.debug(new StringWriter().append("learned: ").append(result).toString());
+    if (logger.isDebugEnabled()) {
+      logger.debug(new StringWriter().append("learned: ").append(result).toString());
+    }
     if (slot.getType() == SlotType.PreLearnStateless) {
       slot.undoTrigger();
       this.collectJS((StringBuilder) null);
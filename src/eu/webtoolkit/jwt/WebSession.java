@@ -81,6 +81,9 @@ class WebSession {
     this.recursiveEventDone_ = this.mutex_.newCondition();
     this.newRecursiveEvent_ = null;
     this.updatesPendingEvent_ = this.mutex_.newCondition();
+    this.appCreatedEvent_ = this.mutex_.newCondition();
+    this.bootStyleServedEvent_ = this.mutex_.newCondition();
+    this.bootStyleWaiting_ = 0;
     this.updatesPending_ = false;
     this.triggerUpdate_ = false;
     this.embeddedEnv_ = new WEnvironment(this);
@@ -88,6 +91,7 @@ class WebSession {
     this.debug_ = this.controller_.getConfiguration().debug();
     this.handlers_ = new ArrayList<WebSession.Handler>();
     this.recursiveEventHandler_ = null;
+    this.spoolFiles_ = new SpoolFiles(this.controller_.getConfiguration().getMaxSessionSpoolSize());
     this.env_ = env != null ? env : this.embeddedEnv_;
     if (request != null) {
       this.env_.updateUrlScheme(request);
@@ -139,6 +143,7 @@ class WebSession {
     this.updatesPendingEvent_.signal();
     this.mutex_.unlock();
     this.flushBootStyleResponse();
+    this.spoolFiles_.deleteAll();
   }
 
   public static WebSession getInstance() {
@@ -501,10 +506,12 @@ class WebSession {
               if (signalE.equals("poll")
                   && ackState != WebRenderer.AckState.CorrectAck
                   && this.renderer_.isJsSynced()) {
-                logger.debug(
-                    new StringWriter()
-                        .append("Ignoring poll with incorrect ack -- was rescheduled in browser?")
-                        .toString());
+                if (logger.isDebugEnabled()) {
+                  logger.debug(
+                      new StringWriter()
+                          .append("Ignoring poll with incorrect ack -- was rescheduled in browser?")
+                          .toString());
+                }
                 handler.flushResponse();
                 return;
               }
@@ -541,12 +548,14 @@ class WebSession {
                     handler.setRequest((WebRequest) null, (WebResponse) null);
                   } else {
                     ++this.pollRequestsIgnored_;
-                    logger.debug(
-                        new StringWriter()
-                            .append("ignored poll request (#")
-                            .append(String.valueOf(this.pollRequestsIgnored_))
-                            .append(")")
-                            .toString());
+                    if (logger.isDebugEnabled()) {
+                      logger.debug(
+                          new StringWriter()
+                              .append("ignored poll request (#")
+                              .append(String.valueOf(this.pollRequestsIgnored_))
+                              .append(")")
+                              .toString());
+                    }
                   }
                 } else {
                   this.pollRequestsIgnored_ = 0;
@@ -558,7 +567,9 @@ class WebSession {
                 }
               }
               if (handler.getRequest() != null) {
-                logger.debug(new StringWriter().append("signal: ").append(signalE).toString());
+                if (logger.isDebugEnabled()) {
+                  logger.debug(new StringWriter().append("signal: ").append(signalE).toString());
+                }
                 try {
                   handler.nextSignal = -1;
                   this.notifySignal(event);
@@ -1101,12 +1112,14 @@ class WebSession {
   public void setState(WebSession.State state, int timeout) {
     if (this.state_ != WebSession.State.Dead) {
       this.state_ = state;
-      logger.debug(
-          new StringWriter()
-              .append("Setting to expire in ")
-              .append(String.valueOf(timeout))
-              .append("s")
-              .toString());
+      if (logger.isDebugEnabled()) {
+        logger.debug(
+            new StringWriter()
+                .append("Setting to expire in ")
+                .append(String.valueOf(timeout))
+                .append("s")
+                .toString());
+      }
     }
   }
 
@@ -1268,11 +1281,24 @@ class WebSession {
     private boolean killed_;
   }
 
+  SpoolFiles getSpoolFiles() {
+    return this.spoolFiles_;
+  }
+
   public void handleRequest(final WebSession.Handler handler) throws IOException {
     try {
       final WebRequest request = handler.getRequest();
       String wtdE = request.getParameter("wtd");
       final Configuration conf = this.controller_.getConfiguration();
+      if (!this.spoolFiles_.adopt(request.getSpoolFiles())) {
+        logger.warn(
+            new StringWriter()
+                .append("upload discarded: session spool quota of ")
+                .append(String.valueOf(conf.getMaxSessionSpoolSize()))
+                .append(" bytes exceeded")
+                .toString());
+        request.getUploadedFiles().clear();
+      }
       String origin = request.getHeaderValue("Origin");
       if (request.isWebSocketRequest()) {
         String trustedOrigin = this.env_.getUrlScheme() + "://" + this.env_.getHostName();
@@ -1386,15 +1412,17 @@ class WebSession {
               && (requestE.equals("jsupdate")
                   || requestE.equals("jserror")
                   || requestE.equals("resource")))) {
-        logger.debug(
-            new StringWriter()
-                .append("CSRF: ")
-                .append(wtdE != null ? wtdE : "no wtd")
-                .append(" != ")
-                .append(this.sessionId_)
-                .append(", requestE: ")
-                .append(requestE != null ? requestE : "none")
-                .toString());
+        if (logger.isDebugEnabled()) {
+          logger.debug(
+              new StringWriter()
+                  .append("CSRF: ")
+                  .append(wtdE != null ? wtdE : "no wtd")
+                  .append(" != ")
+                  .append(this.sessionId_)
+                  .append(", requestE: ")
+                  .append(requestE != null ? requestE : "none")
+                  .toString());
+        }
         logger.warn(
             new StringWriter().append("secure:").append("CSRF prevention kicked in.").toString());
         this.serveError(403, handler, "Forbidden");
@@ -1558,18 +1586,22 @@ class WebSession {
                           handler.getResponse().setContentType("text/css");
                           handler.flushResponse();
                         } else {
-                          int i = 0;
-                          final int MAX_TRIES = 1000;
-                          while (!(this.app_ != null) && i < MAX_TRIES) {
-                            this.mutex_.unlock();
-                            ThreadUtils.sleep(Duration.ofMillis(5));
-                            this.mutex_.lock();
-                            ++i;
-                          }
-                          if (i < MAX_TRIES) {
-                            this.renderer_.serveLinkedCss(handler.getResponse());
+                          ++this.bootStyleWaiting_;
+                          try {
+                            long nanos =
+                                java.util.concurrent.TimeUnit.MILLISECONDS.toNanos(
+                                    this.controller_.getConfiguration().getBootStyleTimeout());
+                            while (!(this.app_ != null) && !this.isDead() && nanos > 0) {
+                              nanos = this.appCreatedEvent_.awaitNanos(nanos);
+                            }
+                            if (this.app_ != null) {
+                              this.renderer_.serveLinkedCss(handler.getResponse());
+                            }
+                            handler.flushResponse();
+                          } finally {
+                            --this.bootStyleWaiting_;
+                            this.bootStyleServedEvent_.signalAll();
                           }
-                          handler.flushResponse();
                         }
                         break;
                       }
@@ -1715,11 +1747,13 @@ class WebSession {
   public void queueEvent(final ApplicationEvent event) {
     this.eventQueueMutex_.lock();
     this.eventQueue_.addLast(event);
-    logger.debug(
-        new StringWriter()
-            .append("queueEvent(): ")
-            .append(String.valueOf(this.eventQueue_.size()))
-            .toString());
+    if (logger.isDebugEnabled()) {
+      logger.debug(
+          new StringWriter()
+              .append("queueEvent(): ")
+              .append(String.valueOf(this.eventQueue_.size()))
+              .toString());
+    }
     this.eventQueueMutex_.unlock();
   }
 
@@ -1740,7 +1774,9 @@ class WebSession {
       }
       String signalE = message.getParameter("signal");
       if (signalE != null && signalE.equals("ping")) {
-        logger.debug(new StringWriter().append("ws: handle ping").toString());
+        if (logger.isDebugEnabled()) {
+          logger.debug(new StringWriter().append("ws: handle ping").toString());
+        }
         if (this.canWriteWebSocket_) {
           this.webSocket_.out().append("{}");
           this.webSocket_.flushBuffer();
@@ -1844,6 +1880,9 @@ class WebSession {
   private java.util.concurrent.locks.Condition recursiveEventDone_;
   private WEvent.Impl newRecursiveEvent_;
   private java.util.concurrent.locks.Condition updatesPendingEvent_;
+  private java.util.concurrent.locks.Condition appCreatedEvent_;
+  private java.util.concurrent.locks.Condition bootStyleServedEvent_;
+  private int bootStyleWaiting_;
   private boolean updatesPending_;
   private boolean triggerUpdate_;
   private WEnvironment embeddedEnv_;
@@ -1852,13 +1891,18 @@ class WebSession {
   private boolean debug_;
   private List<WebSession.Handler> handlers_;
   private WebSession.Handler recursiveEventHandler_;
+  private SpoolFiles spoolFiles_;
 
   void pushUpdates() {
     try {
-      logger.debug(new StringWriter().append("pushUpdates()").toString());
+      if (logger.isDebugEnabled()) {
+        logger.debug(new StringWriter().append("pushUpdates()").toString());
+      }
       this.triggerUpdate_ = false;
       if (!(this.app_ != null) || !this.renderer_.isDirty()) {
-        logger.debug(new StringWriter().append("pushUpdates(): nothing to do").toString());
+        if (logger.isDebugEnabled()) {
+          logger.debug(new StringWriter().append("pushUpdates(): nothing to do").toString());
+        }
         return;
       }
       this.updatesPending_ = true;
@@ -1871,8 +1915,12 @@ class WebSession {
       } else {
         if (this.webSocket_ != null && this.webSocketConnected_) {
           if (this.webSocket_.isWebSocketMessagePending()) {
-            logger.debug(
-                new StringWriter().append("pushUpdates(): web socket message pending").toString());
+            if (logger.isDebugEnabled()) {
+              logger.debug(
+                  new StringWriter()
+                      .append("pushUpdates(): web socket message pending")
+                      .toString());
+            }
             return;
           }
           if (this.canWriteWebSocket_) {
@@ -1884,7 +1932,9 @@ class WebSession {
         }
       }
       if (this.updatesPending_) {
-        logger.debug(new StringWriter().append("pushUpdates(): cannot write now").toString());
+        if (logger.isDebugEnabled()) {
+          logger.debug(new StringWriter().append("pushUpdates(): cannot write now").toString());
+        }
         this.updatesPendingEvent_.signal();
       }
     } catch (IOException ioe) {
@@ -1926,7 +1976,9 @@ class WebSession {
   }
 
   private void render(final WebSession.Handler handler) throws IOException {
-    logger.debug(new StringWriter().append("render()").toString());
+    if (logger.isDebugEnabled()) {
+      logger.debug(new StringWriter().append("render()").toString());
+    }
     try {
       if (!this.env_.hasAjax()) {
         try {
@@ -1971,12 +2023,17 @@ class WebSession {
     }
     if (!handler.getRequest().isWebSocketMessage()) {
       if (handler.getResponse().getResponseType() == WebRequest.ResponseType.Script) {
-        this.mutex_.unlock();
-        try {
-          ThreadUtils.sleep(Duration.ofMillis(1));
-        } catch (final InterruptedException e) {
+        long nanos =
+            java.util.concurrent.TimeUnit.MILLISECONDS.toNanos(
+                this.controller_.getConfiguration().getBootStyleTimeout());
+        while (this.bootStyleWaiting_ > 0 && nanos > 0) {
+          try {
+            nanos = this.bootStyleServedEvent_.awaitNanos(nanos);
+          } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            break;
+          }
         }
-        this.mutex_.lock();
       }
       this.renderer_.serveResponse(handler.getResponse());
     }
@@ -2073,7 +2130,9 @@ class WebSession {
       if (!(signalE != null)) {
         return;
       }
-      logger.debug(new StringWriter().append("signal: ").append(signalE).toString());
+      if (logger.isDebugEnabled()) {
+        logger.debug(new StringWriter().append("signal: ").append(signalE).toString());
+      }
       if (this.getType() != EntryPointType.WidgetSet
           || !signalE.equals("none") && !signalE.equals("load")) {
         this.renderer_.setRendered(true);
@@ -2247,6 +2306,7 @@ class WebSession {
   private boolean start(WebResponse response) {
     try {
       this.app_ = this.controller_.doCreateApplication(this);
+      this.appCreatedEvent_.signalAll();
       if (this.app_ != null) {
         if (!this.app_.internalPathValid_) {
           if (response.getResponseType() == WebRequest.ResponseType.Page) {
@@ -2259,6 +2319,7 @@ class WebSession {
     } catch (final RuntimeException e) {
       this.app_ = null;
       this.kill();
+      this.appCreatedEvent_.signalAll();
       throw e;
     }
     return this.app_ != null;
@@ -2316,11 +2377,13 @@ class WebSession {
   private ApplicationEvent getPopQueuedEvent() {
     this.eventQueueMutex_.lock();
     ApplicationEvent result = null;
-    logger.debug(
-        new StringWriter()
-            .append("popQueuedEvent(): ")
-            .append(String.valueOf(this.eventQueue_.size()))
-            .toString());
+    if (logger.isDebugEnabled()) {
+      logger.debug(
+          new StringWriter()
+              .append("popQueuedEvent(): ")
+              .append(String.valueOf(this.eventQueue_.size()))
+              .toString());
+    }
     if (!this.eventQueue_.isEmpty()) {
       result = this.eventQueue_.getFirst();
       this.eventQueue_.removeFirst();
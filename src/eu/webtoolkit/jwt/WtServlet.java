@@ -5,20 +5,34 @@
  */
 package eu.webtoolkit.jwt;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
 import javax.servlet.ServletConfig;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
@@ -33,6 +47,7 @@ import javax.websocket.WebSocketContainer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import eu.webtoolkit.jwt.servlet.ContentEncoding;
 import eu.webtoolkit.jwt.servlet.WebRequest;
 import eu.webtoolkit.jwt.servlet.WebRequest.ProgressListener;
 import eu.webtoolkit.jwt.servlet.WebResponse;
@@ -84,8 +99,14 @@ public abstract class WtServlet extends HttpServlet {
 	private Configuration configuration;
 	private ProgressListener progressListener;
 	private Set<String> uploadProgressUrls_ = new HashSet<String>();
-	private int ajaxSessions = 0;
-	private Map<String,WebSession> sessions = new HashMap<String,WebSession>();
+	private AtomicInteger ajaxSessions = new AtomicInteger();
+	private AtomicInteger sessionCount = new AtomicInteger();
+	private AtomicLong sessionsCreated = new AtomicLong();
+	private AtomicLong sessionsExpired = new AtomicLong();
+	private Map<String,WebSession> sessions = new ConcurrentHashMap<String,WebSession>();
+	private Set<WebSession> broadcastsPending_ = Collections.newSetFromMap(new ConcurrentHashMap<WebSession, Boolean>());
+	private Executor broadcastExecutor_;
+	private ExecutorService defaultBroadcastExecutor_;
 
 	private String redirectSecret_;
 
@@ -96,6 +117,10 @@ public abstract class WtServlet extends HttpServlet {
 
 	private int idForWebSocket = -1;
 
+	private Map<String, byte[]> encodedResources_ = new ConcurrentHashMap<String, byte[]>();
+
+	private Map<List<Map<String, ?>>, FileServe.Template> mainScriptTemplates_ = new ConcurrentHashMap<List<Map<String, ?>>, FileServe.Template>();
+
 	static final String Boot_html;
 	static final String Plain_html;
 	static final String Wt_js;
@@ -210,12 +235,14 @@ public abstract class WtServlet extends HttpServlet {
 					staticResourcePath = staticResource.getInternalPath();
 				
 				if (requestPath.equals(staticResourcePath)) {
+					WebRequest webRequest = new WebRequest(request, progressListener, configuration);
 					try {
-						WebRequest webRequest = new WebRequest(request, progressListener, configuration);
-						WebResponse webResponse = new WebResponse(response, webRequest);
+						WebResponse webResponse = new WebResponse(response, webRequest, configuration);
 						staticResource.handle(webRequest, webResponse);
 					} catch (IOException e) {
 						logger.info("IOException handling {}", pathInfo);
+					} finally {
+						releaseSpoolFiles(request, webRequest);
 					}
 					return;
 				}
@@ -223,7 +250,7 @@ public abstract class WtServlet extends HttpServlet {
 		}
 
 		if (pathInfo != null && (pathInfo.startsWith(resourcePath) || pathInfo.equals(configuration.getFavicon()))) {
-			logger.debug("serving static file: " + pathInfo);
+			logger.debug("serving static file: {}", pathInfo);
 
 			String fileName = "wt-resources/";
 
@@ -243,7 +270,19 @@ public abstract class WtServlet extends HttpServlet {
 						response.setContentType(mimeType);
 					else
 						response.setContentType("application/octet-stream");
-					StreamUtils.copy(s, response.getOutputStream());
+					ContentEncoding encoding = null;
+					if (configuration.isCompressible(mimeType))
+						encoding = ContentEncoding.negotiate(request.getHeader("Accept-Encoding"),
+								configuration.getResponseEncodings());
+					if (encoding != null) {
+						byte[] encoded = getEncodedResource(fileName, s, encoding);
+						response.setHeader("Content-Encoding", encoding.getName());
+						response.addHeader("Vary", "Accept-Encoding");
+						response.setContentLength(encoded.length);
+						response.getOutputStream().write(encoded);
+					} else
+						StreamUtils.copy(s, response.getOutputStream());
+					StreamUtils.closeQuietly(s);
 					response.getOutputStream().flush();
 				} else {
 					response.setStatus(404);
@@ -260,9 +299,46 @@ public abstract class WtServlet extends HttpServlet {
 		}
 
 		WebRequest webRequest = new WebRequest(request, progressListener, configuration);
-		WebResponse webResponse = new WebResponse(response, webRequest);
+		WebResponse webResponse = new WebResponse(response, webRequest, configuration);
 
-		servletApi.doHandleRequest(this, webRequest, webResponse);
+		try {
+			servletApi.doHandleRequest(this, webRequest, webResponse);
+		} finally {
+			releaseSpoolFiles(request, webRequest);
+		}
+	}
+
+	/*
+	 * Deletes the spool files of a request that were not adopted by a session,
+	 * once the request is done. An asynchronous request is only done when its
+	 * async context completes.
+	 */
+	static void releaseSpoolFiles(HttpServletRequest request, final WebRequest webRequest) {
+		if (!request.isAsyncStarted()) {
+			webRequest.getSpoolFiles().deleteAll();
+			return;
+		}
+
+		request.getAsyncContext().addListener(new AsyncListener() {
+			@Override
+			public void onTimeout(AsyncEvent e) throws IOException {
+			}
+
+			@Override
+			public void onStartAsync(AsyncEvent e) throws IOException {
+				e.getAsyncContext().addListener(this);
+			}
+
+			@Override
+			public void onError(AsyncEvent e) throws IOException {
+				webRequest.getSpoolFiles().deleteAll();
+			}
+
+			@Override
+			public void onComplete(AsyncEvent e) throws IOException {
+				webRequest.getSpoolFiles().deleteAll();
+			}
+		});
 	}
 
 	/**
@@ -316,29 +392,69 @@ public abstract class WtServlet extends HttpServlet {
 	 */
 	public abstract WApplication createApplication(WEnvironment env);
 
-	synchronized int addSession(WebSession session) {
-		sessions.put(session.getSessionId(), session);
-		return sessions.size();
+	int addSession(WebSession session) {
+		sessionsCreated.incrementAndGet();
+		if (sessions.put(session.getSessionId(), session) == null)
+			return sessionCount.incrementAndGet();
+		else
+			return sessionCount.get();
 	}
 
-	synchronized void newAjaxSession() {
-		++ajaxSessions;
+	void newAjaxSession() {
+		ajaxSessions.incrementAndGet();
 	}
 
-	synchronized int removeSession(WebSession session) {
-		if (session.getEnv().hasAjax())
-			--ajaxSessions;
-		sessions.remove(session.getSessionId());
-		return sessions.size();
+	int removeSession(WebSession session) {
+		if (sessions.remove(session.getSessionId(), session)) {
+			sessionsExpired.incrementAndGet();
+			if (session.getEnv().hasAjax())
+				ajaxSessions.decrementAndGet();
+			return sessionCount.decrementAndGet();
+		} else
+			return sessionCount.get();
 	}
 	
 
-	synchronized void removeSession(String sessionId) {
+	void removeSession(String sessionId) {
 		WebSession session = sessions.get(sessionId);
 		if (session != null)
 			removeSession(session);
 	}
 
+	/**
+	 * Returns the number of active sessions.
+	 */
+	public int getSessionCount() {
+		return sessionCount.get();
+	}
+
+	/**
+	 * Returns the number of active sessions that use Ajax.
+	 */
+	public int getAjaxSessionCount() {
+		return ajaxSessions.get();
+	}
+
+	/**
+	 * Returns the number of sessions created since the servlet started.
+	 * <p>
+	 * This counter only increases: sampling it periodically gives the session
+	 * creation rate.
+	 */
+	public long getSessionsCreated() {
+		return sessionsCreated.get();
+	}
+
+	/**
+	 * Returns the number of sessions that ended since the servlet started.
+	 * <p>
+	 * This counter only increases: sampling it periodically gives the session
+	 * expiry rate.
+	 */
+	public long getSessionsExpired() {
+		return sessionsExpired.get();
+	}
+
 	/*
 	 * Actual request handling, may be within an async call depending on the servlet API.
 	 */
@@ -370,7 +486,8 @@ public abstract class WtServlet extends HttpServlet {
 				jsession.setAttribute(WtServlet.WT_WEBSESSION_ID, new BoundSession(wsession));
 			}
 	
-			logger.debug("Handling: (" + jsession.getId() + "): " + request.getRequestURI() + " " + request.getMethod() + " " + request.getScriptName() + " " + request.getPathInfo() + " " + request.getQueryString());
+			if (logger.isDebugEnabled())
+				logger.debug("Handling: (" + jsession.getId() + "): " + request.getRequestURI() + " " + request.getMethod() + " " + request.getScriptName() + " " + request.getPathInfo() + " " + request.getQueryString());
 			
 			WebSession.Handler handler = null;
 			try {
@@ -505,13 +622,94 @@ public abstract class WtServlet extends HttpServlet {
 
 	/**
 	 * Posts a task to be run within the scope of all currently active sessions.
+	 * <p>
+	 * Sessions that are created or end while the task is being posted may or
+	 * may not receive it.
+	 * <p>
+	 * This is equivalent to {@link #broadcast(Runnable)}, ignoring the result.
 	 *
 	 * @see post
 	 * @param function the task to be run
 	 */
 	public void postAll(Runnable function) {
-		for (WebSession session : sessions.values()) {
-			session.queueEvent(new ApplicationEvent(session.getSessionId(), function));
+		broadcast(function);
+	}
+
+	/**
+	 * Broadcasts a task to all currently active sessions.
+	 * <p>
+	 * The task is posted to every session, and run within the scope of each
+	 * session on the {@link #setBroadcastExecutor(Executor) broadcast executor}, so
+	 * that a busy or slow session does not delay the others. Tasks that are
+	 * posted to a session before it could run earlier ones are run together,
+	 * followed by a single update to the browser.
+	 * <p>
+	 * Sessions that are created or end while the task is being posted may or
+	 * may not receive it.
+	 *
+	 * @param function the task to be run
+	 * @return the progress of the broadcast
+	 */
+	public BroadcastResult broadcast(final Runnable function) {
+		List<WebSession> targets = new ArrayList<WebSession>(sessions.values());
+		final BroadcastResult result = new BroadcastResult(targets.size());
+		Executor executor = getBroadcastExecutor();
+
+		for (WebSession session : targets) {
+			if (session.isDead()) {
+				result.skipped();
+				continue;
+			}
+
+			session.queueEvent(new ApplicationEvent(session.getSessionId(), new Runnable() {
+				public void run() {
+					boolean ran = false;
+					try {
+						function.run();
+						ran = true;
+					} finally {
+						if (ran)
+							result.delivered();
+						else
+							result.failed();
+					}
+				}
+			}, new Runnable() {
+				public void run() {
+					result.skipped();
+				}
+			}));
+
+			scheduleQueuedEvents(session, executor);
+		}
+
+		return result;
+	}
+
+	/*
+	 * Processes the queued events of a session on the broadcast executor, unless
+	 * this is already scheduled: the scheduled task will process all events
+	 * queued until it runs.
+	 */
+	private void scheduleQueuedEvents(final WebSession session, Executor executor) {
+		if (!broadcastsPending_.add(session))
+			return;
+
+		try {
+			executor.execute(new Runnable() {
+				public void run() {
+					broadcastsPending_.remove(session);
+					WebSession.Handler handler = null;
+					try {
+						handler = new WebSession.Handler(session, WebSession.Handler.LockOption.TryLock);
+					} finally {
+						handler.release();
+					}
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			broadcastsPending_.remove(session);
+			logger.info("Broadcast executor rejected task, posting on calling thread");
 			WebSession.Handler handler = null;
 			try {
 				handler = new WebSession.Handler(session, WebSession.Handler.LockOption.TryLock);
@@ -521,6 +719,73 @@ public abstract class WtServlet extends HttpServlet {
 		}
 	}
 
+	/**
+	 * Sets the executor used to run broadcast tasks.
+	 * <p>
+	 * The default executor uses a virtual thread per task when available (Java
+	 * 21 or later), and otherwise a pool with one thread per available
+	 * processor. An executor that is set explicitly is not shut down by the
+	 * servlet.
+	 *
+	 * @see #broadcast(Runnable)
+	 */
+	public synchronized void setBroadcastExecutor(Executor executor) {
+		shutdownDefaultBroadcastExecutor();
+		this.broadcastExecutor_ = executor;
+	}
+
+	/**
+	 * Returns the executor used to run broadcast tasks.
+	 *
+	 * @see #setBroadcastExecutor(Executor)
+	 */
+	public synchronized Executor getBroadcastExecutor() {
+		if (broadcastExecutor_ == null) {
+			defaultBroadcastExecutor_ = createDefaultBroadcastExecutor();
+			broadcastExecutor_ = defaultBroadcastExecutor_;
+		}
+		return broadcastExecutor_;
+	}
+
+	private static ExecutorService createDefaultBroadcastExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (Exception e) {
+			// Not available before Java 21
+		}
+
+		final AtomicInteger threadId = new AtomicInteger();
+		return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, "jwt-broadcast-" + threadId.incrementAndGet());
+				t.setDaemon(true);
+				return t;
+			}
+		});
+	}
+
+	private void shutdownDefaultBroadcastExecutor() {
+		if (defaultBroadcastExecutor_ != null) {
+			defaultBroadcastExecutor_.shutdown();
+			defaultBroadcastExecutor_ = null;
+			broadcastExecutor_ = null;
+		}
+	}
+
+	/**
+	 * Destroys the servlet.
+	 * <p>
+	 * This shuts down the default broadcast executor. If you override this
+	 * function, make sure to call the super function.
+	 */
+	@Override
+	public void destroy() {
+		synchronized (this) {
+			shutdownDefaultBroadcastExecutor();
+		}
+		super.destroy();
+	}
+
     boolean limitPlainHtmlSessions() {
     	return false; // FIXME
 	}
@@ -588,6 +853,40 @@ public abstract class WtServlet extends HttpServlet {
 		return sessions.get(name);
 	}
 	
+	/*
+	 * Returns the encoded contents of a static resource. Static resources do
+	 * not change while the servlet is running, so they are only encoded once.
+	 */
+	private byte[] getEncodedResource(String fileName, InputStream s, ContentEncoding encoding) throws IOException {
+		String key = encoding.getName() + ':' + fileName;
+		byte[] result = encodedResources_.get(key);
+		if (result == null) {
+			ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+			OutputStream out = encoding.encode(encoded);
+			StreamUtils.copy(s, out);
+			out.close();
+			result = encoded.toByteArray();
+			encodedResources_.put(key, result);
+		}
+		return result;
+	}
+
+	/*
+	 * Returns the main script template, with the variables and conditions
+	 * that are the same for all sessions of this servlet already filled in.
+	 * The result is cached, so that only the per-session variables remain to
+	 * be substituted when a session boots.
+	 */
+	FileServe.Template getMainScriptTemplate(Map<String, String> vars, Map<String, Boolean> conditions) {
+		List<Map<String, ?>> key = Arrays.<Map<String, ?>>asList(vars, conditions);
+		FileServe.Template result = mainScriptTemplates_.get(key);
+		if (result == null) {
+			result = FileServe.Template.compile(Wt_js).specialize(vars, conditions);
+			mainScriptTemplates_.put(key, result);
+		}
+		return result;
+	}
+
 	int getIdForWebSocket() {
 		return idForWebSocket;
 	}
@@ -182,12 +182,14 @@ public abstract class AbstractMfaProcess extends WObject {
               .append("').")
               .toString());
     }
-    logger.debug(
-        new StringWriter()
-            .append("userIdentity: A valid identity for the provider was found. (provider = '")
-            .append(this.getProvider())
-            .append("').")
-            .toString());
+    if (logger.isDebugEnabled()) {
+      logger.debug(
+          new StringWriter()
+              .append("userIdentity: A valid identity for the provider was found. (provider = '")
+              .append(this.getProvider())
+              .append("').")
+              .toString());
+    }
     return new WString(currentIdentityValue);
   }
   /**
@@ -258,10 +260,12 @@ public abstract class AbstractMfaProcess extends WObject {
                       .append(this.getLogin().getUser().getId())
                       .toString());
               if (result.getNewToken().length() != 0) {
-                logger.debug(
-                    new StringWriter()
-                        .append("processMfaToken: Renewing auth token for MFA.")
-                        .toString());
+                if (logger.isDebugEnabled()) {
+                  logger.debug(
+                      new StringWriter()
+                          .append("processMfaToken: Renewing auth token for MFA.")
+                          .toString());
+                }
                 app.setCookie(
                     this.getBaseAuth().getMfaTokenCookieName(),
                     result.getNewToken(),
@@ -273,26 +277,32 @@ public abstract class AbstractMfaProcess extends WObject {
               String identity = result.getUser().getIdentity(this.getProvider());
               if (identity.length() != 0) {
                 if (this.getLogin().getUser().equals(result.getUser())) {
-                  logger.debug(
-                      new StringWriter()
-                          .append(
-                              "processMfaToken: Found token with matching user to previous login action.")
-                          .toString());
+                  if (logger.isDebugEnabled()) {
+                    logger.debug(
+                        new StringWriter()
+                            .append(
+                                "processMfaToken: Found token with matching user to previous login action.")
+                            .toString());
+                  }
                   return result.getUser();
                 } else {
+                  if (logger.isDebugEnabled()) {
+                    logger.debug(
+                        new StringWriter()
+                            .append(
+                                "processMfaToken: Found token with DIFFERENT user to previous login action. This can occur when multiple users use the same device.")
+                            .toString());
+                  }
+                  return new User();
+                }
+              } else {
+                if (logger.isDebugEnabled()) {
                   logger.debug(
                       new StringWriter()
-                          .append(
-                              "processMfaToken: Found token with DIFFERENT user to previous login action. This can occur when multiple users use the same device.")
+                          .append("Found no valid identity for the provider: ")
+                          .append(this.getProvider())
                           .toString());
-                  return new User();
                 }
-              } else {
-                logger.debug(
-                    new StringWriter()
-                        .append("Found no valid identity for the provider: ")
-                        .append(this.getProvider())
-                        .toString());
                 return new User();
               }
             }
@@ -206,8 +206,7 @@ final class BarSeriesRenderer extends SeriesRenderer {
   public void paint() {}
 
   private static WPointF segmentPoint(final WPainterPath path, int segment) {
-    final WPainterPath.Segment s = path.getSegments().get(segment);
-    return new WPointF(s.getX(), s.getY());
+    return new WPointF(path.getSegmentX(segment), path.getSegmentY(segment));
   }
 
   private static boolean fequal(double d1, double d2) {
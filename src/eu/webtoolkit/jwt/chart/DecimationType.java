@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2020 Emweb bv, Herent, Belgium.
+ *
+ * See the LICENSE file for terms of use.
+ */
+package eu.webtoolkit.jwt.chart;
+
+import eu.webtoolkit.jwt.*;
+import eu.webtoolkit.jwt.auth.*;
+import eu.webtoolkit.jwt.auth.mfa.*;
+import eu.webtoolkit.jwt.servlet.*;
+import eu.webtoolkit.jwt.utils.*;
+import java.io.*;
+import java.lang.ref.*;
+import java.time.*;
+import java.util.*;
+import java.util.regex.*;
+import javax.servlet.*;
+import javax.servlet.http.*;
+
+/**
+ * Enumeration that specifies how the points of a data series are reduced before rendering.
+ *
+ * <p>
+ *
+ * @see WDataSeries#setDecimation(DecimationType decimation)
+ */
+public enum DecimationType {
+  /** Render all points. */
+  None,
+  /** Keep the minimum and maximum value for every pixel along the X axis. */
+  MinMax,
+  /** Keep about two points for every pixel, using the largest-triangle-three-buckets algorithm. */
+  LargestTriangleThreeBuckets;
+
+  /** Returns the numerical representation of this enum. */
+  public int getValue() {
+    return ordinal();
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2020 Emweb bv, Herent, Belgium.
+ *
+ * See the LICENSE file for terms of use.
+ */
+package eu.webtoolkit.jwt.chart;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * A process-wide cache of index buffers for 3D data series.
+ *
+ * <p>The indexes that describe the triangles and mesh lines of a surface or bar series only depend
+ * on the series type and on the dimensions of the data, so they are the same for every chart that
+ * shows data of the same dimensions. A buffer is generated on first use, and shared between all
+ * charts (and sessions) afterwards.
+ *
+ * <p>The cache holds at most {@link GeometryCache#MAX_SIZE} indexes: the least recently used
+ * buffers are evicted first. Buffers are only softly referenced, so that the garbage collector
+ * may reclaim them when memory is low. The returned buffers are read-only.
+ */
+final class GeometryCache {
+  static final int MAX_SIZE = 8 * 1024 * 1024;
+
+  private GeometryCache() {}
+
+  /**
+   * Returns an index buffer, generating it if needed.
+   *
+   * <p>A buffer of <i>capacity</i> indexes is filled by <i>generator</i> when it is not in the
+   * cache for the given <i>key</i>.
+   */
+  static java.nio.IntBuffer getIndices(
+      final String key, int capacity, final Consumer<java.nio.IntBuffer> generator) {
+    java.nio.IntBuffer result;
+    synchronized (buffers_) {
+      expunge();
+      result = get(key);
+    }
+    if (result == null) {
+      result = java.nio.IntBuffer.allocate(capacity);
+      generator.accept(result);
+      if (capacity <= MAX_SIZE) {
+        synchronized (buffers_) {
+          java.nio.IntBuffer cached = get(key);
+          if (cached != null) {
+            result = cached;
+          } else {
+            Entry previous = buffers_.put(key, new Entry(key, result, queue_));
+            if (previous != null) {
+              size_ -= previous.capacity;
+            }
+            size_ += capacity;
+            evict();
+          }
+        }
+      }
+    }
+    return result.asReadOnlyBuffer();
+  }
+
+  static void clear() {
+    synchronized (buffers_) {
+      buffers_.clear();
+      size_ = 0;
+      while (queue_.poll() != null) {}
+    }
+  }
+
+  /** Returns the number of cached indexes. */
+  static long getSize() {
+    synchronized (buffers_) {
+      expunge();
+      return size_;
+    }
+  }
+
+  private static class Entry extends SoftReference<java.nio.IntBuffer> {
+    final String key;
+    final int capacity;
+
+    Entry(String key, java.nio.IntBuffer buffer, ReferenceQueue<java.nio.IntBuffer> queue) {
+      super(buffer, queue);
+      this.key = key;
+      this.capacity = buffer.capacity();
+    }
+  }
+
+  private static final Map<String, Entry> buffers_ =
+      new LinkedHashMap<String, Entry>(16, 0.75f, true);
+  private static final ReferenceQueue<java.nio.IntBuffer> queue_ =
+      new ReferenceQueue<java.nio.IntBuffer>();
+  private static long size_ = 0;
+
+  private static java.nio.IntBuffer get(final String key) {
+    Entry entry = buffers_.get(key);
+    return entry != null ? entry.get() : null;
+  }
+
+  private static void expunge() {
+    for (Entry entry = (Entry) queue_.poll(); entry != null; entry = (Entry) queue_.poll()) {
+      if (buffers_.remove(entry.key, entry)) {
+        size_ -= entry.capacity;
+      }
+    }
+  }
+
+  private static void evict() {
+    for (Iterator<Entry> i = buffers_.values().iterator(); size_ > MAX_SIZE && i.hasNext(); ) {
+      size_ -= i.next().capacity;
+      i.remove();
+    }
+  }
+}
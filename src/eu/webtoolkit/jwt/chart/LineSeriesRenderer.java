@@ -36,6 +36,9 @@ final class LineSeriesRenderer extends SeriesRenderer {
     this.p_1 = new WPointF();
     this.p0 = new WPointF();
     this.c_ = new WPointF();
+    this.lineXs_ = new double[64];
+    this.lineYs_ = new double[64];
+    this.lineLength_ = 0;
     this.curve_.setOpenSubPathsEnabled(true);
   }
 
@@ -49,18 +52,20 @@ final class LineSeriesRenderer extends SeriesRenderer {
             this.chart_.getYAxis(this.series_.getYAxis()),
             this.it_.getCurrentXSegment(),
             this.it_.getCurrentYSegment());
+    if (this.series_.getType() == SeriesType.Line) {
+      this.addLinePoint(this.hv(p));
+    }
     if (this.curveFragmentLength_ == 0) {
-      this.curve_.moveTo(this.hv(p));
+      if (this.series_.getType() != SeriesType.Line) {
+        this.curve_.moveTo(this.hv(p));
+      }
       if (this.series_.getFillRange() != FillRangeType.None
           && !this.series_.getBrush().equals(new WBrush(BrushStyle.None))) {
         this.fill_.moveTo(this.hv(this.fillOtherPoint(x)));
         this.fill_.lineTo(this.hv(p));
       }
     } else {
-      if (this.series_.getType() == SeriesType.Line) {
-        this.curve_.lineTo(this.hv(p));
-        this.fill_.lineTo(this.hv(p));
-      } else {
+      if (this.series_.getType() != SeriesType.Line) {
         if (this.curveFragmentLength_ == 1) {
           computeC(this.p0, p, this.c_);
         } else {
@@ -81,6 +86,7 @@ final class LineSeriesRenderer extends SeriesRenderer {
   }
 
   public void addBreak() {
+    this.flushLine();
     if (this.curveFragmentLength_ > 1) {
       if (this.series_.getType() == SeriesType.Curve) {
         WPointF c1 = new WPointF();
@@ -104,6 +110,7 @@ final class LineSeriesRenderer extends SeriesRenderer {
         this.chart_.zoomRangeTransform(
             this.chart_.getXAxis(this.series_.getXAxis()),
             this.chart_.getYAxis(this.series_.getYAxis()));
+    this.flushLine();
     if (this.curveLength_ > 1) {
       if (this.series_.getType() == SeriesType.Curve) {
         WPointF c1 = new WPointF();
@@ -147,13 +154,15 @@ final class LineSeriesRenderer extends SeriesRenderer {
       this.series_.scaleDirty_ = false;
       this.series_.offsetDirty_ = false;
       WPainterPath curve = null;
-      if (curveHandle != null) {
+      if (curveHandle != null && this.chart_.appendedRow_ > 0 && this.chart_.isInteractive()) {
+        curveHandle.appendPath(this.curve_);
+      } else if (curveHandle != null) {
         curveHandle.setValue(this.curve_);
         curve = curveHandle.getValue();
       } else {
         curve = this.curve_;
       }
-      if (!this.series_.isHidden()) {
+      if (curve != null && !this.series_.isHidden()) {
         WPen pen = this.series_.getPen();
         if (this.chart_.isSeriesSelectionEnabled()
             && this.chart_.getSelectedSeries() != null
@@ -177,6 +186,33 @@ final class LineSeriesRenderer extends SeriesRenderer {
   private WPointF p_1;
   private WPointF p0;
   private WPointF c_;
+  private double[] lineXs_;
+  private double[] lineYs_;
+  private int lineLength_;
+
+  private void addLinePoint(final WPointF p) {
+    if (this.lineLength_ == this.lineXs_.length) {
+      this.lineXs_ = Arrays.copyOf(this.lineXs_, 2 * this.lineLength_);
+      this.lineYs_ = Arrays.copyOf(this.lineYs_, 2 * this.lineLength_);
+    }
+    this.lineXs_[this.lineLength_] = p.getX();
+    this.lineYs_[this.lineLength_] = p.getY();
+    ++this.lineLength_;
+  }
+
+  private void flushLine() {
+    if (this.lineLength_ == 0) {
+      return;
+    }
+    this.curve_.addPolyline(this.lineXs_, this.lineYs_, 0, this.lineLength_);
+    if (this.series_.getFillRange() != FillRangeType.None
+        && !this.series_.getBrush().equals(new WBrush(BrushStyle.None))) {
+      for (int i = 1; i < this.lineLength_; ++i) {
+        this.fill_.lineTo(this.lineXs_[i], this.lineYs_[i]);
+      }
+    }
+    this.lineLength_ = 0;
+  }
 
   private static double dist(final WPointF p1, final WPointF p2) {
     double dx = p2.getX() - p1.getX();
@@ -194,7 +194,7 @@ final class MarkerRenderIterator extends SeriesIterator {
   }
 
   private void finishPathFragment(final WDataSeries series) {
-    if (this.pathFragment_.getSegments().isEmpty()) {
+    if (this.pathFragment_.getSegmentCount() == 0) {
       return;
     }
     this.painter_.save();
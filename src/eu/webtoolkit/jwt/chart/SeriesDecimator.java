@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2020 Emweb bv, Herent, Belgium.
+ *
+ * See the LICENSE file for terms of use.
+ */
+package eu.webtoolkit.jwt.chart;
+
+import java.util.Arrays;
+
+/**
+ * Reduces the points of a data series to those that are visible at the screen resolution.
+ *
+ * <p>The points are given in device coordinates, in row order. A point with a NaN coordinate is
+ * a gap in the series: one such point is kept for every gap, so that lines are still interrupted.
+ * The methods return the indexes of the points that are kept, in increasing order.
+ */
+final class SeriesDecimator {
+  private SeriesDecimator() {}
+
+  /**
+   * Keeps the minimum and maximum of every bucket.
+   *
+   * <p>Consecutive points with an X coordinate within the same bucket of <i>bucketWidth</i>
+   * device units are reduced to the points with the minimum and maximum Y coordinate. The first
+   * and last point of every uninterrupted part of the series are always kept, so that a part does
+   * not lose its ends next to a gap.
+   */
+  static int[] minMax(double[] x, double[] y, double bucketWidth) {
+    SeriesDecimator.Indexes result = new SeriesDecimator.Indexes(x.length);
+    int n = x.length;
+    int i = 0;
+    while (i < n) {
+      if (isGap(x, y, i)) {
+        result.add(i);
+        while (i < n && isGap(x, y, i)) {
+          ++i;
+        }
+        continue;
+      }
+      double bucket = Math.floor(x[i] / bucketWidth);
+      int min = i;
+      int max = i;
+      int j = i + 1;
+      for (; j < n && !isGap(x, y, j) && Math.floor(x[j] / bucketWidth) == bucket; ++j) {
+        if (y[j] < y[min]) {
+          min = j;
+        } else if (y[j] > y[max]) {
+          max = j;
+        }
+      }
+      if (i == 0 || isGap(x, y, i - 1)) {
+        result.add(i);
+      }
+      result.add(Math.min(min, max));
+      result.add(Math.max(min, max));
+      if (j == n || isGap(x, y, j)) {
+        result.add(j - 1);
+      }
+      i = j;
+    }
+    return result.toArray();
+  }
+
+  /**
+   * Keeps the most significant points, using the largest-triangle-three-buckets algorithm.
+   *
+   * <p>Every uninterrupted part of the series is reduced to about two points for every
+   * <i>bucketWidth</i> device units along the X axis. The points are divided in equally sized
+   * buckets, and from each bucket the point that forms the largest triangle with the point kept
+   * from the previous bucket and the average of the next bucket is kept.
+   */
+  static int[] largestTriangleThreeBuckets(double[] x, double[] y, double bucketWidth) {
+    SeriesDecimator.Indexes result = new SeriesDecimator.Indexes(x.length);
+    int n = x.length;
+    int i = 0;
+    while (i < n) {
+      if (isGap(x, y, i)) {
+        result.add(i);
+        while (i < n && isGap(x, y, i)) {
+          ++i;
+        }
+        continue;
+      }
+      int start = i;
+      while (i < n && !isGap(x, y, i)) {
+        ++i;
+      }
+      double span = Math.abs(x[i - 1] - x[start]);
+      int threshold = (int) Math.min(i - start, Math.ceil(2 * span / bucketWidth) + 2);
+      largestTriangleThreeBuckets(x, y, start, i, Math.max(threshold, 3), result);
+    }
+    return result.toArray();
+  }
+
+  private static void largestTriangleThreeBuckets(
+      double[] x, double[] y, int start, int end, int threshold, SeriesDecimator.Indexes result) {
+    int length = end - start;
+    if (length <= threshold) {
+      for (int i = start; i < end; ++i) {
+        result.add(i);
+      }
+      return;
+    }
+    double every = (double) (length - 2) / (threshold - 2);
+    int a = start;
+    result.add(a);
+    for (int i = 0; i < threshold - 2; ++i) {
+      int avgStart = start + (int) Math.floor((i + 1) * every) + 1;
+      int avgEnd = Math.min(start + (int) Math.floor((i + 2) * every) + 1, end);
+      double avgX = 0;
+      double avgY = 0;
+      for (int j = avgStart; j < avgEnd; ++j) {
+        avgX += x[j];
+        avgY += y[j];
+      }
+      avgX /= avgEnd - avgStart;
+      avgY /= avgEnd - avgStart;
+      int rangeStart = start + (int) Math.floor(i * every) + 1;
+      int rangeEnd = start + (int) Math.floor((i + 1) * every) + 1;
+      double maxArea = -1;
+      int next = rangeStart;
+      for (int j = rangeStart; j < rangeEnd; ++j) {
+        double area = Math.abs((x[a] - avgX) * (y[j] - y[a]) - (x[a] - x[j]) * (avgY - y[a]));
+        if (area > maxArea) {
+          maxArea = area;
+          next = j;
+        }
+      }
+      result.add(next);
+      a = next;
+    }
+    result.add(end - 1);
+  }
+
+  private static boolean isGap(double[] x, double[] y, int i) {
+    return Double.isNaN(x[i]) || Double.isNaN(y[i]);
+  }
+
+  static class Indexes {
+    public Indexes(int capacity) {
+      this.indexes_ = new int[Math.max(16, Math.min(capacity, 1024))];
+      this.size_ = 0;
+    }
+
+    public void add(int index) {
+      if (this.size_ > 0 && this.indexes_[this.size_ - 1] == index) {
+        return;
+      }
+      if (this.size_ == this.indexes_.length) {
+        this.indexes_ = Arrays.copyOf(this.indexes_, 2 * this.size_);
+      }
+      this.indexes_[this.size_++] = index;
+    }
+
+    public int[] toArray() {
+      return Arrays.copyOf(this.indexes_, this.size_);
+    }
+
+    private int[] indexes_;
+    private int size_;
+  }
+}
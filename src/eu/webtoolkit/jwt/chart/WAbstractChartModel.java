@@ -39,6 +39,35 @@ public abstract class WAbstractChartModel extends WObject {
    * <p>This value determines the position of a data point on the chart.
    */
   public abstract double getData(int row, int column);
+  /**
+   * Reads the data of a range of rows in a column.
+   *
+   * <p>Copies the data of <i>count</i> rows of <i>column</i>, starting at <i>row</i>, into
+   * <i>values</i>, starting at <i>offset</i>. The chart uses this to read a series at once.
+   *
+   * <p>The default implementation calls {@link WAbstractChartModel#getData(int row, int column)
+   * getData()} for every row. A model which stores its data in arrays may specialize this method
+   * to copy the data in bulk.
+   */
+  public void getColumnData(int column, int row, int count, double[] values, int offset) {
+    for (int i = 0; i < count; ++i) {
+      values[offset + i] = this.getData(row + i, column);
+    }
+  }
+  /**
+   * Returns the data of a column as a buffer.
+   *
+   * <p>A model which stores its data as doubles may return a read-only view on a column, which
+   * the chart then reads without copying. The buffer holds the data of every row, starting at
+   * index 0, and is only valid until the model is changed.
+   *
+   * <p>The default implementation returns <code>null</code>, and the chart then reads the column
+   * with {@link WAbstractChartModel#getColumnData(int column, int row, int count, double[] values,
+   * int offset) getColumnData()}.
+   */
+  public java.nio.DoubleBuffer getColumnBuffer(int column) {
+    return null;
+  }
   /**
    * Returns display data at a given row and column.
    *
@@ -376,8 +376,7 @@ public abstract class WAbstractGridData extends WAbstractDataSeries3D {
         Nx_patch = Nx - (nbXaxisBuffers - 1) * (SURFACE_SIDE_LIMIT - 1);
       }
       java.nio.IntBuffer vertexIndices =
-          java.nio.IntBuffer.allocate((Nx_patch - 1) * (Ny_patch + 1) * 2);
-      this.generateVertexIndices(vertexIndices, Nx_patch, Ny_patch);
+          this.getVertexIndices((Nx_patch - 1) * (Ny_patch + 1) * 2, Nx_patch, Ny_patch, 0);
       for (int j = 0; j < vertexIndices.capacity() - 2; ++j) {
         if (vertexIndices.get(j) == vertexIndices.get(j + 1)
             || vertexIndices.get(j + 1) == vertexIndices.get(j + 2)
@@ -482,10 +481,11 @@ public abstract class WAbstractGridData extends WAbstractDataSeries3D {
     }
     for (int i = 0; i < simplePtsArrays.size(); ++i) {
       java.nio.IntBuffer vertexIndices =
-          java.nio.IntBuffer.allocate(
-              12 * 3 * (simplePtsArrays.get(i).capacity() / 4 / PT_INFO_SIZE));
-      this.generateVertexIndices(
-          vertexIndices, 0, 0, simplePtsArrays.get(i).capacity() / 4 / PT_INFO_SIZE);
+          this.getVertexIndices(
+              12 * 3 * (simplePtsArrays.get(i).capacity() / 4 / PT_INFO_SIZE),
+              0,
+              0,
+              simplePtsArrays.get(i).capacity() / 4 / PT_INFO_SIZE);
       for (int j = 0; j < vertexIndices.capacity(); j += 3) {
         javax.vecmath.GVector point = new javax.vecmath.GVector(new double[] {0, 0, 0});
         double distance =
@@ -1752,8 +1752,7 @@ public abstract class WAbstractGridData extends WAbstractDataSeries3D {
         Nx_patch = Nx - (nbXaxisBuffers - 1) * (SURFACE_SIDE_LIMIT - 1);
       }
       java.nio.IntBuffer vertexIndices =
-          java.nio.IntBuffer.allocate((Nx_patch - 1) * (Ny_patch + 1) * 2);
-      this.generateVertexIndices(vertexIndices, Nx_patch, Ny_patch);
+          this.getVertexIndices((Nx_patch - 1) * (Ny_patch + 1) * 2, Nx_patch, Ny_patch, 0);
       this.chart_.bindBuffer(WGLWidget.GLenum.ELEMENT_ARRAY_BUFFER, this.indexBuffers_.get(i));
       this.chart_.bufferDataiv(
           WGLWidget.GLenum.ELEMENT_ARRAY_BUFFER,
@@ -1762,8 +1761,8 @@ public abstract class WAbstractGridData extends WAbstractDataSeries3D {
           WGLWidget.GLenum.UNSIGNED_SHORT);
       this.indexBufferSizes_.add(vertexIndices.capacity());
       this.overlayLinesBuffers_.add(this.chart_.createBuffer());
-      java.nio.IntBuffer lineIndices = java.nio.IntBuffer.allocate(2 * Nx_patch * Ny_patch);
-      this.generateMeshIndices(lineIndices, Nx_patch, Ny_patch);
+      java.nio.IntBuffer lineIndices =
+          this.getMeshIndices(2 * Nx_patch * Ny_patch, Nx_patch, Ny_patch, 0);
       this.chart_.bindBuffer(
           WGLWidget.GLenum.ELEMENT_ARRAY_BUFFER, this.overlayLinesBuffers_.get(i));
       this.chart_.bufferDataiv(
@@ -1839,10 +1838,11 @@ public abstract class WAbstractGridData extends WAbstractDataSeries3D {
     for (int i = 0; i < simplePtsArrays.size(); i++) {
       this.indexBuffers_.add(this.chart_.createBuffer());
       java.nio.IntBuffer vertexIndices =
-          java.nio.IntBuffer.allocate(
-              12 * 3 * (simplePtsArrays.get(i).capacity() / 4 / PT_INFO_SIZE));
-      this.generateVertexIndices(
-          vertexIndices, 0, 0, simplePtsArrays.get(i).capacity() / 4 / PT_INFO_SIZE);
+          this.getVertexIndices(
+              12 * 3 * (simplePtsArrays.get(i).capacity() / 4 / PT_INFO_SIZE),
+              0,
+              0,
+              simplePtsArrays.get(i).capacity() / 4 / PT_INFO_SIZE);
       this.chart_.bindBuffer(WGLWidget.GLenum.ELEMENT_ARRAY_BUFFER, this.indexBuffers_.get(i));
       this.chart_.bufferDataiv(
           WGLWidget.GLenum.ELEMENT_ARRAY_BUFFER,
@@ -1852,9 +1852,11 @@ public abstract class WAbstractGridData extends WAbstractDataSeries3D {
       this.indexBufferSizes_.add(vertexIndices.capacity());
       this.overlayLinesBuffers_.add(this.chart_.createBuffer());
       java.nio.IntBuffer lineIndices =
-          java.nio.IntBuffer.allocate(24 * (simplePtsArrays.get(i).capacity() / 4 / PT_INFO_SIZE));
-      this.generateMeshIndices(
-          lineIndices, 0, 0, simplePtsArrays.get(i).capacity() / 4 / PT_INFO_SIZE);
+          this.getMeshIndices(
+              24 * (simplePtsArrays.get(i).capacity() / 4 / PT_INFO_SIZE),
+              0,
+              0,
+              simplePtsArrays.get(i).capacity() / 4 / PT_INFO_SIZE);
       this.chart_.bindBuffer(
           WGLWidget.GLenum.ELEMENT_ARRAY_BUFFER, this.overlayLinesBuffers_.get(i));
       this.chart_.bufferDataiv(
@@ -1878,10 +1880,11 @@ public abstract class WAbstractGridData extends WAbstractDataSeries3D {
     for (int i = 0; i < coloredPtsArrays.size(); i++) {
       this.indexBuffers2_.add(this.chart_.createBuffer());
       java.nio.IntBuffer vertexIndices =
-          java.nio.IntBuffer.allocate(
-              12 * 3 * (coloredPtsArrays.get(i).capacity() / 4 / PT_INFO_SIZE));
-      this.generateVertexIndices(
-          vertexIndices, 0, 0, coloredPtsArrays.get(i).capacity() / 4 / PT_INFO_SIZE);
+          this.getVertexIndices(
+              12 * 3 * (coloredPtsArrays.get(i).capacity() / 4 / PT_INFO_SIZE),
+              0,
+              0,
+              coloredPtsArrays.get(i).capacity() / 4 / PT_INFO_SIZE);
       this.chart_.bindBuffer(WGLWidget.GLenum.ELEMENT_ARRAY_BUFFER, this.indexBuffers2_.get(i));
       this.chart_.bufferDataiv(
           WGLWidget.GLenum.ELEMENT_ARRAY_BUFFER,
@@ -1891,9 +1894,11 @@ public abstract class WAbstractGridData extends WAbstractDataSeries3D {
       this.indexBufferSizes2_.add(vertexIndices.capacity());
       this.overlayLinesBuffers2_.add(this.chart_.createBuffer());
       java.nio.IntBuffer lineIndices =
-          java.nio.IntBuffer.allocate(24 * (coloredPtsArrays.get(i).capacity() / 4 / PT_INFO_SIZE));
-      this.generateMeshIndices(
-          lineIndices, 0, 0, coloredPtsArrays.get(i).capacity() / 4 / PT_INFO_SIZE);
+          this.getMeshIndices(
+              24 * (coloredPtsArrays.get(i).capacity() / 4 / PT_INFO_SIZE),
+              0,
+              0,
+              coloredPtsArrays.get(i).capacity() / 4 / PT_INFO_SIZE);
       this.chart_.bindBuffer(
           WGLWidget.GLenum.ELEMENT_ARRAY_BUFFER, this.overlayLinesBuffers2_.get(i));
       this.chart_.bufferDataiv(
@@ -1938,6 +1943,22 @@ public abstract class WAbstractGridData extends WAbstractDataSeries3D {
     }
   }
 
+  private java.nio.IntBuffer getVertexIndices(
+      int capacity, final int Nx, final int Ny, final int size) {
+    return GeometryCache.getIndices(
+        "vertex:" + this.seriesType_ + ":" + Nx + ":" + Ny + ":" + size,
+        capacity,
+        indices -> this.generateVertexIndices(indices, Nx, Ny, size));
+  }
+
+  private java.nio.IntBuffer getMeshIndices(
+      int capacity, final int Nx, final int Ny, final int size) {
+    return GeometryCache.getIndices(
+        "mesh:" + this.seriesType_ + ":" + Nx + ":" + Ny + ":" + size,
+        capacity,
+        indices -> this.generateMeshIndices(indices, Nx, Ny, size));
+  }
+
   private void generateVertexIndices(
       final java.nio.IntBuffer indicesOUT, int Nx, int Ny, int size) {
     boolean forward = true;
@@ -1984,10 +2005,6 @@ public abstract class WAbstractGridData extends WAbstractDataSeries3D {
     ;
   }
 
-  private final void generateVertexIndices(final java.nio.IntBuffer indicesOUT, int Nx, int Ny) {
-    generateVertexIndices(indicesOUT, Nx, Ny, 0);
-  }
-
   private void generateMeshIndices(final java.nio.IntBuffer indicesOUT, int Nx, int Ny, int size) {
     boolean forward = true;
     switch (this.seriesType_) {
@@ -2072,10 +2089,6 @@ public abstract class WAbstractGridData extends WAbstractDataSeries3D {
     ;
   }
 
-  private final void generateMeshIndices(final java.nio.IntBuffer indicesOUT, int Nx, int Ny) {
-    generateMeshIndices(indicesOUT, Nx, Ny, 0);
-  }
-
   private void generateTextureCoords(
       final java.nio.ByteBuffer coordsOUT, final java.nio.ByteBuffer dataArray, int size) {
     switch (this.seriesType_) {
@@ -2304,8 +2317,7 @@ public abstract class WAbstractGridData extends WAbstractDataSeries3D {
         Nx_patch = Nx - (nbXaxisBuffers - 1) * (SURFACE_SIDE_LIMIT - 1);
       }
       java.nio.IntBuffer vertexIndices =
-          java.nio.IntBuffer.allocate((Nx_patch - 1) * (Ny_patch + 1) * 2);
-      this.generateVertexIndices(vertexIndices, Nx_patch, Ny_patch);
+          this.getVertexIndices((Nx_patch - 1) * (Ny_patch + 1) * 2, Nx_patch, Ny_patch, 0);
       for (int j = 0; j < vertexIndices.capacity() - 2; ++j) {
         if (vertexIndices.get(j) == vertexIndices.get(j + 1)
             || vertexIndices.get(j + 1) == vertexIndices.get(j + 2)
@@ -1490,13 +1490,15 @@ public class WAxis {
                 max = new WDate(new Date((long) (long) s.renderMaximum));
               }
             }
-            logger.debug(
-                new StringWriter()
-                    .append("Range: ")
-                    .append(min.toString())
-                    .append(", ")
-                    .append(max.toString())
-                    .toString());
+            if (logger.isDebugEnabled()) {
+              logger.debug(
+                  new StringWriter()
+                      .append("Range: ")
+                      .append(min.toString())
+                      .append(", ")
+                      .append(max.toString())
+                      .toString());
+            }
             if (daysInterval > 200) {
               s.dateTimeRenderUnit = DateTimeUnit.Years;
               interval = Math.max(1, (int) round125(daysInterval / 365));
@@ -1936,7 +1938,7 @@ public class WAxis {
             textPens.get(level - 1));
         WPen oldPen = painter.getPen();
         painter.setPen(pens.get(level - 1));
-        if (shortTicksPath.getSegments().size() != 0) {
+        if (shortTicksPath.getSegmentCount() != 0) {
           WPainterPath stencil = new WPainterPath();
           if (vertical) {
             stencil.moveTo(tickStart / 2, 0);
@@ -1947,7 +1949,7 @@ public class WAxis {
           }
           painter.drawStencilAlongPath(stencil, transform.map(shortTicksPath).getCrisp(), false);
         }
-        if (longTicksPath.getSegments().size() != 0) {
+        if (longTicksPath.getSegmentCount() != 0) {
           WPainterPath stencil = new WPainterPath();
           if (vertical) {
             stencil.moveTo(tickStart, 0);
@@ -3013,7 +3015,7 @@ public class WAxis {
       int margin,
       final WTransform transform,
       final WPen pen) {
-    if (path.getSegments().size() == 0) {
+    if (path.getSegmentCount() == 0) {
       return;
     }
     AlignmentFlag horizontalAlign =
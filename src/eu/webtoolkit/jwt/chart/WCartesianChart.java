@@ -144,6 +144,9 @@ public class WCartesianChart extends WAbstractChart {
     this.followCurve_ = null;
     this.curveManipulationEnabled_ = false;
     this.onDemandLoadingEnabled_ = false;
+    this.incrementalRenderingEnabled_ = false;
+    this.paintedRowCount_ = -1;
+    this.appendedRow_ = -1;
     this.loadingBackground_ = new WBrush(StandardColor.LightGray);
     this.cObjCreated_ = false;
     this.seriesSelected_ = new Signal2<WDataSeries, WPointF>();
@@ -204,6 +207,9 @@ public class WCartesianChart extends WAbstractChart {
     this.followCurve_ = null;
     this.curveManipulationEnabled_ = false;
     this.onDemandLoadingEnabled_ = false;
+    this.incrementalRenderingEnabled_ = false;
+    this.paintedRowCount_ = -1;
+    this.appendedRow_ = -1;
     this.loadingBackground_ = new WBrush(StandardColor.LightGray);
     this.cObjCreated_ = false;
     this.seriesSelected_ = new Signal2<WDataSeries, WPointF>();
@@ -2325,6 +2331,50 @@ public class WCartesianChart extends WAbstractChart {
   public boolean isOnDemandLoadingEnabled() {
     return this.onDemandLoadingEnabled_;
   }
+  /**
+   * Enables incremental rendering of appended rows.
+   *
+   * <p>When enabled, rows that are appended to an append-only {@link WColumnarChartModel} are
+   * painted on top of the chart that is already shown, instead of repainting the whole chart. For a
+   * chart that shows a live data stream, only the new line segments and markers are sent to the
+   * browser.
+   *
+   * <p>This is only possible when appending rows does not change the layout of the chart. The
+   * chart is therefore still repainted completely unless:
+   *
+   * <ul>
+   *   <li>the axes of all data series have a fixed range (see {@link WAxis#setRange(double
+   *       minimum, double maximum) WAxis#setRange()}),
+   *   <li>all data series are line or point series, without fill range or decimation, that read
+   *       from the chart&apos;s model,
+   *   <li>the chart has no curve labels or axis slider widgets,
+   *   <li>and, if the chart is interactive, all data series are line series without markers or
+   *       labels.
+   * </ul>
+   *
+   * <p>In an interactive chart, the new segments are added to the curves that the browser keeps for
+   * zooming and panning, and the browser redraws the chart. To show a window that scrolls over the
+   * data, set the range of the X axis to cover all data, and the zoom range (see {@link
+   * WAxis#setZoomRange(double minimum, double maximum) WAxis#setZoomRange()}) to the window. When
+   * the last painted row was visible and appended rows go beyond the window, the window is panned
+   * to show the last row. This only updates the zoom and pan transform of the X axis in the
+   * browser.
+   *
+   * <p>The default value is <code>false</code>.
+   */
+  public void setIncrementalRenderingEnabled(boolean enabled) {
+    this.incrementalRenderingEnabled_ = enabled;
+  }
+  /**
+   * Returns whether incremental rendering of appended rows is enabled.
+   *
+   * <p>
+   *
+   * @see WCartesianChart#setIncrementalRenderingEnabled(boolean enabled)
+   */
+  public boolean isIncrementalRenderingEnabled() {
+    return this.incrementalRenderingEnabled_;
+  }
   /**
    * Set the background brush for the unloaded area.
    *
@@ -2359,25 +2409,24 @@ public class WCartesianChart extends WAbstractChart {
     int numBarGroups;
     int currentBarGroup;
     int rowCount = this.getModel() != null ? this.getModel().getRowCount() : 0;
-    List<Double> posStackedValuesInit = new ArrayList<Double>();
-    List<Double> minStackedValuesInit = new ArrayList<Double>();
     final boolean scatterPlot = this.type_ == ChartType.Scatter;
+    double[] posStackedValuesInit = null;
+    double[] minStackedValuesInit = null;
+    double[] posStackedValues = null;
+    double[] minStackedValues = null;
     if (scatterPlot) {
       numBarGroups = 1;
       currentBarGroup = 0;
     } else {
       numBarGroups = this.getCalcNumBarGroups();
       currentBarGroup = 0;
-      {
-        int insertPos = 0;
-        for (int ii = 0; ii < (rowCount); ++ii) posStackedValuesInit.add(insertPos + ii, 0.0);
-      }
-      ;
-      {
-        int insertPos = 0;
-        for (int ii = 0; ii < (rowCount); ++ii) minStackedValuesInit.add(insertPos + ii, 0.0);
+      if (this.stackedValues_ == null || this.stackedValues_[0].length < rowCount) {
+        this.stackedValues_ = new double[4][rowCount];
       }
-      ;
+      posStackedValuesInit = this.stackedValues_[0];
+      minStackedValuesInit = this.stackedValues_[1];
+      posStackedValues = this.stackedValues_[2];
+      minStackedValues = this.stackedValues_[3];
     }
     boolean containsBars = false;
     for (int g = 0; g < this.series_.size(); ++g) {
@@ -2401,9 +2450,8 @@ public class WCartesianChart extends WAbstractChart {
         startSeries = endSeries = g;
       } else {
         if (this.series_.get(g).getModel() == this.getModel()) {
-          for (int i = 0; i < rowCount; ++i) {
-            posStackedValuesInit.set(i, minStackedValuesInit.set(i, 0.0));
-          }
+          Arrays.fill(posStackedValuesInit, 0, rowCount, 0.0);
+          Arrays.fill(minStackedValuesInit, 0, rowCount, 0.0);
           if (reverseStacked) {
             endSeries = g;
             int xAxis = this.series_.get(g).getXAxis();
@@ -2416,15 +2464,16 @@ public class WCartesianChart extends WAbstractChart {
                 if (this.series_.get(g).getType() == SeriesType.Bar) {
                   containsBars = true;
                 }
+                java.nio.DoubleBuffer ys =
+                    this.readColumnData(
+                        this.getModel(), this.series_.get(g).getModelColumn(), 0, rowCount, false);
                 for (int row = 0; row < rowCount; ++row) {
-                  double y =
-                      StringUtils.asNumber(
-                          this.getModel().getData(row, this.series_.get(g).getModelColumn()));
+                  double y = ys.get(row);
                   if (!Double.isNaN(y)) {
                     if (y > 0) {
-                      posStackedValuesInit.set(row, posStackedValuesInit.get(row) + y);
+                      posStackedValuesInit[row] += y;
                     } else {
-                      minStackedValuesInit.set(row, minStackedValuesInit.get(row) + y);
+                      minStackedValuesInit[row] += y;
                     }
                   }
                 }
@@ -2473,8 +2522,6 @@ public class WCartesianChart extends WAbstractChart {
                 && this.series_.get(i).getYAxis() < this.getYAxisCount()
                 && iterator.startSeries(
                     this.series_.get(i), groupWidth, numBarGroups, currentBarGroup);
-        List<Double> posStackedValues = new ArrayList<Double>();
-        List<Double> minStackedValues = new ArrayList<Double>();
         if (doSeries || !scatterPlot && i != endSeries) {
           for (int currentXSegment = 0;
               currentXSegment < this.getXAxis(this.series_.get(i).getXAxis()).getSegmentCount();
@@ -2482,12 +2529,13 @@ public class WCartesianChart extends WAbstractChart {
             for (int currentYSegment = 0;
                 currentYSegment < this.getYAxis(this.series_.get(i).getYAxis()).getSegmentCount();
                 ++currentYSegment) {
-              posStackedValues.clear();
-              posStackedValues.addAll(posStackedValuesInit);
-              minStackedValues.clear();
-              minStackedValues.addAll(minStackedValuesInit);
+              if (!scatterPlot) {
+                System.arraycopy(posStackedValuesInit, 0, posStackedValues, 0, rowCount);
+                System.arraycopy(minStackedValuesInit, 0, minStackedValues, 0, rowCount);
+              }
+              WRectF csa = null;
               if (painter != null) {
-                WRectF csa =
+                csa =
                     this.chartSegmentArea(
                         this.getXAxis(this.series_.get(i).getXAxis()),
                         this.getYAxis(this.series_.get(i).getYAxis()),
@@ -2547,40 +2595,84 @@ public class WCartesianChart extends WAbstractChart {
                           endRow);
                 }
               }
-              for (int row = startRow; row < endRow; ++row) {
-                int[] xIndex = {-1, -1};
-                int[] yIndex = {-1, -1};
+              if (this.appendedRow_ > 0 && csa != null && !extremesOnly) {
+                int firstRow =
+                    ObjectUtils.cast(iterator, SeriesRenderIterator.class) != null
+                        ? this.appendedRow_ - 1
+                        : this.appendedRow_;
+                startRow = Math.max(startRow, firstRow);
+              }
+              int[] decimatedRows = null;
+              if (csa != null
+                  && !extremesOnly
+                  && startSeries == endSeries
+                  && (ObjectUtils.cast(iterator, SeriesRenderIterator.class) != null
+                      || ObjectUtils.cast(iterator, MarkerRenderIterator.class) != null)) {
+                decimatedRows =
+                    this.getDecimatedRows(this.series_.get(i), startRow, endRow, csa.getWidth());
+                if (decimatedRows != null) {
+                  startRow = 0;
+                  endRow = decimatedRows.length;
+                }
+              }
+              int seriesXColumn = -1;
+              if (scatterPlot) {
+                seriesXColumn = this.series_.get(i).XSeriesColumn();
+                if (seriesXColumn == -1) {
+                  seriesXColumn = this.XSeriesColumn();
+                }
+              }
+              int yColumn = this.series_.get(i).getModelColumn();
+              boolean bulk =
+                  decimatedRows == null
+                      && !(extremesOnly && this.isOnDemandLoadingEnabled())
+                      && endRow > startRow;
+              java.nio.DoubleBuffer xs = null;
+              java.nio.DoubleBuffer ys = null;
+              if (bulk) {
+                ys =
+                    this.readColumnData(
+                        this.series_.get(i).getModel(), yColumn, startRow, endRow - startRow, false);
+                if (seriesXColumn != -1) {
+                  xs =
+                      this.readColumnData(
+                          this.series_.get(i).getModel(),
+                          seriesXColumn,
+                          startRow,
+                          endRow - startRow,
+                          true);
+                }
+              }
+              for (int r = startRow; r < endRow; ++r) {
+                int row = decimatedRows != null ? decimatedRows[r] : r;
+                int xRow = -1;
+                int xColumn = -1;
                 double x;
-                if (scatterPlot) {
-                  int c = this.series_.get(i).XSeriesColumn();
-                  if (c == -1) {
-                    c = this.XSeriesColumn();
-                  }
-                  if (c != -1) {
-                    xIndex[0] = row;
-                    xIndex[1] = c;
-                    x = this.series_.get(i).getModel().getData(xIndex[0], xIndex[1]);
-                  } else {
-                    x = row;
-                  }
+                if (seriesXColumn != -1) {
+                  xRow = row;
+                  xColumn = seriesXColumn;
+                  x =
+                      bulk
+                          ? xs.get(r - startRow)
+                          : this.series_.get(i).getModel().getData(xRow, xColumn);
                 } else {
                   x = row;
                 }
-                yIndex[0] = row;
-                yIndex[1] = this.series_.get(i).getModelColumn();
-                double y = this.series_.get(i).getModel().getData(yIndex[0], yIndex[1]);
+                double y =
+                    bulk
+                        ? ys.get(r - startRow)
+                        : this.series_.get(i).getModel().getData(row, yColumn);
                 if (scatterPlot) {
-                  iterator.newValue(
-                      this.series_.get(i), x, y, 0, xIndex[0], xIndex[1], yIndex[0], yIndex[1]);
+                  iterator.newValue(this.series_.get(i), x, y, 0, xRow, xColumn, row, yColumn);
                 } else {
                   double prevStack = 0;
                   double nextStack = 0;
                   boolean hasValue = !Double.isNaN(y);
                   if (hasValue) {
                     if (y > 0) {
-                      prevStack = nextStack = posStackedValues.get(row);
+                      prevStack = nextStack = posStackedValues[row];
                     } else {
-                      prevStack = nextStack = minStackedValues.get(row);
+                      prevStack = nextStack = minStackedValues[row];
                     }
                     if (reverseStacked) {
                       nextStack -= y;
@@ -2588,9 +2680,9 @@ public class WCartesianChart extends WAbstractChart {
                       nextStack += y;
                     }
                     if (y > 0) {
-                      posStackedValues.set(row, nextStack);
+                      posStackedValues[row] = nextStack;
                     } else {
-                      minStackedValues.set(row, nextStack);
+                      minStackedValues[row] = nextStack;
                     }
                   }
                   if (doSeries) {
@@ -2600,25 +2692,25 @@ public class WCartesianChart extends WAbstractChart {
                           x,
                           hasValue ? prevStack : y,
                           nextStack,
-                          xIndex[0],
-                          xIndex[1],
-                          yIndex[0],
-                          yIndex[1]);
+                          xRow,
+                          xColumn,
+                          row,
+                          yColumn);
                     } else {
                       iterator.newValue(
                           this.series_.get(i),
                           x,
                           hasValue ? nextStack : y,
                           prevStack,
-                          xIndex[0],
-                          xIndex[1],
-                          yIndex[0],
-                          yIndex[1]);
+                          xRow,
+                          xColumn,
+                          row,
+                          yColumn);
                     }
                   }
                 }
                 if (extremesOnly && this.isOnDemandLoadingEnabled()) {
-                  row = Math.max(endRow - 2, row);
+                  r = Math.max(endRow - 2, r);
                 }
               }
               iterator.endSegment();
@@ -2627,10 +2719,10 @@ public class WCartesianChart extends WAbstractChart {
               }
             }
           }
-          posStackedValuesInit.clear();
-          posStackedValuesInit.addAll(posStackedValues);
-          minStackedValuesInit.clear();
-          minStackedValuesInit.addAll(minStackedValues);
+          if (!scatterPlot) {
+            System.arraycopy(posStackedValues, 0, posStackedValuesInit, 0, rowCount);
+            System.arraycopy(minStackedValues, 0, minStackedValuesInit, 0, rowCount);
+          }
         }
         if (doSeries) {
           iterator.endSeries();
@@ -2797,6 +2889,9 @@ public class WCartesianChart extends WAbstractChart {
   private WDataSeries followCurve_;
   private boolean curveManipulationEnabled_;
   private boolean onDemandLoadingEnabled_;
+  private boolean incrementalRenderingEnabled_;
+  private int paintedRowCount_;
+  int appendedRow_;
   private WBrush loadingBackground_;
   boolean cObjCreated_;
   private Signal2<WDataSeries, WPointF> seriesSelected_;
@@ -2808,6 +2903,9 @@ public class WCartesianChart extends WAbstractChart {
   private List<WJavaScriptHandle<WPen>> freePens_;
   private List<CurveLabel> curveLabels_;
   private List<WAxisSliderWidget> axisSliderWidgets_;
+  private double[][] stackedValues_;
+  private double[] xValues_;
+  private double[] yValues_;
   private Map<EnumSet<KeyboardModifier>, InteractiveAction> wheelActions_;
   private JSignal2<Double, Double> loadTooltip_;
 
@@ -2953,6 +3051,9 @@ public class WCartesianChart extends WAbstractChart {
 
   protected void modelChanged() {
     this.XSeriesColumn_ = -1;
+    this.stackedValues_ = null;
+    this.xValues_ = null;
+    this.yValues_ = null;
     while (this.axisSliderWidgets_.size() > 0) {
       this.axisSliderWidgets_.get(this.axisSliderWidgets_.size() - 1).setSeries((WDataSeries) null);
     }
@@ -2963,7 +3064,14 @@ public class WCartesianChart extends WAbstractChart {
   }
 
   protected void modelReset() {
-    this.update();
+    this.stackedValues_ = null;
+    this.xValues_ = null;
+    this.yValues_ = null;
+    if (this.isAppendUpdate()) {
+      this.update(PaintFlag.Update);
+    } else {
+      this.update();
+    }
   }
   /**
    * Paints the widget.
@@ -2972,14 +3080,24 @@ public class WCartesianChart extends WAbstractChart {
    * paint on the paint device.
    */
   protected void paintEvent(WPaintDevice paintDevice) {
-    this.hasDeferredToolTips_ = false;
     WPainter painter = new WPainter(paintDevice);
     painter.setRenderHint(RenderHint.Antialiasing);
-    this.paint(painter);
+    int rowCount = this.getModel() != null ? this.getModel().getRowCount() : 0;
+    boolean appendUpdate = this.isPaintUpdate() && this.isAppendUpdate();
+    if (appendUpdate) {
+      this.paintAppendedRows(painter, this.paintedRowCount_);
+    } else {
+      this.hasDeferredToolTips_ = false;
+      this.paint(painter);
+    }
+    this.paintedRowCount_ = rowCount;
     if (this.hasDeferredToolTips_ && !this.jsDefined_) {
       this.defineJavaScript();
     }
-    if (this.isInteractive() || this.hasDeferredToolTips_) {
+    if (appendUpdate && this.isInteractive()) {
+      this.setZoomAndPan();
+      this.doJavaScript(this.getCObjJsRef() + ".updateConfig({});");
+    } else if (this.isInteractive() || this.hasDeferredToolTips_) {
       this.setZoomAndPan();
       List<WRectF> xModelAreas = new ArrayList<WRectF>();
       List<WRectF> yModelAreas = new ArrayList<WRectF>();
@@ -3301,6 +3419,88 @@ public class WCartesianChart extends WAbstractChart {
     }
     painter.restore();
   }
+
+  private void paintAppendedRows(final WPainter painter, int startRow) {
+    WRectF rectangle = painter.getWindow();
+    painter.save();
+    painter.translate(rectangle.getTopLeft());
+    if (this.isInteractive()) {
+      this.scrollToAppendedRows(startRow);
+    }
+    if (this.initLayout(rectangle, painter.getDevice())) {
+      this.appendedRow_ = startRow;
+      try {
+        this.renderSeries(painter);
+      } finally {
+        this.appendedRow_ = -1;
+      }
+    }
+    painter.restore();
+  }
+
+  private boolean isAppendUpdate() {
+    WColumnarChartModel model = ObjectUtils.cast(this.getModel(), WColumnarChartModel.class);
+    if (!this.incrementalRenderingEnabled_
+        || this.paintedRowCount_ == -1
+        || model == null
+        || !model.isAppendOnly()
+        || model.getRowCount() < this.paintedRowCount_
+        || !this.curveLabels_.isEmpty()
+        || !this.axisSliderWidgets_.isEmpty()) {
+      return false;
+    }
+    for (WDataSeries series : this.series_) {
+      if (series.getModel() != model
+          || !this.getXAxis(series.getXAxis()).getAutoLimits().isEmpty()
+          || !this.getYAxis(series.getYAxis()).getAutoLimits().isEmpty()
+          || series.getType() != SeriesType.Line && series.getType() != SeriesType.Point
+          || series.getFillRange() != FillRangeType.None
+          || series.getDecimation() != DecimationType.None) {
+        return false;
+      }
+      if (this.isInteractive()
+          && (series.getType() != SeriesType.Line
+              || series.getMarker() != MarkerType.None
+              || series.isLabelsEnabled(Axis.X)
+              || series.isLabelsEnabled(Axis.Y))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void scrollToAppendedRows(int startRow) {
+    final WAbstractChartModel model = this.getModel();
+    int lastRow = model.getRowCount() - 1;
+    for (int i = 0; i < this.getXAxisCount(); ++i) {
+      final WAxis axis = this.getXAxis(i);
+      if (axis.getZoom() <= 1.0) {
+        continue;
+      }
+      double painted = -Double.MAX_VALUE;
+      double last = -Double.MAX_VALUE;
+      for (WDataSeries series : this.series_) {
+        if (series.getXAxis() == i) {
+          int xColumn =
+              series.XSeriesColumn() == -1 ? this.XSeriesColumn() : series.XSeriesColumn();
+          if (this.type_ == ChartType.Category || xColumn == -1) {
+            painted = Math.max(painted, startRow - 1);
+            last = Math.max(last, lastRow);
+          } else {
+            if (startRow > 0) {
+              painted = Math.max(painted, model.getData(startRow - 1, xColumn));
+            }
+            last = Math.max(last, model.getData(lastRow, xColumn));
+          }
+        }
+      }
+      double zoomMin = axis.getZoomMinimum();
+      double zoomMax = axis.getZoomMaximum();
+      if (painted <= zoomMax && last > zoomMax) {
+        axis.setZoomRangeFromClient(zoomMin + last - zoomMax, last);
+      }
+    }
+  }
   /**
    * Map (x, y) value pair to chart coordinates coordinates.
    *
@@ -5627,12 +5827,14 @@ public class WCartesianChart extends WAbstractChart {
         WPointF p = transform.getInverted().map(new WPointF(x, y));
         WPainterPath path = this.pathForSeries(series);
         WTransform t = this.curveTransform(series);
-        for (int j = 0; j < path.getSegments().size(); ++j) {
-          final WPainterPath.Segment seg = path.getSegments().get(j);
-          if (seg.getType() != SegmentType.CubicC1
-              && seg.getType() != SegmentType.CubicC2
-              && seg.getType() != SegmentType.QuadC) {
-            WPointF segP = t.map(new WPointF(seg.getX(), seg.getY()));
+        for (int j = 0; j < path.getSegmentCount(); ++j) {
+          final SegmentType type = path.getSegmentType(j);
+          if (type != SegmentType.CubicC1
+              && type != SegmentType.CubicC2
+              && type != SegmentType.QuadC) {
+            final double segX = path.getSegmentX(j);
+            final double segY = path.getSegmentY(j);
+            WPointF segP = t.map(new WPointF(segX, segY));
             double dx = p.getX() - segP.getX();
             double dy = p.getY() - segP.getY();
             double d2 = dx * dx + dy * dy;
@@ -5640,7 +5842,7 @@ public class WCartesianChart extends WAbstractChart {
               smallestSqDistance = d2;
               closestSeries = series;
               closestPointPx = segP;
-              closestPointBeforeSeriesTransform = new WPointF(seg.getX(), seg.getY());
+              closestPointBeforeSeriesTransform = new WPointF(segX, segY);
             }
           }
         }
@@ -6025,6 +6227,70 @@ public class WCartesianChart extends WAbstractChart {
     return "";
   }
 
+  private int[] getDecimatedRows(
+      final WDataSeries series, int startRow, int endRow, double pixels) {
+    if (series.getDecimation() == DecimationType.None
+        || series.getType() == SeriesType.Bar
+        || series.getModel() == null) {
+      return null;
+    }
+    final WAxis xAxis = this.getXAxis(series.getXAxis());
+    final WAxis yAxis = this.getYAxis(series.getYAxis());
+    double bucketWidth =
+        Math.abs(xAxis.mapToDevice(xAxis.getZoomMaximum()) - xAxis.mapToDevice(xAxis.getZoomMinimum()))
+            / pixels;
+    int count = endRow - startRow;
+    if (!(bucketWidth > 0) || count <= 2 * pixels) {
+      return null;
+    }
+    int xColumn = -1;
+    if (this.type_ == ChartType.Scatter) {
+      xColumn = series.XSeriesColumn() == -1 ? this.XSeriesColumn() : series.XSeriesColumn();
+    }
+    java.nio.DoubleBuffer xs =
+        xColumn != -1
+            ? this.readColumnData(series.getModel(), xColumn, startRow, count, true)
+            : null;
+    java.nio.DoubleBuffer ys =
+        this.readColumnData(series.getModel(), series.getModelColumn(), startRow, count, false);
+    double[] x = new double[count];
+    double[] y = new double[count];
+    for (int i = 0; i < count; ++i) {
+      x[i] = xAxis.mapToDevice(xs != null ? xs.get(i) : startRow + i);
+      y[i] = yAxis.mapToDevice(ys.get(i));
+    }
+    int[] result;
+    if (series.getDecimation() == DecimationType.MinMax) {
+      result = SeriesDecimator.minMax(x, y, bucketWidth);
+    } else {
+      result = SeriesDecimator.largestTriangleThreeBuckets(x, y, bucketWidth);
+    }
+    for (int i = 0; i < result.length; ++i) {
+      result[i] += startRow;
+    }
+    return result;
+  }
+
+  private java.nio.DoubleBuffer readColumnData(
+      final WAbstractChartModel model, int column, int row, int count, boolean xValues) {
+    java.nio.DoubleBuffer buffer = model.getColumnBuffer(column);
+    if (buffer != null) {
+      buffer.position(row);
+      return buffer.slice();
+    }
+    double[] values = xValues ? this.xValues_ : this.yValues_;
+    if (values == null || values.length < count) {
+      values = new double[count];
+      if (xValues) {
+        this.xValues_ = values;
+      } else {
+        this.yValues_ = values;
+      }
+    }
+    model.getColumnData(column, row, count, values, 0);
+    return java.nio.DoubleBuffer.wrap(values);
+  }
+
   static int binarySearchRow(
       final WAbstractChartModel model, int xColumn, double d, int minRow, int maxRow) {
     if (minRow == maxRow) {
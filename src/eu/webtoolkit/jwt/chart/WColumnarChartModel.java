@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2020 Emweb bv, Herent, Belgium.
+ *
+ * See the LICENSE file for terms of use.
+ */
+package eu.webtoolkit.jwt.chart;
+
+import eu.webtoolkit.jwt.*;
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A chart model which stores its data in columns of doubles.
+ *
+ * <p>This model is read by a chart without any conversion or copy: each column is a <code>
+ * double[]</code> or a {@link DoubleBuffer}, which the chart reads through {@link
+ * WColumnarChartModel#getColumnBuffer(int column) getColumnBuffer()}.
+ *
+ * <p>A model created with only column names is append-only: rows are added with {@link
+ * WColumnarChartModel#appendRow(double[] values) appendRow()} or {@link
+ * WColumnarChartModel#appendRows(double[][] columns, int count) appendRows()}, which is suitable
+ * for streaming time series. Like any change to a model shown in a session, rows must be appended
+ * while holding the application's update lock.
+ *
+ * <p>A model may also be created as a view on existing buffers, which are not copied. These may
+ * for example be memory mapped from a file:
+ *
+ * <pre>{@code
+ * FileChannel channel = FileChannel.open(path);
+ * DoubleBuffer values = channel.map(MapMode.READ_ONLY, 0, channel.size()).asDoubleBuffer();
+ * WColumnarChartModel model = new WColumnarChartModel(Arrays.asList("value"), Arrays.asList(values));
+ * }</pre>
+ *
+ * <p>Such a model has a fixed number of rows.
+ */
+public class WColumnarChartModel extends WAbstractChartModel {
+  private static Logger logger = LoggerFactory.getLogger(WColumnarChartModel.class);
+
+  /**
+   * Creates an empty, append-only model.
+   *
+   * <p>The model has a column for every name.
+   */
+  public WColumnarChartModel(String... columnNames) {
+    super();
+    this.columnNames_ = Arrays.asList(columnNames.clone());
+    this.arrays_ = new double[columnNames.length][16];
+    this.columns_ = new DoubleBuffer[columnNames.length];
+    this.rowCount_ = 0;
+    this.wrapArrays();
+  }
+  /**
+   * Creates a model on existing buffers.
+   *
+   * <p>The model reads the remaining values of each buffer, which must all have the same number
+   * of remaining values. The buffers are not copied, and must not be modified afterwards.
+   */
+  public WColumnarChartModel(final List<String> columnNames, final List<DoubleBuffer> columns) {
+    super();
+    if (columnNames.size() != columns.size()) {
+      throw new WException("WColumnarChartModel: number of column names does not match columns");
+    }
+    this.columnNames_ = new ArrayList<String>(columnNames);
+    this.arrays_ = null;
+    this.columns_ = new DoubleBuffer[columns.size()];
+    this.rowCount_ = columns.isEmpty() ? 0 : columns.get(0).remaining();
+    for (int i = 0; i < columns.size(); ++i) {
+      this.columns_[i] = columns.get(i).slice();
+      if (this.columns_[i].remaining() != this.rowCount_) {
+        throw new WException(
+            "WColumnarChartModel: column " + i + " does not have " + this.rowCount_ + " rows");
+      }
+    }
+  }
+  /**
+   * Appends a row.
+   *
+   * <p>The model must be append-only, and <i>values</i> contains a value for every column.
+   *
+   * @see WColumnarChartModel#appendRows(double[][] columns, int count)
+   */
+  public void appendRow(double... values) {
+    if (values.length != this.columns_.length) {
+      throw new WException("WColumnarChartModel: expected " + this.columns_.length + " values");
+    }
+    this.reserve(this.rowCount_ + 1);
+    for (int c = 0; c < values.length; ++c) {
+      this.arrays_[c][this.rowCount_] = values[c];
+    }
+    ++this.rowCount_;
+    this.changed().trigger();
+  }
+  /**
+   * Appends rows.
+   *
+   * <p>The model must be append-only. For every column, the first <i>count</i> values of
+   * <i>columns</i> are appended.
+   */
+  public void appendRows(double[][] columns, int count) {
+    if (columns.length != this.columns_.length) {
+      throw new WException("WColumnarChartModel: expected " + this.columns_.length + " columns");
+    }
+    this.reserve(this.rowCount_ + count);
+    for (int c = 0; c < columns.length; ++c) {
+      System.arraycopy(columns[c], 0, this.arrays_[c], this.rowCount_, count);
+    }
+    this.rowCount_ += count;
+    this.changed().trigger();
+  }
+  /** Returns whether rows may be appended to this model. */
+  public boolean isAppendOnly() {
+    return this.arrays_ != null;
+  }
+
+  public double getData(int row, int column) {
+    if (row >= this.rowCount_) {
+      throw new IndexOutOfBoundsException("Row: " + row + ", Rows: " + this.rowCount_);
+    }
+    return this.columns_[column].get(row);
+  }
+
+  public void getColumnData(int column, int row, int count, double[] values, int offset) {
+    if (row + count > this.rowCount_) {
+      throw new IndexOutOfBoundsException("Row: " + (row + count) + ", Rows: " + this.rowCount_);
+    }
+    if (this.arrays_ != null) {
+      System.arraycopy(this.arrays_[column], row, values, offset, count);
+    } else {
+      DoubleBuffer buffer = this.columns_[column].duplicate();
+      buffer.position(row);
+      buffer.get(values, offset, count);
+    }
+  }
+
+  public DoubleBuffer getColumnBuffer(int column) {
+    DoubleBuffer buffer = this.columns_[column].asReadOnlyBuffer();
+    buffer.limit(this.rowCount_);
+    return buffer;
+  }
+
+  public WString getHeaderData(int column) {
+    return new WString(this.columnNames_.get(column));
+  }
+
+  public int getColumnCount() {
+    return this.columns_.length;
+  }
+
+  public int getRowCount() {
+    return this.rowCount_;
+  }
+
+  private List<String> columnNames_;
+  private double[][] arrays_;
+  private DoubleBuffer[] columns_;
+  private int rowCount_;
+
+  private void reserve(int rowCount) {
+    if (this.arrays_ == null) {
+      throw new WException("WColumnarChartModel: cannot append rows to a model on buffers");
+    }
+    if (this.arrays_.length > 0 && rowCount > this.arrays_[0].length) {
+      int capacity = Math.max(rowCount, this.arrays_[0].length * 2);
+      for (int c = 0; c < this.arrays_.length; ++c) {
+        this.arrays_[c] = Arrays.copyOf(this.arrays_[c], capacity);
+      }
+      this.wrapArrays();
+    }
+  }
+
+  private void wrapArrays() {
+    for (int c = 0; c < this.arrays_.length; ++c) {
+      this.columns_[c] = DoubleBuffer.wrap(this.arrays_[c]);
+    }
+  }
+}
@@ -84,6 +84,7 @@ public class WDataSeries extends WObject {
     this.labelColor_ = new WColor();
     this.shadow_ = new WShadow();
     this.fillRange_ = FillRangeType.None;
+    this.decimation_ = DecimationType.None;
     this.marker_ = type == SeriesType.Point ? MarkerType.Circle : MarkerType.None;
     this.markerSize_ = 6;
     this.legend_ = true;
@@ -145,6 +146,7 @@ public class WDataSeries extends WObject {
     this.labelColor_ = new WColor();
     this.shadow_ = new WShadow();
     this.fillRange_ = FillRangeType.None;
+    this.decimation_ = DecimationType.None;
     this.marker_ = type == SeriesType.Point ? MarkerType.Circle : MarkerType.None;
     this.markerSize_ = 6;
     this.legend_ = true;
@@ -547,6 +549,39 @@ public class WDataSeries extends WObject {
       return this.fillRange_;
     }
   }
+  /**
+   * Sets how the data points are reduced before rendering.
+   *
+   * <p>When a line, curve or point series has many more data points than there are pixels along
+   * the X axis, the points may be reduced to about two points per pixel. This bounds the size of
+   * the rendered chart by the size of the plot area instead of by the size of the data. The
+   * reduction is computed for the current zoom range of the X axis. In interactive mode, enable
+   * {@link WCartesianChart#setOnDemandLoadingEnabled(boolean enabled) on-demand loading} to
+   * recompute it when the user zooms or pans.
+   *
+   * <p>The X values of the series should be increasing. Points are only reduced when rendering:
+   * the axis ranges, tooltips and point selection still take all data points into account. Bar
+   * series and series that are stacked are never reduced.
+   *
+   * <p>The default value is {@link DecimationType#None}.
+   */
+  public void setDecimation(DecimationType decimation) {
+    if (!ChartUtils.equals(this.decimation_, decimation)) {
+      this.decimation_ = decimation;
+      update();
+    }
+    ;
+  }
+  /**
+   * Returns how the data points are reduced before rendering.
+   *
+   * <p>
+   *
+   * @see WDataSeries#setDecimation(DecimationType decimation)
+   */
+  public DecimationType getDecimation() {
+    return this.decimation_;
+  }
   /**
    * Sets the data point marker.
    *
@@ -1028,6 +1063,7 @@ public class WDataSeries extends WObject {
   private WColor labelColor_;
   private WShadow shadow_;
   private FillRangeType fillRange_;
+  private DecimationType decimation_;
   private MarkerType marker_;
   private double markerSize_;
   private boolean legend_;
@@ -42,6 +42,8 @@ class Block {
     this.css_ = new HashMap<String, Block.PropertyValue>();
     this.font_ = new WFont();
     this.styleSheet_ = null;
+    this.ruleIndex_ = null;
+    this.childMatches_ = null;
     this.noPropertyCache_ = new HashSet<Property>();
     if (node != null) {
       if (RenderUtils.isXmlElement(node)) {
@@ -611,12 +613,7 @@ class Block {
   }
 
   public void setStyleSheet(StyleSheet styleSheet) {
-    this.styleSheet_ = styleSheet;
-    this.css_.clear();
-    this.noPropertyCache_.clear();
-    for (int i = 0; i < this.children_.size(); ++i) {
-      this.children_.get(i).setStyleSheet(styleSheet);
-    }
+    this.setStyleSheet(styleSheet, styleSheet != null ? new RuleIndex(styleSheet) : null);
   }
 
   public void actualRender(
@@ -804,13 +801,13 @@ class Block {
       return "";
     }
     if (this.css_.isEmpty()) {
-      if (this.styleSheet_ != null) {
-        for (int i = 0; i < this.styleSheet_.getRulesetSize(); ++i) {
-          Specificity s = Match.isMatch(this, this.styleSheet_.rulesetAt(i).getSelector());
-          if (s.isValid()) {
-            this.fillinStyle(
-                this.styleSheet_.rulesetAt(i).getDeclarationBlock().getDeclarationString(), s);
-          }
+      if (this.ruleIndex_ != null) {
+        int[] matches = this.getStyleMatches();
+        for (int i = 0; i < matches.length; ++i) {
+          Ruleset ruleset = this.ruleIndex_.rulesetAt(matches[i]);
+          this.fillinStyle(
+              ruleset.getDeclarationBlock().getDeclarationString(),
+              ruleset.getSelector().getSpecificity());
         }
       }
       this.fillinStyle(this.attributeValue("style"), new Specificity(1, 0, 0, 0));
@@ -926,12 +923,45 @@ class Block {
   private Map<String, Block.PropertyValue> css_;
   private WFont font_;
   private StyleSheet styleSheet_;
+  private RuleIndex ruleIndex_;
+  private Map<String, int[]> childMatches_;
   private Set<Property> noPropertyCache_;
   private int tableRowCount_;
   private int tableColCount_;
   private int cellRow_;
   private int cellCol_;
 
+  private void setStyleSheet(StyleSheet styleSheet, RuleIndex ruleIndex) {
+    this.styleSheet_ = styleSheet;
+    this.ruleIndex_ = ruleIndex;
+    this.childMatches_ = null;
+    this.css_.clear();
+    this.noPropertyCache_.clear();
+    for (int i = 0; i < this.children_.size(); ++i) {
+      this.children_.get(i).setStyleSheet(styleSheet, ruleIndex);
+    }
+  }
+
+  private int[] getStyleMatches() {
+    if (this.parent_ == null || this.parent_.ruleIndex_ != this.ruleIndex_) {
+      return this.ruleIndex_.getMatches(this);
+    }
+    StringBuilder key = new StringBuilder();
+    key.append(this.type_.name()).append(" #").append(this.getId());
+    for (int i = 0; i < this.classes_.size(); ++i) {
+      key.append(' ').append(this.classes_.get(i));
+    }
+    if (this.parent_.childMatches_ == null) {
+      this.parent_.childMatches_ = new HashMap<String, int[]>();
+    }
+    int[] result = this.parent_.childMatches_.get(key.toString());
+    if (result == null) {
+      result = this.ruleIndex_.getMatches(this);
+      this.parent_.childMatches_.put(key.toString(), result);
+    }
+    return result;
+  }
+
   private int attributeValue(String attribute, int defaultValue) {
     String valueStr = this.attributeValue(attribute);
     if (valueStr.length() != 0) {
@@ -2,7 +2,9 @@ package eu.webtoolkit.jwt.render;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.antlr.v4.runtime.CharStream;
 import org.antlr.v4.runtime.CharStreams;
@@ -17,6 +19,22 @@ import org.slf4j.LoggerFactory;
 public class CssParser {
 	private static final Logger logger = LoggerFactory.getLogger(CssParser.class);
 
+	private static final int CACHE_SIZE = 32;
+
+	/*
+	 * Parsed style sheets are not modified afterwards, and can thus be shared:
+	 * e.g. the same inline <style> of every document rendered by WTextRenderer
+	 * is parsed only once.
+	 */
+	private static final Map<String, StyleSheet> cache = new LinkedHashMap<String, StyleSheet>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, StyleSheet> eldest) {
+			return size() > CACHE_SIZE;
+		}
+	};
+
 	private ErrorListener errorListener_ = new ErrorListener();
 
 	static final class Listener extends Css22BaseListener {
@@ -114,10 +132,23 @@ public class CssParser {
 	}
 
 	public StyleSheet parse(CharSequence stylesheetContents) {
-		StyleSheet result = parse(CharStreams.fromString(stylesheetContents.toString()));
+		String contents = stylesheetContents.toString();
+		synchronized (cache) {
+			StyleSheet result = cache.get(contents);
+			if (result != null) {
+				errorListener_.reset();
+				return result;
+			}
+		}
+
+		StyleSheet result = parse(CharStreams.fromString(contents));
 		if (result == null) {
 			logger.info("Error parsing stylesheet: {}", getLastError());
 			logger.trace("stylesheet was: {}", stylesheetContents);
+		} else {
+			synchronized (cache) {
+				cache.put(contents, result);
+			}
 		}
 		return result;
 	}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2020 Emweb bv, Herent, Belgium.
+ *
+ * See the LICENSE file for terms of use.
+ */
+package eu.webtoolkit.jwt.render;
+
+import eu.webtoolkit.jwt.*;
+import java.util.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An index of the rulesets of a style sheet.
+ *
+ * <p>Like browsers do, every ruleset is put in a bucket by the rightmost simple selector of its
+ * selector: by id if it has one, else by its first class, else by element type. Only the rulesets
+ * in the buckets of a block's id, classes and type (and those with a universal selector) can
+ * match the block.
+ */
+class RuleIndex {
+  private static Logger logger = LoggerFactory.getLogger(RuleIndex.class);
+
+  public RuleIndex(StyleSheet styleSheet) {
+    this.rules_ = new Ruleset[styleSheet.getRulesetSize()];
+    this.byId_ = new HashMap<String, List<Integer>>();
+    this.byClass_ = new HashMap<String, List<Integer>>();
+    this.byType_ = new EnumMap<DomElementType, List<Integer>>(DomElementType.class);
+    this.universal_ = new ArrayList<Integer>();
+    for (int i = 0; i < this.rules_.length; ++i) {
+      this.rules_[i] = styleSheet.rulesetAt(i);
+      final Selector selector = this.rules_[i].getSelector();
+      if (selector.getSize() == 0) {
+        continue;
+      }
+      final SimpleSelector s = selector.at(selector.getSize() - 1);
+      if (s.getHashId().length() != 0) {
+        add(this.byId_, s.getHashId(), i);
+      } else if (!s.getClasses().isEmpty()) {
+        add(this.byClass_, s.getClasses().get(0), i);
+      } else if (s.getElementName().length() != 0 && !s.getElementName().equals("*")) {
+        add(this.byType_, s.getElementType(), i);
+      } else {
+        this.universal_.add(i);
+      }
+    }
+  }
+
+  public Ruleset rulesetAt(int i) {
+    return this.rules_[i];
+  }
+
+  /**
+   * Returns the rulesets that match a block.
+   *
+   * <p>The indexes of the matching rulesets are returned in style sheet order.
+   */
+  public int[] getMatches(Block block) {
+    List<Integer> candidates = new ArrayList<Integer>(this.universal_);
+    String id = block.getId();
+    if (id.length() != 0) {
+      addAll(candidates, this.byId_.get(id));
+    }
+    final List<String> classes = block.getClasses();
+    for (int i = 0; i < classes.size(); ++i) {
+      if (classes.indexOf(classes.get(i)) == i) {
+        addAll(candidates, this.byClass_.get(classes.get(i)));
+      }
+    }
+    addAll(candidates, this.byType_.get(block.getType()));
+    Collections.sort(candidates);
+    int[] result = new int[candidates.size()];
+    int size = 0;
+    for (int i = 0; i < candidates.size(); ++i) {
+      int rule = candidates.get(i);
+      if (Match.isMatch(block, this.rules_[rule].getSelector()).isValid()) {
+        result[size++] = rule;
+      }
+    }
+    return Arrays.copyOf(result, size);
+  }
+
+  private Ruleset[] rules_;
+  private Map<String, List<Integer>> byId_;
+  private Map<String, List<Integer>> byClass_;
+  private Map<DomElementType, List<Integer>> byType_;
+  private List<Integer> universal_;
+
+  private static <K> void add(final Map<K, List<Integer>> buckets, K key, int rule) {
+    List<Integer> bucket = buckets.get(key);
+    if (bucket == null) {
+      bucket = new ArrayList<Integer>();
+      buckets.put(key, bucket);
+    }
+    bucket.add(rule);
+  }
+
+  private static void addAll(final List<Integer> candidates, final List<Integer> bucket) {
+    if (bucket != null) {
+      candidates.addAll(bucket);
+    }
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2009 Emweb bv, Herent, Belgium.
+ *
+ * See the LICENSE file for terms of use.
+ */
+package eu.webtoolkit.jwt.servlet;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A content coding used to compress response bodies.
+ * <p>
+ * JWt provides {@link #GZIP} and {@link #DEFLATE}. Other codings (such as
+ * brotli) may be provided by specializing this class and adding the instance to
+ * {@link eu.webtoolkit.jwt.Configuration#setResponseEncodings(List)}.
+ *
+ * @see WebResponse
+ */
+public abstract class ContentEncoding {
+	/**
+	 * The gzip content coding.
+	 */
+	public static final ContentEncoding GZIP = new ContentEncoding("gzip") {
+		@Override
+		public OutputStream encode(OutputStream out) throws IOException {
+			return new GZIPOutputStream(out, 8192, true);
+		}
+	};
+
+	/**
+	 * The deflate content coding (zlib format).
+	 */
+	public static final ContentEncoding DEFLATE = new ContentEncoding("deflate") {
+		@Override
+		public OutputStream encode(OutputStream out) throws IOException {
+			return new DeflaterOutputStream(out, new Deflater(), 8192, true);
+		}
+	};
+
+	private final String name;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param name the coding token, as used in the Accept-Encoding and
+	 *        Content-Encoding headers.
+	 */
+	protected ContentEncoding(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Returns the coding token.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns a stream that encodes into the given stream.
+	 * <p>
+	 * Closing the returned stream must write the end of the encoded data and
+	 * close <i>out</i>. Flushing the returned stream should flush
+	 * all data written so far.
+	 *
+	 * @param out the stream to which the encoded data is written
+	 * @return the encoding stream
+	 * @throws IOException
+	 */
+	public abstract OutputStream encode(OutputStream out) throws IOException;
+
+	/**
+	 * Negotiates a content coding.
+	 * <p>
+	 * Returns the first of the given <i>encodings</i> that is accepted according
+	 * to the <i>acceptEncoding</i> header value, or <code>null</code> if none is
+	 * accepted.
+	 *
+	 * @param acceptEncoding the value of the Accept-Encoding request header
+	 *        (may be <code>null</code>)
+	 * @param encodings the supported encodings, in order of preference
+	 * @return the negotiated encoding, or <code>null</code>
+	 */
+	public static ContentEncoding negotiate(String acceptEncoding, List<ContentEncoding> encodings) {
+		if (acceptEncoding == null || encodings.isEmpty())
+			return null;
+
+		acceptEncoding = acceptEncoding.toLowerCase(Locale.ROOT);
+
+		for (ContentEncoding encoding : encodings) {
+			boolean accepted = false;
+			for (String item : acceptEncoding.split(",")) {
+				String[] parts = item.split(";");
+				String coding = parts[0].trim();
+				if (coding.equals(encoding.getName()) || coding.equals("*")) {
+					accepted = !isZeroQuality(parts);
+					if (coding.equals(encoding.getName()))
+						break;
+				}
+			}
+			if (accepted)
+				return encoding;
+		}
+
+		return null;
+	}
+
+	private static boolean isZeroQuality(String[] parts) {
+		for (int i = 1; i < parts.length; ++i) {
+			String p = parts[i].trim();
+			if (p.startsWith("q=")) {
+				try {
+					return Double.parseDouble(p.substring(2).trim()) == 0;
+				} catch (NumberFormatException e) {
+					return false;
+				}
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (C) 2009 Emweb bv, Herent, Belgium.
+ *
+ * See the LICENSE file for terms of use.
+ */
+package eu.webtoolkit.jwt.servlet;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A group of spool files of uploaded files, which are deleted together.
+ * <p>
+ * JWt keeps the spool files of a request in a group, which is deleted when
+ * the request ends, unless the files are adopted by a session. The spool files
+ * of a session are deleted when the session ends. A spool file that is
+ * {@link UploadedFile#stealSpoolFile() stolen} is removed from its group, and
+ * is no longer deleted. Otherwise, a spool file is also deleted as soon as its
+ * {@link UploadedFile} is garbage collected.
+ * <p>
+ * A group may have a maximum size: files that do not fit are not adopted.
+ */
+public final class SpoolFiles {
+	private static final AtomicLong totalSize = new AtomicLong();
+
+	private final long maxSize;
+	private final Set<Spool> spools = new LinkedHashSet<Spool>();
+	private long size = 0;
+
+	/**
+	 * Creates a group without a maximum size.
+	 */
+	public SpoolFiles() {
+		this(0);
+	}
+
+	/**
+	 * Creates a group.
+	 * <p>
+	 * A maximum size of 0 means that the size is not limited.
+	 */
+	public SpoolFiles(long maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Returns the size of the spool files in this group, in bytes.
+	 */
+	public synchronized long getSize() {
+		return size;
+	}
+
+	/**
+	 * Returns the size of all spool files that are not yet deleted, in bytes.
+	 */
+	public static long getTotalSize() {
+		return totalSize.get();
+	}
+
+	/*
+	 * Reserves space for a spool file that is being written, so that uploads
+	 * in progress count towards the maximum total size. Returns false if the
+	 * space is not available.
+	 */
+	static boolean reserve(long size, long maxTotalSize) {
+		for (;;) {
+			long current = totalSize.get();
+			if (maxTotalSize > 0 && current + size > maxTotalSize)
+				return false;
+			if (totalSize.compareAndSet(current, current + size))
+				return true;
+		}
+	}
+
+	static void unreserve(long size) {
+		totalSize.addAndGet(-size);
+	}
+
+	/**
+	 * Moves the spool files of another group to this group.
+	 * <p>
+	 * If the files do not fit within the maximum size of this group, they are
+	 * deleted instead, and <code>false</code> is returned.
+	 */
+	public boolean adopt(SpoolFiles other) {
+		List<Spool> adopted = other.removeAll();
+		long adoptedSize = 0;
+		for (Spool spool : adopted)
+			adoptedSize += spool.size;
+
+		synchronized (this) {
+			if (maxSize <= 0 || size + adoptedSize <= maxSize) {
+				for (Spool spool : adopted)
+					add(spool);
+				return true;
+			}
+		}
+
+		for (Spool spool : adopted)
+			spool.delete();
+		return false;
+	}
+
+	/**
+	 * Moves the spool file of an uploaded file to this group.
+	 * <p>
+	 * If the file does not fit within the maximum size of this group, it is
+	 * deleted instead, and <code>false</code> is returned.
+	 */
+	public boolean adopt(UploadedFile file) {
+		Spool spool = file.getSpool();
+		spool.detach();
+
+		synchronized (this) {
+			if (maxSize <= 0 || size + spool.size <= maxSize) {
+				add(spool);
+				return true;
+			}
+		}
+
+		spool.delete();
+		return false;
+	}
+
+	/**
+	 * Deletes the spool file of an uploaded file.
+	 * <p>
+	 * The file is deleted right away, and removed from the group it belongs
+	 * to. This has no effect on a spool file that was stolen.
+	 */
+	public static void delete(UploadedFile file) {
+		file.getSpool().delete();
+	}
+
+	/**
+	 * Deletes all spool files of this group.
+	 */
+	public void deleteAll() {
+		for (Spool spool : removeAll())
+			spool.delete();
+	}
+
+	synchronized void add(Spool spool) {
+		if (spool.setOwner(this) && spools.add(spool))
+			size += spool.size;
+	}
+
+	private synchronized void remove(Spool spool) {
+		if (spools.remove(spool))
+			size -= spool.size;
+	}
+
+	private synchronized List<Spool> removeAll() {
+		List<Spool> result = new ArrayList<Spool>(spools);
+		spools.clear();
+		size = 0;
+		return result;
+	}
+
+	/*
+	 * The state of a spool file, which is also the action that cleans it up.
+	 * It must not refer to the UploadedFile, which would then never become
+	 * unreachable.
+	 */
+	static final class Spool implements Runnable {
+		final String fileName;
+		final long size;
+		private SpoolFiles owner = null;
+		private boolean released = false;
+
+		Spool(String fileName, long size) {
+			this(fileName, size, false);
+		}
+
+		/*
+		 * A spool file for which the space was already reserved takes over the
+		 * reservation.
+		 */
+		Spool(String fileName, long size, boolean reserved) {
+			this.fileName = fileName;
+			this.size = size;
+			if (!reserved)
+				totalSize.addAndGet(size);
+		}
+
+		public void run() {
+			delete();
+		}
+
+		void delete() {
+			if (release())
+				new File(fileName).delete();
+		}
+
+		void steal() {
+			release();
+		}
+
+		private void detach() {
+			SpoolFiles previousOwner;
+			synchronized (this) {
+				previousOwner = owner;
+				owner = null;
+			}
+			if (previousOwner != null)
+				previousOwner.remove(this);
+		}
+
+		private synchronized boolean setOwner(SpoolFiles owner) {
+			if (released)
+				return false;
+			this.owner = owner;
+			return true;
+		}
+
+		private boolean release() {
+			SpoolFiles previousOwner;
+			synchronized (this) {
+				if (released)
+					return false;
+				released = true;
+				previousOwner = owner;
+				owner = null;
+			}
+			totalSize.addAndGet(-size);
+			if (previousOwner != null)
+				previousOwner.remove(this);
+			return true;
+		}
+	}
+}
@@ -34,13 +34,29 @@ public class UploadedFile {
     this.fileInfo_ = null;
   }
 
-  UploadedFile(final String spoolName, final String clientFileName, final String contentType) {
-    this.fileInfo_ = null;
+  /**
+   * Creates an uploaded file for a spool file.
+   *
+   * <p>The spool file is owned by the new object: unless it is {@link #stealSpoolFile() stolen}, it
+   * is deleted when the object is garbage collected.
+   */
+  public UploadedFile(
+      final String spoolName, final String clientFileName, final String contentType) {
+    this(
+        new SpoolFiles.Spool(spoolName, new File(spoolName).length()),
+        clientFileName,
+        contentType);
+  }
+
+  UploadedFile(
+      final SpoolFiles.Spool spool, final String clientFileName, final String contentType) {
     this.fileInfo_ = new UploadedFile.Impl();
-    this.fileInfo_.spoolFileName = spoolName;
+    this.fileInfo_.spoolFileName = spool.fileName;
     this.fileInfo_.clientFileName = clientFileName;
     this.fileInfo_.contentType = contentType;
     this.fileInfo_.isStolen = false;
+    this.fileInfo_.spool = spool;
+    cleaner.register(this.fileInfo_, this.fileInfo_.spool);
   }
   /**
    * Return the spool file name.
@@ -77,9 +93,19 @@ public class UploadedFile {
    * Steals the uploaded spool file.
    *
    * <p>By stealing the spooled file, it is no longer automatically deleted by JWt.
+   *
+   * <p>Otherwise, the spool file is deleted when the request ends, or when the session ends for a
+   * file that was uploaded to a session (e.g. using a {@link WFileUpload}).
+   *
+   * @see SpoolFiles
    */
   public void stealSpoolFile() {
     this.fileInfo_.isStolen = true;
+    this.fileInfo_.spool.steal();
+  }
+
+  SpoolFiles.Spool getSpool() {
+    return this.fileInfo_.spool;
   }
 
   static class Impl {
@@ -89,15 +115,11 @@ public class UploadedFile {
     public String clientFileName;
     public String contentType;
     public boolean isStolen;
-
-    public void finalize() {
-      if (!this.isStolen) {
-        new File(this.spoolFileName).delete();
-      }
-    }
+    SpoolFiles.Spool spool;
   }
 
   private UploadedFile.Impl fileInfo_;
+  private static final Cleaner cleaner = Cleaner.create();
   private static StringWriter emptyStream = new StringWriter();
 
   static String str(String s) {
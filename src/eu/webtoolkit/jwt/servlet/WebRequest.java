@@ -6,24 +6,27 @@
 package eu.webtoolkit.jwt.servlet;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.util.Arrays;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletRequestWrapper;
 
-import org.apache.commons.fileupload.FileItem;
-import org.apache.commons.fileupload.FileUploadBase;
+import org.apache.commons.fileupload.FileItemIterator;
+import org.apache.commons.fileupload.FileItemStream;
 import org.apache.commons.fileupload.FileUploadException;
-import org.apache.commons.fileupload.disk.DiskFileItemFactory;
+import org.apache.commons.fileupload.ParameterParser;
 import org.apache.commons.fileupload.servlet.ServletFileUpload;
+import org.apache.commons.fileupload.util.Streams;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -86,6 +89,7 @@ public class WebRequest extends HttpServletRequestWrapper {
 	
 	private Map<String, String[]> parameters_;
 	private Map<String, List<UploadedFile>> files_;
+	private final SpoolFiles spoolFiles_ = new SpoolFiles();
 	private String scriptName;
 	private String pathInfo;
 
@@ -201,7 +205,7 @@ public class WebRequest extends HttpServletRequestWrapper {
 		computePaths(configuration);
 
 		try {
-			parse(progressListener);
+			parse(progressListener, configuration);
 		} catch (IOException e) {
 			logger.info("IO Exception parsing request", e);
 		}
@@ -275,15 +279,16 @@ public class WebRequest extends HttpServletRequestWrapper {
 		return pathInfo;
 	}
 
-	@SuppressWarnings({ "unchecked", "deprecation" })
-	private void parse(final ProgressListener progressUpdate) throws IOException {
-		if (FileUploadBase.isMultipartContent(this)) {
-			try {
-				// Create a factory for disk-based file items
-				DiskFileItemFactory factory = new DiskFileItemFactory();
+	private void parse(final ProgressListener progressUpdate, Configuration configuration) throws IOException {
+		if (ServletFileUpload.isMultipartContent(this)) {
+			List<UploadedFile> files = new ArrayList<UploadedFile>();
+			List<String> fileFields = new ArrayList<String>();
+			List<String[]> fields = new ArrayList<String[]>();
 
-				// Create a new file upload handler
-				ServletFileUpload upload = new ServletFileUpload(factory);
+			boolean parsed = false;
+			try {
+				// Stream the parts: every file is written once, straight to its spool file
+				ServletFileUpload upload = new ServletFileUpload();
 
 				if (progressUpdate != null) {
 					upload.setProgressListener(new org.apache.commons.fileupload.ProgressListener(){
@@ -293,58 +298,100 @@ public class WebRequest extends HttpServletRequestWrapper {
 					});
 				}
 
-				// Parse the request
-				List items = upload.parseRequest(this);
-
-				parseParameters();
-				
-				Iterator itr = items.iterator();
-
-				FileItem fi;
-				File f = null;
+				FileItemIterator itr = upload.getItemIterator(this);
 				while (itr.hasNext()) {
-					fi = (FileItem) itr.next();
-
-					// Check if not form field so as to only handle the file inputs
-					// else condition handles the submit button input
-					if (!fi.isFormField()) {
-						try {
-							f = File.createTempFile("jwt", "jwt");
-							fi.write(f);
-							fi.delete();
-						} catch (IOException e) {
-							logger.error("IOException creating temp file {}", f.getAbsolutePath(), e);
-						} catch (Exception e) {
-							logger.error("Exception creating temp file {}", f.getAbsolutePath(), e);
-						}
-
-						List<UploadedFile> files = files_.get(fi.getFieldName());
-						if (files == null) {
-							files = new ArrayList<UploadedFile>();
-							files_.put(fi.getFieldName(), files);
-						}
-						files.add(new UploadedFile(f.getAbsolutePath(), fi.getName(), fi.getContentType()));
-					} else {
-						String[] v = parameters_.get(fi.getFieldName());
-						if (v == null)
-							v = new String[1];
-						else {
-							String[] newv = new String[v.length + 1];
-							for (int i = 0; i < v.length; ++i)
-								newv[i] = v[i];
-							v = newv;
-						}
-						v[v.length - 1] = fi.getString();
-						parameters_.put(fi.getFieldName(), v);
+					FileItemStream item = itr.next();
+					InputStream stream = item.openStream();
+					try {
+						if (!item.isFormField()) {
+							UploadedFile file = new UploadedFile(spool(stream, configuration), item.getName(), item.getContentType());
+							spoolFiles_.add(file.getSpool());
+							fileFields.add(item.getFieldName());
+							files.add(file);
+						} else
+							fields.add(new String[] { item.getFieldName(), Streams.asString(stream, charset(item.getContentType())) });
+					} finally {
+						stream.close();
 					}
 				}
+				parsed = true;
 			} catch (FileUploadException e) {
 				logger.info("FileUploadException", e);
+				files.clear();
+				fileFields.clear();
+				fields.clear();
+			} finally {
+				if (!parsed)
+					spoolFiles_.deleteAll();
+			}
+
+			parseParameters();
+
+			for (int i = 0; i < files.size(); ++i) {
+				List<UploadedFile> fieldFiles = files_.get(fileFields.get(i));
+				if (fieldFiles == null) {
+					fieldFiles = new ArrayList<UploadedFile>();
+					files_.put(fileFields.get(i), fieldFiles);
+				}
+				fieldFiles.add(files.get(i));
+			}
+
+			for (String[] field : fields) {
+				String[] v = parameters_.get(field[0]);
+				if (v == null)
+					v = new String[1];
+				else
+					v = Arrays.copyOf(v, v.length + 1);
+				v[v.length - 1] = field[1];
+				parameters_.put(field[0], v);
 			}
 		} else
 			parseParameters();
 	}
 
+	/*
+	 * Writes a part to a spool file. The space is reserved in the spool quota
+	 * before every write, so that concurrent uploads cannot exceed it together.
+	 */
+	private static SpoolFiles.Spool spool(InputStream stream, Configuration configuration) throws IOException, FileUploadException {
+		long start = System.nanoTime();
+		long maxSize = configuration != null ? configuration.getMaxSpoolSize() : 0;
+		File f = File.createTempFile("jwt", "jwt", configuration != null ? configuration.getUploadSpoolDirectory() : null);
+		OutputStream out = null;
+		long size = 0;
+		try {
+			out = new FileOutputStream(f);
+			byte[] buffer = new byte[8192];
+			for (int n; (n = stream.read(buffer)) != -1;) {
+				if (!SpoolFiles.reserve(n, maxSize))
+					throw new FileUploadException("Spool quota of " + maxSize + " bytes exceeded");
+				size += n;
+				out.write(buffer, 0, n);
+			}
+			out.close();
+			out = null;
+			if (configuration != null)
+				configuration.recordUpload(size, System.nanoTime() - start);
+			return new SpoolFiles.Spool(f.getAbsolutePath(), size, true);
+		} catch (IOException | FileUploadException e) {
+			SpoolFiles.unreserve(size);
+			if (out != null)
+				out.close();
+			f.delete();
+			throw e;
+		}
+	}
+
+	private static String charset(String contentType) {
+		if (contentType != null) {
+			Map<String, String> params = new ParameterParser().parse(contentType, ';');
+			String charset = params.get("charset");
+			if (charset != null)
+				return charset;
+		}
+		return "ISO-8859-1";
+	}
+
 	private void parseParameters() throws IOException {
 		Map<String, String[]> parameterMap = super.getParameterMap();
 
@@ -395,6 +442,16 @@ public class WebRequest extends HttpServletRequestWrapper {
 		return files_;
 	}
 
+	/**
+	 * Returns the spool files of the uploaded files.
+	 * <p>
+	 * These are deleted when the request ends, unless they are adopted by a
+	 * session.
+	 */
+	public SpoolFiles getSpoolFiles() {
+		return spoolFiles_;
+	}
+
 	/**
 	 * Returns the parameter map.
 	 * <p>
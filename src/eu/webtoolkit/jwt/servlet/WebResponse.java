@@ -5,6 +5,8 @@
  */
 package eu.webtoolkit.jwt.servlet;
 
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
@@ -17,6 +19,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpServletResponseWrapper;
 
+import eu.webtoolkit.jwt.Configuration;
 import eu.webtoolkit.jwt.WResource;
 import eu.webtoolkit.jwt.WtServlet;
 import eu.webtoolkit.jwt.servlet.WebRequest.ResponseType;
@@ -44,6 +47,10 @@ public class WebResponse extends HttpServletResponseWrapper {
 	private int id;
 	private ServletOutputStream outputStream;
 	private ResponseType responseType;
+	private Configuration configuration;
+	private ContentEncoding encoding;
+	private boolean contentLengthSet;
+	private volatile boolean detached;
 
 	/**
 	 * Constructor which wraps a HttpServletResponse.
@@ -55,9 +62,32 @@ public class WebResponse extends HttpServletResponseWrapper {
 	 * @param request The HttpServletRequest
 	 */
 	public WebResponse(HttpServletResponse response, HttpServletRequest request) {
+		this(response, request, null);
+	}
+
+	/**
+	 * Constructor which wraps a HttpServletResponse, compressing the response
+	 * according to the configuration.
+	 * <p>
+	 * When the configuration has response encodings, and one of them is accepted
+	 * by the request, the response body is compressed, provided it is large
+	 * enough and of a compressible mime type.
+	 * 
+	 * @param response The HttpSerlvetResponse
+	 * @param request The HttpServletRequest
+	 * @param configuration The configuration (may be <code>null</code>)
+	 * 
+	 * @see Configuration#setResponseEncodings(java.util.List)
+	 */
+	public WebResponse(HttpServletResponse response, HttpServletRequest request, Configuration configuration) {
 		super(response);
 
 		this.request = request;
+		this.configuration = configuration;
+
+		if (configuration != null && request != null)
+			this.encoding = ContentEncoding.negotiate(request.getHeader("Accept-Encoding"),
+					configuration.getResponseEncodings());
 
 		try {
 			this.outWriter = new OutputStreamWriter(getOutputStream(), "UTF-8");
@@ -119,8 +149,11 @@ public class WebResponse extends HttpServletResponseWrapper {
 	@Override
 	public ServletOutputStream getOutputStream() {
 		try {
-			if (outputStream == null)
+			if (outputStream == null) {
 				outputStream = new StreamUtils.ErrorSuppressingOutputStream(super.getOutputStream(), logger);
+				if (encoding != null)
+					outputStream = new CompressingOutputStream(outputStream);
+			}
 			return outputStream;
 		} catch (IOException e) {
 			logger.error("Failed to retrieve ServletOutputStream: {}", e.getMessage());
@@ -128,6 +161,39 @@ public class WebResponse extends HttpServletResponseWrapper {
 		}
 	}
 
+	@Override
+	public void setContentLength(int len) {
+		contentLengthSet = true;
+		super.setContentLength(len);
+	}
+
+	@Override
+	public void setContentLengthLong(long len) {
+		contentLengthSet = true;
+		super.setContentLengthLong(len);
+	}
+
+	@Override
+	public void setHeader(String name, String value) {
+		if ("Content-Length".equalsIgnoreCase(name))
+			contentLengthSet = true;
+		super.setHeader(name, value);
+	}
+
+	@Override
+	public void addHeader(String name, String value) {
+		if ("Content-Length".equalsIgnoreCase(name))
+			contentLengthSet = true;
+		super.addHeader(name, value);
+	}
+
+	@Override
+	public void setIntHeader(String name, int value) {
+		if ("Content-Length".equalsIgnoreCase(name))
+			contentLengthSet = true;
+		super.setIntHeader(name, value);
+	}
+
 	/**
 	 * Returns a text writer.
 	 * <p>
@@ -163,18 +229,24 @@ public class WebResponse extends HttpServletResponseWrapper {
 	/**
 	 * Flushes the response.
 	 * <p>
-	 * This flushes the writer.
+	 * This flushes the writer. This has no effect on a response that is
+	 * {@link #detach() detached}.
 	 */
 	public void flush() {
+		if (detached)
+			return;
+
 		try {
 			outWriter.flush();
+			if (outputStream instanceof CompressingOutputStream)
+				((CompressingOutputStream) outputStream).finish();
 			getOutputStream().flush();
 		} catch (IOException e) {
 			logger.info("IOException in flush", e);
 		} catch (Exception e) {
 			logger.info("Exception in flush", e);
 		} finally {
-			if (request != null) {
+			if (request != null && WtServlet.getServletApi() != null) {
 				WtServlet.getServletApi().completeAsyncContext(request);
 			}
 		}
@@ -271,4 +343,124 @@ public class WebResponse extends HttpServletResponseWrapper {
 	public ResponseType getResponseType() { 
 		return this.responseType; 
 	}
+
+	/**
+	 * Detaches the response from the request handling.
+	 * <p>
+	 * A detached response is completed by whoever detached it, e.g. a
+	 * non-blocking writer: JWt no longer flushes it (and thus does not complete
+	 * its asynchronous context) when the request has been handled.
+	 */
+	public void detach() {
+		this.detached = true;
+	}
+
+	/**
+	 * Returns whether the response is detached.
+	 *
+	 * @see #detach()
+	 */
+	public boolean isDetached() {
+		return this.detached;
+	}
+
+	/*
+	 * Buffers the start of the body until it is known whether it should be
+	 * compressed: the body must reach the compression threshold, have a
+	 * compressible content type, and no other content coding or length must
+	 * have been set.
+	 */
+	private class CompressingOutputStream extends ServletOutputStream {
+		private ServletOutputStream stream;
+		private ByteArrayOutputStream buffer;
+		private OutputStream encoder;
+		private boolean finished;
+
+		CompressingOutputStream(ServletOutputStream stream) {
+			this.stream = stream;
+			this.buffer = new ByteArrayOutputStream();
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			if (finished)
+				throw new IOException("Response already finished");
+
+			if (buffer != null) {
+				buffer.write(b, off, len);
+				if (buffer.size() >= configuration.getCompressionThreshold())
+					decide();
+			} else if (encoder != null)
+				encoder.write(b, off, len);
+			else
+				stream.write(b, off, len);
+		}
+
+		@Override
+		public void flush() throws IOException {
+			if (buffer != null)
+				decide();
+
+			if (encoder != null && !finished)
+				encoder.flush();
+			else
+				stream.flush();
+		}
+
+		void finish() throws IOException {
+			if (finished)
+				return;
+
+			if (buffer != null)
+				decide();
+
+			if (encoder != null)
+				encoder.close();
+
+			finished = true;
+		}
+
+		private void decide() throws IOException {
+			ByteArrayOutputStream data = buffer;
+			buffer = null;
+
+			if (data.size() >= configuration.getCompressionThreshold()
+					&& !isCommitted()
+					&& getStatus() == HttpServletResponse.SC_OK
+					&& !contentLengthSet
+					&& !containsHeader("Content-Encoding")
+					&& configuration.isCompressible(getContentType())) {
+				WebResponse.super.setHeader("Content-Encoding", encoding.getName());
+				WebResponse.super.addHeader("Vary", "Accept-Encoding");
+				encoder = encoding.encode(new FilterOutputStream(stream) {
+					@Override
+					public void write(byte[] b, int off, int len) throws IOException {
+						out.write(b, off, len);
+					}
+
+					@Override
+					public void close() throws IOException {
+						flush();
+					}
+				});
+				data.writeTo(encoder);
+			} else
+				data.writeTo(stream);
+		}
+
+		@Override
+		public boolean isReady() {
+			return stream.isReady();
+		}
+
+		@Override
+		public void setWriteListener(WriteListener writeListener) {
+			stream.setWriteListener(writeListener);
+		}
+	}
 }
@@ -11,8 +11,91 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 public class CollectionUtils {
+	/**
+	 * A comparison function on primitive integers.
+	 */
+	public interface IntComparator {
+		int compare(int i1, int i2);
+	}
+
+	/*
+	 * Sorts the first count values of an array: a stable merge sort which
+	 * avoids boxing the values.
+	 */
+	public static void sort(int[] values, int count, IntComparator comparator) {
+		sort(values, new int[count], 0, count, comparator);
+	}
+
+	/*
+	 * Sorts the first count values of an array like sort(), using the common
+	 * fork/join pool. The comparator must be thread-safe.
+	 */
+	public static void parallelSort(int[] values, int count, IntComparator comparator) {
+		int grain = Math.max(PARALLEL_SORT_GRAIN, count / (4 * ForkJoinPool.getCommonPoolParallelism()));
+		ForkJoinPool.commonPool().invoke(new SortTask(values, new int[count], 0, count, grain, comparator));
+	}
+
+	private static final int PARALLEL_SORT_GRAIN = 8192;
+
+	private static class SortTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final int[] values, buffer;
+		private final int from, to, grain;
+		private final IntComparator comparator;
+
+		SortTask(int[] values, int[] buffer, int from, int to, int grain, IntComparator comparator) {
+			this.values = values;
+			this.buffer = buffer;
+			this.from = from;
+			this.to = to;
+			this.grain = grain;
+			this.comparator = comparator;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= grain) {
+				sort(values, buffer, from, to, comparator);
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			invokeAll(new SortTask(values, buffer, from, mid, grain, comparator),
+					new SortTask(values, buffer, mid, to, grain, comparator));
+			merge(values, buffer, from, mid, to, comparator);
+			System.arraycopy(buffer, from, values, from, to - from);
+		}
+	}
+
+	private static void sort(int[] values, int[] buffer, int from, int to, IntComparator comparator) {
+		int[] src = values;
+		int[] dst = buffer;
+
+		for (int width = 1; width < to - from; width *= 2) {
+			for (int lo = from; lo < to; lo += 2 * width)
+				merge(src, dst, lo, Math.min(lo + width, to), Math.min(lo + 2 * width, to), comparator);
+			int[] t = src;
+			src = dst;
+			dst = t;
+		}
+
+		if (src != values)
+			System.arraycopy(src, from, values, from, to - from);
+	}
+
+	private static void merge(int[] src, int[] dst, int lo, int mid, int hi, IntComparator comparator) {
+		int i = lo, j = mid, k = lo;
+		while (i < mid && j < hi)
+			dst[k++] = comparator.compare(src[j], src[i]) < 0 ? src[j++] : src[i++];
+		while (i < mid)
+			dst[k++] = src[i++];
+		while (j < hi)
+			dst[k++] = src[j++];
+	}
 
 	public static <V> void resize(List<V> list, int size) {
 		while (list.size() > size)
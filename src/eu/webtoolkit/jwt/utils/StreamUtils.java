@@ -11,6 +11,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
+import java.io.Writer;
 
 import javax.servlet.ServletOutputStream;
 import javax.servlet.WriteListener;
@@ -48,6 +49,39 @@ public class StreamUtils {
 		}
 	}
 
+	private static final ThreadLocal<char[]> writeBuffer = new ThreadLocal<char[]>() {
+		@Override
+		protected char[] initialValue() {
+			return new char[8192];
+		}
+	};
+
+	/**
+	 * Writes a character sequence to a writer.
+	 * <p>
+	 * Unlike <code>out.append(s)</code>, this does not first copy a
+	 * StringBuilder (or other mutable sequence) into a String, but copies it
+	 * in chunks through a per-thread buffer.
+	 */
+	public static void write(Writer out, CharSequence s) throws IOException {
+		if (s instanceof String) {
+			out.write((String) s);
+			return;
+		}
+
+		int length = s.length();
+		if (s instanceof StringBuilder) {
+			StringBuilder sb = (StringBuilder) s;
+			char[] buffer = writeBuffer.get();
+			for (int i = 0; i < length; i += buffer.length) {
+				int end = Math.min(length, i + buffer.length);
+				sb.getChars(i, end, buffer, 0);
+				out.write(buffer, 0, end - i);
+			}
+		} else
+			out.append(s, 0, length);
+	}
+
 	public static void closeQuietly(InputStream is) {
 		try {
 			if (is != null) {
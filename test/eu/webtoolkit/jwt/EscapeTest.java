@@ -20,4 +20,23 @@ public class EscapeTest {
 		
 		assertEquals("\"", WWebWidget.unescapeText(toUnescape));
 	}
+
+	@Test
+	public void testNestedRules() {
+		EscapeOStream out = new EscapeOStream();
+		out.pushEscape(EscapeOStream.RuleSet.JsStringLiteralSQuote);
+		out.append("it's\n");
+
+		EscapeOStream nested = out.push();
+		nested.pushEscape(EscapeOStream.RuleSet.HtmlAttribute);
+		nested.append("a&'\"\n<\u00e9");
+		nested.append('"');
+		nested.popEscape();
+		nested.append('"');
+
+		out.popEscape();
+		out.append("\n'");
+
+		assertEquals("it\\'s\\na&amp;\\'&#34;\\n&lt;\u00e9&#34;\"\n'", out.toString());
+	}
 }
@@ -0,0 +1,68 @@
+package eu.webtoolkit.jwt;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class FileServeTest {
+	private static final String TEMPLATE =
+		"a=_$_A_$_;_$_$if_C1_$_()c1[_$_$ifnot_C2_$_()!c2 _$_B_$__$_$endif_$_()]_$_$endif_$_()end";
+
+	@Test
+	public void testStream() throws IOException {
+		FileServe f = new FileServe(TEMPLATE);
+		f.setVar("A", "1");
+		f.setVar("B", "2");
+		f.setCondition("C1", true);
+		f.setCondition("C2", false);
+
+		StringBuilder out = new StringBuilder();
+		f.stream(out);
+		assertEquals("a=1;c1[!c2 2]end", out.toString());
+	}
+
+	@Test
+	public void testStreamUntil() throws IOException {
+		FileServe f = new FileServe("head_$_BODY_$_tail_$_X_$_");
+		f.setVar("X", "x");
+
+		StringBuilder out = new StringBuilder();
+		f.streamUntil(out, "BODY");
+		assertEquals("head", out.toString());
+		out.append('|');
+		f.stream(out);
+		assertEquals("head|tailx", out.toString());
+	}
+
+	@Test
+	public void testSpecialize() throws IOException {
+		for (boolean c1 : new boolean[] { false, true })
+			for (boolean c2 : new boolean[] { false, true }) {
+				FileServe f = new FileServe(TEMPLATE);
+				f.setVar("A", "1");
+				f.setVar("B", "2");
+				f.setCondition("C1", c1);
+				f.setCondition("C2", c2);
+				StringBuilder expected = new StringBuilder();
+				f.stream(expected);
+
+				Map<String, String> vars = new HashMap<String, String>();
+				vars.put("A", "1");
+				Map<String, Boolean> conditions = new HashMap<String, Boolean>();
+				conditions.put("C2", c2);
+				FileServe.Template t = FileServe.Template.compile(TEMPLATE).specialize(vars, conditions);
+
+				FileServe g = new FileServe(t);
+				g.setVar("B", "2");
+				g.setCondition("C1", c1);
+				StringBuilder actual = new StringBuilder();
+				g.stream(actual);
+
+				assertEquals(expected.toString(), actual.toString());
+			}
+	}
+}
@@ -0,0 +1,41 @@
+package eu.webtoolkit.jwt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import org.junit.Test;
+
+public class ImageCacheTest {
+	@Test
+	public void testCache() throws IOException {
+		File file = File.createTempFile("jwt-image", ".png");
+		try {
+			ImageCache.clear();
+			ImageIO.write(new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB), "png", file);
+
+			BufferedImage image = ImageCache.read(file);
+			assertSame(image, ImageCache.read(file));
+			assertEquals(400, ImageCache.getSize());
+
+			ImageIO.write(new BufferedImage(20, 10, BufferedImage.TYPE_INT_ARGB), "png", file);
+			file.setLastModified(file.lastModified() + 2000);
+			BufferedImage changed = ImageCache.read(file);
+			assertNotSame(image, changed);
+			assertEquals(20, changed.getWidth());
+
+			ImageCache.setMaxSize(1000);
+			assertEquals(800, ImageCache.getSize());
+		} finally {
+			ImageCache.setMaxSize(64L * 1024 * 1024);
+			ImageCache.clear();
+			file.delete();
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package eu.webtoolkit.jwt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+
+import javax.imageio.ImageIO;
+
+import org.junit.Test;
+
+public class RasterRenderingServiceTest {
+	@Test
+	public void testPool() {
+		BufferedImage image = RasterRenderingService.acquire(100, 10);
+		assertEquals(128, image.getWidth());
+		assertEquals(64, image.getHeight());
+
+		RasterRenderingService.release(image);
+		assertSame(image, RasterRenderingService.acquire(120, 1));
+	}
+
+	@Test
+	public void testEncode() throws Exception {
+		long count = RasterRenderingService.getEncodedImageCount();
+
+		BufferedImage source = RasterRenderingService.acquire(50, 20);
+		source.setRGB(5, 5, 0xffff0000);
+		source.setRGB(15, 15, 0);
+		byte[] png = RasterRenderingService.encode(source, 50, 20).get();
+
+		BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+		assertEquals(50, image.getWidth());
+		assertEquals(20, image.getHeight());
+		assertEquals(0xffff0000, image.getRGB(5, 5));
+		assertEquals(0, image.getRGB(15, 15));
+		assertEquals(count + 1, RasterRenderingService.getEncodedImageCount());
+		assertSame(source, RasterRenderingService.acquire(50, 20));
+	}
+}
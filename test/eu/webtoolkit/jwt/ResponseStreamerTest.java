@@ -0,0 +1,150 @@
+package eu.webtoolkit.jwt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Test;
+
+import eu.webtoolkit.jwt.servlet.WebRequest;
+import eu.webtoolkit.jwt.servlet.WebResponse;
+
+public class ResponseStreamerTest {
+	private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+	private boolean asyncStarted = false;
+	private boolean completed = false;
+	private boolean ready = true;
+	private WriteListener listener;
+
+	private static class Producer implements WResource.DataProducer {
+		int chunks = 0;
+		boolean closed = false;
+
+		public ByteBuffer next() {
+			if (chunks == 3)
+				return null;
+			String data = "chunk" + chunks++ + ";";
+			ByteBuffer result = ByteBuffer.allocateDirect(data.length());
+			result.put(data.getBytes(StandardCharsets.US_ASCII)).flip();
+			return result;
+		}
+
+		public void close() {
+			closed = true;
+		}
+	}
+
+	private void stream(final boolean asyncSupported, Producer producer) throws Exception {
+		final AsyncContext asyncContext = (AsyncContext) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { AsyncContext.class }, new InvocationHandler() {
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						if (method.getName().equals("complete"))
+							completed = true;
+						return null;
+					}
+				});
+
+		HttpServletRequest request = (HttpServletRequest) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { HttpServletRequest.class }, new InvocationHandler() {
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						switch (method.getName()) {
+						case "getMethod":
+							return "GET";
+						case "isAsyncSupported":
+							return asyncSupported;
+						case "isAsyncStarted":
+							return asyncStarted;
+						case "startAsync":
+							asyncStarted = true;
+							return asyncContext;
+						case "getAsyncContext":
+							return asyncContext;
+						case "getServletPath":
+						case "getContextPath":
+						case "getRequestURI":
+							return "";
+						case "getParameterMap":
+							return new HashMap<String, String[]>();
+						default:
+							return null;
+						}
+					}
+				});
+
+		final ServletOutputStream out = new ServletOutputStream() {
+			public void write(int b) {
+				body.write(b);
+			}
+
+			public void write(byte[] b, int off, int len) {
+				if (listener != null && !ready)
+					throw new IllegalStateException("not ready");
+				body.write(b, off, len);
+				ready = false;
+			}
+
+			public boolean isReady() {
+				return ready;
+			}
+
+			public void setWriteListener(WriteListener writeListener) {
+				listener = writeListener;
+			}
+		};
+
+		HttpServletResponse response = (HttpServletResponse) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { HttpServletResponse.class }, new InvocationHandler() {
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						if (method.getName().equals("getOutputStream"))
+							return out;
+						return null;
+					}
+				});
+
+		WebRequest webRequest = new WebRequest(request, null, new Configuration());
+		WebResponse webResponse = new WebResponse(response, webRequest);
+		ResponseStreamer.stream(webRequest, webResponse, producer);
+	}
+
+	@Test
+	public void testNonBlocking() throws Exception {
+		Producer producer = new Producer();
+		stream(true, producer);
+		assertTrue(asyncStarted);
+		assertEquals(0, producer.chunks);
+
+		int callbacks = 0;
+		while (!completed) {
+			ready = true;
+			listener.onWritePossible();
+			++callbacks;
+		}
+		assertEquals(4, callbacks);
+		assertEquals("chunk0;chunk1;chunk2;", body.toString("US-ASCII"));
+		assertTrue(producer.closed);
+	}
+
+	@Test
+	public void testBlocking() throws Exception {
+		Producer producer = new Producer();
+		ready = true;
+		stream(false, producer);
+		assertFalse(asyncStarted);
+		assertEquals("chunk0;chunk1;chunk2;", body.toString("US-ASCII"));
+		assertTrue(producer.closed);
+	}
+}
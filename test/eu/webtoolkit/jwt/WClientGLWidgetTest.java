@@ -0,0 +1,56 @@
+package eu.webtoolkit.jwt;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.junit.Test;
+
+public class WClientGLWidgetTest {
+	private static final int FLOATS = 2048;
+
+	private static byte[] littleEndian(int offset) {
+		ByteBuffer result = ByteBuffer.allocate(FLOATS * 4).order(ByteOrder.LITTLE_ENDIAN);
+		for (int i = 0; i < FLOATS; ++i)
+			result.putFloat(i + offset + 0.5f);
+		return result.array();
+	}
+
+	private static ByteBuffer fill(ByteBuffer buffer, int offset) {
+		for (int i = 0; i < FLOATS; ++i)
+			buffer.putFloat(i + offset + 0.5f);
+		return buffer;
+	}
+
+	@Test
+	public void testBigEndianBuffer() {
+		ByteBuffer v = fill(ByteBuffer.allocate(FLOATS * 4).order(ByteOrder.BIG_ENDIAN), 0);
+		assertArrayEquals(littleEndian(0), WClientGLWidget.toBytes(v));
+		assertEquals(FLOATS * 4, v.position());
+	}
+
+	@Test
+	public void testLittleEndianBuffer() {
+		ByteBuffer v = fill(ByteBuffer.allocate(FLOATS * 4).order(ByteOrder.LITTLE_ENDIAN), 0);
+		assertSame(v.array(), WClientGLWidget.toBytes(v));
+	}
+
+	@Test
+	public void testSlicedBuffer() {
+		ByteBuffer backing = fill(ByteBuffer.allocate((FLOATS + 1) * 4).order(ByteOrder.LITTLE_ENDIAN), -1);
+		backing.putFloat(FLOATS - 0.5f);
+		backing.position(4);
+		ByteBuffer v = backing.slice().order(ByteOrder.LITTLE_ENDIAN);
+		assertEquals(4, v.arrayOffset());
+		assertArrayEquals(littleEndian(0), WClientGLWidget.toBytes(v));
+	}
+
+	@Test
+	public void testDirectBuffer() {
+		ByteBuffer v = fill(ByteBuffer.allocateDirect(FLOATS * 4).order(ByteOrder.BIG_ENDIAN), 0);
+		assertArrayEquals(littleEndian(0), WClientGLWidget.toBytes(v));
+	}
+}
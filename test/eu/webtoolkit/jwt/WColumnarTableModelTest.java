@@ -0,0 +1,53 @@
+package eu.webtoolkit.jwt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class WColumnarTableModelTest {
+	private static WColumnarTableModel.Dataset createDataset() {
+		return new WColumnarTableModel.Dataset(
+				WColumnarTableModel.Column.ofStrings("name", new String[] { "b", "a", "c", "a" }),
+				WColumnarTableModel.Column.ofLongs("count", new long[] { 3, 1, 2, 4 }),
+				WColumnarTableModel.Column.ofDoubles("value", new double[] { 0.5, 1.5, -1, 2 }));
+	}
+
+	@Test
+	public void testData() {
+		WColumnarTableModel model = new WColumnarTableModel(createDataset());
+
+		assertEquals(4, model.getRowCount());
+		assertEquals(3, model.getColumnCount());
+		assertEquals("count", model.getHeaderData(1));
+		assertEquals("c", model.getData(2, 0));
+		assertEquals(4L, model.getData(3, 1));
+		assertEquals(-1.0, model.getData(2, 2));
+	}
+
+	@Test
+	public void testSortAndFilter() {
+		WColumnarTableModel model = new WColumnarTableModel(createDataset());
+
+		model.sort(1, SortOrder.Descending);
+		model.sort(0);
+		assertEquals("a", model.getData(0, 0));
+		assertEquals(4L, model.getData(0, 1));
+		assertEquals(1L, model.getData(1, 1));
+		assertEquals("c", model.getData(3, 0));
+
+		Object raw = model.toRawIndex(model.getIndex(1, 2));
+
+		model.setFilter(model.getDataset().getColumns().get(2).select(v -> (Double) v > 0));
+		assertEquals(3, model.getRowCount());
+		assertEquals(2.0, model.getData(0, 2));
+		assertEquals(0.5, model.getData(2, 2));
+		assertEquals(model.getIndex(1, 2), model.fromRawIndex(raw));
+
+		model.setFilter(model.getDataset().getColumns().get(0).select(v -> "b".equals(v)));
+		assertNull(model.fromRawIndex(raw));
+
+		model.setFilter(null);
+		assertEquals(4, model.getRowCount());
+	}
+}
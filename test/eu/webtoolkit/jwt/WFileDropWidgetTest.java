@@ -0,0 +1,108 @@
+package eu.webtoolkit.jwt;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+import eu.webtoolkit.jwt.servlet.SpoolFiles;
+import eu.webtoolkit.jwt.servlet.UploadedFile;
+
+public class WFileDropWidgetTest {
+	private final List<File> chunks = new ArrayList<File>();
+
+	private UploadedFile chunk(String contents) throws IOException {
+		File f = File.createTempFile("jwt-chunk", ".tmp");
+		chunks.add(f);
+		Files.write(f.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+		return new UploadedFile(f.getAbsolutePath(), "chunk", "application/octet-stream");
+	}
+
+	/*
+	 * A chunk that was uploaded to a session, like the ones that are received by
+	 * the upload resource.
+	 */
+	private UploadedFile sessionChunk(WApplication app, String contents) throws IOException {
+		UploadedFile result = chunk(contents);
+		assertTrue(app.getSession().getSpoolFiles().adopt(result));
+		return result;
+	}
+
+	@After
+	public void deleteChunks() {
+		for (File f : chunks) {
+			assertFalse(f.exists());
+			f.delete();
+		}
+	}
+
+	@Test
+	public void testResumableChunks() throws Exception {
+		WFileDropWidget.File file = new WFileDropWidget.File(1, "data.txt", "data.txt", "text/plain", 25, 0);
+		file.setResumableChunkSize(10);
+
+		String checksum = Utils.hexEncode(MessageDigest.getInstance("SHA-256")
+				.digest("chunk two".getBytes(StandardCharsets.UTF_8)));
+		assertTrue(file.handleIncomingChunk(chunk("01234"), 2, null));
+		assertFalse(file.handleIncomingChunk(chunk("chunk tw0!"), 1, checksum));
+		assertFalse(file.handleIncomingChunk(chunk("too short"), 0, null));
+		assertFalse(file.handleIncomingChunk(chunk("0123456789"), 3, null));
+		assertEquals("{2}", file.getReceivedChunks().toString());
+
+		assertTrue(file.handleIncomingChunk(chunk("abcdefghij"), 0, null));
+		assertFalse(file.isUploadFinished());
+		checksum = Utils.hexEncode(MessageDigest.getInstance("SHA-256")
+				.digest("klmnopqrst".getBytes(StandardCharsets.UTF_8)));
+		assertTrue(file.handleIncomingChunk(chunk("klmnopqrst"), 1, checksum));
+		assertTrue(file.isUploadFinished());
+
+		File result = new File(file.getUploadedFile().getSpoolFileName());
+		assertArrayEquals("abcdefghijklmnopqrst01234".getBytes(StandardCharsets.UTF_8),
+				Files.readAllBytes(result.toPath()));
+		SpoolFiles.delete(file.getUploadedFile());
+		assertFalse(result.exists());
+	}
+
+	@Test
+	public void testResumeSameFile() throws Exception {
+		WApplication app = new WApplication(new WTestEnvironment(new Configuration()));
+		SpoolFiles spoolFiles = app.getSession().getSpoolFiles();
+		WFileDropWidget widget = new WFileDropWidget();
+		widget.setResumableUpload(10, 2);
+
+		WFileDropWidget.File first = widget.createFile(1, "data.txt", "data.txt", "text/plain", 25, 1000);
+		assertTrue(first.handleIncomingChunk(sessionChunk(app, "abcdefghij"), 0, null));
+		assertFalse(first.handleIncomingChunk(sessionChunk(app, "too short"), 1, null));
+		assertTrue(first.handleIncomingChunk(sessionChunk(app, "01234"), 2, null));
+		// only the preallocated file, the chunks are deleted once written
+		assertEquals(25, spoolFiles.getSize());
+
+		WFileDropWidget.File other = widget.createFile(2, "data.txt", "data.txt", "text/plain", 25, 2000);
+		assertTrue(other.getReceivedChunks().isEmpty());
+
+		WFileDropWidget.File second = widget.createFile(3, "data.txt", "data.txt", "text/plain", 25, 1000);
+		assertEquals("{0, 2}", second.getReceivedChunks().toString());
+		assertTrue(first.getReceivedChunks().isEmpty());
+		assertTrue(second.handleIncomingChunk(sessionChunk(app, "klmnopqrst"), 1, null));
+		assertTrue(second.isUploadFinished());
+
+		File result = new File(second.getUploadedFile().getSpoolFileName());
+		assertArrayEquals("abcdefghijklmnopqrst01234".getBytes(StandardCharsets.UTF_8),
+				Files.readAllBytes(result.toPath()));
+		assertEquals(25, spoolFiles.getSize());
+
+		spoolFiles.deleteAll();
+		assertFalse(result.exists());
+	}
+}
@@ -0,0 +1,169 @@
+package eu.webtoolkit.jwt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Test;
+
+import eu.webtoolkit.jwt.servlet.WebRequest;
+import eu.webtoolkit.jwt.servlet.WebResponse;
+
+public class WFileResourceTest {
+	private static class Exchange {
+		final Map<String, String> headers = new HashMap<String, String>();
+		final ByteArrayOutputStream body = new ByteArrayOutputStream();
+		int status = 200;
+		String contentType;
+	}
+
+	private static Exchange get(WFileResource resource, final Map<String, String> requestHeaders) throws Exception {
+		final Exchange result = new Exchange();
+
+		HttpServletRequest request = (HttpServletRequest) Proxy.newProxyInstance(
+				WFileResourceTest.class.getClassLoader(), new Class<?>[] { HttpServletRequest.class },
+				new InvocationHandler() {
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						switch (method.getName()) {
+						case "getMethod":
+							return "GET";
+						case "getHeader":
+							return requestHeaders.get(args[0]);
+						case "getServletPath":
+						case "getContextPath":
+						case "getRequestURI":
+							return "";
+						case "getParameterMap":
+							return new HashMap<String, String[]>();
+						default:
+							return null;
+						}
+					}
+				});
+
+		final ServletOutputStream out = new ServletOutputStream() {
+			public void write(int b) {
+				result.body.write(b);
+			}
+
+			public boolean isReady() {
+				return true;
+			}
+
+			public void setWriteListener(WriteListener listener) {
+			}
+		};
+
+		HttpServletResponse response = (HttpServletResponse) Proxy.newProxyInstance(
+				WFileResourceTest.class.getClassLoader(), new Class<?>[] { HttpServletResponse.class },
+				new InvocationHandler() {
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						switch (method.getName()) {
+						case "getOutputStream":
+							return out;
+						case "setStatus":
+							result.status = (Integer) args[0];
+							return null;
+						case "setHeader":
+							result.headers.put((String) args[0], (String) args[1]);
+							return null;
+						case "setContentLengthLong":
+							result.headers.put("Content-Length", String.valueOf(args[0]));
+							return null;
+						case "setContentType":
+							result.contentType = (String) args[0];
+							return null;
+						case "getContentType":
+							return result.contentType;
+						case "getStatus":
+							return result.status;
+						case "isCommitted":
+						case "containsHeader":
+							return false;
+						default:
+							return null;
+						}
+					}
+				});
+
+		Configuration configuration = new Configuration();
+		WebRequest webRequest = new WebRequest(request, null, configuration);
+		WebResponse webResponse = new WebResponse(response, webRequest, configuration);
+		resource.handleRequest(webRequest, webResponse);
+		webResponse.getOutputStream().flush();
+		return result;
+	}
+
+	@Test
+	public void testConditionalAndRangeRequests() throws Exception {
+		File file = File.createTempFile("jwt-resource", ".txt");
+		try {
+			Files.write(file.toPath(), "0123456789".getBytes(StandardCharsets.US_ASCII));
+			WFileResource resource = new WFileResource("text/plain", file.getAbsolutePath());
+			Map<String, String> headers = new HashMap<String, String>();
+
+			Exchange full = get(resource, headers);
+			assertEquals(200, full.status);
+			assertEquals("10", full.headers.get("Content-Length"));
+			assertEquals("0123456789", full.body.toString("US-ASCII"));
+			String eTag = full.headers.get("ETag");
+
+			headers.put("If-None-Match", "\"other\", " + eTag);
+			Exchange notModified = get(resource, headers);
+			assertEquals(304, notModified.status);
+			assertEquals(0, notModified.body.size());
+			headers.clear();
+
+			headers.put("Range", "bytes=2-4");
+			Exchange range = get(resource, headers);
+			assertEquals(206, range.status);
+			assertEquals("bytes 2-4/10", range.headers.get("Content-Range"));
+			assertEquals("234", range.body.toString("US-ASCII"));
+
+			headers.put("If-Range", "\"stale\"");
+			assertEquals(200, get(resource, headers).status);
+			headers.remove("If-Range");
+
+			headers.put("Range", "bytes=0-1,-2");
+			Exchange multipart = get(resource, headers);
+			assertEquals(206, multipart.status);
+			assertTrue(multipart.contentType.startsWith("multipart/byteranges; boundary="));
+			String body = multipart.body.toString("US-ASCII");
+			assertEquals(String.valueOf(multipart.body.size()), multipart.headers.get("Content-Length"));
+			assertTrue(body.contains("Content-Range: bytes 0-1/10\r\n\r\n01\r\n"));
+			assertTrue(body.contains("Content-Range: bytes 8-9/10\r\n\r\n89\r\n"));
+
+			headers.put("Range", "bytes=20-");
+			Exchange unsatisfiable = get(resource, headers);
+			assertEquals(416, unsatisfiable.status);
+			assertEquals("bytes */10", unsatisfiable.headers.get("Content-Range"));
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void testParseRanges() {
+		assertEquals(5, WResource.parseRanges("bytes=5-", 10).get(0)[0]);
+		assertEquals(9, WResource.parseRanges("bytes=5-100", 10).get(0)[1]);
+		assertEquals(0, WResource.parseRanges("bytes=-20", 10).get(0)[0]);
+		assertTrue(WResource.parseRanges("bytes=10-", 10).isEmpty());
+		assertNull(WResource.parseRanges("bytes=5-2", 10));
+		assertNull(WResource.parseRanges("items=0-1", 10));
+	}
+}
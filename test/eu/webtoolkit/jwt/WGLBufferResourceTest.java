@@ -0,0 +1,29 @@
+package eu.webtoolkit.jwt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Test;
+
+public class WGLBufferResourceTest {
+	private static String hash(String url) {
+		return url.substring(url.indexOf("&buffer=") + 8);
+	}
+
+	@Test
+	public void testContentAddressing() {
+		Configuration configuration = new Configuration();
+		WTestEnvironment env = new WTestEnvironment(configuration);
+		new WApplication(env);
+
+		WGLBufferResource resource = new WGLBufferResource();
+		String url1 = resource.addBuffer(new byte[] { 1, 2, 3, 4 });
+		String url2 = resource.addBuffer(new byte[] { 1, 2, 3, 4 });
+		String url3 = resource.addBuffer(new byte[] { 4, 3, 2, 1 });
+		assertEquals(url1, url2);
+		assertNotEquals(url1, url3);
+
+		WGLBufferResource other = new WGLBufferResource();
+		assertEquals(hash(url1), hash(other.addBuffer(new byte[] { 1, 2, 3, 4 })));
+	}
+}
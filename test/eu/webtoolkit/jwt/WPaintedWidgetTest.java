@@ -0,0 +1,35 @@
+package eu.webtoolkit.jwt;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class WPaintedWidgetTest {
+	private static class PaintedWidget extends WPaintedWidget {
+		PaintedWidget() {
+			super(null);
+		}
+
+		@Override
+		protected void paintEvent(WPaintDevice paintDevice) {
+		}
+	}
+
+	@Test
+	public void testUpdateFlags() {
+		Configuration configuration = new Configuration();
+		WTestEnvironment env = new WTestEnvironment(configuration);
+		new WApplication(env);
+
+		PaintedWidget widget = new PaintedWidget();
+		widget.update(PaintFlag.Update);
+		assertTrue(widget.repaintFlags_.contains(PaintFlag.Update));
+
+		widget.update();
+		assertFalse(widget.repaintFlags_.contains(PaintFlag.Update));
+
+		widget.update(PaintFlag.Update);
+		assertFalse(widget.repaintFlags_.contains(PaintFlag.Update));
+	}
+}
@@ -0,0 +1,78 @@
+package eu.webtoolkit.jwt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+public class WPainterPathTest {
+	@Test
+	public void testAddPolyline() {
+		double[] xs = new double[100];
+		double[] ys = new double[100];
+		WPainterPath expected = new WPainterPath();
+		expected.moveTo(5, 5);
+		for (int i = 0; i < xs.length; ++i) {
+			xs[i] = i;
+			ys[i] = i * i;
+			if (i == 0)
+				expected.moveTo(xs[i], ys[i]);
+			else
+				expected.lineTo(xs[i], ys[i]);
+		}
+
+		WPainterPath path = new WPainterPath(new WPointF(5, 5));
+		path.addPolyline(xs, ys);
+		assertTrue(path.equals(expected));
+		assertEquals(101, path.getSegmentCount());
+		path.addPolyline(new double[] { 99, 0 }, new double[] { 9801, 0 });
+		assertEquals(103, path.getSegmentCount());
+
+		WPainterPath part = new WPainterPath();
+		part.addPolyline(xs, ys, 10, 3);
+		assertEquals(3, part.getSegmentCount());
+		assertEquals(SegmentType.MoveTo, part.getSegmentType(0));
+		assertEquals(SegmentType.LineTo, part.getSegmentType(2));
+		assertEquals(144.0, part.getSegmentY(2), 0.0);
+	}
+
+	@Test
+	public void testSegments() {
+		WPainterPath path = new WPainterPath();
+		path.moveTo(1, 2);
+		path.quadTo(3, 4, 5, 6);
+		path.arcTo(0, 0, 10, 0, 90);
+
+		List<WPainterPath.Segment> segments = path.getSegments();
+		assertEquals(path.getSegmentCount(), segments.size());
+		for (int i = 0; i < segments.size(); ++i) {
+			assertEquals(path.getSegmentType(i), segments.get(i).getType());
+			assertEquals(path.getSegmentX(i), segments.get(i).getX(), 0.0);
+			assertEquals(path.getSegmentY(i), segments.get(i).getY(), 0.0);
+		}
+
+		int count = path.getSegmentCount();
+		WPainterPath copy = new WPainterPath(path);
+		path.lineTo(7, 8);
+		assertEquals(count + 1, segments.size());
+		assertEquals(count, copy.getSegmentCount());
+		copy.assign(path);
+		assertTrue(copy.equals(path));
+
+		WPainterPath moved = new WTransform().translate(1, 1).map(path);
+		assertEquals(2.0, moved.getSegmentX(0), 0.0);
+		for (int i = 0; i < path.getSegmentCount(); ++i) {
+			if (path.getSegmentType(i) == SegmentType.ArcR)
+				assertEquals(path.getSegmentX(i), moved.getSegmentX(i), 0.0);
+		}
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testSegmentsReadOnly() {
+		WPainterPath path = new WPainterPath();
+		path.moveTo(1, 2);
+		path.getSegments().remove(0);
+	}
+}
@@ -0,0 +1,79 @@
+package eu.webtoolkit.jwt;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import eu.webtoolkit.jwt.utils.CollectionUtils;
+
+public class WSortFilterProxyModelTest {
+	private static String rows(WAbstractItemModel model) {
+		StringBuilder result = new StringBuilder();
+		for (int i = 0; i < model.getRowCount(); ++i)
+			result.append(StringUtils.asString(model.getData(i, 0)));
+		return result.toString();
+	}
+
+	@Test
+	public void testSortAndFilter() {
+		WStandardItemModel model = new WStandardItemModel(0, 1);
+		for (String s : new String[] { "d", "b", "x", "a", "c" })
+			model.appendRow(new WStandardItem(s));
+
+		WSortFilterProxyModel proxy = new WSortFilterProxyModel();
+		proxy.setSourceModel(model);
+		proxy.setDynamicSortFilter(true);
+		proxy.setFilterRegExp(Pattern.compile("[a-e]"));
+		proxy.sort(0);
+		assertEquals("abcd", rows(proxy));
+
+		proxy.sort(0, SortOrder.Descending);
+		assertEquals("dcba", rows(proxy));
+
+		model.setData(1, 0, "e");
+		assertEquals("edca", rows(proxy));
+
+		model.setData(2, 0, "b");
+		assertEquals("edcba", rows(proxy));
+		assertEquals(3, proxy.mapFromSource(model.getIndex(2, 0)).getRow());
+
+		model.insertRow(0);
+		model.setData(0, 0, "bb");
+		assertEquals("edcba", rows(proxy));
+		model.setData(0, 0, "c");
+		assertEquals("edccba", rows(proxy));
+		assertEquals(2, proxy.mapFromSource(model.getIndex(0, 0)).getRow());
+
+		model.removeRow(1);
+		assertEquals("eccba", rows(proxy));
+		assertEquals(2, proxy.mapToSource(proxy.getIndex(3, 0)).getRow());
+
+		proxy.setParallelSortThreshold(0);
+		proxy.sort(0);
+		assertEquals("abcce", rows(proxy));
+	}
+
+	@Test
+	public void testParallelSort() {
+		int count = 100000;
+		final int[] keys = new int[count];
+		int[] rows = new int[count];
+		Random random = new Random(42);
+		for (int i = 0; i < count; ++i) {
+			keys[i] = random.nextInt(1000);
+			rows[i] = i;
+		}
+		int[] expected = rows.clone();
+		CollectionUtils.sort(expected, count, (r1, r2) -> Integer.compare(keys[r1], keys[r2]));
+		CollectionUtils.parallelSort(rows, count, (r1, r2) -> Integer.compare(keys[r1], keys[r2]));
+		assertArrayEquals(expected, rows);
+		for (int i = 1; i < count; ++i)
+			assertTrue(keys[rows[i - 1]] < keys[rows[i]]
+					|| keys[rows[i - 1]] == keys[rows[i]] && rows[i - 1] < rows[i]);
+	}
+}
@@ -0,0 +1,213 @@
+package eu.webtoolkit.jwt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncListener;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.Test;
+
+import eu.webtoolkit.jwt.servlet.WebRequest;
+
+public class WtServletTest {
+	private static final String BOUNDARY = "----boundary";
+
+	private AsyncListener listener;
+
+	private HttpServletRequest request(final boolean asyncStarted) {
+		final byte[] body = ("--" + BOUNDARY + "\r\n"
+				+ "Content-Disposition: form-data; name=\"file\"; filename=\"data.txt\"\r\n\r\n"
+				+ "0123456789\r\n"
+				+ "--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8);
+		final ByteArrayInputStream in = new ByteArrayInputStream(body);
+		final ServletInputStream stream = new ServletInputStream() {
+			public int read() {
+				return in.read();
+			}
+
+			public int read(byte[] b, int off, int len) {
+				return in.read(b, off, len);
+			}
+
+			public boolean isFinished() {
+				return in.available() == 0;
+			}
+
+			public boolean isReady() {
+				return true;
+			}
+
+			public void setReadListener(ReadListener listener) {
+			}
+		};
+
+		final AsyncContext asyncContext = (AsyncContext) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { AsyncContext.class }, new InvocationHandler() {
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						if (method.getName().equals("addListener"))
+							listener = (AsyncListener) args[0];
+						return null;
+					}
+				});
+
+		return (HttpServletRequest) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { HttpServletRequest.class }, new InvocationHandler() {
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						switch (method.getName()) {
+						case "getMethod":
+							return "POST";
+						case "getContentType":
+							return "multipart/form-data; boundary=" + BOUNDARY;
+						case "getContentLength":
+							return body.length;
+						case "getContentLengthLong":
+							return (long) body.length;
+						case "getInputStream":
+							return stream;
+						case "isAsyncStarted":
+							return asyncStarted;
+						case "getAsyncContext":
+							return asyncContext;
+						case "getServletPath":
+						case "getContextPath":
+						case "getRequestURI":
+							return "";
+						case "getParameterMap":
+							return new HashMap<String, String[]>();
+						default:
+							return null;
+						}
+					}
+				});
+	}
+
+	private static File spoolFile(WebRequest request) {
+		return new File(request.getUploadedFiles().get("file").get(0).getSpoolFileName());
+	}
+
+	@Test
+	public void testReleaseSpoolFiles() {
+		HttpServletRequest request = request(false);
+		WebRequest webRequest = new WebRequest(request, null, new Configuration());
+		File file = spoolFile(webRequest);
+		assertTrue(file.exists());
+
+		WtServlet.releaseSpoolFiles(request, webRequest);
+		assertFalse(file.exists());
+	}
+
+	@Test
+	public void testReleaseSpoolFilesOnAsyncComplete() throws Exception {
+		HttpServletRequest request = request(true);
+		WebRequest webRequest = new WebRequest(request, null, new Configuration());
+		File file = spoolFile(webRequest);
+
+		WtServlet.releaseSpoolFiles(request, webRequest);
+		assertTrue(file.exists());
+		assertNotNull(listener);
+
+		listener.onComplete(null);
+		assertFalse(file.exists());
+		assertEquals(0, webRequest.getSpoolFiles().getSize());
+	}
+
+	/*
+	 * Creates a servlet with a single session, which broadcasts are run for by
+	 * the returned tasks.
+	 */
+	private static WtServlet broadcastServlet(WApplication app, final List<Runnable> tasks) {
+		WtServlet servlet = app.getEnvironment().getServer();
+		servlet.addSession(app.getSession());
+		servlet.setBroadcastExecutor(tasks::add);
+		return servlet;
+	}
+
+	@Test
+	public void testBroadcastCoalesced() {
+		WApplication app = new WApplication(new WTestEnvironment(new Configuration()));
+		List<Runnable> tasks = new ArrayList<Runnable>();
+		WtServlet servlet = broadcastServlet(app, tasks);
+
+		final AtomicInteger runs = new AtomicInteger();
+		BroadcastResult first = servlet.broadcast(runs::incrementAndGet);
+		BroadcastResult second = servlet.broadcast(runs::incrementAndGet);
+		assertEquals(1, first.getSessionCount());
+		assertFalse(first.isDone());
+
+		// both tasks are run by a single lock acquisition
+		assertEquals(1, tasks.size());
+		tasks.get(0).run();
+		assertEquals(2, runs.get());
+		assertTrue(first.isDone());
+		assertTrue(second.isDone());
+		assertEquals(1, first.getDelivered());
+		assertEquals(1, second.getDelivered());
+
+		servlet.broadcast(runs::incrementAndGet);
+		assertEquals(2, tasks.size());
+	}
+
+	@Test
+	public void testBroadcastFailed() throws Exception {
+		WApplication app = new WApplication(new WTestEnvironment(new Configuration()));
+		List<Runnable> tasks = new ArrayList<Runnable>();
+		WtServlet servlet = broadcastServlet(app, tasks);
+
+		BroadcastResult exception = servlet.broadcast(() -> {
+			throw new IllegalStateException("broadcast");
+		});
+		tasks.get(0).run();
+		assertTrue(exception.isDone());
+		assertEquals(1, exception.getFailed());
+		assertEquals(0, exception.getDelivered());
+
+		BroadcastResult error = servlet.broadcast(() -> {
+			throw new AssertionError("broadcast");
+		});
+		try {
+			tasks.get(1).run();
+		} catch (AssertionError e) {
+			assertEquals("broadcast", e.getMessage());
+		}
+		assertTrue(error.await(0, TimeUnit.SECONDS));
+		assertEquals(1, error.getFailed());
+	}
+
+	@Test
+	public void testBroadcastSkipped() {
+		WApplication app = new WApplication(new WTestEnvironment(new Configuration()));
+		List<Runnable> tasks = new ArrayList<Runnable>();
+		WtServlet servlet = broadcastServlet(app, tasks);
+
+		final AtomicInteger runs = new AtomicInteger();
+		BroadcastResult ended = servlet.broadcast(runs::incrementAndGet);
+		app.getSession().kill();
+		tasks.get(0).run();
+		assertTrue(ended.isDone());
+		assertEquals(1, ended.getSkipped());
+		assertEquals(0, runs.get());
+
+		BroadcastResult dead = servlet.broadcast(runs::incrementAndGet);
+		assertTrue(dead.isDone());
+		assertEquals(1, dead.getSkipped());
+		assertEquals(1, tasks.size());
+	}
+}
@@ -0,0 +1,43 @@
+package eu.webtoolkit.jwt.chart;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class GeometryCacheTest {
+	@Test
+	public void testGenerateOnce() {
+		GeometryCache.clear();
+		final AtomicInteger generated = new AtomicInteger();
+		for (int i = 0; i < 3; ++i) {
+			java.nio.IntBuffer indices = GeometryCache.getIndices("test:4", 4, buffer -> {
+				generated.incrementAndGet();
+				for (int j = 0; j < 4; ++j)
+					buffer.put(j * 2);
+			});
+			assertTrue(indices.isReadOnly());
+			assertEquals(4, indices.capacity());
+			assertEquals(6, indices.get(3));
+		}
+		assertEquals(1, generated.get());
+		assertEquals(4, GeometryCache.getSize());
+		GeometryCache.clear();
+		assertEquals(0, GeometryCache.getSize());
+	}
+
+	@Test
+	public void testEvictLeastRecentlyUsed() {
+		GeometryCache.clear();
+		final int half = GeometryCache.MAX_SIZE / 2;
+		final AtomicInteger generated = new AtomicInteger();
+		for (String key : new String[] { "a", "b", "a", "c", "a", "b" })
+			GeometryCache.getIndices(key, half, buffer -> generated.incrementAndGet());
+		// "b" was evicted by "c", and "c" by "b" again
+		assertEquals(4, generated.get());
+		assertEquals(GeometryCache.MAX_SIZE, GeometryCache.getSize());
+		GeometryCache.clear();
+	}
+}
@@ -0,0 +1,57 @@
+package eu.webtoolkit.jwt.chart;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class SeriesDecimatorTest {
+	private static double[] range(int n, double step) {
+		double[] result = new double[n];
+		for (int i = 0; i < n; ++i)
+			result[i] = i * step;
+		return result;
+	}
+
+	@Test
+	public void testMinMax() {
+		double[] x = range(8, 0.25);
+		double[] y = { 1, 5, -2, 3, Double.NaN, 4, 0, 2 };
+
+		int[] rows = SeriesDecimator.minMax(x, y, 1.0);
+		assertArrayEquals(new int[] { 0, 1, 2, 3, 4, 5, 6, 7 }, rows);
+	}
+
+	@Test
+	public void testMinMaxKeepsPointsNextToGaps() {
+		double[] x = range(12, 0.1);
+		double[] y = { 5, 9, 1, 6, 7, Double.NaN, Double.NaN, 4, 8, 0, 3, 2 };
+
+		// 4 and 7 are neither the minimum nor the maximum of their bucket
+		int[] rows = SeriesDecimator.minMax(x, y, 10.0);
+		assertArrayEquals(new int[] { 0, 1, 2, 4, 5, 7, 8, 9, 11 }, rows);
+	}
+
+	@Test
+	public void testLargestTriangleThreeBuckets() {
+		int n = 100000;
+		double[] x = range(n, 0.01);
+		double[] y = new double[n];
+		for (int i = 0; i < n; ++i)
+			y[i] = Math.sin(i / 1000.0) * 100;
+		y[54321] = 1000;
+
+		int[] rows = SeriesDecimator.largestTriangleThreeBuckets(x, y, 1.0);
+		assertTrue(rows.length <= 2 * 1000 + 2);
+		assertEquals(0, rows[0]);
+		assertEquals(n - 1, rows[rows.length - 1]);
+		boolean peak = false;
+		for (int i = 0; i < rows.length; ++i) {
+			if (i > 0)
+				assertTrue(rows[i] > rows[i - 1]);
+			peak |= rows[i] == 54321;
+		}
+		assertTrue(peak);
+	}
+}
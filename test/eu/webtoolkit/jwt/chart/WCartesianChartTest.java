@@ -0,0 +1,262 @@
+package eu.webtoolkit.jwt.chart;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import eu.webtoolkit.jwt.Configuration;
+import eu.webtoolkit.jwt.DomElement;
+import eu.webtoolkit.jwt.EscapeOStream;
+import eu.webtoolkit.jwt.WApplication;
+import eu.webtoolkit.jwt.WLength;
+import eu.webtoolkit.jwt.WPainter;
+import eu.webtoolkit.jwt.WStandardItemModel;
+import eu.webtoolkit.jwt.WSvgImage;
+import eu.webtoolkit.jwt.WTestEnvironment;
+
+public class WCartesianChartTest {
+	private static class StackRecorder extends SeriesIterator {
+		final List<Double> values = new ArrayList<Double>();
+
+		@Override
+		public void newValue(WDataSeries series, double x, double y, double stackY, int xRow, int xColumn, int yRow,
+				int yColumn) {
+			values.add(stackY);
+			values.add(y);
+		}
+
+		double[] get() {
+			double[] result = new double[values.size()];
+			for (int i = 0; i < result.length; ++i)
+				result[i] = values.get(i);
+			return result;
+		}
+	}
+
+	/*
+	 * Renders the chart as the application does, through WPaintedWidget.
+	 */
+	private static class RenderedChart extends WCartesianChart {
+		String create() {
+			StringBuilder out = new StringBuilder();
+			createDomElement(WApplication.getInstance()).asJavaScript(out);
+			return out.toString();
+		}
+
+		String changes() {
+			List<DomElement> changes = new ArrayList<DomElement>();
+			getDomChanges(changes, WApplication.getInstance());
+			EscapeOStream out = new EscapeOStream();
+			for (DomElement change : changes)
+				change.asJavaScript(out, DomElement.Priority.Update);
+			return out.toString();
+		}
+	}
+
+	private static WCartesianChart createChart(double[][] data, boolean stacked) {
+		WStandardItemModel model = new WStandardItemModel(data.length, 3);
+		for (int row = 0; row < data.length; ++row)
+			for (int column = 0; column < 3; ++column)
+				model.setData(row, column, data[row][column]);
+
+		WCartesianChart chart = new WCartesianChart();
+		chart.setModel(model);
+		chart.setXSeriesColumn(0);
+		for (int column = 1; column < 3; ++column) {
+			WDataSeries series = new WDataSeries(column, SeriesType.Line);
+			series.setStacked(stacked);
+			chart.addSeries(series);
+		}
+		chart.getAxis(Axis.X).setRange(0, 2);
+		chart.getAxis(Axis.Y).setRange(0, 10);
+		return chart;
+	}
+
+	private static String render(WCartesianChart chart) {
+		WSvgImage image = new WSvgImage(new WLength(400), new WLength(300));
+		WPainter painter = new WPainter(image);
+		chart.paint(painter, null);
+		painter.end();
+		return image.getRendered();
+	}
+
+	/*
+	 * The lines that are drawn, in any order.
+	 */
+	private static List<String> lines(String svg) {
+		List<String> result = new ArrayList<String>();
+		for (int i = svg.indexOf("<path d=\""); i != -1; i = svg.indexOf("<path d=\"", i + 1)) {
+			int end = svg.indexOf('>', i);
+			if (svg.charAt(end - 1) == '/' && svg.charAt(end - 2) == ' ')
+				result.add(svg.substring(i, end + 1));
+		}
+		Collections.sort(result);
+		return result;
+	}
+
+	private static final double[][] DATA = { { 0, 1, 2 }, { 1, 3, 1 }, { 2, 2, 4 } };
+
+	/*
+	 * The second series of DATA, stacked on top of the first one.
+	 */
+	private static final double[][] STACKED_DATA = { { 0, 1, 3 }, { 1, 3, 4 }, { 2, 2, 6 } };
+
+	@Test
+	public void testStackedValues() {
+		new WApplication(new WTestEnvironment(new Configuration()));
+		WCartesianChart chart = createChart(DATA, true);
+
+		for (int pass = 0; pass < 2; ++pass) {
+			StackRecorder recorder = new StackRecorder();
+			chart.iterateSeries(recorder, null);
+			// (stackY, y) per row, first series then second series stacked on top
+			assertArrayEquals(new double[] { 0, 1, 0, 3, 0, 2, 1, 3, 3, 4, 2, 6 }, recorder.get(), 1E-9);
+		}
+	}
+
+	@Test
+	public void testStackedRendering() {
+		new WApplication(new WTestEnvironment(new Configuration()));
+		WCartesianChart chart = createChart(DATA, true);
+		WCartesianChart expected = createChart(STACKED_DATA, false);
+
+		List<String> rendered = lines(render(expected));
+		// the second series at 3, 4 and 6
+		assertTrue(rendered.contains("<path d=\"M45.0,199.5L200.0,176.0L355.0,129.0\" />"));
+		assertEquals(rendered, lines(render(chart)));
+		// the second paint reuses the buffers of the first one
+		assertEquals(rendered, lines(render(chart)));
+
+		((WStandardItemModel) chart.getItemModel()).removeRows(0, 2);
+		((WStandardItemModel) expected.getItemModel()).removeRows(0, 2);
+		assertEquals(lines(render(expected)), lines(render(chart)));
+
+		((WStandardItemModel) chart.getItemModel()).insertRows(0, 2);
+		((WStandardItemModel) expected.getItemModel()).insertRows(0, 2);
+		for (int row = 0; row < 2; ++row)
+			for (int column = 0; column < 3; ++column) {
+				chart.getItemModel().setData(row, column, DATA[row][column]);
+				expected.getItemModel().setData(row, column, STACKED_DATA[row][column]);
+			}
+		assertEquals(rendered, lines(render(chart)));
+	}
+
+	@Test
+	public void testColumnarModel() {
+		new WApplication(new WTestEnvironment(new Configuration()));
+		WCartesianChart expected = createChart(DATA, false);
+		expected.setType(ChartType.Scatter);
+
+		WColumnarChartModel model = new WColumnarChartModel("x", "a", "b");
+		for (double[] row : DATA)
+			model.appendRow(row);
+		WCartesianChart chart = createChart(DATA, false);
+		chart.setType(ChartType.Scatter);
+		chart.setModel(model);
+		chart.setXSeriesColumn(0);
+		for (int column = 1; column < 3; ++column)
+			chart.addSeries(new WDataSeries(column, SeriesType.Line));
+
+		assertEquals(lines(render(expected)), lines(render(chart)));
+	}
+
+	@Test
+	public void testAppendPaintsNewSegmentOnly() {
+		new WApplication(new WTestEnvironment(new Configuration()));
+
+		WColumnarChartModel model = new WColumnarChartModel("x", "y");
+		model.appendRow(0, 1);
+		model.appendRow(1, 2);
+
+		RenderedChart chart = new RenderedChart();
+		chart.resize(400, 300);
+		chart.setModel(model);
+		chart.setXSeriesColumn(0);
+		chart.addSeries(new WDataSeries(1, SeriesType.Line));
+		chart.getAxis(Axis.X).setRange(0, 10);
+		chart.getAxis(Axis.Y).setRange(0, 10);
+		chart.setIncrementalRenderingEnabled(true);
+
+		String full = chart.create();
+		assertTrue(full.contains("clearRect"));
+		assertTrue(full.contains("[[45.0,246.5,0],[76.0,223.0,1]]"));
+
+		model.appendRow(2, 3);
+		String appended = chart.changes();
+		assertFalse(appended.contains("clearRect"));
+		// only the segment from the last painted row to the new row
+		assertTrue(appended.contains("[[76.0,223.0,0],[107.0,199.5,1]]"));
+		assertEquals(1, count(appended, "drawPath("));
+
+		chart.getAxis(Axis.X).setRange(1, 11);
+		String scrolled = chart.changes();
+		assertTrue(scrolled.contains("clearRect"));
+		assertTrue(scrolled.contains("[[14.0,246.5,0],[45.0,223.0,1],[76.0,199.5,1]]"));
+	}
+
+	@Test
+	public void testAppendScrollsInteractiveChart() {
+		new WApplication(new WTestEnvironment(new Configuration()));
+
+		WColumnarChartModel model = new WColumnarChartModel("x", "y");
+		for (int x = 0; x < 10; ++x)
+			model.appendRow(x, x % 3);
+
+		RenderedChart chart = new RenderedChart();
+		chart.resize(400, 300);
+		chart.setModel(model);
+		chart.setXSeriesColumn(0);
+		chart.addSeries(new WDataSeries(1, SeriesType.Line));
+		chart.getAxis(Axis.X).setRange(0, 20);
+		chart.getAxis(Axis.X).setZoomRange(0, 9.5);
+		chart.getAxis(Axis.Y).setRange(0, 10);
+		chart.setPanEnabled(true);
+		chart.setIncrementalRenderingEnabled(true);
+
+		String full = chart.create();
+		assertTrue(full.contains("clearRect"));
+		double window = chart.getAxis(Axis.X).getZoomMaximum() - chart.getAxis(Axis.X).getZoomMinimum();
+
+		model.appendRow(10, 1);
+		// the chart asks the browser to redraw after its own update
+		String appended = chart.changes() + chart.changes();
+		assertFalse(appended.contains("clearRect"));
+		assertEquals(0, count(appended, "drawPath("));
+		// the new segment is added to the curve in the browser, which is not sent again
+		assertTrue(appended.contains(".push([184.5,270.0,0],[200.0,246.5,1]);"));
+		assertFalse(appended.contains(",[["));
+		assertTrue(appended.contains(".updateConfig({});"));
+		// and the window is scrolled by changing the transform of the X axis
+		assertEquals(10, chart.getAxis(Axis.X).getZoomMaximum(), 1E-9);
+		assertEquals(window,
+				chart.getAxis(Axis.X).getZoomMaximum() - chart.getAxis(Axis.X).getZoomMinimum(), 1E-9);
+		assertFalse(xTransform(appended).equals(xTransform(full)));
+
+		// the window does not follow when the last row is not shown
+		chart.getAxis(Axis.X).setZoomRange(0, 5);
+		chart.changes();
+		model.appendRow(11, 2);
+		appended = chart.changes() + chart.changes();
+		assertTrue(appended.contains(".push("));
+		assertEquals(5, chart.getAxis(Axis.X).getZoomMaximum(), 1E-9);
+	}
+
+	private static String xTransform(String js) {
+		int start = js.indexOf(".setJsValue(0,");
+		return js.substring(start, js.indexOf(']', start));
+	}
+
+	private static int count(String s, String part) {
+		int result = 0;
+		for (int i = s.indexOf(part); i != -1; i = s.indexOf(part, i + 1))
+			++result;
+		return result;
+	}
+}
@@ -0,0 +1,70 @@
+package eu.webtoolkit.jwt.chart;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class WColumnarChartModelTest {
+	@Test
+	public void testAppend() {
+		WColumnarChartModel model = new WColumnarChartModel("t", "v");
+		final int[] changes = { 0 };
+		model.changed().addListener(null, () -> ++changes[0]);
+
+		for (int i = 0; i < 20; ++i)
+			model.appendRow(i, i * 2);
+		model.appendRows(new double[][] { { 20, 21 }, { 40, 42 } }, 2);
+
+		assertEquals(22, model.getRowCount());
+		assertEquals(2, model.getColumnCount());
+		assertEquals("v", model.getHeaderData(1).toString());
+		assertEquals(42.0, model.getData(21, 1), 0);
+		assertEquals(21, changes[0]);
+
+		double[] values = new double[4];
+		model.getColumnData(1, 18, 3, values, 1);
+		assertArrayEquals(new double[] { 0, 36, 38, 40 }, values, 0);
+	}
+
+	@Test
+	public void testBuffers() {
+		DoubleBuffer column = DoubleBuffer.wrap(new double[] { -1, 1, 2, 3 });
+		column.position(1);
+		WColumnarChartModel model = new WColumnarChartModel(Arrays.asList("v"), Arrays.asList(column));
+
+		assertEquals(3, model.getRowCount());
+		assertEquals(1.0, model.getData(0, 0), 0);
+
+		double[] values = new double[2];
+		model.getColumnData(0, 1, 2, values, 0);
+		assertArrayEquals(new double[] { 2, 3 }, values, 0);
+	}
+
+	@Test
+	public void testColumnBuffer() {
+		WColumnarChartModel model = new WColumnarChartModel("t", "v");
+		for (int i = 0; i < 20; ++i)
+			model.appendRow(i, i * 2);
+
+		DoubleBuffer values = model.getColumnBuffer(1);
+		assertTrue(values.isReadOnly());
+		assertEquals(0, values.position());
+		assertEquals(20, values.limit());
+		assertEquals(38.0, values.get(19), 0);
+
+		DoubleBuffer column = DoubleBuffer.wrap(new double[] { -1, 1, 2, 3 });
+		column.position(1);
+		model = new WColumnarChartModel(Arrays.asList("v"), Arrays.asList(column));
+		values = model.getColumnBuffer(0);
+		assertEquals(3, values.remaining());
+		assertEquals(1.0, values.get(0), 0);
+		// a view on the data, not a copy
+		column.put(3, 4);
+		assertEquals(4.0, values.get(2), 0);
+	}
+}
@@ -0,0 +1,54 @@
+package eu.webtoolkit.jwt.render;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class RuleIndexTest {
+	private static int[] bruteForceMatches(StyleSheet styleSheet, Block block) {
+		List<Integer> matches = new ArrayList<Integer>();
+		for (int i = 0; i < styleSheet.getRulesetSize(); ++i)
+			if (Match.isMatch(block, styleSheet.rulesetAt(i).getSelector()).isValid())
+				matches.add(i);
+		int[] result = new int[matches.size()];
+		for (int i = 0; i < result.length; ++i)
+			result[i] = matches.get(i);
+		return result;
+	}
+
+	private static int check(StyleSheet styleSheet, RuleIndex index, Block block) {
+		int count = 0;
+		if (block.getType() != eu.webtoolkit.jwt.DomElementType.UNKNOWN) {
+			assertArrayEquals(bruteForceMatches(styleSheet, block), index.getMatches(block));
+			++count;
+		}
+		for (Block child : block.getChildren())
+			count += check(styleSheet, index, child);
+		return count;
+	}
+
+	@Test
+	public void testMatches() {
+		StyleSheet styleSheet = new CssParser().parse(
+				"* { margin: 0 } div { color: red } .a { color: blue } div.a.b { color: green }"
+				+ " #x { color: black } p span { color: gray } table .c td { color: white }"
+				+ " span#x.a { color: pink } .b { color: yellow }");
+		Block doc = new Block(RenderUtils.parseXHTML("<div><div class=\"a b\"><p><span id=\"x\" class=\"a\">x</span>"
+				+ "<span class=\"b a b\">y</span></p></div><table class=\"c\"><tr><td>1</td><td class=\"a\">2</td>"
+				+ "</tr></table></div>"), null);
+
+		RuleIndex index = new RuleIndex(styleSheet);
+		assertEquals(10, check(styleSheet, index, doc));
+	}
+
+	@Test
+	public void testParseCache() {
+		String css = "h1 { color: green }";
+		assertSame(new CssParser().parse(css), new CssParser().parse(css));
+	}
+}
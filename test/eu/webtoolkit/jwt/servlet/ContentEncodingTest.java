@@ -0,0 +1,30 @@
+package eu.webtoolkit.jwt.servlet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class ContentEncodingTest {
+	private static final List<ContentEncoding> ENCODINGS = Arrays.asList(ContentEncoding.GZIP, ContentEncoding.DEFLATE);
+
+	@Test
+	public void testNegotiate() {
+		assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("gzip, deflate, br", ENCODINGS));
+		assertEquals(ContentEncoding.DEFLATE, ContentEncoding.negotiate("deflate", ENCODINGS));
+		assertEquals(ContentEncoding.DEFLATE, ContentEncoding.negotiate("GZIP;q=0, deflate;q=0.5", ENCODINGS));
+		assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("*", ENCODINGS));
+		assertEquals(ContentEncoding.DEFLATE, ContentEncoding.negotiate("*, gzip;q=0", ENCODINGS));
+	}
+
+	@Test
+	public void testNotAccepted() {
+		assertNull(ContentEncoding.negotiate(null, ENCODINGS));
+		assertNull(ContentEncoding.negotiate("identity", ENCODINGS));
+		assertNull(ContentEncoding.negotiate("br", ENCODINGS));
+		assertNull(ContentEncoding.negotiate("gzip", Arrays.<ContentEncoding>asList()));
+	}
+}
@@ -0,0 +1,218 @@
+package eu.webtoolkit.jwt.servlet;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.Test;
+
+import eu.webtoolkit.jwt.Configuration;
+
+public class WebRequestTest {
+	private static HttpServletRequest multipartRequest(final byte[] body, final String boundary) {
+		return multipartRequest(body, boundary, body.length);
+	}
+
+	/*
+	 * The input stream fails with an IOException after failAfter bytes.
+	 */
+	private static HttpServletRequest multipartRequest(final byte[] body, final String boundary, final int failAfter) {
+		final ByteArrayInputStream in = new ByteArrayInputStream(body, 0, failAfter);
+		final ServletInputStream stream = new ServletInputStream() {
+			public int read() throws IOException {
+				int result = in.read();
+				if (result == -1 && failAfter < body.length)
+					throw new IOException("Connection reset");
+				return result;
+			}
+
+			public int read(byte[] b, int off, int len) throws IOException {
+				int result = in.read(b, off, len);
+				if (result == -1 && failAfter < body.length)
+					throw new IOException("Connection reset");
+				return result;
+			}
+
+			public boolean isFinished() {
+				return in.available() == 0;
+			}
+
+			public boolean isReady() {
+				return true;
+			}
+
+			public void setReadListener(ReadListener listener) {
+			}
+		};
+
+		return (HttpServletRequest) Proxy.newProxyInstance(WebRequestTest.class.getClassLoader(),
+				new Class<?>[] { HttpServletRequest.class }, new InvocationHandler() {
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						switch (method.getName()) {
+						case "getMethod":
+							return "POST";
+						case "getContentType":
+							return "multipart/form-data; boundary=" + boundary;
+						case "getContentLength":
+							return body.length;
+						case "getContentLengthLong":
+							return (long) body.length;
+						case "getInputStream":
+							return stream;
+						case "getServletPath":
+						case "getContextPath":
+						case "getRequestURI":
+							return "";
+						case "getParameterMap":
+							return new HashMap<String, String[]>();
+						default:
+							return null;
+						}
+					}
+				});
+	}
+
+	private static final String BOUNDARY = "----boundary";
+
+	private static byte[] fileBody(String contents) {
+		return ("--" + BOUNDARY + "\r\n"
+				+ "Content-Disposition: form-data; name=\"file\"; filename=\"data.txt\"\r\n\r\n"
+				+ contents + "\r\n"
+				+ "--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void testSpoolFiles() throws Exception {
+		Configuration configuration = new Configuration();
+		WebRequest request = new WebRequest(multipartRequest(fileBody("0123456789"), BOUNDARY), null, configuration);
+		File spoolFile = new File(request.getUploadedFiles().get("file").get(0).getSpoolFileName());
+		assertEquals(10, request.getSpoolFiles().getSize());
+
+		SpoolFiles session = new SpoolFiles(15);
+		assertTrue(session.adopt(request.getSpoolFiles()));
+		assertEquals(0, request.getSpoolFiles().getSize());
+		assertEquals(10, session.getSize());
+
+		WebRequest other = new WebRequest(multipartRequest(fileBody("0123456789"), BOUNDARY), null, configuration);
+		File otherSpoolFile = new File(other.getUploadedFiles().get("file").get(0).getSpoolFileName());
+		assertFalse(session.adopt(other.getSpoolFiles()));
+		assertFalse(otherSpoolFile.exists());
+
+		session.deleteAll();
+		assertFalse(spoolFile.exists());
+		assertEquals(0, session.getSize());
+
+		WebRequest stolen = new WebRequest(multipartRequest(fileBody("0123456789"), BOUNDARY), null, configuration);
+		UploadedFile file = stolen.getUploadedFiles().get("file").get(0);
+		file.stealSpoolFile();
+		stolen.getSpoolFiles().deleteAll();
+		File stolenFile = new File(file.getSpoolFileName());
+		assertTrue(stolenFile.exists());
+		stolenFile.delete();
+	}
+
+	@Test
+	public void testSpoolQuota() throws Exception {
+		Configuration configuration = new Configuration();
+		configuration.setMaxSpoolSize(SpoolFiles.getTotalSize() + 5);
+		WebRequest request = new WebRequest(multipartRequest(fileBody("0123456789"), BOUNDARY), null, configuration);
+		assertTrue(request.getUploadedFiles().isEmpty());
+		assertEquals(0, request.getSpoolFiles().getSize());
+	}
+
+	@Test
+	public void testSpoolQuotaCountsUploadsInProgress() throws Exception {
+		// Sizes are large compared to spool files of other tests that the Cleaner may release meanwhile
+		char[] contents = new char[1000];
+		Arrays.fill(contents, 'x');
+		byte[] body = fileBody(new String(contents));
+
+		Configuration configuration = new Configuration();
+		long maxSize = SpoolFiles.getTotalSize() + 1500;
+		configuration.setMaxSpoolSize(maxSize);
+		assertTrue(SpoolFiles.reserve(1000, maxSize));
+		try {
+			WebRequest request = new WebRequest(multipartRequest(body, BOUNDARY), null, configuration);
+			assertTrue(request.getUploadedFiles().isEmpty());
+		} finally {
+			SpoolFiles.unreserve(1000);
+		}
+
+		WebRequest request = new WebRequest(multipartRequest(body, BOUNDARY), null, configuration);
+		assertEquals(1, request.getUploadedFiles().get("file").size());
+		assertEquals(1000, request.getSpoolFiles().getSize());
+		request.getSpoolFiles().deleteAll();
+	}
+
+	@Test
+	public void testDeleteSpoolFilesOnIOException() throws Exception {
+		File directory = Files.createTempDirectory("jwt").toFile();
+		try {
+			Configuration configuration = new Configuration();
+			configuration.setUploadSpoolDirectory(directory);
+			String second = "--" + BOUNDARY + "\r\n"
+					+ "Content-Disposition: form-data; name=\"other\"; filename=\"other.txt\"\r\n\r\n"
+					+ "abcdefghij";
+			byte[] first = fileBody("0123456789");
+			String body = new String(first, 0, first.length - (BOUNDARY.length() + 6), StandardCharsets.UTF_8)
+					+ "\r\n" + second + "\r\n--" + BOUNDARY + "--\r\n";
+			byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+			WebRequest request = new WebRequest(multipartRequest(bytes, BOUNDARY, body.indexOf("abcdefghij") + 5),
+					null, configuration);
+			assertEquals(0, request.getSpoolFiles().getSize());
+			assertEquals(0, directory.list().length);
+		} finally {
+			for (File f : directory.listFiles())
+				f.delete();
+			directory.delete();
+		}
+	}
+
+	@Test
+	public void testMultipart() throws Exception {
+		String boundary = "----boundary";
+		String body = "--" + boundary + "\r\n"
+				+ "Content-Disposition: form-data; name=\"a\"\r\n\r\n"
+				+ "value\r\n"
+				+ "--" + boundary + "\r\n"
+				+ "Content-Disposition: form-data; name=\"file\"; filename=\"data.txt\"\r\n"
+				+ "Content-Type: text/plain\r\n\r\n"
+				+ "file contents\r\n"
+				+ "--" + boundary + "--\r\n";
+
+		Configuration configuration = new Configuration();
+		WebRequest request = new WebRequest(multipartRequest(body.getBytes(StandardCharsets.UTF_8), boundary),
+				null, configuration);
+
+		assertArrayEquals(new String[] { "value" }, request.getParameterValues("a"));
+
+		List<UploadedFile> files = request.getUploadedFiles().get("file");
+		assertEquals(1, files.size());
+		UploadedFile file = files.get(0);
+		assertEquals("data.txt", file.getClientFileName());
+		assertEquals("text/plain", file.getContentType());
+		File spoolFile = new File(file.getSpoolFileName());
+		assertEquals("file contents", new String(Files.readAllBytes(spoolFile.toPath()), StandardCharsets.UTF_8));
+		spoolFile.delete();
+
+		assertEquals(1, configuration.getUploadedFileCount());
+		assertEquals(13, configuration.getUploadedBytes());
+	}
+}
@@ -0,0 +1,201 @@
+package eu.webtoolkit.jwt.servlet;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Test;
+
+import eu.webtoolkit.jwt.Configuration;
+
+public class WebResponseTest {
+	private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+	private final Map<String, String> headers = new HashMap<String, String>();
+	private String contentType;
+
+	private static Object defaultValue(Class<?> type) {
+		if (type == boolean.class)
+			return false;
+		else if (type == int.class)
+			return 0;
+		else if (type == long.class)
+			return 0L;
+		else
+			return null;
+	}
+
+	private HttpServletRequest request(final String acceptEncoding) {
+		return (HttpServletRequest) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { HttpServletRequest.class }, new InvocationHandler() {
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						if (method.getName().equals("getHeader") && "Accept-Encoding".equals(args[0]))
+							return acceptEncoding;
+						return defaultValue(method.getReturnType());
+					}
+				});
+	}
+
+	private HttpServletResponse response() {
+		final ServletOutputStream stream = new ServletOutputStream() {
+			public void write(int b) {
+				body.write(b);
+			}
+
+			public boolean isReady() {
+				return true;
+			}
+
+			public void setWriteListener(WriteListener writeListener) {
+			}
+		};
+
+		return (HttpServletResponse) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { HttpServletResponse.class }, new InvocationHandler() {
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						switch (method.getName()) {
+						case "getOutputStream":
+							return stream;
+						case "getStatus":
+							return HttpServletResponse.SC_OK;
+						case "setContentType":
+							contentType = (String) args[0];
+							return null;
+						case "getContentType":
+							return contentType;
+						case "setHeader":
+						case "addHeader":
+							headers.put((String) args[0], (String) args[1]);
+							return null;
+						case "setIntHeader":
+							headers.put((String) args[0], String.valueOf(args[1]));
+							return null;
+						case "containsHeader":
+							return headers.containsKey(args[0]);
+						default:
+							return defaultValue(method.getReturnType());
+						}
+					}
+				});
+	}
+
+	private WebResponse webResponse(String acceptEncoding) {
+		Configuration configuration = new Configuration();
+		configuration.setResponseEncodings(Arrays.asList(ContentEncoding.GZIP, ContentEncoding.DEFLATE));
+		configuration.setCompressionThreshold(100);
+		return new WebResponse(response(), request(acceptEncoding), configuration);
+	}
+
+	private static byte[] data(int size) {
+		byte[] result = new byte[size];
+		for (int i = 0; i < size; ++i)
+			result[i] = (byte) ('a' + i % 7);
+		return result;
+	}
+
+	private static byte[] readAll(InputStream in) throws IOException {
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		byte[] buffer = new byte[256];
+		for (int n = in.read(buffer); n != -1; n = in.read(buffer))
+			result.write(buffer, 0, n);
+		return result.toByteArray();
+	}
+
+	@Test
+	public void testBelowThreshold() throws IOException {
+		WebResponse response = webResponse("gzip");
+		response.setContentType("text/html; charset=UTF-8");
+		response.getOutputStream().write(data(99));
+		response.flush();
+
+		assertNull(headers.get("Content-Encoding"));
+		assertArrayEquals(data(99), body.toByteArray());
+	}
+
+	@Test
+	public void testGzip() throws IOException {
+		WebResponse response = webResponse("gzip, deflate");
+		response.setContentType("text/html; charset=UTF-8");
+		response.getOutputStream().write(data(60));
+		response.getOutputStream().write(data(1000), 60, 940);
+		response.flush();
+
+		assertEquals("gzip", headers.get("Content-Encoding"));
+		assertEquals("Accept-Encoding", headers.get("Vary"));
+		assertArrayEquals(data(1000),
+				readAll(new GZIPInputStream(new ByteArrayInputStream(body.toByteArray()))));
+	}
+
+	@Test
+	public void testDeflateWriter() throws IOException {
+		WebResponse response = webResponse("deflate");
+		response.setContentType("application/javascript");
+		String text = new String(data(500), StandardCharsets.UTF_8);
+		response.out().append(text);
+		response.flush();
+
+		assertEquals("deflate", headers.get("Content-Encoding"));
+		assertEquals(text, new String(
+				readAll(new InflaterInputStream(new ByteArrayInputStream(body.toByteArray()))),
+				StandardCharsets.UTF_8));
+
+		try {
+			response.getOutputStream().write(data(1));
+			fail("Expected the response to be finished");
+		} catch (IOException e) {
+		}
+	}
+
+	@Test
+	public void testNotCompressible() throws IOException {
+		WebResponse response = webResponse("gzip");
+		response.setContentType("image/png");
+		response.getOutputStream().write(data(1000));
+		response.flush();
+
+		assertNull(headers.get("Content-Encoding"));
+		assertArrayEquals(data(1000), body.toByteArray());
+	}
+
+	@Test
+	public void testContentLength() throws IOException {
+		WebResponse response = webResponse("gzip");
+		response.setContentType("text/html");
+		response.setContentLength(1000);
+		response.getOutputStream().write(data(1000));
+		response.flush();
+
+		assertNull(headers.get("Content-Encoding"));
+		assertArrayEquals(data(1000), body.toByteArray());
+	}
+
+	@Test
+	public void testNotAccepted() throws IOException {
+		WebResponse response = webResponse("br");
+		response.setContentType("text/html");
+		response.getOutputStream().write(data(1000));
+		response.flush();
+
+		assertNull(headers.get("Content-Encoding"));
+		assertArrayEquals(data(1000), body.toByteArray());
+	}
+}